@@ -0,0 +1,10 @@
+#!/bin/bash
+# Executado na criação do banco do primário: cria o usuário de replicação e
+# permite as conexões de replicação da réplica de leitura.
+set -e
+
+psql -v ON_ERROR_STOP=1 --username "$POSTGRES_USER" --dbname "$POSTGRES_DB" <<-EOSQL
+	CREATE ROLE replicador WITH REPLICATION LOGIN PASSWORD 'senha_replicador';
+EOSQL
+
+echo "host replication replicador all md5" >> "$PGDATA/pg_hba.conf"
@@ -2,10 +2,12 @@ package com.lyncas.desafio.contasapagar;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Classe principal para inicialização da aplicação Contas a Pagar. Esta classe
- * contém o método main que inicia a aplicação Spring Boot.
+ * contém o método main que inicia a aplicação Spring Boot e habilita as tarefas
+ * agendadas, como a criação das partições de contas.
  * 
  * @version 1.0.0 data 20/09/2024
  * @since 1.0.0 data 20/09/2024
@@ -13,6 +15,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * @author juliano.ezequiel
  */
 @SpringBootApplication
+@EnableScheduling
 public class ContasapagarApplication {
 
 	/**
@@ -0,0 +1,47 @@
+package com.lyncas.desafio.contasapagar.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuração do executor das autenticações. A verificação do hash da senha
+ * consome CPU; o pool limitado em threads e em fila impede que uma rajada de
+ * autenticações ocupe os processadores e as threads do servidor utilizados
+ * pelas demais requisições.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@Configuration
+public class AutenticacaoConfig {
+
+	/**
+	 * Cria o executor das autenticações. Quando as threads e a fila estão
+	 * ocupadas, novas autenticações são recusadas imediatamente.
+	 *
+	 * @param workers    quantidade de autenticações verificadas simultaneamente;
+	 *                   zero utiliza metade dos processadores disponíveis
+	 * @param capacidade quantidade de autenticações aguardando na fila
+	 * @return o executor das autenticações
+	 */
+	@Bean(destroyMethod = "shutdown")
+	public AsyncTaskExecutor autenticacaoExecutor(@Value("${contas.autenticacao.workers:0}") int workers,
+			@Value("${contas.autenticacao.capacidade-fila:32}") int capacidade) {
+		int threads = workers > 0 ? workers : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix("autenticacao-");
+		executor.setCorePoolSize(threads);
+		executor.setMaxPoolSize(threads);
+		executor.setQueueCapacity(capacidade);
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+		executor.initialize();
+		return executor;
+	}
+}
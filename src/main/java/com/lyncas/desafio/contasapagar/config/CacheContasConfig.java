@@ -0,0 +1,103 @@
+package com.lyncas.desafio.contasapagar.config;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+
+import javax.cache.CacheManager;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.lyncas.desafio.contasapagar.model.Conta;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Configuração do cache de segundo nível do Hibernate, utilizado pela consulta
+ * de uma conta pelo identificador. O cache é mantido em memória pelo Caffeine,
+ * por meio da API JCache, com a quantidade máxima de contas e o tempo de
+ * permanência de cada conta configuráveis. Os acertos e faltas são contados
+ * pelo próprio Caffeine e registrados no Micrometer com {@code cache=contas},
+ * sem as estatísticas globais do Hibernate.
+ *
+ * <p>
+ * O cache é local a cada instância da aplicação: as contas alteradas são
+ * descartadas apenas do cache da instância que as alterou. Com mais de uma
+ * instância, as demais continuam servindo a versão anterior até a expiração,
+ * como uma conta alterada diretamente no banco de dados.
+ * </p>
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@Configuration
+public class CacheContasConfig {
+
+	/** Quantidade máxima de contas no cache */
+	@Value("${contas.cache.tamanho-maximo:10000}")
+	private long tamanhoMaximo;
+
+	/**
+	 * Tempo de permanência de uma conta no cache após a leitura, que limita a
+	 * permanência de uma conta alterada fora da aplicação
+	 */
+	@Value("${contas.cache.expiracao:10m}")
+	private Duration expiracao;
+
+	/**
+	 * Cria o gerenciador de caches JCache do Caffeine com a região das contas. O
+	 * gerenciador é exclusivo da aplicação, e não o gerenciador padrão registrado
+	 * em {@code Caching}, compartilhado por todo o class loader.
+	 *
+	 * @return o gerenciador de caches do Hibernate
+	 */
+	@Bean(destroyMethod = "close")
+	public CacheManager cacheContasManager() {
+		CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager();
+		CaffeineConfiguration<Object, Object> configuracao = new CaffeineConfiguration<>();
+		configuracao.setMaximumSize(OptionalLong.of(tamanhoMaximo));
+		configuracao.setExpireAfterWrite(OptionalLong.of(expiracao.toNanos()));
+		configuracao.setNativeStatisticsEnabled(true);
+		cacheManager.createCache(Conta.REGIAO_CACHE, configuracao);
+		return cacheManager;
+	}
+
+	/**
+	 * Registra as métricas da região das contas ({@code cache.gets} com
+	 * {@code result=hit} e {@code result=miss}, {@code cache.puts} e
+	 * {@code cache.evictions}), contadas pelo Caffeine nas leituras e gravações
+	 * do Hibernate.
+	 *
+	 * @param cacheContasManager o gerenciador de caches
+	 * @return o registro das métricas do cache
+	 */
+	@Bean
+	public MeterBinder cacheContasMetricas(CacheManager cacheContasManager) {
+		Cache<?, ?> contas = cacheContasManager.getCache(Conta.REGIAO_CACHE).unwrap(Cache.class);
+		return registry -> CaffeineCacheMetrics.monitor(registry, contas, Conta.REGIAO_CACHE);
+	}
+
+	/**
+	 * Informa ao Hibernate o gerenciador de caches, em vez de um gerenciador
+	 * criado pelo próprio Hibernate sem a configuração das regiões.
+	 *
+	 * @param cacheContasManager o gerenciador de caches
+	 * @return a personalização das propriedades do Hibernate
+	 */
+	@Bean
+	public HibernatePropertiesCustomizer cacheContasCustomizer(CacheManager cacheContasManager) {
+		return propriedades -> {
+			propriedades.put(ConfigSettings.CACHE_MANAGER, cacheContasManager);
+			propriedades.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+		};
+	}
+}
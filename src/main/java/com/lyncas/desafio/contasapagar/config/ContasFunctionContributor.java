@@ -0,0 +1,27 @@
+package com.lyncas.desafio.contasapagar.config;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registra no Hibernate as funções SQL criadas pelas migrações, para que
+ * possam ser utilizadas nas consultas JPQL com o tipo de retorno correto. É
+ * carregado pelo {@link java.util.ServiceLoader}, conforme
+ * {@code META-INF/services/org.hibernate.boot.model.FunctionContributor}.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+public class ContasFunctionContributor implements FunctionContributor {
+
+	@Override
+	public void contributeFunctions(FunctionContributions functionContributions) {
+		// Minúsculas e sem acentos, utilizada pelo índice de trigramas da descrição
+		functionContributions.getFunctionRegistry().registerNamed("contas_normalizar",
+				functionContributions.getTypeConfiguration().getBasicTypeRegistry()
+						.resolve(StandardBasicTypes.STRING));
+	}
+}
@@ -0,0 +1,51 @@
+package com.lyncas.desafio.contasapagar.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuração do executor das respostas gravadas em fluxo, como a exportação
+ * de contas e a listagem em NDJSON. As respostas são gravadas por um pool
+ * limitado em threads e em fila, liberando as threads do servidor durante a
+ * gravação. O executor e o tempo máximo de gravação são aplicados apenas a
+ * essas respostas, e não às demais requisições assíncronas.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@Configuration
+public class ExportacaoConfig {
+
+	/** Quantidade de exportações gravadas simultaneamente */
+	@Value("${contas.exportacao.workers:4}")
+	private int workers;
+
+	/** Quantidade de exportações aguardando na fila */
+	@Value("${contas.exportacao.capacidade-fila:8}")
+	private int capacidade;
+
+	/**
+	 * Cria o executor das exportações. Quando as threads e a fila estão ocupadas,
+	 * novas exportações são recusadas imediatamente.
+	 *
+	 * @return o executor das exportações
+	 */
+	@Bean(destroyMethod = "shutdown")
+	public AsyncTaskExecutor exportacaoExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix("exportacao-");
+		executor.setCorePoolSize(workers);
+		executor.setMaxPoolSize(workers);
+		executor.setQueueCapacity(capacidade);
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+		executor.initialize();
+		return executor;
+	}
+}
@@ -0,0 +1,78 @@
+package com.lyncas.desafio.contasapagar.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuração dos executores das importações de contas em segundo plano. Os
+ * pools são limitados em threads e em fila para que importações concorrentes
+ * não consumam os recursos das demais requisições.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@Configuration
+public class ImportacaoConfig {
+
+	/**
+	 * Cria o executor das importações. Quando as threads e a fila estão ocupadas,
+	 * novas importações são recusadas imediatamente.
+	 *
+	 * @param workers    quantidade de importações executadas simultaneamente
+	 * @param capacidade quantidade de importações aguardando na fila
+	 * @return o executor das importações
+	 */
+	@Bean(destroyMethod = "shutdown")
+	public AsyncTaskExecutor importacaoExecutor(@Value("${contas.importacao.workers:2}") int workers,
+			@Value("${contas.importacao.capacidade-fila:20}") int capacidade) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix("importacao-");
+		executor.setCorePoolSize(workers);
+		executor.setMaxPoolSize(workers);
+		executor.setQueueCapacity(capacidade);
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+		executor.initialize();
+		return executor;
+	}
+
+	/**
+	 * Cria o executor da etapa de leitura das importações: uma thread por
+	 * importação em execução, que separa o arquivo em lotes de registros.
+	 *
+	 * @param workers quantidade de importações executadas simultaneamente
+	 * @return o executor da etapa de leitura
+	 */
+	@Bean(destroyMethod = "shutdownNow")
+	public ExecutorService importacaoLeituraExecutor(@Value("${contas.importacao.workers:2}") int workers) {
+		AtomicInteger contador = new AtomicInteger();
+		return Executors.newFixedThreadPool(workers, tarefa -> {
+			Thread thread = new Thread(tarefa, "importacao-leitura-" + contador.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Cria o pool da etapa de conversão e validação das linhas, compartilhado
+	 * pelas importações em execução.
+	 *
+	 * @param paralelismo quantidade de threads de conversão; zero utiliza a
+	 *                    quantidade de processadores disponíveis
+	 * @return o pool da etapa de conversão
+	 */
+	@Bean(destroyMethod = "shutdownNow")
+	public ForkJoinPool importacaoConversaoPool(@Value("${contas.importacao.paralelismo:0}") int paralelismo) {
+		return new ForkJoinPool(paralelismo > 0 ? paralelismo : Runtime.getRuntime().availableProcessors());
+	}
+}
@@ -0,0 +1,126 @@
+package com.lyncas.desafio.contasapagar.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Configuração das réplicas de leitura, habilitada quando
+ * {@code contas.replicas.urls} é informado. As transações somente leitura,
+ * como as listagens e o total pago de {@code ContaService}, obtêm a conexão de
+ * uma réplica; as demais transações, as gravações e a importação utilizam o
+ * primário ({@code spring.datasource.*}).
+ *
+ * <p>
+ * A conexão é obtida apenas no primeiro comando da transação, quando já se sabe
+ * se ela é somente leitura. As leituras que precedem uma gravação, como a conta
+ * anterior de uma alteração, são declaradas nos repositórios com transação de
+ * gravação e permanecem no primário.
+ * </p>
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@Configuration
+@ConditionalOnProperty("contas.replicas.urls")
+public class ReplicasConfig implements DisposableBean {
+
+	/** URLs JDBC das réplicas, separadas por vírgula */
+	@Value("${contas.replicas.urls}")
+	private List<String> urls;
+
+	@Value("${contas.replicas.username:${spring.datasource.username}}")
+	private String username;
+
+	@Value("${contas.replicas.password:${spring.datasource.password}}")
+	private String password;
+
+	/** Quantidade máxima de conexões de cada réplica */
+	@Value("${contas.replicas.tamanho-pool:10}")
+	private int tamanhoPool;
+
+	/** Tempo de espera por uma conexão da réplica antes de recorrer ao primário */
+	@Value("${contas.replicas.tempo-limite-conexao:2s}")
+	private Duration tempoLimiteConexao;
+
+	/** Atraso de replicação máximo de uma réplica no rodízio */
+	@Value("${contas.replicas.atraso-maximo:10s}")
+	private Duration atrasoMaximo;
+
+	private final List<HikariDataSource> pools = new ArrayList<>();
+
+	private ReplicasDataSource replicas;
+
+	/**
+	 * Cria o pool de conexões do primário, como a configuração automática do
+	 * Spring Boot, incluindo as propriedades {@code spring.datasource.hikari.*}.
+	 *
+	 * @param propriedades as propriedades {@code spring.datasource.*}
+	 * @return o pool de conexões do primário
+	 */
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primarioDataSource(DataSourceProperties propriedades) {
+		return propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+	}
+
+	/**
+	 * Cria a fonte de dados da aplicação, que obtém as conexões das transações
+	 * somente leitura das réplicas e as demais do primário.
+	 *
+	 * @param primarioDataSource o pool de conexões do primário
+	 * @return a fonte de dados da aplicação
+	 */
+	@Bean
+	@Primary
+	public DataSource dataSource(HikariDataSource primarioDataSource) {
+		for (int i = 0; i < urls.size(); i++) {
+			HikariDataSource pool = new HikariDataSource();
+			pool.setPoolName("replica-" + (i + 1));
+			pool.setJdbcUrl(urls.get(i).trim());
+			pool.setUsername(username);
+			pool.setPassword(password);
+			pool.setMaximumPoolSize(tamanhoPool);
+			pool.setConnectionTimeout(tempoLimiteConexao.toMillis());
+			pool.setReadOnly(true);
+			pools.add(pool);
+		}
+		replicas = new ReplicasDataSource(primarioDataSource, new ArrayList<>(pools), atrasoMaximo);
+		LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primarioDataSource);
+		dataSource.setReadOnlyDataSource(replicas);
+		return dataSource;
+	}
+
+	/**
+	 * Verifica periodicamente a disponibilidade e o atraso das réplicas, a partir
+	 * da inicialização.
+	 */
+	@Scheduled(fixedDelayString = "${contas.replicas.intervalo-verificacao:5000}")
+	public void verificarReplicas() {
+		if (replicas != null) {
+			replicas.verificar();
+		}
+	}
+
+	@Override
+	public void destroy() {
+		pools.forEach(HikariDataSource::close);
+	}
+}
@@ -0,0 +1,175 @@
+package com.lyncas.desafio.contasapagar.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/**
+ * Fonte de dados das transações somente leitura, distribuídas entre as réplicas
+ * de leitura em rodízio. Uma réplica só recebe conexões depois de verificada:
+ * a verificação periódica a retira do rodízio quando não responde ou quando o
+ * seu atraso de replicação supera o atraso máximo, e a devolve quando volta a
+ * responder dentro do limite. Sem réplica disponível, as conexões são obtidas
+ * do primário.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+public class ReplicasDataSource extends AbstractDataSource {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReplicasDataSource.class);
+
+	/**
+	 * Consulta do atraso de replicação, em segundos. O atraso é zero quando todo
+	 * o WAL recebido já foi aplicado, pois o horário da última transação aplicada
+	 * envelhece enquanto o primário não recebe gravações, e também quando o
+	 * servidor não está em recuperação (uma réplica promovida ou um segundo
+	 * servidor independente, como nos testes locais).
+	 */
+	static final String ATRASO = "SELECT CASE WHEN NOT pg_is_in_recovery() "
+			+ "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+			+ "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+	private final DataSource primario;
+
+	private final List<Replica> replicas;
+
+	private final Duration atrasoMaximo;
+
+	private final AtomicInteger proxima = new AtomicInteger();
+
+	/**
+	 * Cria a fonte de dados com as réplicas inicialmente fora do rodízio, até a
+	 * primeira verificação.
+	 *
+	 * @param primario     a fonte de dados do primário, utilizada sem réplica
+	 *                     disponível
+	 * @param replicas     os pools de conexões das réplicas
+	 * @param atrasoMaximo o atraso de replicação máximo de uma réplica no rodízio
+	 */
+	public ReplicasDataSource(DataSource primario, List<DataSource> replicas, Duration atrasoMaximo) {
+		this.primario = primario;
+		this.replicas = IntStream.range(0, replicas.size()).mapToObj(i -> new Replica(replicas.get(i), i + 1))
+				.toList();
+		this.atrasoMaximo = atrasoMaximo;
+	}
+
+	/**
+	 * Obtém uma conexão da próxima réplica disponível no rodízio. Uma réplica que
+	 * falha ao fornecer a conexão é retirada do rodízio até a próxima
+	 * verificação, e a conexão é obtida da réplica seguinte ou do primário.
+	 *
+	 * @return a conexão de uma réplica ou, sem réplica disponível, do primário
+	 */
+	@Override
+	public Connection getConnection() throws SQLException {
+		return obterConexao(DataSource::getConnection);
+	}
+
+	/**
+	 * Obtém uma conexão com as credenciais informadas da próxima réplica
+	 * disponível no rodízio, como em {@link #getConnection()}.
+	 *
+	 * @param username o usuário do banco de dados
+	 * @param password a senha do usuário
+	 * @return a conexão de uma réplica ou, sem réplica disponível, do primário
+	 */
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return obterConexao(dataSource -> dataSource.getConnection(username, password));
+	}
+
+	private Connection obterConexao(Conexao conexao) throws SQLException {
+		int inicio = Math.floorMod(proxima.getAndIncrement(), replicas.size());
+		for (int i = 0; i < replicas.size(); i++) {
+			Replica replica = replicas.get((inicio + i) % replicas.size());
+			if (replica.disponivel) {
+				try {
+					return conexao.obter(replica.dataSource);
+				} catch (SQLException e) {
+					indisponibilizar(replica, "falha ao obter conexão: " + e.getMessage());
+				}
+			}
+		}
+		return conexao.obter(primario);
+	}
+
+	/**
+	 * Verifica o atraso de replicação de cada réplica, colocando no rodízio as
+	 * que respondem dentro do atraso máximo e retirando as demais.
+	 */
+	public void verificar() {
+		for (Replica replica : replicas) {
+			try (Connection conn = replica.dataSource.getConnection();
+					Statement statement = conn.createStatement()) {
+				statement.setQueryTimeout((int) Math.max(1, atrasoMaximo.toSeconds()));
+				try (ResultSet resultado = statement.executeQuery(ATRASO)) {
+					resultado.next();
+					Duration atraso = Duration.ofMillis(Math.round(resultado.getDouble(1) * 1000));
+					if (atraso.compareTo(atrasoMaximo) > 0) {
+						indisponibilizar(replica, "atraso de replicação de " + atraso.toMillis() + " ms");
+					} else if (!replica.disponivel) {
+						replica.disponivel = true;
+						replica.verificada = true;
+						LOGGER.info("Réplica {} no rodízio das leituras", replica.indice);
+					}
+				}
+			} catch (SQLException e) {
+				indisponibilizar(replica, e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Informa a quantidade de réplicas no rodízio.
+	 *
+	 * @return a quantidade de réplicas disponíveis
+	 */
+	public long getDisponiveis() {
+		return replicas.stream().filter(replica -> replica.disponivel).count();
+	}
+
+	private static void indisponibilizar(Replica replica, String motivo) {
+		if (replica.disponivel || !replica.verificada) {
+			replica.disponivel = false;
+			replica.verificada = true;
+			LOGGER.warn("Réplica {} fora do rodízio das leituras: {}", replica.indice, motivo);
+		}
+	}
+
+	@FunctionalInterface
+	private interface Conexao {
+
+		Connection obter(DataSource dataSource) throws SQLException;
+	}
+
+	private static final class Replica {
+
+		private final DataSource dataSource;
+
+		/** Posição da réplica na configuração, a partir de 1, para os registros */
+		private final int indice;
+
+		private volatile boolean disponivel;
+
+		private volatile boolean verificada;
+
+		private Replica(DataSource dataSource, int indice) {
+			this.dataSource = dataSource;
+			this.indice = indice;
+		}
+	}
+}
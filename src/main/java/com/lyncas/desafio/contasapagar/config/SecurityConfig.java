@@ -7,7 +7,7 @@ import org.springframework.security.config.annotation.authentication.builders.Au
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -16,6 +16,8 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import com.lyncas.desafio.contasapagar.filter.JwtRequestFilter;
 
+import jakarta.servlet.DispatcherType;
+
 /**
  * Configuração de segurança para a aplicação, utilizando o Spring Security.
  * Define autenticação, autorização e CORS (Cross-Origin Resource Sharing).
@@ -64,8 +66,11 @@ public class SecurityConfig {
 	 */
 	@Bean
 	public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
-		http.csrf().disable().authorizeHttpRequests(
-				authorize -> authorize.requestMatchers("/authenticate").permitAll().anyRequest().authenticated())
+		// O despacho assíncrono conclui uma requisição já autorizada, como as
+		// exportações gravadas em fluxo, e não traz o token JWT
+		http.csrf().disable()
+				.authorizeHttpRequests(authorize -> authorize.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+						.requestMatchers("/authenticate").permitAll().anyRequest().authenticated())
 				.addFilterBefore(jwtRequestFilter(), UsernamePasswordAuthenticationFilter.class);
 
 		return http.build();
@@ -100,13 +105,15 @@ public class SecurityConfig {
 	}
 
 	/**
-	 * Configura o codificador de senhas. OBS: NoOpPasswordEncoder não deve ser
-	 * utilizado em produção.
+	 * Configura o codificador de senhas. As senhas são codificadas com BCrypt, e o
+	 * prefixo gravado no hash (por exemplo {@code {bcrypt}}) identifica o
+	 * algoritmo na verificação, permitindo migrar para outro algoritmo sem
+	 * invalidar as senhas já cadastradas.
 	 *
 	 * @return uma instância de {@link PasswordEncoder}
 	 */
 	@Bean
 	public PasswordEncoder passwordEncoder() {
-		return NoOpPasswordEncoder.getInstance(); // Use um encoder mais seguro em produção
+		return PasswordEncoderFactories.createDelegatingPasswordEncoder();
 	}
 }
@@ -1,14 +1,23 @@
 package com.lyncas.desafio.contasapagar.controller;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.lyncas.desafio.contasapagar.dto.ApiResponse;
 import com.lyncas.desafio.contasapagar.dto.AuthenticationRequest;
 import com.lyncas.desafio.contasapagar.utils.JwtUtil;
 
@@ -33,16 +42,47 @@ public class AuthenticationController {
 	@Autowired
 	private UserDetailsService userDetailsService;
 
+	@Autowired
+	@Qualifier("autenticacaoExecutor")
+	private AsyncTaskExecutor autenticacaoExecutor;
+
 	/**
 	 * Autentica o usuário com base nas credenciais fornecidas e gera um token JWT
-	 * se a autenticação for bem-sucedida.
+	 * se a autenticação for bem-sucedida. A autenticação é executada pelo
+	 * executor das autenticações, liberando a thread do servidor enquanto o hash
+	 * da senha é verificado.
+	 *
+	 * @param authenticationRequest objeto contendo o nome de usuário e senha
+	 * @return o token JWT gerado, concluído com exceção se a autenticação falhar
+	 */
+	@PostMapping("/authenticate")
+	public CompletableFuture<String> createAuthenticationToken(
+			@RequestBody AuthenticationRequest authenticationRequest) {
+		return autenticacaoExecutor.submitCompletable(() -> autenticar(authenticationRequest));
+	}
+
+	/**
+	 * Trata a recusa de uma autenticação quando o executor das autenticações está
+	 * ocupado.
+	 *
+	 * @param e a exceção lançada pelo executor
+	 * @return a resposta com status 503
+	 */
+	@ExceptionHandler(RejectedExecutionException.class)
+	public ResponseEntity<ApiResponse> autenticacaoRecusada(RejectedExecutionException e) {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ApiResponse(
+				"Limite de autenticações simultâneas atingido, tente novamente mais tarde",
+				HttpStatus.SERVICE_UNAVAILABLE.value()));
+	}
+
+	/**
+	 * Verifica as credenciais e gera o token JWT.
 	 *
 	 * @param authenticationRequest objeto contendo o nome de usuário e senha
 	 * @return uma string com o token JWT gerado
 	 * @throws Exception se a autenticação falhar ou ocorrer algum erro
 	 */
-	@PostMapping("/authenticate")
-	public String createAuthenticationToken(@RequestBody AuthenticationRequest authenticationRequest) throws Exception {
+	private String autenticar(AuthenticationRequest authenticationRequest) throws Exception {
 		try {
 			// Autentica o usuário com o token de autenticação usando nome de usuário e
 			// senha
@@ -56,8 +96,9 @@ public class AuthenticationController {
 		// Carrega os detalhes do usuário autenticado
 		final UserDetails userDetails = userDetailsService.loadUserByUsername(authenticationRequest.getUsername());
 
-		// Gera o token JWT com base no nome de usuário
-		final String jwt = jwtUtil.generateToken(userDetails.getUsername());
+		// Gera o token JWT com o nome de usuário e as permissões, utilizadas pelas
+		// requisições seguintes sem consultar o cadastro de usuários
+		final String jwt = jwtUtil.generateToken(userDetails.getUsername(), userDetails.getAuthorities());
 
 		// Retorna o token JWT gerado
 		return jwt;
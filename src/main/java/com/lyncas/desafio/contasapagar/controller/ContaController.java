@@ -1,34 +1,69 @@
 package com.lyncas.desafio.contasapagar.controller;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.math.BigDecimal;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
+import com.lyncas.desafio.contasapagar.dto.AlteracaoSituacaoRequest;
+import com.lyncas.desafio.contasapagar.dto.AlteracaoSituacaoResponse;
 import com.lyncas.desafio.contasapagar.dto.ApiResponse;
+import com.lyncas.desafio.contasapagar.dto.CadastroLoteResponse;
+import com.lyncas.desafio.contasapagar.dto.ContaResponse;
+import com.lyncas.desafio.contasapagar.dto.PaginaCursor;
+import com.lyncas.desafio.contasapagar.dto.PaginaFatia;
 import com.lyncas.desafio.contasapagar.dto.ValorTotalPagoResponse;
+import com.lyncas.desafio.contasapagar.exception.ConflitoVersaoContaException;
+import com.lyncas.desafio.contasapagar.exception.ContaNaoEncontradaException;
 import com.lyncas.desafio.contasapagar.model.Conta;
+import com.lyncas.desafio.contasapagar.model.ImportacaoJob;
+import com.lyncas.desafio.contasapagar.model.ModoContagem;
+import com.lyncas.desafio.contasapagar.model.SituacaoConta;
+import com.lyncas.desafio.contasapagar.model.ModoImportacao;
 import com.lyncas.desafio.contasapagar.service.ContaService;
+import com.lyncas.desafio.contasapagar.service.ImportacaoJobService;
+import com.lyncas.desafio.contasapagar.service.IndicePagamentosService;
 
 /**
  * Controlador responsável pelas operações relacionadas às contas a pagar.
- * Permite o cadastro, atualização, alteração de situação, listagem, consulta de
- * total pago e importação de contas a partir de um arquivo CSV.
+ * Permite o cadastro, individual ou em lote, consulta pelo identificador,
+ * atualização, alteração de situação, listagem, consulta de total pago,
+ * exportação e importação de contas em arquivos CSV, com consulta e
+ * cancelamento das importações em andamento.
  *
  * @version 1.0.0 data 20/09/2024
  * @since 1.0.0 data 20/09/2024
@@ -39,9 +74,30 @@ import com.lyncas.desafio.contasapagar.service.ContaService;
 @RequestMapping("/contas")
 public class ContaController {
 
+	/**
+	 * Tamanho máximo da página na listagem por cursor, o mesmo limite aplicado
+	 * pelo Spring Data na paginação por número de página
+	 */
+	private static final int TAMANHO_MAXIMO_PAGINA = 2000;
+
 	@Autowired
 	private ContaService contaService;
 
+	@Autowired
+	private ImportacaoJobService importacaoJobService;
+
+	@Autowired
+	private IndicePagamentosService indicePagamentosService;
+
+	/** Executor das respostas gravadas em fluxo: exportação e listagem em NDJSON */
+	@Autowired
+	@Qualifier("exportacaoExecutor")
+	private AsyncTaskExecutor exportacaoExecutor;
+
+	/** Tempo máximo de gravação de uma resposta em fluxo */
+	@Value("${contas.exportacao.tempo-limite:30m}")
+	private Duration tempoLimiteExportacao;
+
 	/**
 	 * Endpoint para cadastrar uma nova conta.
 	 *
@@ -55,81 +111,578 @@ public class ContaController {
 	}
 
 	/**
-	 * Endpoint para atualizar uma conta existente.
+	 * Endpoint para cadastrar um lote de contas em uma única requisição e
+	 * transação. As contas inválidas são rejeitadas sem impedir o cadastro das
+	 * demais.
+	 *
+	 * @param contas as contas a serem cadastradas
+	 * @return a resposta contendo os identificadores gerados, na ordem das contas
+	 *         enviadas, e os erros das contas rejeitadas, ou 400 se o lote estiver
+	 *         vazio ou exceder o tamanho máximo
+	 */
+	@PostMapping("/lote")
+	public ResponseEntity<CadastroLoteResponse> cadastrarContas(@RequestBody List<Conta> contas) {
+		try {
+			return ResponseEntity.ok(contaService.criarContas(contas));
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Endpoint para obter uma conta pelo identificador, servida do cache de
+	 * segundo nível quando a conta já foi lida.
+	 *
+	 * @param id identificador da conta
+	 * @return a resposta contendo a conta, com a versão no cabeçalho {@code ETag},
+	 *         ou 404 se a conta não existir ou estiver arquivada
+	 */
+	@GetMapping("/{id}")
+	public ResponseEntity<Conta> obterConta(@PathVariable Long id) {
+		Conta conta = contaService.obterConta(id);
+		return ResponseEntity.ok().eTag(String.valueOf(conta.getVersao())).body(conta);
+	}
+
+	/**
+	 * Endpoint para atualizar uma conta existente. A versão lida pelo cliente é
+	 * informada no cabeçalho {@code If-Match} ou no campo {@code versao} da conta;
+	 * sem a versão, a conta é atualizada em qualquer versão.
 	 *
-	 * @param id    identificador da conta a ser atualizada
-	 * @param conta objeto Conta com os novos dados
-	 * @return a resposta contendo a conta atualizada
+	 * @param id      identificador da conta a ser atualizada
+	 * @param conta   objeto Conta com os novos dados
+	 * @param ifMatch a versão da conta lida pelo cliente, como ETag, ou null
+	 * @return a resposta contendo a conta atualizada, com a nova versão também no
+	 *         cabeçalho {@code ETag}
 	 */
 	@PutMapping("/{id}")
-	public ResponseEntity<Conta> atualizarConta(@PathVariable Long id, @RequestBody Conta conta) {
-		Conta contaAtualizada = contaService.atualizarConta(id, conta);
-		return ResponseEntity.ok(contaAtualizada);
+	public ResponseEntity<Conta> atualizarConta(@PathVariable Long id, @RequestBody Conta conta,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		Long versao = ifMatch != null ? versao(ifMatch) : conta.getVersao();
+		Conta contaAtualizada = contaService.atualizarConta(id, conta, versao);
+		return ResponseEntity.ok().eTag(String.valueOf(contaAtualizada.getVersao())).body(contaAtualizada);
 	}
 
 	/**
-	 * Endpoint para alterar a situação de uma conta.
+	 * Endpoint para alterar a situação de uma conta. A versão lida pelo cliente é
+	 * informada no cabeçalho {@code If-Match}; sem a versão, a situação é alterada
+	 * em qualquer versão.
 	 *
 	 * @param id       identificador da conta cuja situação será alterada
-	 * @param situacao nova situação da conta
-	 * @return uma resposta vazia indicando sucesso da operação
+	 * @param situacao nova situação da conta (por exemplo: "PAGA" ou "Atrasada")
+	 * @param ifMatch  a versão da conta lida pelo cliente, como ETag, ou null
+	 * @return uma resposta vazia indicando sucesso da operação, com a nova versão
+	 *         no cabeçalho {@code ETag}, ou 400 se a situação for inválida
 	 */
 	@PatchMapping("/{id}/situacao")
-	public ResponseEntity<Void> alterarSituacao(@PathVariable Long id, @RequestBody String situacao) {
-		contaService.alterarSituacao(id, situacao);
-		return ResponseEntity.noContent().build();
+	public ResponseEntity<Void> alterarSituacao(@PathVariable Long id, @RequestBody String situacao,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		SituacaoConta novaSituacao;
+		try {
+			novaSituacao = SituacaoConta.de(situacao);
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+		}
+		long versao = contaService.alterarSituacao(id, novaSituacao, ifMatch != null ? versao(ifMatch) : null);
+		return ResponseEntity.noContent().eTag(String.valueOf(versao)).build();
+	}
+
+	/**
+	 * Responde às alterações de contas inexistentes.
+	 *
+	 * @param e a exceção identificando a conta
+	 * @return a resposta com status 404 (Not Found)
+	 */
+	@ExceptionHandler(ContaNaoEncontradaException.class)
+	public ResponseEntity<ApiResponse> contaNaoEncontrada(ContaNaoEncontradaException e) {
+		return ResponseEntity.status(HttpStatus.NOT_FOUND)
+				.body(new ApiResponse(e.getMessage(), HttpStatus.NOT_FOUND.value()));
+	}
+
+	/**
+	 * Responde às alterações de contas que foram alteradas após a leitura da
+	 * versão informada.
+	 *
+	 * @param e a exceção identificando a conta e a versão
+	 * @return a resposta com status 409 (Conflict)
+	 */
+	@ExceptionHandler(ConflitoVersaoContaException.class)
+	public ResponseEntity<ApiResponse> conflitoVersao(ConflitoVersaoContaException e) {
+		return ResponseEntity.status(HttpStatus.CONFLICT)
+				.body(new ApiResponse(e.getMessage(), HttpStatus.CONFLICT.value()));
+	}
+
+	/**
+	 * Endpoint para alterar a situação de várias contas, indicadas pelos
+	 * identificadores ou pelo filtro de data de vencimento e situação atual.
+	 *
+	 * @param alteracao as contas, a nova situação e, opcionalmente, a data de
+	 *                  pagamento
+	 * @return a resposta contendo a quantidade de contas alteradas, ou 400 se a
+	 *         nova situação ou as contas não forem informadas
+	 */
+	@PatchMapping("/situacao")
+	public ResponseEntity<AlteracaoSituacaoResponse> alterarSituacaoEmLote(
+			@RequestBody AlteracaoSituacaoRequest alteracao) {
+		try {
+			return ResponseEntity.ok(new AlteracaoSituacaoResponse(contaService.alterarSituacaoEmLote(alteracao)));
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+		}
 	}
 
 	/**
 	 * Endpoint para listar as contas filtradas por data de vencimento e/ou
 	 * descrição.
 	 *
-	 * @param pageable             objeto de paginação para controlar os resultados
+	 * @param pageable             objeto de paginação para controlar os resultados;
+	 *                             sem tamanho informado, a página tem 20 contas e,
+	 *                             sem ordenação informada, as contas são ordenadas
+	 *                             por data de vencimento e identificador, a ordem
+	 *                             do índice {@code idx_contas_data_vencimento_id}
 	 * @param dataVencimentoInicio data inicial do filtro de vencimento
 	 * @param dataVencimentoFim    data final do filtro de vencimento
 	 * @param descricao            termo de busca para a descrição da conta
 	 * @return a resposta contendo a página de contas filtradas
 	 */
 	@GetMapping
-	public ResponseEntity<Page<Conta>> listarContas(Pageable pageable,
+	public ResponseEntity<Page<ContaResponse>> listarContas(
+			@PageableDefault(size = 20, sort = { "dataVencimento", "id" }) Pageable pageable,
 			@RequestParam(required = false) LocalDate dataVencimentoInicio,
 			@RequestParam(required = false) LocalDate dataVencimentoFim,
 			@RequestParam(required = false) String descricao) {
-		Page<Conta> contas = contaService.listarContas(pageable, dataVencimentoInicio, dataVencimentoFim, descricao);
+		Page<ContaResponse> contas = contaService.listarContas(pageable, dataVencimentoInicio, dataVencimentoFim,
+				descricao);
 		return ResponseEntity.ok(contas);
 	}
 
+	/**
+	 * Endpoint para listar as contas em NDJSON, selecionado pelo cabeçalho
+	 * {@code Accept: application/x-ndjson}, com os mesmos filtros e a mesma
+	 * paginação da listagem. Cada conta é gravada em uma linha à medida que é lida
+	 * do banco de dados, sem montar a página em memória, e o cliente pode
+	 * processar as primeiras contas antes do fim da página. A página é gravada
+	 * pelo executor das exportações, com o mesmo tempo máximo de gravação.
+	 *
+	 * @param pageable             objeto de paginação para controlar os resultados
+	 * @param dataVencimentoInicio data inicial do filtro de vencimento
+	 * @param dataVencimentoFim    data final do filtro de vencimento
+	 * @param descricao            termo de busca para a descrição da conta
+	 * @return a resposta com as contas da página, gravada após o retorno do método
+	 */
+	@GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<ResponseBodyEmitter> listarContasNdjson(
+			@PageableDefault(size = 20, sort = { "dataVencimento", "id" }) Pageable pageable,
+			@RequestParam(required = false) LocalDate dataVencimentoInicio,
+			@RequestParam(required = false) LocalDate dataVencimentoFim,
+			@RequestParam(required = false) String descricao) {
+		ResponseBodyEmitter corpo = gravarEmFluxo(MediaType.APPLICATION_NDJSON, saida -> contaService
+				.listarContasNdjson(saida, pageable, dataVencimentoInicio, dataVencimentoFim, descricao));
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(corpo);
+	}
+
+	/**
+	 * Endpoint para listar as contas por cursor, ordenadas por data de vencimento
+	 * e identificador. Selecionado pela presença do parâmetro {@code cursor}, sem o
+	 * parâmetro {@code contagem}: vazio na primeira página e, nas seguintes, o
+	 * {@code proximoCursor} da página anterior. Ao contrário da paginação por
+	 * número de página, o tempo de resposta não cresce com a profundidade da
+	 * página.
+	 *
+	 * @param cursor               cursor da página, vazio na primeira página
+	 * @param size                 quantidade de contas por página (1 a 2000)
+	 * @param dataVencimentoInicio data inicial do filtro de vencimento
+	 * @param dataVencimentoFim    data final do filtro de vencimento
+	 * @param descricao            termo de busca para a descrição da conta
+	 * @return a resposta contendo as contas e o cursor da página seguinte
+	 */
+	@GetMapping(params = { "cursor", "!contagem" })
+	public ResponseEntity<PaginaCursor<ContaResponse>> listarContasPorCursor(@RequestParam String cursor,
+			@RequestParam(defaultValue = "20") int size,
+			@RequestParam(required = false) LocalDate dataVencimentoInicio,
+			@RequestParam(required = false) LocalDate dataVencimentoFim,
+			@RequestParam(required = false) String descricao) {
+		if (size < 1 || size > TAMANHO_MAXIMO_PAGINA) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"O tamanho da página deve estar entre 1 e " + TAMANHO_MAXIMO_PAGINA);
+		}
+		try {
+			return ResponseEntity.ok(contaService.listarContasPorCursor(cursor, size, dataVencimentoInicio,
+					dataVencimentoFim, descricao));
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Endpoint para listar por cursor as contas em aberto (pendentes ou
+	 * atrasadas), ordenadas por data de vencimento e identificador. As contas são
+	 * lidas de um índice que contém apenas as contas em aberto.
+	 *
+	 * @param cursor               cursor da página, vazio ou ausente na primeira
+	 *                             página
+	 * @param size                 quantidade de contas por página (1 a 2000)
+	 * @param dataVencimentoInicio data inicial do filtro de vencimento
+	 * @param dataVencimentoFim    data final do filtro de vencimento
+	 * @return a resposta contendo as contas em aberto e o cursor da página
+	 *         seguinte
+	 */
+	@GetMapping("/abertas")
+	public ResponseEntity<PaginaCursor<ContaResponse>> listarContasAbertas(
+			@RequestParam(defaultValue = "") String cursor, @RequestParam(defaultValue = "20") int size,
+			@RequestParam(required = false) LocalDate dataVencimentoInicio,
+			@RequestParam(required = false) LocalDate dataVencimentoFim) {
+		if (size < 1 || size > TAMANHO_MAXIMO_PAGINA) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"O tamanho da página deve estar entre 1 e " + TAMANHO_MAXIMO_PAGINA);
+		}
+		try {
+			return ResponseEntity.ok(contaService.listarContasAbertas(cursor, size, dataVencimentoInicio,
+					dataVencimentoFim));
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Endpoint para listar as contas sem a contagem exata do total, selecionado
+	 * pela presença do parâmetro {@code contagem}, sem o parâmetro {@code cursor}.
+	 * A resposta indica se existe a página seguinte, sem a consulta de contagem
+	 * que acompanha cada página da listagem paginada; adequado à rolagem
+	 * contínua.
+	 *
+	 * @param pageable             objeto de paginação para controlar os resultados
+	 * @param contagem             modo de contagem: "nenhuma" (padrão) ou
+	 *                             "estimada", com o total estimado pelo banco de
+	 *                             dados
+	 * @param dataVencimentoInicio data inicial do filtro de vencimento
+	 * @param dataVencimentoFim    data final do filtro de vencimento
+	 * @param descricao            termo de busca para a descrição da conta
+	 * @return a resposta contendo a página de contas, sem o total exato
+	 */
+	@GetMapping(params = { "contagem", "!cursor" })
+	public ResponseEntity<PaginaFatia<ContaResponse>> listarContasSemContagem(
+			@PageableDefault(size = 20, sort = { "dataVencimento", "id" }) Pageable pageable,
+			@RequestParam String contagem,
+			@RequestParam(required = false) LocalDate dataVencimentoInicio,
+			@RequestParam(required = false) LocalDate dataVencimentoFim,
+			@RequestParam(required = false) String descricao) {
+		ModoContagem modoContagem;
+		try {
+			modoContagem = ModoContagem.of(contagem);
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Modo de contagem inválido: " + contagem);
+		}
+		return ResponseEntity.ok(contaService.listarContasSemContagem(pageable, dataVencimentoInicio,
+				dataVencimentoFim, descricao, modoContagem));
+	}
+
+	/**
+	 * Recusa a listagem com os parâmetros {@code cursor} e {@code contagem}, que
+	 * selecionam listagens diferentes: a página por cursor não traz contagem.
+	 *
+	 * @throws ResponseStatusException sempre, com a situação 400
+	 */
+	@GetMapping(params = { "cursor", "contagem" })
+	public void listarContasPorCursorComContagem() {
+		throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+				"Os parâmetros cursor e contagem não podem ser informados juntos");
+	}
+
+	/**
+	 * Endpoint para exportar em CSV as contas filtradas por data de vencimento
+	 * e/ou descrição, com os mesmos filtros da listagem. O arquivo é gravado em
+	 * fluxo à medida que as contas são lidas, no formato aceito por
+	 * {@code POST /contas/importar}, pelo executor das exportações e com o tempo
+	 * máximo de gravação {@code contas.exportacao.tempo-limite}.
+	 *
+	 * @param dataVencimentoInicio data inicial do filtro de vencimento
+	 * @param dataVencimentoFim    data final do filtro de vencimento
+	 * @param descricao            termo de busca para a descrição da conta
+	 * @return a resposta com o arquivo CSV, gravado após o retorno do método
+	 */
+	@GetMapping("/exportar")
+	public ResponseEntity<ResponseBodyEmitter> exportarContas(
+			@RequestParam(required = false) LocalDate dataVencimentoInicio,
+			@RequestParam(required = false) LocalDate dataVencimentoFim,
+			@RequestParam(required = false) String descricao) {
+		MediaType csv = new MediaType("text", "csv", StandardCharsets.UTF_8);
+		ResponseBodyEmitter corpo = gravarEmFluxo(csv,
+				saida -> contaService.exportarContas(saida, dataVencimentoInicio, dataVencimentoFim, descricao));
+		return ResponseEntity.ok().contentType(csv)
+				.header(HttpHeaders.CONTENT_DISPOSITION,
+						ContentDisposition.attachment().filename("contas.csv").build().toString())
+				.body(corpo);
+	}
+
+	/**
+	 * Inicia a gravação de uma resposta em fluxo no executor das exportações. O
+	 * tempo máximo de gravação é o da resposta, sem alterar o das demais
+	 * requisições assíncronas; após o tempo máximo, a gravação é interrompida no
+	 * próximo envio.
+	 *
+	 * @param tipo     o tipo do conteúdo gravado
+	 * @param gravacao grava o conteúdo da resposta
+	 * @return a resposta, gravada após o retorno do método
+	 * @throws RejectedExecutionException se o executor estiver com as threads e a
+	 *                                    fila ocupadas
+	 */
+	private ResponseBodyEmitter gravarEmFluxo(MediaType tipo, Gravacao gravacao) {
+		ResponseBodyEmitter emissor = new ResponseBodyEmitter(tempoLimiteExportacao.toMillis());
+		exportacaoExecutor.execute(() -> {
+			try (OutputStream saida = new SaidaEmissor(emissor, tipo)) {
+				gravacao.gravar(saida);
+			} catch (Throwable e) {
+				// Também um Error encerra a resposta, que de outra forma manteria a conexão
+				// e a thread do executor até o tempo máximo da gravação
+				emissor.completeWithError(e);
+				if (e instanceof Error erro) {
+					throw erro;
+				}
+				return;
+			}
+			emissor.complete();
+		});
+		return emissor;
+	}
+
+	/**
+	 * Responde às exportações recusadas quando o executor das exportações está com
+	 * as threads e a fila ocupadas.
+	 *
+	 * @param e a exceção da recusa
+	 * @return a resposta com status 503 (Service Unavailable)
+	 */
+	@ExceptionHandler(RejectedExecutionException.class)
+	public ResponseEntity<ApiResponse> exportacaoRecusada(RejectedExecutionException e) {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ApiResponse(
+				"Limite de exportações simultâneas atingido, tente novamente mais tarde",
+				HttpStatus.SERVICE_UNAVAILABLE.value()));
+	}
+
 	/**
 	 * Endpoint para obter o valor total pago em contas entre duas datas.
 	 *
 	 * @param dataInicio data inicial para a busca de contas pagas
 	 * @param dataFim    data final para a busca de contas pagas
-	 * @return a resposta contendo o valor total pago
+	 * @return a resposta contendo o valor total pago, a quantidade, o menor e o
+	 *         maior valor e o total por situação
 	 */
 	@GetMapping("/total-pago")
 	public ResponseEntity<ValorTotalPagoResponse> obterValorTotalPago(@RequestParam LocalDate dataInicio,
 			@RequestParam LocalDate dataFim) {
-		BigDecimal total = contaService.obterValorTotalPago(dataInicio, dataFim);
-		ValorTotalPagoResponse response = new ValorTotalPagoResponse(total);
+		ValorTotalPagoResponse response = contaService.obterValorTotalPago(dataInicio, dataFim);
 		return ResponseEntity.ok(response);
 	}
 
 	/**
-	 * Endpoint para importar contas a partir de um arquivo CSV.
+	 * Endpoint para verificar a consolidação diária dos pagamentos, utilizada pelo
+	 * total pago, contra a tabela de contas.
+	 *
+	 * @return 200 se a consolidação estiver consistente ou 409 com a quantidade de
+	 *         divergências
+	 */
+	@GetMapping("/total-pago/consolidacao")
+	public ResponseEntity<ApiResponse> verificarConsolidacao() {
+		long divergencias = contaService.verificarConsolidacao();
+		if (divergencias == 0) {
+			return ResponseEntity.ok(new ApiResponse("Consolidação consistente", HttpStatus.OK.value()));
+		}
+		return ResponseEntity.status(HttpStatus.CONFLICT).body(new ApiResponse(
+				"Consolidação divergente em " + divergencias + " dia(s)", HttpStatus.CONFLICT.value()));
+	}
+
+	/**
+	 * Endpoint para reconstruir a consolidação diária dos pagamentos a partir da
+	 * tabela de contas.
+	 *
+	 * @return a resposta com a quantidade de dias consolidados
+	 */
+	@PostMapping("/total-pago/consolidacao")
+	public ResponseEntity<ApiResponse> reconstruirConsolidacao() {
+		long dias = contaService.reconstruirConsolidacao();
+		return ResponseEntity
+				.ok(new ApiResponse("Consolidação reconstruída: " + dias + " dia(s)", HttpStatus.OK.value()));
+	}
+
+	/**
+	 * Endpoint para conferir o índice de pagamentos em memória com a agregação SQL
+	 * da tabela de contas.
+	 *
+	 * @return 200 se o índice estiver consistente, 409 se divergente ou 404 se o
+	 *         índice estiver desabilitado
+	 */
+	@GetMapping("/total-pago/indice")
+	public ResponseEntity<ApiResponse> verificarIndice() {
+		if (!indicePagamentosService.isPronto()) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND)
+					.body(new ApiResponse("Índice de pagamentos desabilitado", HttpStatus.NOT_FOUND.value()));
+		}
+		if (indicePagamentosService.verificar()) {
+			return ResponseEntity.ok(new ApiResponse("Índice consistente", HttpStatus.OK.value()));
+		}
+		return ResponseEntity.status(HttpStatus.CONFLICT)
+				.body(new ApiResponse("Índice divergente da tabela de contas", HttpStatus.CONFLICT.value()));
+	}
+
+	/**
+	 * Endpoint para recarregar o índice de pagamentos em memória.
+	 *
+	 * @return 200 após a recarga ou 404 se o índice estiver desabilitado
+	 */
+	@PostMapping("/total-pago/indice")
+	public ResponseEntity<ApiResponse> recarregarIndice() {
+		if (!indicePagamentosService.isHabilitado()) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND)
+					.body(new ApiResponse("Índice de pagamentos desabilitado", HttpStatus.NOT_FOUND.value()));
+		}
+		indicePagamentosService.recarregar();
+		return ResponseEntity.ok(new ApiResponse("Índice recarregado", HttpStatus.OK.value()));
+	}
+
+	/**
+	 * Endpoint para importar contas a partir de um arquivo CSV. A importação é
+	 * executada em segundo plano; a resposta traz o identificador da importação
+	 * para acompanhamento em {@code GET /contas/importar/{jobId}}.
 	 *
 	 * @param file arquivo CSV contendo as contas a serem importadas
-	 * @return uma mensagem de sucesso ou erro dependendo do resultado da importação
+	 * @param modo modo de gravação: "jdbc" (padrão) ou "copy"; o modo COPY recorre
+	 *             ao JDBC quando o banco não é PostgreSQL
+	 * @return a importação registrada, com status 202 (Accepted)
 	 */
 	@PostMapping("/importar")
-	public ResponseEntity<ApiResponse> importarContas(@RequestParam("file") MultipartFile file) {
+	public ResponseEntity<ImportacaoJob> importarContas(@RequestParam("file") MultipartFile file,
+			@RequestParam(required = false) String modo) {
+		ModoImportacao modoImportacao;
 		try {
-			contaService.importarContas(file);
-			ApiResponse response = new ApiResponse("Contas importadas com sucesso!", HttpStatus.OK.value());
-			return ResponseEntity.ok(response);
+			modoImportacao = ModoImportacao.of(modo);
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Modo de importação inválido: " + modo);
+		}
+
+		try {
+			ImportacaoJob job = importacaoJobService.enfileirar(file, modoImportacao);
+			return ResponseEntity.accepted().location(URI.create("/contas/importar/" + job.getId())).body(job);
 		} catch (IOException e) {
-			ApiResponse errorResponse = new ApiResponse("Erro ao importar contas: " + e.getMessage(),
-					HttpStatus.INTERNAL_SERVER_ERROR.value());
-			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+			throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+					"Erro ao importar contas: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Endpoint para consultar a situação e o progresso de uma importação.
+	 *
+	 * @param jobId identificador da importação
+	 * @return a importação, ou 404 se não existir
+	 */
+	@GetMapping("/importar/{jobId}")
+	public ResponseEntity<ImportacaoJob> consultarImportacao(@PathVariable UUID jobId) {
+		return ResponseEntity.of(importacaoJobService.buscar(jobId));
+	}
+
+	/**
+	 * Endpoint para cancelar uma importação pendente ou em execução. A importação
+	 * é interrompida ao final do lote em andamento.
+	 *
+	 * @param jobId identificador da importação
+	 * @return 202 se o cancelamento foi registrado, 404 se a importação não existir
+	 *         ou 409 se já estiver finalizada
+	 */
+	@DeleteMapping("/importar/{jobId}")
+	public ResponseEntity<ApiResponse> cancelarImportacao(@PathVariable UUID jobId) {
+		if (importacaoJobService.cancelar(jobId)) {
+			return ResponseEntity.accepted()
+					.body(new ApiResponse("Cancelamento solicitado", HttpStatus.ACCEPTED.value()));
+		}
+		if (importacaoJobService.buscar(jobId).isEmpty()) {
+			return ResponseEntity.notFound().build();
+		}
+		return ResponseEntity.status(HttpStatus.CONFLICT)
+				.body(new ApiResponse("A importação já foi finalizada", HttpStatus.CONFLICT.value()));
+	}
+
+	/**
+	 * Converte o cabeçalho {@code If-Match} na versão da conta. São aceitas as
+	 * ETags enviadas pelas respostas, como {@code "3"} ou {@code W/"3"}, e
+	 * {@code *} para qualquer versão.
+	 *
+	 * @param ifMatch o valor do cabeçalho
+	 * @return a versão da conta, ou null para qualquer versão
+	 * @throws ResponseStatusException com status 400 se o valor não for uma
+	 *                                 versão
+	 */
+	private static Long versao(String ifMatch) {
+		String etag = ifMatch.trim();
+		if ("*".equals(etag)) {
+			return null;
+		}
+		if (etag.startsWith("W/")) {
+			etag = etag.substring(2);
+		}
+		if (etag.length() >= 2 && etag.startsWith("\"") && etag.endsWith("\"")) {
+			etag = etag.substring(1, etag.length() - 1);
+		}
+		try {
+			return Long.valueOf(etag);
+		} catch (NumberFormatException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Versão inválida no cabeçalho If-Match", e);
+		}
+	}
+
+	/**
+	 * Gravação do conteúdo de uma resposta em fluxo.
+	 */
+	@FunctionalInterface
+	private interface Gravacao {
+
+		void gravar(OutputStream saida) throws IOException;
+	}
+
+	/**
+	 * Saída que envia o conteúdo gravado pela resposta em fluxo a cada
+	 * {@code flush()} ou a cada {@value #TAMANHO_ENVIO} bytes acumulados.
+	 */
+	private static final class SaidaEmissor extends OutputStream {
+
+		private static final int TAMANHO_ENVIO = 8192;
+
+		private final ResponseBodyEmitter emissor;
+
+		private final MediaType tipo;
+
+		private final ByteArrayOutputStream pendente = new ByteArrayOutputStream(TAMANHO_ENVIO);
+
+		SaidaEmissor(ResponseBodyEmitter emissor, MediaType tipo) {
+			this.emissor = emissor;
+			this.tipo = tipo;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			pendente.write(b);
+			if (pendente.size() >= TAMANHO_ENVIO) {
+				flush();
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			pendente.write(b, off, len);
+			if (pendente.size() >= TAMANHO_ENVIO) {
+				flush();
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if (pendente.size() > 0) {
+				emissor.send(pendente.toByteArray(), tipo);
+				pendente.reset();
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			flush();
 		}
 	}
 }
@@ -0,0 +1,145 @@
+package com.lyncas.desafio.contasapagar.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.lyncas.desafio.contasapagar.model.SituacaoConta;
+
+/**
+ * Classe que representa a requisição de alteração da situação de várias contas.
+ * As contas são indicadas pelos identificadores ou, quando os identificadores
+ * não são informados, pelo filtro de data de vencimento e situação atual.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+public class AlteracaoSituacaoRequest {
+
+	/** Os identificadores das contas alteradas */
+	private List<Long> ids;
+
+	/** A data de vencimento inicial do filtro */
+	private LocalDate dataVencimentoInicio;
+
+	/** A data de vencimento final do filtro */
+	private LocalDate dataVencimentoFim;
+
+	/** A situação atual das contas do filtro */
+	private SituacaoConta situacaoAtual;
+
+	/** A nova situação das contas */
+	private SituacaoConta situacao;
+
+	/** A data de pagamento gravada nas contas; quando nula, é mantida */
+	private LocalDate dataPagamento;
+
+	/**
+	 * Obtém os identificadores das contas alteradas.
+	 *
+	 * @return os identificadores das contas
+	 */
+	public List<Long> getIds() {
+		return ids;
+	}
+
+	/**
+	 * Define os identificadores das contas alteradas.
+	 *
+	 * @param ids os identificadores das contas
+	 */
+	public void setIds(List<Long> ids) {
+		this.ids = ids;
+	}
+
+	/**
+	 * Obtém a data de vencimento inicial do filtro.
+	 *
+	 * @return a data de vencimento inicial
+	 */
+	public LocalDate getDataVencimentoInicio() {
+		return dataVencimentoInicio;
+	}
+
+	/**
+	 * Define a data de vencimento inicial do filtro.
+	 *
+	 * @param dataVencimentoInicio a data de vencimento inicial
+	 */
+	public void setDataVencimentoInicio(LocalDate dataVencimentoInicio) {
+		this.dataVencimentoInicio = dataVencimentoInicio;
+	}
+
+	/**
+	 * Obtém a data de vencimento final do filtro.
+	 *
+	 * @return a data de vencimento final
+	 */
+	public LocalDate getDataVencimentoFim() {
+		return dataVencimentoFim;
+	}
+
+	/**
+	 * Define a data de vencimento final do filtro.
+	 *
+	 * @param dataVencimentoFim a data de vencimento final
+	 */
+	public void setDataVencimentoFim(LocalDate dataVencimentoFim) {
+		this.dataVencimentoFim = dataVencimentoFim;
+	}
+
+	/**
+	 * Obtém a situação atual das contas do filtro.
+	 *
+	 * @return a situação atual
+	 */
+	public SituacaoConta getSituacaoAtual() {
+		return situacaoAtual;
+	}
+
+	/**
+	 * Define a situação atual das contas do filtro.
+	 *
+	 * @param situacaoAtual a situação atual
+	 */
+	public void setSituacaoAtual(SituacaoConta situacaoAtual) {
+		this.situacaoAtual = situacaoAtual;
+	}
+
+	/**
+	 * Obtém a nova situação das contas.
+	 *
+	 * @return a nova situação
+	 */
+	public SituacaoConta getSituacao() {
+		return situacao;
+	}
+
+	/**
+	 * Define a nova situação das contas.
+	 *
+	 * @param situacao a nova situação
+	 */
+	public void setSituacao(SituacaoConta situacao) {
+		this.situacao = situacao;
+	}
+
+	/**
+	 * Obtém a data de pagamento gravada nas contas.
+	 *
+	 * @return a data de pagamento, ou null para manter a data atual
+	 */
+	public LocalDate getDataPagamento() {
+		return dataPagamento;
+	}
+
+	/**
+	 * Define a data de pagamento gravada nas contas.
+	 *
+	 * @param dataPagamento a data de pagamento, ou null para manter a data atual
+	 */
+	public void setDataPagamento(LocalDate dataPagamento) {
+		this.dataPagamento = dataPagamento;
+	}
+}
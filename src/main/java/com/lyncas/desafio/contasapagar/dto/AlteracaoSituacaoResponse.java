@@ -0,0 +1,33 @@
+package com.lyncas.desafio.contasapagar.dto;
+
+/**
+ * Classe que representa o resultado da alteração da situação de várias contas.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+public class AlteracaoSituacaoResponse {
+
+	/** A quantidade de contas alteradas */
+	private final long contasAlteradas;
+
+	/**
+	 * Construtor com a quantidade de contas alteradas.
+	 *
+	 * @param contasAlteradas a quantidade de contas alteradas
+	 */
+	public AlteracaoSituacaoResponse(long contasAlteradas) {
+		this.contasAlteradas = contasAlteradas;
+	}
+
+	/**
+	 * Obtém a quantidade de contas alteradas.
+	 *
+	 * @return a quantidade de contas alteradas
+	 */
+	public long getContasAlteradas() {
+		return contasAlteradas;
+	}
+}
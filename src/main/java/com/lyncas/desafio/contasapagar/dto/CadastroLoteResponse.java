@@ -0,0 +1,53 @@
+package com.lyncas.desafio.contasapagar.dto;
+
+import java.util.List;
+
+/**
+ * Classe que representa o resultado do cadastro de um lote de contas: os
+ * identificadores gerados, na ordem das contas enviadas, e as mensagens de erro
+ * das contas rejeitadas.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+public class CadastroLoteResponse {
+
+	/** Os identificadores gerados, com null nas posições das contas rejeitadas */
+	private final List<Long> ids;
+
+	/** As mensagens de erro das contas rejeitadas */
+	private final List<String> erros;
+
+	/**
+	 * Construtor com os identificadores gerados e os erros.
+	 *
+	 * @param ids   os identificadores gerados, na ordem das contas enviadas, com
+	 *              null nas posições das contas rejeitadas
+	 * @param erros as mensagens de erro das contas rejeitadas
+	 */
+	public CadastroLoteResponse(List<Long> ids, List<String> erros) {
+		this.ids = ids;
+		this.erros = erros;
+	}
+
+	/**
+	 * Obtém os identificadores gerados, na ordem das contas enviadas.
+	 *
+	 * @return os identificadores, com null nas posições das contas rejeitadas
+	 */
+	public List<Long> getIds() {
+		return ids;
+	}
+
+	/**
+	 * Obtém as mensagens de erro das contas rejeitadas, identificadas pela
+	 * posição da conta no lote, a partir de 1.
+	 *
+	 * @return as mensagens de erro
+	 */
+	public List<String> getErros() {
+		return erros;
+	}
+}
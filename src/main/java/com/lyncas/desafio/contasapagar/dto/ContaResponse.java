@@ -0,0 +1,140 @@
+package com.lyncas.desafio.contasapagar.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.lyncas.desafio.contasapagar.model.SituacaoConta;
+
+/**
+ * Classe de resposta com os dados de uma conta nas listagens. Instanciada
+ * diretamente pelas consultas do repositório, sem carregar a entidade
+ * {@link com.lyncas.desafio.contasapagar.model.Conta} no contexto de
+ * persistência; os campos são os mesmos da entidade.
+ * 
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ * 
+ * @author juliano.ezequiel
+ */
+public class ContaResponse {
+
+	/**
+	 * O identificador da conta.
+	 */
+	private final Long id;
+
+	/**
+	 * A data de vencimento da conta.
+	 */
+	private final LocalDate dataVencimento;
+
+	/**
+	 * A data de pagamento da conta, ou null se não foi paga.
+	 */
+	private final LocalDate dataPagamento;
+
+	/**
+	 * O valor da conta.
+	 */
+	private final BigDecimal valor;
+
+	/**
+	 * A descrição da conta.
+	 */
+	private final String descricao;
+
+	/**
+	 * A situação da conta.
+	 */
+	private final SituacaoConta situacao;
+
+	/**
+	 * A versão da conta, informada nas alterações da conta.
+	 */
+	private final Long versao;
+
+	/**
+	 * Construtor utilizado pelas consultas de listagem do repositório.
+	 *
+	 * @param id             o identificador da conta
+	 * @param dataVencimento a data de vencimento
+	 * @param dataPagamento  a data de pagamento, ou null
+	 * @param valor          o valor da conta
+	 * @param descricao      a descrição da conta
+	 * @param situacao       a situação da conta
+	 * @param versao         a versão da conta
+	 */
+	public ContaResponse(Long id, LocalDate dataVencimento, LocalDate dataPagamento, BigDecimal valor,
+			String descricao, SituacaoConta situacao, Long versao) {
+		this.id = id;
+		this.dataVencimento = dataVencimento;
+		this.dataPagamento = dataPagamento;
+		this.valor = valor;
+		this.descricao = descricao;
+		this.situacao = situacao;
+		this.versao = versao;
+	}
+
+	/**
+	 * Retorna o identificador da conta.
+	 *
+	 * @return o identificador da conta
+	 */
+	public Long getId() {
+		return id;
+	}
+
+	/**
+	 * Retorna a data de vencimento da conta.
+	 *
+	 * @return a data de vencimento
+	 */
+	public LocalDate getDataVencimento() {
+		return dataVencimento;
+	}
+
+	/**
+	 * Retorna a data de pagamento da conta.
+	 *
+	 * @return a data de pagamento, ou null se não foi paga
+	 */
+	public LocalDate getDataPagamento() {
+		return dataPagamento;
+	}
+
+	/**
+	 * Retorna o valor da conta.
+	 *
+	 * @return o valor da conta
+	 */
+	public BigDecimal getValor() {
+		return valor;
+	}
+
+	/**
+	 * Retorna a descrição da conta.
+	 *
+	 * @return a descrição da conta
+	 */
+	public String getDescricao() {
+		return descricao;
+	}
+
+	/**
+	 * Retorna a situação da conta.
+	 *
+	 * @return a situação da conta
+	 */
+	public SituacaoConta getSituacao() {
+		return situacao;
+	}
+
+	/**
+	 * Retorna a versão da conta.
+	 *
+	 * @return a versão da conta
+	 */
+	public Long getVersao() {
+		return versao;
+	}
+}
@@ -0,0 +1,65 @@
+package com.lyncas.desafio.contasapagar.dto;
+
+import java.util.List;
+
+/**
+ * Classe de resposta para a listagem paginada por cursor. Em vez do número da
+ * página, a resposta traz o cursor a ser enviado para obter a página seguinte.
+ *
+ * @param <T> o tipo dos itens da página
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ * 
+ * @author juliano.ezequiel
+ */
+public class PaginaCursor<T> {
+
+	/**
+	 * Os itens da página.
+	 */
+	private List<T> conteudo;
+
+	/**
+	 * O cursor da página seguinte, ou null se esta for a última página.
+	 */
+	private String proximoCursor;
+
+	/**
+	 * Construtor que inicializa a página.
+	 *
+	 * @param conteudo      os itens da página
+	 * @param proximoCursor o cursor da página seguinte, ou null na última página
+	 */
+	public PaginaCursor(List<T> conteudo, String proximoCursor) {
+		this.conteudo = conteudo;
+		this.proximoCursor = proximoCursor;
+	}
+
+	/**
+	 * Retorna os itens da página.
+	 *
+	 * @return os itens da página
+	 */
+	public List<T> getConteudo() {
+		return conteudo;
+	}
+
+	/**
+	 * Retorna o cursor da página seguinte.
+	 *
+	 * @return o cursor da página seguinte, ou null na última página
+	 */
+	public String getProximoCursor() {
+		return proximoCursor;
+	}
+
+	/**
+	 * Indica se existe uma página seguinte.
+	 *
+	 * @return true se existe uma página seguinte
+	 */
+	public boolean isPossuiProxima() {
+		return proximoCursor != null;
+	}
+}
@@ -0,0 +1,106 @@
+package com.lyncas.desafio.contasapagar.dto;
+
+import java.util.List;
+
+/**
+ * Classe de resposta para a listagem paginada sem a contagem exata dos itens.
+ * Em vez do total de itens e de páginas, a resposta indica se existe a página
+ * seguinte e, opcionalmente, um total estimado.
+ *
+ * @param <T> o tipo dos itens da página
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ * 
+ * @author juliano.ezequiel
+ */
+public class PaginaFatia<T> {
+
+	/**
+	 * Os itens da página.
+	 */
+	private List<T> conteudo;
+
+	/**
+	 * O número da página, a partir de zero.
+	 */
+	private int pagina;
+
+	/**
+	 * O tamanho da página solicitado.
+	 */
+	private int tamanho;
+
+	/**
+	 * Indica se existe uma página seguinte.
+	 */
+	private boolean possuiProxima;
+
+	/**
+	 * O total estimado de itens, ou null quando não solicitado.
+	 */
+	private Long totalEstimado;
+
+	/**
+	 * Construtor que inicializa a página.
+	 *
+	 * @param conteudo      os itens da página
+	 * @param pagina        o número da página, a partir de zero
+	 * @param tamanho       o tamanho da página solicitado
+	 * @param possuiProxima indica se existe uma página seguinte
+	 * @param totalEstimado o total estimado de itens, ou null quando não
+	 *                      solicitado
+	 */
+	public PaginaFatia(List<T> conteudo, int pagina, int tamanho, boolean possuiProxima, Long totalEstimado) {
+		this.conteudo = conteudo;
+		this.pagina = pagina;
+		this.tamanho = tamanho;
+		this.possuiProxima = possuiProxima;
+		this.totalEstimado = totalEstimado;
+	}
+
+	/**
+	 * Retorna os itens da página.
+	 *
+	 * @return os itens da página
+	 */
+	public List<T> getConteudo() {
+		return conteudo;
+	}
+
+	/**
+	 * Retorna o número da página.
+	 *
+	 * @return o número da página, a partir de zero
+	 */
+	public int getPagina() {
+		return pagina;
+	}
+
+	/**
+	 * Retorna o tamanho da página solicitado.
+	 *
+	 * @return o tamanho da página
+	 */
+	public int getTamanho() {
+		return tamanho;
+	}
+
+	/**
+	 * Indica se existe uma página seguinte.
+	 *
+	 * @return true se existe uma página seguinte
+	 */
+	public boolean isPossuiProxima() {
+		return possuiProxima;
+	}
+
+	/**
+	 * Retorna o total estimado de itens. Na última página o total é exato.
+	 *
+	 * @return o total estimado, ou null quando não solicitado
+	 */
+	public Long getTotalEstimado() {
+		return totalEstimado;
+	}
+}
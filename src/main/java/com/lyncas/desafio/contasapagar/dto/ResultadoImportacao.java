@@ -0,0 +1,162 @@
+package com.lyncas.desafio.contasapagar.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.lyncas.desafio.contasapagar.model.ModoImportacao;
+
+/**
+ * Classe que acumula o resultado de uma importação de contas: quantidade de
+ * linhas lidas, gravadas e rejeitadas, tempo decorrido e as mensagens de erro
+ * das linhas rejeitadas.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+public class ResultadoImportacao {
+
+	/**
+	 * Quantidade máxima de mensagens de erro mantidas no resultado, evitando que
+	 * um arquivo inteiro inválido ocupe memória com mensagens.
+	 */
+	public static final int MAXIMO_ERROS = 100;
+
+	/** Modo de gravação efetivamente utilizado na importação. */
+	private ModoImportacao modo;
+
+	/** Quantidade de linhas de dados lidas do arquivo. */
+	private long linhasLidas;
+
+	/** Quantidade de contas gravadas no banco de dados. */
+	private long linhasGravadas;
+
+	/** Quantidade de linhas rejeitadas por dados inválidos. */
+	private long linhasRejeitadas;
+
+	/** Tempo total da importação, em milissegundos. */
+	private long tempoMs;
+
+	/** Mensagens de erro das primeiras linhas rejeitadas. */
+	private final List<String> erros = new ArrayList<>();
+
+	/**
+	 * Registra a leitura de uma linha do arquivo.
+	 */
+	public void registrarLida() {
+		linhasLidas++;
+	}
+
+	/**
+	 * Registra a leitura de um lote de linhas do arquivo.
+	 *
+	 * @param quantidade a quantidade de linhas lidas no lote
+	 */
+	public void registrarLidas(long quantidade) {
+		linhasLidas += quantidade;
+	}
+
+	/**
+	 * Registra a gravação de um lote de contas.
+	 *
+	 * @param quantidade a quantidade de contas gravadas no lote
+	 */
+	public void registrarGravadas(long quantidade) {
+		linhasGravadas += quantidade;
+	}
+
+	/**
+	 * Registra a rejeição de uma linha do arquivo.
+	 *
+	 * @param linha    o número da linha rejeitada no arquivo
+	 * @param mensagem o motivo da rejeição
+	 */
+	public void registrarRejeitada(long linha, String mensagem) {
+		linhasRejeitadas++;
+		if (erros.size() < MAXIMO_ERROS) {
+			erros.add("Linha " + linha + ": " + mensagem);
+		}
+	}
+
+	/**
+	 * Obtém o modo de gravação utilizado.
+	 *
+	 * @return o modo de gravação
+	 */
+	public ModoImportacao getModo() {
+		return modo;
+	}
+
+	/**
+	 * Define o modo de gravação utilizado.
+	 *
+	 * @param modo o modo de gravação
+	 */
+	public void setModo(ModoImportacao modo) {
+		this.modo = modo;
+	}
+
+	/**
+	 * Obtém a quantidade de linhas lidas.
+	 *
+	 * @return a quantidade de linhas lidas
+	 */
+	public long getLinhasLidas() {
+		return linhasLidas;
+	}
+
+	/**
+	 * Obtém a quantidade de contas gravadas.
+	 *
+	 * @return a quantidade de contas gravadas
+	 */
+	public long getLinhasGravadas() {
+		return linhasGravadas;
+	}
+
+	/**
+	 * Obtém a quantidade de linhas rejeitadas.
+	 *
+	 * @return a quantidade de linhas rejeitadas
+	 */
+	public long getLinhasRejeitadas() {
+		return linhasRejeitadas;
+	}
+
+	/**
+	 * Obtém o tempo total da importação.
+	 *
+	 * @return o tempo da importação, em milissegundos
+	 */
+	public long getTempoMs() {
+		return tempoMs;
+	}
+
+	/**
+	 * Define o tempo total da importação.
+	 *
+	 * @param tempoMs o tempo da importação, em milissegundos
+	 */
+	public void setTempoMs(long tempoMs) {
+		this.tempoMs = tempoMs;
+	}
+
+	/**
+	 * Calcula a vazão da importação.
+	 *
+	 * @return a quantidade de contas gravadas por segundo
+	 */
+	public long getLinhasPorSegundo() {
+		return tempoMs == 0 ? linhasGravadas : linhasGravadas * 1000 / tempoMs;
+	}
+
+	/**
+	 * Obtém as mensagens de erro das linhas rejeitadas.
+	 *
+	 * @return as mensagens de erro, limitadas a {@link #MAXIMO_ERROS}
+	 */
+	public List<String> getErros() {
+		return erros;
+	}
+}
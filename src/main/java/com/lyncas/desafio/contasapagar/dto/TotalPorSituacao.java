@@ -0,0 +1,99 @@
+package com.lyncas.desafio.contasapagar.dto;
+
+import java.math.BigDecimal;
+
+import com.lyncas.desafio.contasapagar.model.SituacaoConta;
+
+/**
+ * Classe de resposta com a quantidade e o valor total pago das contas de uma
+ * situação.
+ * 
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ * 
+ * @author juliano.ezequiel
+ */
+public class TotalPorSituacao {
+
+	/**
+	 * A situação das contas.
+	 */
+	private SituacaoConta situacao;
+
+	/**
+	 * A quantidade de contas pagas na situação.
+	 */
+	private long quantidade;
+
+	/**
+	 * O valor total pago na situação.
+	 */
+	private BigDecimal valorTotal;
+
+	/**
+	 * Construtor utilizado pela consulta de agregação do repositório.
+	 *
+	 * @param situacao   a situação das contas
+	 * @param quantidade a quantidade de contas pagas
+	 * @param valorTotal o valor total pago
+	 */
+	public TotalPorSituacao(SituacaoConta situacao, Long quantidade, BigDecimal valorTotal) {
+		this.situacao = situacao;
+		this.quantidade = quantidade == null ? 0 : quantidade;
+		this.valorTotal = valorTotal == null ? BigDecimal.ZERO : valorTotal;
+	}
+
+	/**
+	 * Retorna a situação das contas.
+	 *
+	 * @return a situação das contas
+	 */
+	public SituacaoConta getSituacao() {
+		return situacao;
+	}
+
+	/**
+	 * Define a situação das contas.
+	 *
+	 * @param situacao a situação das contas
+	 */
+	public void setSituacao(SituacaoConta situacao) {
+		this.situacao = situacao;
+	}
+
+	/**
+	 * Retorna a quantidade de contas pagas.
+	 *
+	 * @return a quantidade de contas pagas
+	 */
+	public long getQuantidade() {
+		return quantidade;
+	}
+
+	/**
+	 * Define a quantidade de contas pagas.
+	 *
+	 * @param quantidade a quantidade de contas pagas
+	 */
+	public void setQuantidade(long quantidade) {
+		this.quantidade = quantidade;
+	}
+
+	/**
+	 * Retorna o valor total pago.
+	 *
+	 * @return o valor total pago
+	 */
+	public BigDecimal getValorTotal() {
+		return valorTotal;
+	}
+
+	/**
+	 * Define o valor total pago.
+	 *
+	 * @param valorTotal o valor total pago
+	 */
+	public void setValorTotal(BigDecimal valorTotal) {
+		this.valorTotal = valorTotal;
+	}
+}
@@ -1,9 +1,13 @@
 package com.lyncas.desafio.contasapagar.dto;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- * Classe de resposta para encapsular o valor total pago em contas.
+ * Classe de resposta para encapsular o valor total pago em contas, com a
+ * quantidade de contas pagas, o menor e o maior valor pago e o total por
+ * situação. Os valores são agregados pelo banco de dados.
  * 
  * @version 1.0.0 data 20/09/2024
  * @since 1.0.0 data 20/09/2024
@@ -17,6 +21,26 @@ public class ValorTotalPagoResponse {
 	 */
 	private BigDecimal valorTotalPago;
 
+	/**
+	 * A quantidade de contas pagas entre duas datas.
+	 */
+	private long quantidade;
+
+	/**
+	 * O menor valor pago entre duas datas, ou null se nenhuma conta foi paga.
+	 */
+	private BigDecimal menorValor;
+
+	/**
+	 * O maior valor pago entre duas datas, ou null se nenhuma conta foi paga.
+	 */
+	private BigDecimal maiorValor;
+
+	/**
+	 * O total pago agrupado pela situação das contas.
+	 */
+	private List<TotalPorSituacao> porSituacao = new ArrayList<>();
+
 	/**
 	 * Construtor que inicializa o valor total pago.
 	 *
@@ -26,6 +50,23 @@ public class ValorTotalPagoResponse {
 		this.valorTotalPago = valorTotalPago;
 	}
 
+	/**
+	 * Construtor utilizado pela consulta de agregação do repositório.
+	 *
+	 * @param quantidade     a quantidade de contas pagas
+	 * @param valorTotalPago a soma dos valores pagos, null se nenhuma conta foi
+	 *                       paga
+	 * @param menorValor     o menor valor pago
+	 * @param maiorValor     o maior valor pago
+	 */
+	public ValorTotalPagoResponse(Long quantidade, BigDecimal valorTotalPago, BigDecimal menorValor,
+			BigDecimal maiorValor) {
+		this.quantidade = quantidade == null ? 0 : quantidade;
+		this.valorTotalPago = valorTotalPago == null ? BigDecimal.ZERO : valorTotalPago;
+		this.menorValor = menorValor;
+		this.maiorValor = maiorValor;
+	}
+
 	/**
 	 * Retorna o valor total pago.
 	 *
@@ -43,4 +84,76 @@ public class ValorTotalPagoResponse {
 	public void setValorTotalPago(BigDecimal valorTotalPago) {
 		this.valorTotalPago = valorTotalPago;
 	}
+
+	/**
+	 * Retorna a quantidade de contas pagas.
+	 *
+	 * @return a quantidade de contas pagas
+	 */
+	public long getQuantidade() {
+		return quantidade;
+	}
+
+	/**
+	 * Define a quantidade de contas pagas.
+	 *
+	 * @param quantidade a quantidade de contas pagas
+	 */
+	public void setQuantidade(long quantidade) {
+		this.quantidade = quantidade;
+	}
+
+	/**
+	 * Retorna o menor valor pago.
+	 *
+	 * @return o menor valor pago
+	 */
+	public BigDecimal getMenorValor() {
+		return menorValor;
+	}
+
+	/**
+	 * Define o menor valor pago.
+	 *
+	 * @param menorValor o menor valor pago
+	 */
+	public void setMenorValor(BigDecimal menorValor) {
+		this.menorValor = menorValor;
+	}
+
+	/**
+	 * Retorna o maior valor pago.
+	 *
+	 * @return o maior valor pago
+	 */
+	public BigDecimal getMaiorValor() {
+		return maiorValor;
+	}
+
+	/**
+	 * Define o maior valor pago.
+	 *
+	 * @param maiorValor o maior valor pago
+	 */
+	public void setMaiorValor(BigDecimal maiorValor) {
+		this.maiorValor = maiorValor;
+	}
+
+	/**
+	 * Retorna o total pago agrupado por situação.
+	 *
+	 * @return o total pago por situação
+	 */
+	public List<TotalPorSituacao> getPorSituacao() {
+		return porSituacao;
+	}
+
+	/**
+	 * Define o total pago agrupado por situação.
+	 *
+	 * @param porSituacao o total pago por situação
+	 */
+	public void setPorSituacao(List<TotalPorSituacao> porSituacao) {
+		this.porSituacao = porSituacao;
+	}
 }
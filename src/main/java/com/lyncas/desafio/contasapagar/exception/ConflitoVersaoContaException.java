@@ -0,0 +1,29 @@
+package com.lyncas.desafio.contasapagar.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando uma conta foi alterada após a leitura da versão
+ * informada na alteração. O cliente deve ler a conta novamente antes de
+ * repetir a alteração.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConflitoVersaoContaException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Construtor da exceção.
+	 *
+	 * @param message a mensagem identificando a conta e a versão informada
+	 */
+	public ConflitoVersaoContaException(String message) {
+		super(message);
+	}
+}
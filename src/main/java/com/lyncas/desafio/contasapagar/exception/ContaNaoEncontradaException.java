@@ -0,0 +1,27 @@
+package com.lyncas.desafio.contasapagar.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando a conta a ser alterada não existe.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class ContaNaoEncontradaException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Construtor da exceção.
+	 *
+	 * @param message a mensagem identificando a conta
+	 */
+	public ContaNaoEncontradaException(String message) {
+		super(message);
+	}
+}
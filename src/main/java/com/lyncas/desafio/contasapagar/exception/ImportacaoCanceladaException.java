@@ -0,0 +1,24 @@
+package com.lyncas.desafio.contasapagar.exception;
+
+/**
+ * Exceção lançada quando uma importação é interrompida por solicitação de
+ * cancelamento.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+public class ImportacaoCanceladaException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Construtor da exceção.
+	 *
+	 * @param message a mensagem descrevendo o cancelamento
+	 */
+	public ImportacaoCanceladaException(String message) {
+		super(message);
+	}
+}
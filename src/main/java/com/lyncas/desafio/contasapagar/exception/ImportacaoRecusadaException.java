@@ -0,0 +1,29 @@
+package com.lyncas.desafio.contasapagar.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando a fila de importações está cheia e uma nova
+ * importação não pode ser aceita no momento.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ImportacaoRecusadaException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Construtor da exceção.
+	 *
+	 * @param message a mensagem descrevendo o motivo da recusa
+	 * @param cause   a causa da recusa
+	 */
+	public ImportacaoRecusadaException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
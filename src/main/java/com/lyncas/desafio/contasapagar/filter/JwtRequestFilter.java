@@ -1,17 +1,18 @@
 package com.lyncas.desafio.contasapagar.filter;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.lyncas.desafio.contasapagar.utils.JwtUtil;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -20,8 +21,8 @@ import jakarta.servlet.http.HttpServletResponse;
 
 /**
  * Filtro para processar requisições HTTP e validar tokens JWT. Este filtro é
- * executado uma vez por requisição e verifica se o token JWT está presente,
- * válido e se corresponde ao usuário autenticado.
+ * executado uma vez por requisição e verifica se o token JWT está presente e
+ * válido, autenticando o usuário do token com as permissões contidas nele.
  * 
  * @version 1.0.0 data 20/09/2024
  * @since 1.0.0 data 20/09/2024
@@ -30,16 +31,14 @@ import jakarta.servlet.http.HttpServletResponse;
  */
 public class JwtRequestFilter extends OncePerRequestFilter {
 
-	@Autowired
-	private UserDetailsService userDetailsService;
-
 	@Autowired
 	private JwtUtil jwtUtil;
 
 	/**
 	 * Método que executa a lógica do filtro. Extrai o token JWT do cabeçalho da
-	 * requisição, valida-o e, se válido, configura o contexto de segurança com as
-	 * informações do usuário.
+	 * requisição, valida-o e, se válido, configura o contexto de segurança com o
+	 * usuário e as permissões contidos no token, sem consultar o cadastro de
+	 * usuários.
 	 *
 	 * @param request  a requisição HTTP
 	 * @param response a resposta HTTP
@@ -53,29 +52,28 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
 		String authorizationHeader = request.getHeader("Authorization");
 		String username = null;
+		List<GrantedAuthority> authorities = List.of();
 
 		if (authorizationHeader != null) {
 			if (authorizationHeader.startsWith("Bearer ")) {
 				authorizationHeader = authorizationHeader.substring(7);
 			}
 			try {
-				username = jwtUtil.extractUsername(authorizationHeader);
+				// Assinatura e expiração verificadas uma única vez por token
+				Claims claims = jwtUtil.verificarToken(authorizationHeader);
+				username = claims.getSubject();
+				authorities = jwtUtil.extrairAuthorities(claims);
 			} catch (ExpiredJwtException e) {
 				System.out.println("Token JWT expirado");
 			}
 		}
 
 		if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-			UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-
-			if (jwtUtil.validateToken(authorizationHeader, userDetails.getUsername())) {
-				// Definir o contexto de segurança com o usuário autenticado
-				UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
-						userDetails, null, userDetails.getAuthorities());
-				usernamePasswordAuthenticationToken
-						.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-				SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
-			}
+			// Definir o contexto de segurança com o usuário autenticado
+			UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = UsernamePasswordAuthenticationToken
+					.authenticated(username, null, authorities);
+			usernamePasswordAuthenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+			SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
 		}
 		chain.doFilter(request, response);
 	}
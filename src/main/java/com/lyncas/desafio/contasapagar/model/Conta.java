@@ -3,14 +3,27 @@ package com.lyncas.desafio.contasapagar.model;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLSelect;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 /**
+ * Conta a pagar. As contas lidas pelo identificador são mantidas no cache de
+ * segundo nível do Hibernate; as alterações por comandos {@code UPDATE}, que não
+ * passam pelo Hibernate, descartam as contas alteradas do cache. Fora do cache, a
+ * conta é lida pela função {@code contas_buscar}, que obtém a data de
+ * vencimento da conta em {@code contas_ids} e lê apenas a partição do mês.
+ *
  * @version 1.0.0 data 20/09/2024
  * @since 1.0.0 data 20/09/2024
  *
@@ -18,10 +31,28 @@ import jakarta.persistence.Table;
  */
 @Entity
 @Table(name = "contas")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Conta.REGIAO_CACHE)
+@SQLSelect(sql = "SELECT * FROM contas_buscar(?)", querySpaces = "contas")
 public class Conta {
 
+	/** Região do cache de segundo nível das contas */
+	public static final String REGIAO_CACHE = "contas";
+
+	/**
+	 * Quantidade de ids reservados a cada consulta à sequence, igual ao incremento
+	 * de {@code contas_id_seq}
+	 */
+	public static final int ALOCACAO_IDS = 50;
+
+	/**
+	 * Identificador gerado pela sequence {@code contas_id_seq}. A alocação em
+	 * blocos permite que o Hibernate agrupe os INSERTs em lotes JDBC, o que não é
+	 * possível com {@link GenerationType#IDENTITY}.
+	 */
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contas_id_seq")
+	@SequenceGenerator(name = "contas_id_seq", sequenceName = "contas_id_seq", allocationSize = ALOCACAO_IDS)
 	private Long id;
 
 	@Column(name = "data_vencimento", nullable = false)
@@ -37,7 +68,15 @@ public class Conta {
 	private String descricao;
 
 	@Column(name = "situacao", nullable = false)
-	private String situacao;
+	private SituacaoConta situacao;
+
+	/**
+	 * Versão da conta, incrementada a cada alteração. As alterações só são
+	 * aplicadas se a versão informada ainda for a atual.
+	 */
+	@Version
+	@Column(name = "versao", nullable = false)
+	private Long versao;
 
 	public Long getId() {
 		return id;
@@ -79,12 +118,20 @@ public class Conta {
 		this.descricao = descricao;
 	}
 
-	public String getSituacao() {
+	public SituacaoConta getSituacao() {
 		return situacao;
 	}
 
-	public void setSituacao(String situacao) {
+	public void setSituacao(SituacaoConta situacao) {
 		this.situacao = situacao;
 	}
 
+	public Long getVersao() {
+		return versao;
+	}
+
+	public void setVersao(Long versao) {
+		this.versao = versao;
+	}
+
 }
@@ -0,0 +1,81 @@
+package com.lyncas.desafio.contasapagar.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Conta em uso ou arquivada. A visão {@code contas_com_arquivo} une as tabelas
+ * {@code contas} e {@code contas_arquivo} e é somente leitura para a aplicação;
+ * as listagens a utilizam apenas quando o intervalo de vencimento consultado
+ * alcança o arquivo.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@Entity
+@Immutable
+@Table(name = "contas_com_arquivo")
+public class ContaComArquivo {
+
+	@Id
+	@Column(name = "id")
+	private Long id;
+
+	@Column(name = "data_vencimento", nullable = false)
+	private LocalDate dataVencimento;
+
+	@Column(name = "data_pagamento")
+	private LocalDate dataPagamento;
+
+	@Column(name = "valor", nullable = false)
+	private BigDecimal valor;
+
+	@Column(name = "descricao", nullable = false)
+	private String descricao;
+
+	@Column(name = "situacao", nullable = false)
+	private SituacaoConta situacao;
+
+	@Column(name = "versao", nullable = false)
+	private Long versao;
+
+	protected ContaComArquivo() {
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public LocalDate getDataVencimento() {
+		return dataVencimento;
+	}
+
+	public LocalDate getDataPagamento() {
+		return dataPagamento;
+	}
+
+	public BigDecimal getValor() {
+		return valor;
+	}
+
+	public String getDescricao() {
+		return descricao;
+	}
+
+	public SituacaoConta getSituacao() {
+		return situacao;
+	}
+
+	public Long getVersao() {
+		return versao;
+	}
+}
@@ -0,0 +1,182 @@
+package com.lyncas.desafio.contasapagar.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Importação de contas executada em segundo plano. Registra a situação e o
+ * progresso da importação para consulta enquanto o arquivo é processado.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@Entity
+@Table(name = "importacao_jobs")
+public class ImportacaoJob {
+
+	@Id
+	private UUID id;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "status", nullable = false)
+	private StatusImportacao status;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "modo", nullable = false)
+	private ModoImportacao modo;
+
+	@Column(name = "nome_arquivo")
+	private String nomeArquivo;
+
+	@Column(name = "linhas_lidas", nullable = false)
+	private long linhasLidas;
+
+	@Column(name = "linhas_gravadas", nullable = false)
+	private long linhasGravadas;
+
+	@Column(name = "linhas_rejeitadas", nullable = false)
+	private long linhasRejeitadas;
+
+	@Column(name = "linhas_por_segundo", nullable = false)
+	private long linhasPorSegundo;
+
+	@Column(name = "cancelamento_solicitado", nullable = false)
+	private boolean cancelamentoSolicitado;
+
+	@Column(name = "mensagem")
+	private String mensagem;
+
+	@Column(name = "erros")
+	private String erros;
+
+	@Column(name = "criado_em", nullable = false)
+	private LocalDateTime criadoEm;
+
+	@Column(name = "iniciado_em")
+	private LocalDateTime iniciadoEm;
+
+	@Column(name = "finalizado_em")
+	private LocalDateTime finalizadoEm;
+
+	public UUID getId() {
+		return id;
+	}
+
+	public void setId(UUID id) {
+		this.id = id;
+	}
+
+	public StatusImportacao getStatus() {
+		return status;
+	}
+
+	public void setStatus(StatusImportacao status) {
+		this.status = status;
+	}
+
+	public ModoImportacao getModo() {
+		return modo;
+	}
+
+	public void setModo(ModoImportacao modo) {
+		this.modo = modo;
+	}
+
+	public String getNomeArquivo() {
+		return nomeArquivo;
+	}
+
+	public void setNomeArquivo(String nomeArquivo) {
+		this.nomeArquivo = nomeArquivo;
+	}
+
+	public long getLinhasLidas() {
+		return linhasLidas;
+	}
+
+	public void setLinhasLidas(long linhasLidas) {
+		this.linhasLidas = linhasLidas;
+	}
+
+	public long getLinhasGravadas() {
+		return linhasGravadas;
+	}
+
+	public void setLinhasGravadas(long linhasGravadas) {
+		this.linhasGravadas = linhasGravadas;
+	}
+
+	public long getLinhasRejeitadas() {
+		return linhasRejeitadas;
+	}
+
+	public void setLinhasRejeitadas(long linhasRejeitadas) {
+		this.linhasRejeitadas = linhasRejeitadas;
+	}
+
+	public long getLinhasPorSegundo() {
+		return linhasPorSegundo;
+	}
+
+	public void setLinhasPorSegundo(long linhasPorSegundo) {
+		this.linhasPorSegundo = linhasPorSegundo;
+	}
+
+	public boolean isCancelamentoSolicitado() {
+		return cancelamentoSolicitado;
+	}
+
+	public void setCancelamentoSolicitado(boolean cancelamentoSolicitado) {
+		this.cancelamentoSolicitado = cancelamentoSolicitado;
+	}
+
+	public String getMensagem() {
+		return mensagem;
+	}
+
+	public void setMensagem(String mensagem) {
+		this.mensagem = mensagem;
+	}
+
+	public String getErros() {
+		return erros;
+	}
+
+	public void setErros(String erros) {
+		this.erros = erros;
+	}
+
+	public LocalDateTime getCriadoEm() {
+		return criadoEm;
+	}
+
+	public void setCriadoEm(LocalDateTime criadoEm) {
+		this.criadoEm = criadoEm;
+	}
+
+	public LocalDateTime getIniciadoEm() {
+		return iniciadoEm;
+	}
+
+	public void setIniciadoEm(LocalDateTime iniciadoEm) {
+		this.iniciadoEm = iniciadoEm;
+	}
+
+	public LocalDateTime getFinalizadoEm() {
+		return finalizadoEm;
+	}
+
+	public void setFinalizadoEm(LocalDateTime finalizadoEm) {
+		this.finalizadoEm = finalizadoEm;
+	}
+
+}
@@ -0,0 +1,36 @@
+package com.lyncas.desafio.contasapagar.model;
+
+/**
+ * Modos de contagem disponíveis na listagem de contas sem o total exato.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+public enum ModoContagem {
+
+	/** Sem total: a resposta indica apenas se existe a página seguinte. */
+	NENHUMA,
+
+	/**
+	 * Total estimado pelas estatísticas do planejador do PostgreSQL, sem percorrer
+	 * as contas do filtro.
+	 */
+	ESTIMADA;
+
+	/**
+	 * Obtém o modo a partir do nome informado, sem diferenciar maiúsculas de
+	 * minúsculas.
+	 *
+	 * @param nome o nome do modo (por exemplo: "nenhuma" ou "estimada")
+	 * @return o modo correspondente, ou {@link #NENHUMA} se o nome for vazio
+	 * @throws IllegalArgumentException se o nome não corresponder a nenhum modo
+	 */
+	public static ModoContagem of(String nome) {
+		if (nome == null || nome.isBlank()) {
+			return NENHUMA;
+		}
+		return valueOf(nome.trim().toUpperCase());
+	}
+}
@@ -0,0 +1,36 @@
+package com.lyncas.desafio.contasapagar.model;
+
+/**
+ * Modos de gravação disponíveis na importação de contas via CSV.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+public enum ModoImportacao {
+
+	/** INSERTs agrupados em lotes JDBC, em transações por lote. */
+	JDBC,
+
+	/**
+	 * Carga via {@code COPY} do PostgreSQL em uma tabela temporária, seguida de um
+	 * único INSERT ... SELECT na tabela de contas.
+	 */
+	COPY;
+
+	/**
+	 * Obtém o modo a partir do nome informado, sem diferenciar maiúsculas de
+	 * minúsculas.
+	 *
+	 * @param nome o nome do modo (por exemplo: "jdbc" ou "copy")
+	 * @return o modo correspondente, ou {@link #JDBC} se o nome for vazio
+	 * @throws IllegalArgumentException se o nome não corresponder a nenhum modo
+	 */
+	public static ModoImportacao of(String nome) {
+		if (nome == null || nome.isBlank()) {
+			return JDBC;
+		}
+		return valueOf(nome.trim().toUpperCase());
+	}
+}
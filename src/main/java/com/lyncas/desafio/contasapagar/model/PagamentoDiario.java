@@ -0,0 +1,92 @@
+package com.lyncas.desafio.contasapagar.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+/**
+ * Consolidação diária dos pagamentos por situação. A tabela
+ * {@code contas_pagamento_diario} é mantida pelos triggers de {@code contas} e
+ * é somente leitura para a aplicação.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@Entity
+@Immutable
+@IdClass(PagamentoDiarioId.class)
+@Table(name = "contas_pagamento_diario")
+public class PagamentoDiario {
+
+	@Id
+	@Column(name = "data_pagamento")
+	private LocalDate dataPagamento;
+
+	/**
+	 * Parte da chave: o conversor é informado explicitamente, pois os conversores
+	 * aplicados automaticamente não alcançam os atributos de identificação.
+	 */
+	@Id
+	@Convert(converter = SituacaoContaConverter.class)
+	@Column(name = "situacao")
+	private SituacaoConta situacao;
+
+	@Column(name = "quantidade", nullable = false)
+	private Long quantidade;
+
+	@Column(name = "valor_total", nullable = false)
+	private BigDecimal valorTotal;
+
+	@Column(name = "valor_minimo", nullable = false)
+	private BigDecimal valorMinimo;
+
+	@Column(name = "valor_maximo", nullable = false)
+	private BigDecimal valorMaximo;
+
+	protected PagamentoDiario() {
+	}
+
+	public PagamentoDiario(LocalDate dataPagamento, SituacaoConta situacao, Long quantidade, BigDecimal valorTotal,
+			BigDecimal valorMinimo, BigDecimal valorMaximo) {
+		this.dataPagamento = dataPagamento;
+		this.situacao = situacao;
+		this.quantidade = quantidade;
+		this.valorTotal = valorTotal;
+		this.valorMinimo = valorMinimo;
+		this.valorMaximo = valorMaximo;
+	}
+
+	public LocalDate getDataPagamento() {
+		return dataPagamento;
+	}
+
+	public SituacaoConta getSituacao() {
+		return situacao;
+	}
+
+	public Long getQuantidade() {
+		return quantidade;
+	}
+
+	public BigDecimal getValorTotal() {
+		return valorTotal;
+	}
+
+	public BigDecimal getValorMinimo() {
+		return valorMinimo;
+	}
+
+	public BigDecimal getValorMaximo() {
+		return valorMaximo;
+	}
+}
@@ -0,0 +1,56 @@
+package com.lyncas.desafio.contasapagar.model;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Chave de {@link PagamentoDiario}: a data de pagamento e a situação das
+ * contas.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+public class PagamentoDiarioId implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private LocalDate dataPagamento;
+
+	private SituacaoConta situacao;
+
+	public PagamentoDiarioId() {
+	}
+
+	public PagamentoDiarioId(LocalDate dataPagamento, SituacaoConta situacao) {
+		this.dataPagamento = dataPagamento;
+		this.situacao = situacao;
+	}
+
+	public LocalDate getDataPagamento() {
+		return dataPagamento;
+	}
+
+	public SituacaoConta getSituacao() {
+		return situacao;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof PagamentoDiarioId)) {
+			return false;
+		}
+		PagamentoDiarioId outro = (PagamentoDiarioId) obj;
+		return Objects.equals(dataPagamento, outro.dataPagamento) && Objects.equals(situacao, outro.situacao);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(dataPagamento, situacao);
+	}
+}
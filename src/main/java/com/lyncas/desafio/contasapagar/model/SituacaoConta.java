@@ -0,0 +1,103 @@
+package com.lyncas.desafio.contasapagar.model;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+/**
+ * Situações possíveis de uma {@link Conta}. Cada situação é gravada na coluna
+ * {@code contas.situacao} pelo seu código ({@code SMALLINT}), convertido por
+ * {@link SituacaoContaConverter}; os códigos não devem ser alterados, apenas
+ * acrescentados.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+public enum SituacaoConta {
+
+	/** Aguardando pagamento, ainda dentro do vencimento. */
+	PENDENTE(1),
+
+	/** Paga. */
+	PAGA(2),
+
+	/** Aguardando pagamento, com o vencimento ultrapassado. */
+	ATRASADA(3),
+
+	/** Cancelada; não será paga. */
+	CANCELADA(4);
+
+	private final short codigo;
+
+	SituacaoConta(int codigo) {
+		this.codigo = (short) codigo;
+	}
+
+	/**
+	 * Obtém o código gravado no banco de dados.
+	 *
+	 * @return o código da situação
+	 */
+	public short getCodigo() {
+		return codigo;
+	}
+
+	/**
+	 * Indica se a conta ainda está em aberto, aguardando pagamento. As contas em
+	 * aberto são cobertas pelo índice parcial {@code idx_contas_abertas_vencimento}.
+	 *
+	 * @return true para as situações pendente e atrasada
+	 */
+	public boolean isAberta() {
+		return this == PENDENTE || this == ATRASADA;
+	}
+
+	/**
+	 * Obtém a situação a partir do código gravado no banco de dados.
+	 *
+	 * @param codigo o código da situação
+	 * @return a situação correspondente
+	 * @throws IllegalArgumentException se o código não corresponder a nenhuma
+	 *                                  situação
+	 */
+	public static SituacaoConta deCodigo(short codigo) {
+		for (SituacaoConta situacao : values()) {
+			if (situacao.codigo == codigo) {
+				return situacao;
+			}
+		}
+		throw new IllegalArgumentException("Código de situação inválido: " + codigo);
+	}
+
+	/**
+	 * Obtém a situação a partir do nome informado, sem diferenciar maiúsculas,
+	 * minúsculas e acentos, e aceitando espaços no lugar de sublinhados (por
+	 * exemplo: "Paga", "pendente" ou "Em aberto"). É a mesma normalização aplicada
+	 * aos dados existentes pela migração {@code V12}.
+	 *
+	 * @param nome o nome da situação
+	 * @return a situação correspondente
+	 * @throws IllegalArgumentException se o nome for vazio ou não corresponder a
+	 *                                  nenhuma situação
+	 */
+	@JsonCreator
+	public static SituacaoConta de(String nome) {
+		if (nome == null || nome.isBlank()) {
+			throw new IllegalArgumentException("Situação não informada");
+		}
+		String normalizado = Normalizer.normalize(nome.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}", "")
+				.toUpperCase(Locale.ROOT).replace(' ', '_');
+		if ("EM_ABERTO".equals(normalizado)) {
+			return PENDENTE;
+		}
+		for (SituacaoConta situacao : values()) {
+			if (situacao.name().equals(normalizado)) {
+				return situacao;
+			}
+		}
+		throw new IllegalArgumentException("Situação inválida: " + nome.trim());
+	}
+}
@@ -0,0 +1,27 @@
+package com.lyncas.desafio.contasapagar.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Grava cada {@link SituacaoConta} pelo seu código, em vez do nome ou da posição
+ * na enumeração.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@Converter(autoApply = true)
+public class SituacaoContaConverter implements AttributeConverter<SituacaoConta, Short> {
+
+	@Override
+	public Short convertToDatabaseColumn(SituacaoConta situacao) {
+		return situacao != null ? situacao.getCodigo() : null;
+	}
+
+	@Override
+	public SituacaoConta convertToEntityAttribute(Short codigo) {
+		return codigo != null ? SituacaoConta.deCodigo(codigo) : null;
+	}
+}
@@ -0,0 +1,36 @@
+package com.lyncas.desafio.contasapagar.model;
+
+/**
+ * Situações possíveis de um {@link ImportacaoJob}.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+public enum StatusImportacao {
+
+	/** Aguardando um worker livre. */
+	PENDENTE,
+
+	/** Em execução. */
+	EXECUTANDO,
+
+	/** Concluída; as linhas válidas foram gravadas. */
+	CONCLUIDA,
+
+	/** Interrompida por erro. */
+	FALHOU,
+
+	/** Interrompida a pedido do usuário. */
+	CANCELADA;
+
+	/**
+	 * Indica se a importação já terminou, com ou sem sucesso.
+	 *
+	 * @return true para as situações finais
+	 */
+	public boolean isFinalizada() {
+		return this == CONCLUIDA || this == FALHOU || this == CANCELADA;
+	}
+}
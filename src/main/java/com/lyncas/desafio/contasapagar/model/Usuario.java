@@ -0,0 +1,80 @@
+package com.lyncas.desafio.contasapagar.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Usuário autorizado a acessar a API. A senha é armazenada como hash, com o
+ * prefixo do algoritmo utilizado (por exemplo {@code {bcrypt}}), e as
+ * permissões são separadas por vírgula.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@Entity
+@Table(name = "usuarios")
+public class Usuario {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "username", nullable = false, unique = true)
+	private String username;
+
+	@Column(name = "senha", nullable = false)
+	private String senha;
+
+	@Column(name = "permissoes", nullable = false)
+	private String permissoes = "";
+
+	@Column(name = "ativo", nullable = false)
+	private boolean ativo = true;
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getUsername() {
+		return username;
+	}
+
+	public void setUsername(String username) {
+		this.username = username;
+	}
+
+	public String getSenha() {
+		return senha;
+	}
+
+	public void setSenha(String senha) {
+		this.senha = senha;
+	}
+
+	public String getPermissoes() {
+		return permissoes;
+	}
+
+	public void setPermissoes(String permissoes) {
+		this.permissoes = permissoes;
+	}
+
+	public boolean isAtivo() {
+		return ativo;
+	}
+
+	public void setAtivo(boolean ativo) {
+		this.ativo = ativo;
+	}
+
+}
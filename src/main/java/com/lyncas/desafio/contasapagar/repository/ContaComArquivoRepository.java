@@ -0,0 +1,97 @@
+package com.lyncas.desafio.contasapagar.repository;
+
+import static com.lyncas.desafio.contasapagar.repository.ContaRepository.DESCRICAO_CONTEM;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.lyncas.desafio.contasapagar.dto.ContaResponse;
+import com.lyncas.desafio.contasapagar.dto.TotalPorSituacao;
+import com.lyncas.desafio.contasapagar.model.ContaComArquivo;
+
+/**
+ * Repositório das contas em uso e arquivadas, lidas da visão
+ * {@code contas_com_arquivo}. As consultas repetem as listagens de
+ * {@link ContaRepository} e são utilizadas apenas quando o intervalo consultado
+ * alcança as contas arquivadas.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@Repository
+public interface ContaComArquivoRepository extends JpaRepository<ContaComArquivo, Long> {
+
+	/**
+	 * Seleção das listagens, como {@link ContaRepository#PROJECAO}.
+	 */
+	String PROJECAO = "SELECT new com.lyncas.desafio.contasapagar.dto.ContaResponse("
+			+ "c.id, c.dataVencimento, c.dataPagamento, c.valor, c.descricao, c.situacao, c.versao) "
+			+ "FROM ContaComArquivo c ";
+
+	/**
+	 * Verifica se existem contas arquivadas com data de vencimento entre duas
+	 * datas, consultando apenas o índice de vencimento do arquivo.
+	 *
+	 * @param inicio a data de vencimento inicial
+	 * @param fim    a data de vencimento final
+	 * @return true se o intervalo alcança as contas arquivadas
+	 */
+	@Query(value = "SELECT EXISTS (SELECT 1 FROM contas_arquivo WHERE data_vencimento BETWEEN :inicio AND :fim)",
+			nativeQuery = true)
+	boolean alcancaArquivo(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+
+	/**
+	 * Busca uma página de contas em uso e arquivadas com data de vencimento entre
+	 * duas datas.
+	 *
+	 * @param inicio   a data de vencimento inicial
+	 * @param fim      a data de vencimento final
+	 * @param pageable informações de paginação
+	 * @return uma página de contas que atendem aos critérios especificados
+	 */
+	@Query(value = PROJECAO + "WHERE c.dataVencimento BETWEEN :inicio AND :fim",
+			countQuery = "SELECT COUNT(c) FROM ContaComArquivo c WHERE c.dataVencimento BETWEEN :inicio AND :fim")
+	Page<ContaResponse> findByDataVencimentoBetween(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim,
+			Pageable pageable);
+
+	/**
+	 * Busca uma página de contas em uso e arquivadas com data de vencimento entre
+	 * duas datas e descrição contendo um texto, sem diferenciar maiúsculas e
+	 * acentos.
+	 *
+	 * @param inicio    a data de vencimento inicial
+	 * @param fim       a data de vencimento final
+	 * @param descricao o texto que deve estar contido na descrição da conta, com
+	 *                  os caracteres curinga do LIKE escapados por {@code \}
+	 * @param pageable  informações de paginação
+	 * @return uma página de contas que atendem aos critérios especificados
+	 */
+	@Query(value = PROJECAO + "WHERE c.dataVencimento BETWEEN :inicio AND :fim AND " + DESCRICAO_CONTEM,
+			countQuery = "SELECT COUNT(c) FROM ContaComArquivo c WHERE c.dataVencimento BETWEEN :inicio AND :fim "
+					+ "AND " + DESCRICAO_CONTEM)
+	Page<ContaResponse> buscarPorDescricao(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim,
+			@Param("descricao") String descricao, Pageable pageable);
+
+	/**
+	 * Agrega no banco de dados as contas em uso e arquivadas pagas entre duas
+	 * datas, agrupadas por situação.
+	 *
+	 * @param dataInicio a data inicial do intervalo de pagamento
+	 * @param dataFim    a data final do intervalo de pagamento
+	 * @return a quantidade e o valor total pago de cada situação
+	 */
+	@Query("SELECT new com.lyncas.desafio.contasapagar.dto.TotalPorSituacao(c.situacao, COUNT(c), SUM(c.valor)) "
+			+ "FROM ContaComArquivo c WHERE c.dataPagamento BETWEEN :dataInicio AND :dataFim "
+			+ "GROUP BY c.situacao ORDER BY c.situacao")
+	List<TotalPorSituacao> totalizarPagamentosPorSituacao(@Param("dataInicio") LocalDate dataInicio,
+			@Param("dataFim") LocalDate dataFim);
+}
@@ -1,14 +1,33 @@
 package com.lyncas.desafio.contasapagar.repository;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+import java.math.BigDecimal;
+import java.sql.Date;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.lyncas.desafio.contasapagar.dto.ContaResponse;
+import com.lyncas.desafio.contasapagar.dto.TotalPorSituacao;
+import com.lyncas.desafio.contasapagar.dto.ValorTotalPagoResponse;
 import com.lyncas.desafio.contasapagar.model.Conta;
+import com.lyncas.desafio.contasapagar.model.SituacaoConta;
+
+import jakarta.persistence.QueryHint;
 
 /**
  * Repositório para operações de acesso a dados da entidade {@link Conta}. Esta
@@ -23,19 +42,127 @@ import com.lyncas.desafio.contasapagar.model.Conta;
 @Repository
 public interface ContaRepository extends JpaRepository<Conta, Long> {
 
+	/**
+	 * Seleção das listagens: as contas são instanciadas diretamente como
+	 * {@link ContaResponse}, sem entidades gerenciadas pelo contexto de
+	 * persistência nem cópias para a verificação de alterações.
+	 */
+	String PROJECAO = "SELECT new com.lyncas.desafio.contasapagar.dto.ContaResponse("
+			+ "c.id, c.dataVencimento, c.dataPagamento, c.valor, c.descricao, c.situacao, c.versao) FROM Conta c ";
+
+	/**
+	 * Condição de busca por trecho da descrição, sem diferenciar maiúsculas e
+	 * acentos. Os dois lados são normalizados pela mesma função do índice
+	 * {@code idx_contas_descricao_trgm}.
+	 */
+	String DESCRICAO_CONTEM = "contas_normalizar(c.descricao) "
+			+ "LIKE CONCAT('%', contas_normalizar(:descricao), '%') ESCAPE '\\'";
+
+	/**
+	 * Quantidade de contas lidas do banco de dados a cada ida ao servidor nas
+	 * consultas em fluxo. O driver do PostgreSQL só utiliza um cursor no servidor
+	 * dentro de uma transação.
+	 */
+	String TAMANHO_LEITURA_FLUXO = "1000";
+
 	/**
 	 * Busca uma página de contas que possuem uma data de vencimento entre duas
-	 * datas e uma descrição que contém um texto específico.
+	 * datas e uma descrição que contém um texto específico, sem diferenciar
+	 * maiúsculas e acentos. A comparação utiliza a função
+	 * {@code contas_normalizar}, coberta pelo índice de trigramas da descrição.
 	 * 
 	 * @param inicio    a data de vencimento inicial
 	 * @param fim       a data de vencimento final
-	 * @param descricao o texto que deve estar contido na descrição da conta
+	 * @param descricao o texto que deve estar contido na descrição da conta, com
+	 *                  os caracteres curinga do LIKE escapados por {@code \}
 	 * @param pageable  informações de paginação
 	 * @return uma página de contas que atendem aos critérios especificados
 	 */
-	Page<Conta> findByDataVencimentoBetweenAndDescricaoContaining(LocalDate inicio, LocalDate fim, String descricao,
+	@Query(value = PROJECAO + "WHERE c.dataVencimento BETWEEN :inicio AND :fim AND " + DESCRICAO_CONTEM,
+			countQuery = "SELECT COUNT(c) FROM Conta c WHERE c.dataVencimento BETWEEN :inicio AND :fim AND "
+					+ DESCRICAO_CONTEM)
+	Page<ContaResponse> buscarPorDescricao(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim,
+			@Param("descricao") String descricao, Pageable pageable);
+
+	/**
+	 * Busca uma fatia de contas com data de vencimento entre duas datas, sem a
+	 * consulta de contagem da {@link Page}. A fatia indica apenas se existe a
+	 * página seguinte, lendo uma conta a mais que o tamanho da página.
+	 * 
+	 * @param inicio   a data de vencimento inicial
+	 * @param fim      a data de vencimento final
+	 * @param pageable informações de paginação
+	 * @return uma fatia de contas que atendem aos critérios especificados
+	 */
+	@Query(PROJECAO + "WHERE c.dataVencimento BETWEEN :inicio AND :fim")
+	Slice<ContaResponse> buscarFatiaPorVencimento(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim,
 			Pageable pageable);
 
+	/**
+	 * Busca uma fatia de contas com data de vencimento entre duas datas e
+	 * descrição contendo um texto, sem diferenciar maiúsculas e acentos, sem a
+	 * consulta de contagem da {@link Page}.
+	 * 
+	 * @param inicio    a data de vencimento inicial
+	 * @param fim       a data de vencimento final
+	 * @param descricao o texto que deve estar contido na descrição da conta, com
+	 *                  os caracteres curinga do LIKE escapados por {@code \}
+	 * @param pageable  informações de paginação
+	 * @return uma fatia de contas que atendem aos critérios especificados
+	 */
+	@Query(PROJECAO + "WHERE c.dataVencimento BETWEEN :inicio AND :fim AND " + DESCRICAO_CONTEM)
+	Slice<ContaResponse> buscarFatiaPorDescricao(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim,
+			@Param("descricao") String descricao, Pageable pageable);
+
+	/**
+	 * Lê, em fluxo, uma página de contas com data de vencimento entre duas datas.
+	 * As contas são buscadas do cursor do servidor à medida que o fluxo é
+	 * consumido, sem montar a página em memória. O fluxo deve ser consumido dentro
+	 * de uma transação e fechado ao final.
+	 * 
+	 * @param inicio   a data de vencimento inicial
+	 * @param fim      a data de vencimento final
+	 * @param pageable informações de paginação
+	 * @return o fluxo das contas da página
+	 */
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = TAMANHO_LEITURA_FLUXO))
+	@Query(PROJECAO + "WHERE c.dataVencimento BETWEEN :inicio AND :fim")
+	Stream<ContaResponse> buscarFluxoPorVencimento(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim,
+			Pageable pageable);
+
+	/**
+	 * Lê, em fluxo, uma página de contas com data de vencimento entre duas datas e
+	 * descrição contendo um texto, sem diferenciar maiúsculas e acentos. O fluxo
+	 * deve ser consumido dentro de uma transação e fechado ao final.
+	 * 
+	 * @param inicio    a data de vencimento inicial
+	 * @param fim       a data de vencimento final
+	 * @param descricao o texto que deve estar contido na descrição da conta, com
+	 *                  os caracteres curinga do LIKE escapados por {@code \}
+	 * @param pageable  informações de paginação
+	 * @return o fluxo das contas da página
+	 */
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = TAMANHO_LEITURA_FLUXO))
+	@Query(PROJECAO + "WHERE c.dataVencimento BETWEEN :inicio AND :fim AND " + DESCRICAO_CONTEM)
+	Stream<ContaResponse> buscarFluxoPorDescricao(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim,
+			@Param("descricao") String descricao, Pageable pageable);
+
+	/**
+	 * Estima a quantidade de contas com data de vencimento entre duas datas e
+	 * descrição contendo um texto a partir das estatísticas do planejador do
+	 * PostgreSQL, sem percorrer as contas.
+	 * 
+	 * @param inicio    a data de vencimento inicial
+	 * @param fim       a data de vencimento final
+	 * @param descricao o texto que deve estar contido na descrição da conta, com
+	 *                  os caracteres curinga do LIKE escapados, ou vazio para não
+	 *                  filtrar a descrição
+	 * @return a quantidade estimada de contas, no mínimo 1
+	 */
+	@Query(value = "SELECT contas_estimar_total(:inicio, :fim, :descricao)", nativeQuery = true)
+	long estimarTotal(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim,
+			@Param("descricao") String descricao);
+
 	/**
 	 * Busca todas as contas que foram pagas entre duas datas específicas.
 	 * 
@@ -54,6 +181,360 @@ public interface ContaRepository extends JpaRepository<Conta, Long> {
 	 * @param pageable             informações de paginação
 	 * @return uma página de contas que atendem aos critérios especificados
 	 */
-	Page<Conta> findByDataVencimentoBetween(LocalDate dataVencimentoInicio, LocalDate dataVencimentoFim,
-			Pageable pageable);
+	@Query(value = PROJECAO + "WHERE c.dataVencimento BETWEEN :inicio AND :fim",
+			countQuery = "SELECT COUNT(c) FROM Conta c WHERE c.dataVencimento BETWEEN :inicio AND :fim")
+	Page<ContaResponse> findByDataVencimentoBetween(@Param("inicio") LocalDate dataVencimentoInicio,
+			@Param("fim") LocalDate dataVencimentoFim, Pageable pageable);
+
+	/**
+	 * Agrega no banco de dados as contas pagas entre duas datas: quantidade, soma,
+	 * menor e maior valor. Apenas uma linha é retornada, independentemente da
+	 * quantidade de contas no intervalo.
+	 * 
+	 * @param dataInicio a data inicial do intervalo de pagamento
+	 * @param dataFim    a data final do intervalo de pagamento
+	 * @return o resumo dos pagamentos, sem o detalhamento por situação
+	 */
+	@Query("SELECT new com.lyncas.desafio.contasapagar.dto.ValorTotalPagoResponse("
+			+ "COUNT(c), SUM(c.valor), MIN(c.valor), MAX(c.valor)) "
+			+ "FROM Conta c WHERE c.dataPagamento BETWEEN :dataInicio AND :dataFim")
+	ValorTotalPagoResponse resumirPagamentos(@Param("dataInicio") LocalDate dataInicio,
+			@Param("dataFim") LocalDate dataFim);
+
+	/**
+	 * Agrega no banco de dados as contas pagas entre duas datas, agrupadas por
+	 * situação.
+	 * 
+	 * @param dataInicio a data inicial do intervalo de pagamento
+	 * @param dataFim    a data final do intervalo de pagamento
+	 * @return a quantidade e o valor total pago de cada situação
+	 */
+	@Query("SELECT new com.lyncas.desafio.contasapagar.dto.TotalPorSituacao(c.situacao, COUNT(c), SUM(c.valor)) "
+			+ "FROM Conta c WHERE c.dataPagamento BETWEEN :dataInicio AND :dataFim "
+			+ "GROUP BY c.situacao ORDER BY c.situacao")
+	List<TotalPorSituacao> totalizarPagamentosPorSituacao(@Param("dataInicio") LocalDate dataInicio,
+			@Param("dataFim") LocalDate dataFim);
+
+	/**
+	 * Busca as contas com data de vencimento entre duas datas posicionadas após um
+	 * cursor na ordenação {@code (data_vencimento, id)}. A comparação de tuplas
+	 * permite ao PostgreSQL posicionar a leitura diretamente no índice, sem
+	 * percorrer as páginas anteriores.
+	 * 
+	 * @param inicio     a data de vencimento inicial
+	 * @param fim        a data de vencimento final
+	 * @param ultimaData a data de vencimento da última conta retornada
+	 * @param ultimoId   o identificador da última conta retornada
+	 * @param limite     a quantidade máxima de contas
+	 * @return as contas seguintes ao cursor, na ordenação do cursor
+	 */
+	@Query(PROJECAO + "WHERE c.dataVencimento BETWEEN :inicio AND :fim "
+			+ "AND (c.dataVencimento, c.id) > (:ultimaData, :ultimoId) ORDER BY c.dataVencimento, c.id")
+	List<ContaResponse> buscarAposCursor(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim,
+			@Param("ultimaData") LocalDate ultimaData, @Param("ultimoId") Long ultimoId, Limit limite);
+
+	/**
+	 * Busca as contas com data de vencimento entre duas datas e descrição contendo
+	 * um texto, sem diferenciar maiúsculas e acentos, posicionadas após um cursor
+	 * na ordenação {@code (data_vencimento, id)}.
+	 * 
+	 * @param inicio     a data de vencimento inicial
+	 * @param fim        a data de vencimento final
+	 * @param descricao  o texto que deve estar contido na descrição da conta
+	 * @param ultimaData a data de vencimento da última conta retornada
+	 * @param ultimoId   o identificador da última conta retornada
+	 * @param limite     a quantidade máxima de contas
+	 * @return as contas seguintes ao cursor, na ordenação do cursor
+	 */
+	@Query(PROJECAO + "WHERE c.dataVencimento BETWEEN :inicio AND :fim "
+			+ "AND " + DESCRICAO_CONTEM + " "
+			+ "AND (c.dataVencimento, c.id) > (:ultimaData, :ultimoId) ORDER BY c.dataVencimento, c.id")
+	List<ContaResponse> buscarAposCursorComDescricao(@Param("inicio") LocalDate inicio,
+			@Param("fim") LocalDate fim, @Param("descricao") String descricao,
+			@Param("ultimaData") LocalDate ultimaData, @Param("ultimoId") Long ultimoId, Limit limite);
+
+	/**
+	 * Lê, em fluxo, as contas com data de vencimento entre duas datas, na
+	 * ordenação {@code (data_vencimento, id)}. As contas são buscadas do cursor do
+	 * servidor em blocos de {@value #TAMANHO_LEITURA_FLUXO} à medida que o
+	 * fluxo é consumido. O fluxo deve ser consumido dentro de uma transação e
+	 * fechado ao final.
+	 * 
+	 * @param inicio a data de vencimento inicial
+	 * @param fim    a data de vencimento final
+	 * @return o fluxo das contas que atendem aos critérios especificados
+	 */
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = TAMANHO_LEITURA_FLUXO))
+	@Query(PROJECAO + "WHERE c.dataVencimento BETWEEN :inicio AND :fim ORDER BY c.dataVencimento, c.id")
+	Stream<ContaResponse> exportarPorVencimento(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+
+	/**
+	 * Lê, em fluxo, as contas com data de vencimento entre duas datas e descrição
+	 * contendo um texto, sem diferenciar maiúsculas e acentos, na ordenação
+	 * {@code (data_vencimento, id)}. O fluxo deve ser consumido dentro de uma
+	 * transação e fechado ao final.
+	 * 
+	 * @param inicio    a data de vencimento inicial
+	 * @param fim       a data de vencimento final
+	 * @param descricao o texto que deve estar contido na descrição da conta, com
+	 *                  os caracteres curinga do LIKE escapados por {@code \}
+	 * @return o fluxo das contas que atendem aos critérios especificados
+	 */
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = TAMANHO_LEITURA_FLUXO))
+	@Query(PROJECAO + "WHERE c.dataVencimento BETWEEN :inicio AND :fim AND " + DESCRICAO_CONTEM
+			+ " ORDER BY c.dataVencimento, c.id")
+	Stream<ContaResponse> exportarPorDescricao(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim,
+			@Param("descricao") String descricao);
+
+	/**
+	 * Busca as contas com data de vencimento entre duas datas e uma situação,
+	 * posicionadas após um cursor na ordenação {@code (data_vencimento, id)}.
+	 * Utilizada para percorrer em lotes as contas de uma alteração de situação
+	 * por filtro.
+	 * 
+	 * @param inicio     a data de vencimento inicial
+	 * @param fim        a data de vencimento final
+	 * @param situacao   a situação das contas
+	 * @param ultimaData a data de vencimento da última conta retornada
+	 * @param ultimoId   o identificador da última conta retornada
+	 * @param limite     a quantidade máxima de contas
+	 * @return as contas seguintes ao cursor, na ordenação do cursor
+	 */
+	@Query(PROJECAO + "WHERE c.dataVencimento BETWEEN :inicio AND :fim AND c.situacao = :situacao "
+			+ "AND (c.dataVencimento, c.id) > (:ultimaData, :ultimoId) ORDER BY c.dataVencimento, c.id")
+	List<ContaResponse> buscarAposCursorPorSituacao(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim,
+			@Param("situacao") SituacaoConta situacao, @Param("ultimaData") LocalDate ultimaData,
+			@Param("ultimoId") Long ultimoId, Limit limite);
+
+	/**
+	 * Busca as contas em aberto (pendentes ou atrasadas) com data de vencimento
+	 * entre duas datas, posicionadas após um cursor na ordenação
+	 * {@code (data_vencimento, id)}. As situações são informadas como literais, e
+	 * não como parâmetros, para que o PostgreSQL reconheça a condição do índice
+	 * parcial {@code idx_contas_abertas_vencimento} ({@code situacao IN (1, 3)}) já
+	 * no planejamento da consulta.
+	 * 
+	 * @param inicio     a data de vencimento inicial
+	 * @param fim        a data de vencimento final
+	 * @param ultimaData a data de vencimento da última conta retornada
+	 * @param ultimoId   o identificador da última conta retornada
+	 * @param limite     a quantidade máxima de contas
+	 * @return as contas em aberto seguintes ao cursor, na ordenação do cursor
+	 */
+	@Query(PROJECAO + "WHERE c.dataVencimento BETWEEN :inicio AND :fim AND c.situacao IN ("
+			+ "com.lyncas.desafio.contasapagar.model.SituacaoConta.PENDENTE, "
+			+ "com.lyncas.desafio.contasapagar.model.SituacaoConta.ATRASADA) "
+			+ "AND (c.dataVencimento, c.id) > (:ultimaData, :ultimoId) ORDER BY c.dataVencimento, c.id")
+	List<ContaResponse> buscarAbertasAposCursor(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim,
+			@Param("ultimaData") LocalDate ultimaData, @Param("ultimoId") Long ultimoId, Limit limite);
+
+	/**
+	 * Condição das alterações de uma conta: a conta do identificador e da data de
+	 * vencimento atual, na versão informada, ou em qualquer versão se a versão for
+	 * nula. A data de vencimento restringe o comando à partição do mês da conta.
+	 */
+	String CONTA_NA_VERSAO = "WHERE id = :id AND data_vencimento = :vencimentoAtual "
+			+ "AND (CAST(:versao AS BIGINT) IS NULL OR versao = CAST(:versao AS BIGINT)) ";
+
+	/**
+	 * Busca a data de vencimento atual de uma conta no índice global
+	 * {@code contas_ids}, mantido pelos triggers da tabela de contas, para que as
+	 * alterações pelo identificador leiam apenas a partição do mês da conta.
+	 *
+	 * @param id o identificador da conta
+	 * @return a data de vencimento, ou vazio se a conta não existe ou está
+	 *         arquivada
+	 */
+	default Optional<LocalDate> buscarVencimento(Long id) {
+		return buscarDataVencimento(id).map(Date::toLocalDate);
+	}
+
+	/**
+	 * Busca as datas de vencimento distintas de um lote de contas no índice global
+	 * {@code contas_ids}, como {@link #buscarVencimento(Long)}.
+	 *
+	 * @param ids os identificadores das contas
+	 * @return as datas de vencimento das contas existentes
+	 */
+	default List<LocalDate> buscarVencimentos(Long[] ids) {
+		return buscarDatasVencimento(ids).stream().map(Date::toLocalDate).toList();
+	}
+
+	/**
+	 * Consulta de {@link #buscarVencimento(Long)}, lida do primário com as
+	 * réplicas de leitura habilitadas. A data é retornada pelo Hibernate como
+	 * {@link Date} nas consultas nativas.
+	 *
+	 * @param id o identificador da conta
+	 * @return a data de vencimento, ou vazio se a conta não existe
+	 */
+	@Transactional
+	@Query(value = "SELECT data_vencimento FROM contas_ids WHERE id = :id", nativeQuery = true)
+	Optional<Date> buscarDataVencimento(@Param("id") Long id);
+
+	/**
+	 * Consulta de {@link #buscarVencimentos(Long[])}, como
+	 * {@link #buscarDataVencimento(Long)}.
+	 *
+	 * @param ids os identificadores das contas
+	 * @return as datas de vencimento das contas existentes
+	 */
+	@Transactional
+	@Query(value = "SELECT DISTINCT data_vencimento FROM contas_ids WHERE id = ANY(:ids)", nativeQuery = true)
+	List<Date> buscarDatasVencimento(@Param("ids") Long[] ids);
+
+	/**
+	 * Altera a situação de um lote de contas em um único comando, com os
+	 * identificadores enviados em um único parâmetro do tipo array e a versão de
+	 * cada conta incrementada. As datas de vencimento das contas restringem o
+	 * comando às partições dos seus meses. A consolidação diária dos pagamentos é
+	 * atualizada pelo trigger da tabela de contas uma vez por comando.
+	 * 
+	 * @param ids           os identificadores das contas
+	 * @param vencimentos   as datas de vencimento atuais das contas
+	 * @param situacao      o código da nova situação das contas
+	 * @param dataPagamento a data de pagamento gravada nas contas, ou null para
+	 *                      manter a data atual
+	 * @return os identificadores das contas alteradas
+	 */
+	@Transactional
+	@Query(value = "UPDATE contas SET situacao = :situacao, versao = versao + 1, "
+			+ "data_pagamento = COALESCE(CAST(:dataPagamento AS DATE), data_pagamento) WHERE id = ANY(:ids) "
+			+ "AND data_vencimento = ANY(:vencimentos) RETURNING id", nativeQuery = true)
+	List<Long> alterarSituacao(@Param("ids") Long[] ids, @Param("vencimentos") LocalDate[] vencimentos,
+			@Param("situacao") short situacao, @Param("dataPagamento") LocalDate dataPagamento);
+
+	/**
+	 * Altera a situação de um lote de contas de uma alteração por filtro, como
+	 * {@link #alterarSituacao(Long[], short, LocalDate)}, repetindo no comando as
+	 * condições do filtro. As contas alteradas por outra transação após a leitura
+	 * do lote, que deixaram a situação atual ou o intervalo de vencimento, não são
+	 * alteradas; o intervalo de vencimento também restringe o comando às
+	 * partições do intervalo.
+	 * 
+	 * @param ids           os identificadores das contas
+	 * @param situacaoAtual o código da situação atual das contas do filtro
+	 * @param inicio        a data de vencimento inicial do filtro
+	 * @param fim           a data de vencimento final do filtro
+	 * @param situacao      o código da nova situação das contas
+	 * @param dataPagamento a data de pagamento gravada nas contas, ou null para
+	 *                      manter a data atual
+	 * @return a quantidade de contas alteradas
+	 */
+	@Transactional
+	@Modifying
+	@Query(value = "UPDATE contas SET situacao = :situacao, versao = versao + 1, "
+			+ "data_pagamento = COALESCE(CAST(:dataPagamento AS DATE), data_pagamento) WHERE id = ANY(:ids) "
+			+ "AND situacao = :situacaoAtual AND data_vencimento BETWEEN :inicio AND :fim", nativeQuery = true)
+	int alterarSituacaoPorFiltro(@Param("ids") Long[] ids, @Param("situacaoAtual") short situacaoAtual,
+			@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim, @Param("situacao") short situacao,
+			@Param("dataPagamento") LocalDate dataPagamento);
+
+	/**
+	 * Atualiza os dados de uma conta em um único comando, sem ler a conta antes e
+	 * incrementando a sua versão. Com a versão informada, a conta só é atualizada
+	 * se não foi alterada desde a leitura dessa versão.
+	 * 
+	 * @param id              o identificador da conta
+	 * @param vencimentoAtual a data de vencimento atual da conta
+	 * @param versao          a versão lida pelo cliente, ou null para atualizar
+	 *                        qualquer versão
+	 * @param dataVencimento  a nova data de vencimento
+	 * @param dataPagamento   a nova data de pagamento, ou null
+	 * @param valor           o novo valor
+	 * @param descricao       a nova descrição
+	 * @param situacao        o código da nova situação
+	 * @return a nova versão da conta, ou vazio se a conta não existe, está em
+	 *         outra versão ou em outra data de vencimento
+	 */
+	@Transactional
+	@Query(value = "UPDATE contas SET data_vencimento = :dataVencimento, "
+			+ "data_pagamento = CAST(:dataPagamento AS DATE), valor = :valor, descricao = :descricao, "
+			+ "situacao = :situacao, versao = versao + 1 " + CONTA_NA_VERSAO + "RETURNING versao", nativeQuery = true)
+	Optional<Long> atualizar(@Param("id") Long id, @Param("vencimentoAtual") LocalDate vencimentoAtual,
+			@Param("versao") Long versao,
+			@Param("dataVencimento") LocalDate dataVencimento, @Param("dataPagamento") LocalDate dataPagamento,
+			@Param("valor") BigDecimal valor, @Param("descricao") String descricao, @Param("situacao") short situacao);
+
+	/**
+	 * Altera a situação de uma conta em um único comando, sem ler a conta antes e
+	 * incrementando a sua versão. Com a versão informada, a conta só é alterada se
+	 * não foi alterada desde a leitura dessa versão.
+	 * 
+	 * @param id              o identificador da conta
+	 * @param vencimentoAtual a data de vencimento atual da conta
+	 * @param situacao        o código da nova situação
+	 * @param versao          a versão lida pelo cliente, ou null para alterar
+	 *                        qualquer versão
+	 * @return a nova versão da conta, ou vazio se a conta não existe, está em
+	 *         outra versão ou em outra data de vencimento
+	 */
+	@Transactional
+	@Query(value = "UPDATE contas SET situacao = :situacao, versao = versao + 1 " + CONTA_NA_VERSAO
+			+ "RETURNING versao", nativeQuery = true)
+	Optional<Long> alterarSituacaoDaConta(@Param("id") Long id, @Param("vencimentoAtual") LocalDate vencimentoAtual,
+			@Param("situacao") short situacao, @Param("versao") Long versao);
+
+	/**
+	 * Cria as partições mensais de contas dos meses entre as datas informadas e
+	 * dos meses com contas na partição padrão, transferindo essas contas para as
+	 * novas partições. As partições existentes são mantidas.
+	 * 
+	 * @param inicio uma data do primeiro mês
+	 * @param fim    uma data do último mês
+	 * @return a quantidade de partições criadas
+	 */
+	@Transactional
+	@Query(value = "SELECT contas_criar_particoes(:inicio, :fim)", nativeQuery = true)
+	int criarParticoes(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+
+	/**
+	 * Transfere um lote de contas para a tabela {@code contas_arquivo} em um único
+	 * comando, que remove as contas de {@code contas} e as insere no arquivo. O
+	 * intervalo de vencimento do lote restringe a remoção às partições dos meses
+	 * do lote; as contas alteradas para outra situação ou data de vencimento desde
+	 * a leitura do lote não são transferidas.
+	 *
+	 * @param ids      os identificadores das contas
+	 * @param situacao o código da situação das contas transferidas
+	 * @param inicio   a data de vencimento da primeira conta do lote
+	 * @param fim      a data de vencimento da última conta do lote
+	 * @return a quantidade de contas transferidas
+	 */
+	@Transactional
+	@Modifying
+	@Query(value = "WITH arquivadas AS (DELETE FROM contas WHERE id = ANY(:ids) AND situacao = :situacao "
+			+ "AND data_vencimento BETWEEN :inicio AND :fim RETURNING *) "
+			+ "INSERT INTO contas_arquivo (id, data_vencimento, data_pagamento, valor, descricao, situacao, versao) "
+			+ "SELECT id, data_vencimento, data_pagamento, valor, descricao, situacao, versao FROM arquivadas",
+			nativeQuery = true)
+	int arquivar(@Param("ids") Long[] ids, @Param("situacao") short situacao, @Param("inicio") LocalDate inicio,
+			@Param("fim") LocalDate fim);
+
+	/**
+	 * Busca uma conta pelo identificador, do cache de segundo nível quando a conta
+	 * já foi lida. A busca é declarada com transação de gravação para que as
+	 * contas ausentes do cache sejam lidas do primário com as réplicas de leitura
+	 * habilitadas; dentro de uma transação somente leitura, é lida pela conexão
+	 * dessa transação.
+	 *
+	 * @param id o identificador da conta
+	 * @return a conta, ou vazio se não existe
+	 */
+	@Override
+	@Transactional
+	Optional<Conta> findById(Long id);
+
+	/**
+	 * Busca a versão atual de uma conta no banco de dados, sem consultar o cache
+	 * de segundo nível, para o índice de pagamentos antes de uma alteração. A
+	 * conta é lida pela função {@code contas_buscar}, apenas da partição do mês
+	 * da conta, e do primário com as réplicas de leitura habilitadas.
+	 *
+	 * @param id o identificador da conta
+	 * @return a conta, ou vazio se não existe
+	 */
+	@Transactional
+	@Query(value = "SELECT * FROM contas_buscar(:id)", nativeQuery = true)
+	Optional<Conta> buscarAtual(@Param("id") Long id);
 }
@@ -0,0 +1,122 @@
+package com.lyncas.desafio.contasapagar.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.lyncas.desafio.contasapagar.model.ImportacaoJob;
+import com.lyncas.desafio.contasapagar.model.StatusImportacao;
+
+/**
+ * Repositório para operações de acesso a dados da entidade
+ * {@link ImportacaoJob}. As atualizações de progresso e de cancelamento são
+ * feitas por comandos pontuais para que o worker e as requisições de
+ * cancelamento não sobrescrevam as alterações um do outro.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@Repository
+public interface ImportacaoJobRepository extends JpaRepository<ImportacaoJob, UUID> {
+
+	/**
+	 * Marca o início da execução de uma importação pendente.
+	 *
+	 * @param id     o identificador da importação
+	 * @param inicio o momento de início
+	 * @return 1 se a importação foi iniciada, 0 se não estava pendente
+	 */
+	@Transactional
+	@Modifying
+	@Query("UPDATE ImportacaoJob j SET j.status = 'EXECUTANDO', j.iniciadoEm = :inicio"
+			+ " WHERE j.id = :id AND j.status = 'PENDENTE' AND j.cancelamentoSolicitado = false")
+	int iniciar(UUID id, LocalDateTime inicio);
+
+	/**
+	 * Atualiza os contadores de progresso de uma importação.
+	 *
+	 * @param id               o identificador da importação
+	 * @param linhasLidas      a quantidade de linhas lidas
+	 * @param linhasGravadas   a quantidade de contas gravadas
+	 * @param linhasRejeitadas a quantidade de linhas rejeitadas
+	 * @param linhasPorSegundo a vazão atual da importação
+	 * @return a quantidade de registros atualizados
+	 */
+	@Transactional
+	@Modifying
+	@Query("UPDATE ImportacaoJob j SET j.linhasLidas = :linhasLidas, j.linhasGravadas = :linhasGravadas,"
+			+ " j.linhasRejeitadas = :linhasRejeitadas, j.linhasPorSegundo = :linhasPorSegundo WHERE j.id = :id")
+	int atualizarProgresso(UUID id, long linhasLidas, long linhasGravadas, long linhasRejeitadas,
+			long linhasPorSegundo);
+
+	/**
+	 * Solicita o cancelamento de uma importação ainda não finalizada.
+	 *
+	 * @param id o identificador da importação
+	 * @return 1 se o cancelamento foi registrado, 0 se a importação já terminou
+	 */
+	@Transactional
+	@Modifying
+	@Query("UPDATE ImportacaoJob j SET j.cancelamentoSolicitado = true"
+			+ " WHERE j.id = :id AND j.status IN ('PENDENTE', 'EXECUTANDO')")
+	int solicitarCancelamento(UUID id);
+
+	/**
+	 * Verifica se o cancelamento de uma importação foi solicitado.
+	 *
+	 * @param id o identificador da importação
+	 * @return true se o cancelamento foi solicitado
+	 */
+	@Query("SELECT j.cancelamentoSolicitado FROM ImportacaoJob j WHERE j.id = :id")
+	boolean isCancelamentoSolicitado(UUID id);
+
+	/**
+	 * Registra a situação final de uma importação.
+	 *
+	 * @param id       o identificador da importação
+	 * @param status   a situação final
+	 * @param mensagem a mensagem descrevendo o resultado
+	 * @param erros    as mensagens de erro das linhas rejeitadas
+	 * @param fim      o momento da finalização
+	 * @return a quantidade de registros atualizados
+	 */
+	@Transactional
+	@Modifying
+	@Query("UPDATE ImportacaoJob j SET j.status = :status, j.mensagem = :mensagem, j.erros = :erros,"
+			+ " j.finalizadoEm = :fim WHERE j.id = :id")
+	int finalizar(UUID id, StatusImportacao status, String mensagem, String erros, LocalDateTime fim);
+
+	/**
+	 * Registra como falhas as importações pendentes ou em execução, interrompidas
+	 * pelo encerramento da aplicação.
+	 *
+	 * @param mensagem a mensagem descrevendo a interrupção
+	 * @param fim      o momento da finalização
+	 * @return a quantidade de importações interrompidas
+	 */
+	@Transactional
+	@Modifying
+	@Query("UPDATE ImportacaoJob j SET j.status = 'FALHOU', j.mensagem = :mensagem, j.finalizadoEm = :fim"
+			+ " WHERE j.status IN ('PENDENTE', 'EXECUTANDO')")
+	int interromper(String mensagem, LocalDateTime fim);
+
+	/**
+	 * Busca uma importação pelo identificador, no primário com as réplicas de
+	 * leitura habilitadas, para que uma importação recém-criada ou o seu progresso
+	 * não sejam lidos com atraso.
+	 *
+	 * @param id o identificador da importação
+	 * @return a importação, ou vazio se não existe
+	 */
+	@Override
+	@Transactional
+	Optional<ImportacaoJob> findById(UUID id);
+}
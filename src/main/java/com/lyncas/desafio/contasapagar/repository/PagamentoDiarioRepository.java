@@ -0,0 +1,87 @@
+package com.lyncas.desafio.contasapagar.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.lyncas.desafio.contasapagar.dto.TotalPorSituacao;
+import com.lyncas.desafio.contasapagar.dto.ValorTotalPagoResponse;
+import com.lyncas.desafio.contasapagar.model.PagamentoDiario;
+import com.lyncas.desafio.contasapagar.model.PagamentoDiarioId;
+
+/**
+ * Repositório da consolidação diária dos pagamentos. As consultas de total pago
+ * leem uma linha por dia e situação, em vez de uma linha por conta.
+ * 
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ * 
+ * @author juliano.ezequiel
+ */
+@Repository
+public interface PagamentoDiarioRepository extends JpaRepository<PagamentoDiario, PagamentoDiarioId> {
+
+	/**
+	 * Agrega os pagamentos consolidados entre duas datas: quantidade, soma, menor e
+	 * maior valor.
+	 * 
+	 * @param dataInicio a data inicial do intervalo de pagamento
+	 * @param dataFim    a data final do intervalo de pagamento
+	 * @return o resumo dos pagamentos, sem o detalhamento por situação
+	 */
+	@Query("SELECT new com.lyncas.desafio.contasapagar.dto.ValorTotalPagoResponse("
+			+ "SUM(p.quantidade), SUM(p.valorTotal), MIN(p.valorMinimo), MAX(p.valorMaximo)) "
+			+ "FROM PagamentoDiario p WHERE p.dataPagamento BETWEEN :dataInicio AND :dataFim")
+	ValorTotalPagoResponse resumirPagamentos(@Param("dataInicio") LocalDate dataInicio,
+			@Param("dataFim") LocalDate dataFim);
+
+	/**
+	 * Agrega os pagamentos consolidados entre duas datas, agrupados por situação.
+	 * 
+	 * @param dataInicio a data inicial do intervalo de pagamento
+	 * @param dataFim    a data final do intervalo de pagamento
+	 * @return a quantidade e o valor total pago de cada situação
+	 */
+	@Query("SELECT new com.lyncas.desafio.contasapagar.dto.TotalPorSituacao("
+			+ "p.situacao, SUM(p.quantidade), SUM(p.valorTotal)) "
+			+ "FROM PagamentoDiario p WHERE p.dataPagamento BETWEEN :dataInicio AND :dataFim "
+			+ "GROUP BY p.situacao ORDER BY p.situacao")
+	List<TotalPorSituacao> totalizarPagamentosPorSituacao(@Param("dataInicio") LocalDate dataInicio,
+			@Param("dataFim") LocalDate dataFim);
+
+	/**
+	 * Conta os dias e situações em que a consolidação diverge das tabelas
+	 * {@code contas} e {@code contas_arquivo}.
+	 * 
+	 * @return a quantidade de divergências, zero quando consistente
+	 */
+	@Query(value = "SELECT COUNT(*) FROM contas_pagamento_diario_divergencias", nativeQuery = true)
+	long contarDivergencias();
+
+	/**
+	 * Reconstrói a consolidação a partir das tabelas {@code contas} e
+	 * {@code contas_arquivo}. As gravações em contas ficam bloqueadas durante a
+	 * reconstrução.
+	 * 
+	 * @return a quantidade de dias e situações consolidados
+	 */
+	@Transactional
+	@Query(value = "SELECT contas_pagamento_diario_reconstruir()", nativeQuery = true)
+	long reconstruir();
+
+	/**
+	 * Lê toda a consolidação para a carga do índice de pagamentos, no primário com
+	 * as réplicas de leitura habilitadas, pois o índice recebe em seguida as
+	 * alterações gravadas no primário.
+	 * 
+	 * @return a consolidação de todos os dias e situações
+	 */
+	@Override
+	@Transactional
+	List<PagamentoDiario> findAll();
+}
@@ -0,0 +1,28 @@
+package com.lyncas.desafio.contasapagar.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.lyncas.desafio.contasapagar.model.Usuario;
+
+/**
+ * Repositório para operações de acesso a dados da entidade {@link Usuario}.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@Repository
+public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
+
+	/**
+	 * Busca um usuário pelo nome de usuário.
+	 *
+	 * @param username o nome de usuário
+	 * @return o usuário, se cadastrado
+	 */
+	Optional<Usuario> findByUsername(String username);
+}
@@ -0,0 +1,122 @@
+package com.lyncas.desafio.contasapagar.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.lyncas.desafio.contasapagar.dto.ContaResponse;
+import com.lyncas.desafio.contasapagar.model.SituacaoConta;
+import com.lyncas.desafio.contasapagar.repository.ContaRepository;
+import com.lyncas.desafio.contasapagar.utils.CursorContaUtil;
+import com.lyncas.desafio.contasapagar.utils.CursorContaUtil.Cursor;
+
+/**
+ * Arquiva as contas pagas com vencimento anterior ao mês atual menos
+ * {@code contas.arquivo.meses} meses, transferindo-as da tabela de contas para
+ * a tabela {@code contas_arquivo} periodicamente ({@code contas.arquivo.cron}).
+ *
+ * <p>
+ * As contas são transferidas em lotes de {@code contas.arquivo.tamanho-lote},
+ * cada lote em um único comando e em sua própria transação, para que os
+ * bloqueios das linhas sejam mantidos apenas durante o lote. Em caso de erro,
+ * os lotes anteriores permanecem arquivados, e o arquivamento continua na
+ * próxima execução. O total pago inclui as contas arquivadas, e a listagem de
+ * contas as inclui quando o intervalo de vencimento alcança o arquivo.
+ * </p>
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@Service
+public class ArquivoContasService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ArquivoContasService.class);
+
+	@Autowired
+	private ContaRepository contaRepository;
+
+	@Autowired
+	private CacheContasService cacheContasService;
+
+	@Value("${contas.arquivo.habilitado:true}")
+	private boolean habilitado;
+
+	/** Quantidade de meses anteriores ao atual mantidos na tabela de contas */
+	@Value("${contas.arquivo.meses:12}")
+	private int meses;
+
+	/** Quantidade de contas transferidas por comando */
+	@Value("${contas.arquivo.tamanho-lote:1000}")
+	private int tamanhoLote;
+
+	/**
+	 * Arquiva as contas pagas com vencimento anterior ao limite configurado, se
+	 * habilitado. Uma falha é registrada e o arquivamento continua na próxima
+	 * execução.
+	 *
+	 * @return a quantidade de contas arquivadas
+	 */
+	@Scheduled(cron = "${contas.arquivo.cron:0 30 3 * * *}")
+	public long arquivar() {
+		if (!habilitado) {
+			return 0;
+		}
+		LocalDate limite = LocalDate.now().withDayOfMonth(1).minusMonths(meses);
+		try {
+			long inicio = System.currentTimeMillis();
+			long arquivadas = arquivarAntesDe(limite);
+			if (arquivadas > 0) {
+				LOGGER.info("Contas arquivadas com vencimento anterior a {}: {} em {} ms", limite, arquivadas,
+						System.currentTimeMillis() - inicio);
+			}
+			return arquivadas;
+		} catch (DataAccessException e) {
+			LOGGER.warn("Erro ao arquivar as contas, o arquivamento continuará na próxima execução", e);
+			return 0;
+		}
+	}
+
+	/**
+	 * Percorre as contas pagas com vencimento anterior ao limite em lotes, na
+	 * ordenação do índice {@code idx_contas_data_vencimento_id}, e transfere cada
+	 * lote para o arquivo. As contas do lote são descartadas do cache de segundo
+	 * nível antes e após o arquivamento, e a consulta pelo identificador deixa de
+	 * encontrá-las. O cursor avança a cada lote, de forma que as contas de outras
+	 * situações não são lidas novamente.
+	 *
+	 * @param limite a data de vencimento a partir da qual as contas são mantidas
+	 * @return a quantidade de contas arquivadas
+	 */
+	public long arquivarAntesDe(LocalDate limite) {
+		Cursor cursor = CursorContaUtil.INICIO;
+		long arquivadas = 0;
+		List<ContaResponse> lote;
+		do {
+			lote = contaRepository.buscarAposCursorPorSituacao(cursor.dataVencimento(), limite.minusDays(1),
+					SituacaoConta.PAGA, cursor.dataVencimento(), cursor.id(), Limit.of(tamanhoLote));
+			if (!lote.isEmpty()) {
+				Long[] ids = lote.stream().map(ContaResponse::getId).toArray(Long[]::new);
+				ContaResponse ultima = lote.get(lote.size() - 1);
+				cacheContasService.descartar(ids);
+				try {
+					arquivadas += contaRepository.arquivar(ids, SituacaoConta.PAGA.getCodigo(),
+							lote.get(0).getDataVencimento(), ultima.getDataVencimento());
+				} finally {
+					cacheContasService.descartar(ids);
+				}
+				cursor = new Cursor(ultima.getDataVencimento(), ultima.getId());
+			}
+		} while (lote.size() == tamanhoLote);
+		return arquivadas;
+	}
+}
@@ -0,0 +1,50 @@
+package com.lyncas.desafio.contasapagar.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.lyncas.desafio.contasapagar.model.Conta;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Descarta contas do cache de segundo nível do Hibernate. As alterações de
+ * contas por comandos {@code UPDATE} e {@code DELETE} nativos, a importação e o
+ * arquivamento não passam pelo cache, e as contas alteradas são descartadas
+ * antes e após a gravação para que a consulta pelo identificador as leia
+ * novamente do banco de dados. O descarte após a gravação remove a versão
+ * anterior gravada no cache por uma consulta concorrente durante a alteração;
+ * apenas uma consulta que leu a conta antes do commit e a grava no cache após o
+ * segundo descarte mantém a versão anterior, até a expiração.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@Service
+public class CacheContasService {
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	/**
+	 * Descarta contas do cache.
+	 *
+	 * @param ids os identificadores das contas
+	 */
+	public void descartar(Long... ids) {
+		Cache cache = entityManagerFactory.getCache();
+		for (Long id : ids) {
+			cache.evict(Conta.class, id);
+		}
+	}
+
+	/**
+	 * Descarta todas as contas do cache.
+	 */
+	public void descartarTodas() {
+		entityManagerFactory.getCache().evict(Conta.class);
+	}
+}
@@ -1,28 +1,59 @@
 package com.lyncas.desafio.contasapagar.service;
 
-import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.math.BigDecimal;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.apache.commons.csv.CSVPrinter;
 
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVRecord;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
+import com.lyncas.desafio.contasapagar.dto.AlteracaoSituacaoRequest;
+import com.lyncas.desafio.contasapagar.dto.CadastroLoteResponse;
+import com.lyncas.desafio.contasapagar.dto.ContaResponse;
+import com.lyncas.desafio.contasapagar.dto.PaginaCursor;
+import com.lyncas.desafio.contasapagar.dto.PaginaFatia;
+import com.lyncas.desafio.contasapagar.dto.ValorTotalPagoResponse;
+import com.lyncas.desafio.contasapagar.exception.ConflitoVersaoContaException;
+import com.lyncas.desafio.contasapagar.exception.ContaNaoEncontradaException;
 import com.lyncas.desafio.contasapagar.model.Conta;
+import com.lyncas.desafio.contasapagar.model.ModoContagem;
+import com.lyncas.desafio.contasapagar.model.SituacaoConta;
+import com.lyncas.desafio.contasapagar.repository.ContaComArquivoRepository;
 import com.lyncas.desafio.contasapagar.repository.ContaRepository;
+import com.lyncas.desafio.contasapagar.repository.PagamentoDiarioRepository;
+import com.lyncas.desafio.contasapagar.utils.ContaCsvUtil;
+import com.lyncas.desafio.contasapagar.utils.CursorContaUtil;
+import com.lyncas.desafio.contasapagar.utils.CursorContaUtil.Cursor;
 
 /**
  * Classe de serviço responsável por gerenciar operações relacionadas às contas
- * a pagar, como criação, atualização, alteração de situação, listagem e
- * importação de contas via CSV.
+ * a pagar, como criação, atualização, alteração de situação e listagem. A
+ * importação de contas via CSV é tratada por {@link ImportacaoJobService}.
  * 
  * @version 1.0.0 data 20/09/2024
  * @since 1.0.0 data 20/09/2024
@@ -32,12 +63,78 @@ import com.lyncas.desafio.contasapagar.repository.ContaRepository;
 @Service
 public class ContaService {
 
+	/**
+	 * Limites utilizados na listagem por cursor quando as datas de vencimento não
+	 * são informadas
+	 */
+	private static final LocalDate DATA_MINIMA = CursorContaUtil.INICIO.dataVencimento();
+	private static final LocalDate DATA_MAXIMA = LocalDate.of(9999, 12, 31);
+
+	/**
+	 * Quantidade de contas gravadas na exportação entre cada envio parcial ao
+	 * cliente
+	 */
+	private static final int CONTAS_POR_ENVIO = 1000;
+
+	/**
+	 * Quantidade de contas gravadas na listagem em NDJSON entre cada envio
+	 * parcial ao cliente
+	 */
+	private static final int CONTAS_POR_ENVIO_NDJSON = 100;
+
+	/**
+	 * Quantidade de contas alteradas por comando na alteração de situação em
+	 * lote
+	 */
+	static final int CONTAS_POR_ALTERACAO = 1000;
+
+	/**
+	 * Quantidade máxima de contas por requisição no cadastro em lote, mantendo a
+	 * transação e o contexto de persistência limitados
+	 */
+	static final int CONTAS_POR_CADASTRO = 1000;
+
 	/**
 	 * Repositório de contas a pagar para realizar operações com o banco de dados
 	 */
 	@Autowired
 	private ContaRepository contaRepository;
 
+	/**
+	 * Repositório das contas em uso e arquivadas, utilizado pela listagem quando o
+	 * intervalo de vencimento alcança o arquivo
+	 */
+	@Autowired
+	private ContaComArquivoRepository contaComArquivoRepository;
+
+	/**
+	 * Repositório da consolidação diária dos pagamentos, mantida pelos triggers da
+	 * tabela de contas
+	 */
+	@Autowired
+	private PagamentoDiarioRepository pagamentoDiarioRepository;
+
+	/**
+	 * Índice em memória dos valores pagos, atualizado a cada gravação quando
+	 * habilitado
+	 */
+	@Autowired
+	private IndicePagamentosService indicePagamentosService;
+
+	/**
+	 * Cache de segundo nível das contas, do qual as contas alteradas por comandos
+	 * {@code UPDATE} são descartadas
+	 */
+	@Autowired
+	private CacheContasService cacheContasService;
+
+	/**
+	 * Conversor JSON da aplicação, utilizado na listagem em NDJSON com o mesmo
+	 * formato das respostas JSON
+	 */
+	@Autowired
+	private ObjectMapper objectMapper;
+
 	/**
 	 * Cria uma nova conta a pagar.
 	 *
@@ -45,109 +142,607 @@ public class ContaService {
 	 * @return a conta criada e salva no banco de dados
 	 */
 	public Conta criarConta(Conta conta) {
-		return contaRepository.save(conta);
+		return indicePagamentosService.registrar(null, Optional::empty, anterior -> contaRepository.save(conta));
 	}
 
 	/**
-	 * Atualiza uma conta a pagar existente.
+	 * Cadastra um lote de contas em uma única transação, com os INSERTs enviados
+	 * ao banco de dados em lotes JDBC. Cada conta é validada com as regras da
+	 * importação; as contas inválidas são rejeitadas sem impedir o cadastro das
+	 * demais.
 	 *
-	 * @param id    o identificador da conta a ser atualizada
-	 * @param conta os novos dados da conta
-	 * @return a conta atualizada e salva no banco de dados
+	 * @param contas as contas a serem cadastradas
+	 * @return os identificadores gerados, na ordem das contas, e os erros das
+	 *         contas rejeitadas
+	 * @throws IllegalArgumentException se nenhuma conta for informada ou se o lote
+	 *                                  exceder {@value #CONTAS_POR_CADASTRO}
+	 *                                  contas
 	 */
-	public Conta atualizarConta(Long id, Conta conta) {
-		conta.setId(id);
-		return contaRepository.save(conta);
+	public CadastroLoteResponse criarContas(List<Conta> contas) {
+		if (contas == null || contas.isEmpty()) {
+			throw new IllegalArgumentException("Nenhuma conta informada");
+		}
+		if (contas.size() > CONTAS_POR_CADASTRO) {
+			throw new IllegalArgumentException("O lote excede " + CONTAS_POR_CADASTRO + " contas");
+		}
+		List<Conta> validas = new ArrayList<>(contas.size());
+		List<String> erros = new ArrayList<>();
+		for (int i = 0; i < contas.size(); i++) {
+			Conta conta = contas.get(i);
+			if (conta != null) {
+				// O identificador e a versão são gerados no cadastro
+				conta.setId(null);
+				conta.setVersao(null);
+			}
+			try {
+				ContaCsvUtil.validar(conta);
+				validas.add(conta);
+			} catch (IllegalArgumentException e) {
+				erros.add("Conta " + (i + 1) + ": " + e.getMessage());
+			}
+		}
+		if (!validas.isEmpty()) {
+			indicePagamentosService.registrarNovas(() -> contaRepository.saveAll(validas));
+		}
+		List<Long> ids = contas.stream().map(conta -> conta != null ? conta.getId() : null).toList();
+		return new CadastroLoteResponse(ids, erros);
+	}
+
+	/**
+	 * Obtém uma conta pelo identificador, do cache de segundo nível quando a conta
+	 * já foi lida. Fora do cache, a conta é lida do primário mesmo com as réplicas
+	 * de leitura habilitadas, para que o cache não receba uma versão atrasada.
+	 *
+	 * @param id o identificador da conta
+	 * @return a conta
+	 * @throws ContaNaoEncontradaException se a conta não existir ou estiver
+	 *                                     arquivada
+	 */
+	public Conta obterConta(Long id) {
+		return contaRepository.findById(id)
+				.orElseThrow(() -> new ContaNaoEncontradaException("Conta não encontrada: " + id));
 	}
 
 	/**
-	 * Altera a situação de uma conta a pagar com base no seu identificador.
+	 * Atualiza uma conta a pagar existente em um único comando {@code UPDATE},
+	 * sem ler a conta antes, exceto para o índice de pagamentos quando habilitado.
+	 * O comando lê apenas a partição do mês da conta, com a data de vencimento da
+	 * conta lida pelo índice de pagamentos ou de {@code contas_ids}. Com a versão
+	 * informada, a conta só é atualizada se ainda estiver nessa versão. A conta é
+	 * descartada do cache de segundo nível antes e após o comando.
+	 *
+	 * @param id     o identificador da conta a ser atualizada
+	 * @param conta  os novos dados da conta
+	 * @param versao a versão da conta lida pelo cliente, ou null para atualizar
+	 *               qualquer versão
+	 * @return a conta atualizada, com a nova versão
+	 * @throws ContaNaoEncontradaException  se a conta não existir
+	 * @throws ConflitoVersaoContaException se a conta estiver em outra versão
+	 */
+	public Conta atualizarConta(Long id, Conta conta, Long versao) {
+		cacheContasService.descartar(id);
+		try {
+			return indicePagamentosService.registrar(id, () -> contaRepository.buscarAtual(id), anterior -> {
+				conta.setId(id);
+				conta.setVersao(alterarNoVencimento(id, anterior,
+						vencimento -> contaRepository.atualizar(id, vencimento, versao, conta.getDataVencimento(),
+								conta.getDataPagamento(), conta.getValor(), conta.getDescricao(),
+								codigo(conta.getSituacao())))
+						.orElseThrow(() -> falhaAlteracao(id, versao)));
+				return conta;
+			});
+		} finally {
+			cacheContasService.descartar(id);
+		}
+	}
+
+	/**
+	 * Altera a situação de uma conta a pagar em um único comando {@code UPDATE},
+	 * sem ler a conta antes, exceto para o índice de pagamentos quando habilitado.
+	 * O comando lê apenas a partição do mês da conta, como em
+	 * {@link #atualizarConta(Long, Conta, Long)}. Com a versão informada, a conta
+	 * só é alterada se ainda estiver nessa versão. A conta é descartada do cache
+	 * de segundo nível antes e após o comando.
 	 *
 	 * @param id       o identificador da conta
-	 * @param situacao a nova situação da conta (por exemplo: "Paga", "Em aberto")
+	 * @param situacao a nova situação da conta
+	 * @param versao   a versão da conta lida pelo cliente, ou null para alterar
+	 *                 qualquer versão
+	 * @return a nova versão da conta
+	 * @throws ContaNaoEncontradaException  se a conta não existir
+	 * @throws ConflitoVersaoContaException se a conta estiver em outra versão
+	 */
+	public long alterarSituacao(Long id, SituacaoConta situacao, Long versao) {
+		cacheContasService.descartar(id);
+		try {
+			return indicePagamentosService.registrar(id, () -> contaRepository.buscarAtual(id), anterior -> {
+				Conta alterada = anterior.map(ContaService::copiar).orElseGet(Conta::new);
+				alterada.setId(id);
+				alterada.setSituacao(situacao);
+				short codigo = codigo(situacao);
+				alterada.setVersao(alterarNoVencimento(id, anterior,
+						vencimento -> contaRepository.alterarSituacaoDaConta(id, vencimento, codigo, versao))
+						.orElseThrow(() -> falhaAlteracao(id, versao)));
+				return alterada;
+			}).getVersao();
+		} finally {
+			cacheContasService.descartar(id);
+		}
+	}
+
+	/**
+	 * Obtém o código gravado de uma situação.
+	 *
+	 * @param situacao a situação
+	 * @return o código da situação
+	 * @throws IllegalArgumentException se a situação não for informada
+	 */
+	private static short codigo(SituacaoConta situacao) {
+		if (situacao == null) {
+			throw new IllegalArgumentException("A situação deve ser informada");
+		}
+		return situacao.getCodigo();
+	}
+
+	/**
+	 * Executa a alteração de uma conta com a data de vencimento atual da conta, que
+	 * restringe o comando à partição do mês. A data é a da conta lida antes da
+	 * alteração ou, sem a leitura, a de {@code contas_ids}. Se a conta mudou de
+	 * mês desde a leitura da data, a alteração é repetida com a nova data.
+	 *
+	 * @param id        o identificador da conta
+	 * @param anterior  a conta lida antes da alteração, se lida
+	 * @param alteracao o comando de alteração, executado com a data de vencimento
+	 * @return a nova versão da conta, ou vazio se a conta não foi alterada
 	 */
-	public void alterarSituacao(Long id, String situacao) {
-		Optional<Conta> contaOpt = contaRepository.findById(id);
-		contaOpt.ifPresent(conta -> {
-			conta.setSituacao(situacao);
-			contaRepository.save(conta);
-		});
+	private Optional<Long> alterarNoVencimento(Long id, Optional<Conta> anterior,
+			Function<LocalDate, Optional<Long>> alteracao) {
+		Optional<LocalDate> vencimento = anterior.map(Conta::getDataVencimento)
+				.or(() -> contaRepository.buscarVencimento(id));
+		while (vencimento.isPresent()) {
+			Optional<Long> versao = alteracao.apply(vencimento.get());
+			if (versao.isPresent()) {
+				return versao;
+			}
+			Optional<LocalDate> atual = contaRepository.buscarVencimento(id);
+			if (atual.equals(vencimento)) {
+				return Optional.empty();
+			}
+			vencimento = atual;
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Identifica por que uma alteração de conta não alterou nenhuma linha: a conta
+	 * não existe ou está em outra versão.
+	 *
+	 * @param id     o identificador da conta
+	 * @param versao a versão informada na alteração
+	 * @return a exceção a ser lançada
+	 */
+	private RuntimeException falhaAlteracao(Long id, Long versao) {
+		if (versao == null || contaRepository.buscarVencimento(id).isEmpty()) {
+			return new ContaNaoEncontradaException("Conta não encontrada: " + id);
+		}
+		return new ConflitoVersaoContaException(
+				"A conta " + id + " foi alterada após a leitura da versão " + versao);
+	}
+
+	/**
+	 * Copia os dados de uma conta, sem vincular a cópia ao contexto de
+	 * persistência.
+	 *
+	 * @param conta a conta copiada
+	 * @return a cópia da conta
+	 */
+	private static Conta copiar(Conta conta) {
+		Conta copia = new Conta();
+		copia.setId(conta.getId());
+		copia.setDataVencimento(conta.getDataVencimento());
+		copia.setDataPagamento(conta.getDataPagamento());
+		copia.setValor(conta.getValor());
+		copia.setDescricao(conta.getDescricao());
+		copia.setSituacao(conta.getSituacao());
+		copia.setVersao(conta.getVersao());
+		return copia;
+	}
+
+	/**
+	 * Altera a situação de várias contas, indicadas pelos identificadores ou pelo
+	 * filtro de data de vencimento e situação atual. As contas são alteradas em
+	 * lotes de {@value #CONTAS_POR_ALTERACAO}, cada lote em um único comando
+	 * {@code UPDATE} e em sua própria transação, para que os bloqueios das linhas
+	 * sejam mantidos apenas durante o lote, e as contas de cada lote são
+	 * descartadas do cache de segundo nível antes e após o comando. O índice de
+	 * pagamentos é recarregado ao final. Em caso de erro, os lotes anteriores
+	 * permanecem gravados e o índice também é recarregado; a alteração pode ser
+	 * repetida.
+	 *
+	 * @param alteracao as contas e a nova situação
+	 * @return a quantidade de contas alteradas
+	 * @throws IllegalArgumentException se a nova situação ou as contas não forem
+	 *                                  informadas
+	 */
+	public long alterarSituacaoEmLote(AlteracaoSituacaoRequest alteracao) {
+		if (alteracao.getSituacao() == null) {
+			throw new IllegalArgumentException("A nova situação deve ser informada");
+		}
+		boolean porIds = alteracao.getIds() != null && !alteracao.getIds().isEmpty();
+		if (!porIds && (alteracao.getDataVencimentoInicio() == null || alteracao.getDataVencimentoFim() == null
+				|| alteracao.getSituacaoAtual() == null)) {
+			throw new IllegalArgumentException("Informe os identificadores das contas ou as datas de vencimento "
+					+ "inicial e final e a situação atual");
+		}
+		try {
+			return porIds ? alterarSituacaoPorIds(alteracao) : alterarSituacaoPorFiltro(alteracao);
+		} finally {
+			// As contas não passam pelo índice de pagamentos, que é recarregado como
+			// após uma importação, também em caso de erro, com os lotes já gravados
+			indicePagamentosService.recarregar();
+		}
+	}
+
+	private long alterarSituacaoPorIds(AlteracaoSituacaoRequest alteracao) {
+		Long[] ids = alteracao.getIds().stream().filter(Objects::nonNull).distinct().toArray(Long[]::new);
+		long alteradas = 0;
+		for (int inicio = 0; inicio < ids.length; inicio += CONTAS_POR_ALTERACAO) {
+			Long[] lote = Arrays.copyOfRange(ids, inicio, Math.min(inicio + CONTAS_POR_ALTERACAO, ids.length));
+			cacheContasService.descartar(lote);
+			try {
+				alteradas += alterarSituacaoNosVencimentos(lote, alteracao);
+			} finally {
+				cacheContasService.descartar(lote);
+			}
+		}
+		return alteradas;
+	}
+
+	/**
+	 * Altera a situação de um lote de contas com as datas de vencimento atuais das
+	 * contas, lidas de {@code contas_ids}, que restringem o comando às partições
+	 * dos meses das contas. As contas que mudaram para outro mês entre a leitura
+	 * das datas e o comando são alteradas por um novo comando, com as novas datas.
+	 */
+	private int alterarSituacaoNosVencimentos(Long[] lote, AlteracaoSituacaoRequest alteracao) {
+		Set<LocalDate> consultados = new HashSet<>();
+		Long[] pendentes = lote;
+		int alteradas = 0;
+		List<LocalDate> vencimentos = contaRepository.buscarVencimentos(pendentes);
+		while (!vencimentos.isEmpty()) {
+			consultados.addAll(vencimentos);
+			Set<Long> alteradasNoComando = new HashSet<>(contaRepository.alterarSituacao(pendentes,
+					vencimentos.toArray(LocalDate[]::new), alteracao.getSituacao().getCodigo(),
+					alteracao.getDataPagamento()));
+			alteradas += alteradasNoComando.size();
+			pendentes = Arrays.stream(pendentes).filter(id -> !alteradasNoComando.contains(id)).toArray(Long[]::new);
+			vencimentos = pendentes.length == 0 ? List.of()
+					: contaRepository.buscarVencimentos(pendentes).stream()
+							.filter(vencimento -> !consultados.contains(vencimento)).toList();
+		}
+		return alteradas;
+	}
+
+	/**
+	 * Percorre as contas do filtro em lotes, na ordenação do índice
+	 * {@code idx_contas_data_vencimento_id}, e altera cada lote pelos
+	 * identificadores e pelas condições do filtro, de forma que uma conta alterada
+	 * por outra transação entre a leitura e a alteração do lote só é alterada se
+	 * ainda atender ao filtro. O cursor avança a cada lote, de forma que as contas
+	 * já alteradas não são lidas novamente.
+	 */
+	private long alterarSituacaoPorFiltro(AlteracaoSituacaoRequest alteracao) {
+		Cursor cursor = CursorContaUtil.INICIO;
+		long alteradas = 0;
+		List<ContaResponse> lote;
+		do {
+			lote = contaRepository.buscarAposCursorPorSituacao(alteracao.getDataVencimentoInicio(),
+					alteracao.getDataVencimentoFim(), alteracao.getSituacaoAtual(), cursor.dataVencimento(),
+					cursor.id(), Limit.of(CONTAS_POR_ALTERACAO));
+			if (!lote.isEmpty()) {
+				Long[] ids = lote.stream().map(ContaResponse::getId).toArray(Long[]::new);
+				cacheContasService.descartar(ids);
+				try {
+					alteradas += contaRepository.alterarSituacaoPorFiltro(ids,
+							alteracao.getSituacaoAtual().getCodigo(), alteracao.getDataVencimentoInicio(),
+							alteracao.getDataVencimentoFim(), alteracao.getSituacao().getCodigo(),
+							alteracao.getDataPagamento());
+				} finally {
+					cacheContasService.descartar(ids);
+				}
+				ContaResponse ultima = lote.get(lote.size() - 1);
+				cursor = new Cursor(ultima.getDataVencimento(), ultima.getId());
+			}
+		} while (lote.size() == CONTAS_POR_ALTERACAO);
+		return alteradas;
 	}
 
 	/**
 	 * Lista as contas com base nos filtros de data de vencimento e descrição, de
-	 * forma paginada.
+	 * forma paginada. As contas arquivadas são incluídas apenas quando o intervalo
+	 * de vencimento alcança o arquivo; nos demais intervalos apenas a tabela de
+	 * contas é lida. Sem uma das datas, o intervalo não tem limite nesse lado e
+	 * alcança o arquivo se houver contas arquivadas.
 	 *
 	 * @param pageable             informações sobre paginação
-	 * @param dataVencimentoInicio filtro para a data de vencimento inicial
-	 * @param dataVencimentoFim    filtro para a data de vencimento final
+	 * @param dataVencimentoInicio filtro para a data de vencimento inicial, ou
+	 *                             null para não limitar o início
+	 * @param dataVencimentoFim    filtro para a data de vencimento final, ou null
+	 *                             para não limitar o fim
 	 * @param descricao            filtro para descrição da conta
 	 * @return página contendo as contas que correspondem aos filtros
 	 */
-	public Page<Conta> listarContas(Pageable pageable, LocalDate dataVencimentoInicio, LocalDate dataVencimentoFim,
-			String descricao) {
+	@Transactional(readOnly = true)
+	public Page<ContaResponse> listarContas(Pageable pageable, LocalDate dataVencimentoInicio,
+			LocalDate dataVencimentoFim, String descricao) {
+		LocalDate inicio = dataVencimentoInicio != null ? dataVencimentoInicio : DATA_MINIMA;
+		LocalDate fim = dataVencimentoFim != null ? dataVencimentoFim : DATA_MAXIMA;
 
+		if (contaComArquivoRepository.alcancaArquivo(inicio, fim)) {
+			return descricao == null || descricao.isBlank()
+					? contaComArquivoRepository.findByDataVencimentoBetween(inicio, fim, pageable)
+					: contaComArquivoRepository.buscarPorDescricao(inicio, fim, escaparCuringas(descricao), pageable);
+		}
 		if (descricao == null || descricao.isBlank()) {
 			// Busca sem filtro de descrição
-			return contaRepository.findByDataVencimentoBetween(dataVencimentoInicio, dataVencimentoFim, pageable);
+			return contaRepository.findByDataVencimentoBetween(inicio, fim, pageable);
 		} else {
 			// Busca com filtro de descrição
-			return contaRepository.findByDataVencimentoBetweenAndDescricaoContaining(dataVencimentoInicio,
-					dataVencimentoFim, descricao, pageable);
+			return contaRepository.buscarPorDescricao(inicio, fim, escaparCuringas(descricao), pageable);
 		}
 	}
 
 	/**
-	 * Obtém o valor total pago em contas em um intervalo de datas.
+	 * Lista as contas por cursor, na ordenação {@code (data_vencimento, id)}, com
+	 * base nos filtros de data de vencimento e descrição. Cada página é lida a
+	 * partir da posição do cursor, com custo independente da profundidade da
+	 * página.
 	 *
-	 * @param dataInicio data de início do intervalo
-	 * @param dataFim    data de fim do intervalo
-	 * @return o valor total pago dentro do intervalo de datas
+	 * @param cursor               o cursor retornado pela página anterior, ou vazio
+	 *                             para a primeira página
+	 * @param tamanho              a quantidade de contas por página
+	 * @param dataVencimentoInicio filtro para a data de vencimento inicial,
+	 *                             opcional
+	 * @param dataVencimentoFim    filtro para a data de vencimento final, opcional
+	 * @param descricao            filtro para descrição da conta, opcional
+	 * @return a página de contas e o cursor da página seguinte
+	 * @throws IllegalArgumentException se o cursor for inválido
 	 */
-	public BigDecimal obterValorTotalPago(LocalDate dataInicio, LocalDate dataFim) {
-		List<Conta> contasPagas = contaRepository.findByDataPagamentoBetween(dataInicio, dataFim);
-		BigDecimal totalPago = contasPagas.stream().map(Conta::getValor).reduce(BigDecimal.ZERO, BigDecimal::add);
-		return totalPago;
+	@Transactional(readOnly = true)
+	public PaginaCursor<ContaResponse> listarContasPorCursor(String cursor, int tamanho,
+			LocalDate dataVencimentoInicio, LocalDate dataVencimentoFim, String descricao) {
+		Cursor posicao = CursorContaUtil.decodificar(cursor);
+		LocalDate inicio = dataVencimentoInicio != null ? dataVencimentoInicio : DATA_MINIMA;
+		LocalDate fim = dataVencimentoFim != null ? dataVencimentoFim : DATA_MAXIMA;
+		// Uma conta a mais indica se existe a página seguinte
+		Limit limite = Limit.of(tamanho + 1);
+
+		List<ContaResponse> contas;
+		if (descricao == null || descricao.isBlank()) {
+			contas = contaRepository.buscarAposCursor(inicio, fim, posicao.dataVencimento(), posicao.id(), limite);
+		} else {
+			contas = contaRepository.buscarAposCursorComDescricao(inicio, fim, escaparCuringas(descricao),
+					posicao.dataVencimento(), posicao.id(), limite);
+		}
+
+		return paginar(contas, tamanho);
 	}
 
 	/**
-	 * Importa contas a partir de um arquivo CSV. Cada registro no arquivo será
-	 * transformado em uma nova conta a ser criada.
+	 * Lista por cursor as contas em aberto (pendentes ou atrasadas), na ordenação
+	 * {@code (data_vencimento, id)}, com base nos filtros de data de vencimento.
+	 * As contas são lidas do índice parcial {@code idx_contas_abertas_vencimento},
+	 * que contém apenas as contas em aberto: o custo da consulta acompanha a
+	 * quantidade de contas em aberto, e não o total de contas.
 	 *
-	 * @param arquivo o arquivo CSV contendo os dados das contas
-	 * @throws IOException caso ocorra um erro na leitura do arquivo
+	 * @param cursor               o cursor retornado pela página anterior, ou vazio
+	 *                             para a primeira página
+	 * @param tamanho              a quantidade de contas por página
+	 * @param dataVencimentoInicio filtro para a data de vencimento inicial,
+	 *                             opcional
+	 * @param dataVencimentoFim    filtro para a data de vencimento final, opcional
+	 * @return a página de contas em aberto e o cursor da página seguinte
+	 * @throws IllegalArgumentException se o cursor for inválido
 	 */
-	public void importarContas(MultipartFile arquivo) throws IOException {
-		BufferedReader reader = new BufferedReader(new InputStreamReader(arquivo.getInputStream()));
-		Iterable<CSVRecord> registros = CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(reader);
+	@Transactional(readOnly = true)
+	public PaginaCursor<ContaResponse> listarContasAbertas(String cursor, int tamanho,
+			LocalDate dataVencimentoInicio, LocalDate dataVencimentoFim) {
+		Cursor posicao = CursorContaUtil.decodificar(cursor);
+		LocalDate inicio = dataVencimentoInicio != null ? dataVencimentoInicio : DATA_MINIMA;
+		LocalDate fim = dataVencimentoFim != null ? dataVencimentoFim : DATA_MAXIMA;
+		return paginar(contaRepository.buscarAbertasAposCursor(inicio, fim, posicao.dataVencimento(), posicao.id(),
+				Limit.of(tamanho + 1)), tamanho);
+	}
 
-		for (CSVRecord registro : registros) {
-			try {
-				LocalDate dataVencimento = LocalDate.parse(registro.get("data_vencimento"));
+	/**
+	 * Monta a página de uma listagem por cursor a partir das contas lidas, com uma
+	 * conta a mais que o tamanho da página quando existe a página seguinte.
+	 */
+	private static PaginaCursor<ContaResponse> paginar(List<ContaResponse> contas, int tamanho) {
+		if (contas.size() <= tamanho) {
+			return new PaginaCursor<>(contas, null);
+		}
+		List<ContaResponse> pagina = contas.subList(0, tamanho);
+		return new PaginaCursor<>(new ArrayList<>(pagina), CursorContaUtil.codificar(pagina.get(tamanho - 1)));
+	}
 
-				// Verifica se a coluna "data_pagamento" está presente e tenta fazer o parse,
-				// caso contrário, usa null
-				LocalDate dataPagamento = null;
-				if (registro.isSet("data_pagamento") && !registro.get("data_pagamento").isEmpty()) {
-					dataPagamento = LocalDate.parse(registro.get("data_pagamento"));
-				}
+	/**
+	 * Lista as contas com base nos filtros de data de vencimento e descrição, de
+	 * forma paginada e sem a consulta de contagem exata da listagem paginada. A
+	 * resposta indica se existe a página seguinte e, no modo
+	 * {@link ModoContagem#ESTIMADA}, o total estimado pelo planejador do banco de
+	 * dados. Na última página o total é conhecido e informado com exatidão.
+	 *
+	 * @param pageable             informações sobre paginação
+	 * @param dataVencimentoInicio filtro para a data de vencimento inicial,
+	 *                             opcional
+	 * @param dataVencimentoFim    filtro para a data de vencimento final, opcional
+	 * @param descricao            filtro para descrição da conta, opcional
+	 * @param contagem             o modo de contagem do total
+	 * @return a página de contas, sem o total exato
+	 */
+	@Transactional(readOnly = true)
+	public PaginaFatia<ContaResponse> listarContasSemContagem(Pageable pageable, LocalDate dataVencimentoInicio,
+			LocalDate dataVencimentoFim, String descricao, ModoContagem contagem) {
+		LocalDate inicio = dataVencimentoInicio != null ? dataVencimentoInicio : DATA_MINIMA;
+		LocalDate fim = dataVencimentoFim != null ? dataVencimentoFim : DATA_MAXIMA;
+		String termo = descricao == null || descricao.isBlank() ? "" : escaparCuringas(descricao);
+
+		Slice<ContaResponse> fatia;
+		if (termo.isEmpty()) {
+			fatia = contaRepository.buscarFatiaPorVencimento(inicio, fim, pageable);
+		} else {
+			fatia = contaRepository.buscarFatiaPorDescricao(inicio, fim, termo, pageable);
+		}
 
-				BigDecimal valor = new BigDecimal(registro.get("valor"));
-				String descricao = registro.get("descricao");
-				String situacao = registro.get("situacao");
+		Long total = null;
+		if (contagem == ModoContagem.ESTIMADA) {
+			// Contas já lidas até o fim desta página, mais uma se há página seguinte
+			long lidas = pageable.isPaged() ? pageable.getOffset() + fatia.getNumberOfElements()
+					: fatia.getNumberOfElements();
+			total = fatia.hasNext() ? Math.max(contaRepository.estimarTotal(inicio, fim, termo), lidas + 1) : lidas;
+		}
+		return new PaginaFatia<>(fatia.getContent(), fatia.getNumber(), fatia.getSize(), fatia.hasNext(), total);
+	}
 
-				Conta conta = new Conta();
-				conta.setDataVencimento(dataVencimento);
-				conta.setDataPagamento(dataPagamento);
-				conta.setValor(valor);
-				conta.setDescricao(descricao);
-				conta.setSituacao(situacao);
+	/**
+	 * Lista as contas com base nos filtros de data de vencimento e descrição, de
+	 * forma paginada, em NDJSON: uma conta em JSON por linha. As contas são lidas
+	 * do banco de dados em fluxo e gravadas à medida que chegam, com envios
+	 * parciais a cada {@value #CONTAS_POR_ENVIO_NDJSON} contas, sem montar a
+	 * página em memória.
+	 *
+	 * @param saida                o destino das contas, que não é fechado
+	 * @param pageable             informações sobre paginação
+	 * @param dataVencimentoInicio filtro para a data de vencimento inicial,
+	 *                             opcional
+	 * @param dataVencimentoFim    filtro para a data de vencimento final, opcional
+	 * @param descricao            filtro para descrição da conta, opcional
+	 * @return a quantidade de contas gravadas
+	 * @throws IOException se ocorrer um erro ao gravar no destino
+	 */
+	@Transactional(readOnly = true)
+	public long listarContasNdjson(OutputStream saida, Pageable pageable, LocalDate dataVencimentoInicio,
+			LocalDate dataVencimentoFim, String descricao) throws IOException {
+		LocalDate inicio = dataVencimentoInicio != null ? dataVencimentoInicio : DATA_MINIMA;
+		LocalDate fim = dataVencimentoFim != null ? dataVencimentoFim : DATA_MAXIMA;
 
-				criarConta(conta); // Salva a conta criada
-			} catch (Exception e) {
-				e.printStackTrace();
+		// Os envios parciais são feitos apenas a cada bloco de contas
+		ObjectWriter escritor = objectMapper.writerFor(ContaResponse.class)
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		long gravadas = 0;
+		try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida);
+				Stream<ContaResponse> contas = descricao == null || descricao.isBlank()
+						? contaRepository.buscarFluxoPorVencimento(inicio, fim, pageable)
+						: contaRepository.buscarFluxoPorDescricao(inicio, fim, escaparCuringas(descricao),
+								pageable)) {
+			gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			gerador.setRootValueSeparator(null);
+			Iterator<ContaResponse> iterador = contas.iterator();
+			while (iterador.hasNext()) {
+				escritor.writeValue(gerador, iterador.next());
+				gerador.writeRaw('\n');
+				if (++gravadas % CONTAS_POR_ENVIO_NDJSON == 0) {
+					gerador.flush();
+				}
 			}
 		}
+		return gravadas;
+	}
+
+	/**
+	 * Exporta as contas filtradas por data de vencimento e descrição em CSV, no
+	 * formato lido pela importação de contas, na ordenação
+	 * {@code (data_vencimento, id)}. As contas são lidas do banco de dados em
+	 * fluxo e gravadas à medida que chegam, com envios parciais a cada
+	 * {@value #CONTAS_POR_ENVIO} contas; a memória utilizada não depende da
+	 * quantidade de contas exportadas.
+	 *
+	 * @param saida                o destino do arquivo CSV, que não é fechado
+	 * @param dataVencimentoInicio filtro para a data de vencimento inicial,
+	 *                             opcional
+	 * @param dataVencimentoFim    filtro para a data de vencimento final, opcional
+	 * @param descricao            filtro para descrição da conta, opcional
+	 * @return a quantidade de contas exportadas
+	 * @throws IOException se ocorrer um erro ao gravar no destino
+	 */
+	@Transactional(readOnly = true)
+	public long exportarContas(OutputStream saida, LocalDate dataVencimentoInicio, LocalDate dataVencimentoFim,
+			String descricao) throws IOException {
+		LocalDate inicio = dataVencimentoInicio != null ? dataVencimentoInicio : DATA_MINIMA;
+		LocalDate fim = dataVencimentoFim != null ? dataVencimentoFim : DATA_MAXIMA;
+
+		CSVPrinter csv = new CSVPrinter(
+				new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8)),
+				ContaCsvUtil.FORMATO_EXPORTACAO);
+		long exportadas = 0;
+		try (Stream<ContaResponse> contas = descricao == null || descricao.isBlank()
+				? contaRepository.exportarPorVencimento(inicio, fim)
+				: contaRepository.exportarPorDescricao(inicio, fim, escaparCuringas(descricao))) {
+			Iterator<ContaResponse> iterador = contas.iterator();
+			while (iterador.hasNext()) {
+				csv.printRecord(ContaCsvUtil.valores(iterador.next()));
+				if (++exportadas % CONTAS_POR_ENVIO == 0) {
+					csv.flush();
+				}
+			}
+		}
+		csv.flush();
+		return exportadas;
+	}
+
+	/**
+	 * Escapa os caracteres curinga do LIKE para que o filtro de descrição seja
+	 * comparado literalmente.
+	 *
+	 * @param descricao o filtro de descrição
+	 * @return o filtro com {@code \}, {@code %} e {@code _} escapados
+	 */
+	private static String escaparCuringas(String descricao) {
+		return descricao.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+
+	/**
+	 * Obtém o valor total pago em contas em um intervalo de datas. Os valores são
+	 * lidos da consolidação diária dos pagamentos, com uma linha por dia e
+	 * situação, sem percorrer a tabela de contas. A consolidação inclui as contas
+	 * arquivadas, sem consultar o arquivo. Com o índice de pagamentos em
+	 * memória carregado e cobrindo o intervalo, o total é obtido do índice, sem o
+	 * menor e o maior valor.
+	 *
+	 * @param dataInicio data de início do intervalo
+	 * @param dataFim    data de fim do intervalo
+	 * @return o resumo dos pagamentos dentro do intervalo de datas
+	 */
+	@Transactional(readOnly = true)
+	public ValorTotalPagoResponse obterValorTotalPago(LocalDate dataInicio, LocalDate dataFim) {
+		if (indicePagamentosService.cobre(dataInicio, dataFim)) {
+			return indicePagamentosService.resumir(dataInicio, dataFim);
+		}
+		ValorTotalPagoResponse resumo = pagamentoDiarioRepository.resumirPagamentos(dataInicio, dataFim);
+		if (resumo.getQuantidade() > 0) {
+			resumo.setPorSituacao(pagamentoDiarioRepository.totalizarPagamentosPorSituacao(dataInicio, dataFim));
+		}
+		return resumo;
+	}
+
+	/**
+	 * Verifica a consolidação diária dos pagamentos contra a tabela de contas.
+	 *
+	 * @return a quantidade de dias e situações divergentes, zero quando consistente
+	 */
+	@Transactional(readOnly = true)
+	public long verificarConsolidacao() {
+		return pagamentoDiarioRepository.contarDivergencias();
+	}
+
+	/**
+	 * Reconstrói a consolidação diária dos pagamentos a partir da tabela de contas.
+	 *
+	 * @return a quantidade de dias e situações consolidados
+	 */
+	public long reconstruirConsolidacao() {
+		return pagamentoDiarioRepository.reconstruir();
 	}
 
 }
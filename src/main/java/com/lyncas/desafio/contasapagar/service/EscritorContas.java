@@ -0,0 +1,39 @@
+package com.lyncas.desafio.contasapagar.service;
+
+import java.util.List;
+
+import com.lyncas.desafio.contasapagar.model.Conta;
+
+/**
+ * Destino das contas convertidas durante uma importação. Cada importação abre
+ * um escritor, envia as contas em lotes e o conclui ao final do arquivo.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+public interface EscritorContas extends AutoCloseable {
+
+	/**
+	 * Envia um lote de contas ao banco de dados.
+	 *
+	 * @param lote as contas a serem gravadas
+	 * @return a quantidade de contas efetivamente gravadas por este lote, ou zero
+	 *         se a gravação só for confirmada em {@link #concluir()}
+	 */
+	long gravar(List<Conta> lote);
+
+	/**
+	 * Conclui a gravação após o último lote.
+	 *
+	 * @return a quantidade de contas gravadas na conclusão
+	 */
+	long concluir();
+
+	/**
+	 * Libera os recursos do escritor, descartando o que não foi concluído.
+	 */
+	@Override
+	void close();
+}
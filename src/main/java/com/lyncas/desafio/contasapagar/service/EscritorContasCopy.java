@@ -0,0 +1,239 @@
+package com.lyncas.desafio.contasapagar.service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import com.lyncas.desafio.contasapagar.model.Conta;
+
+/**
+ * Escritor que carrega as contas com o comando {@code COPY} do PostgreSQL. As
+ * linhas são enviadas em formato texto para uma tabela temporária e, na
+ * conclusão, inseridas na tabela {@code contas} em um único comando. Toda a
+ * carga ocorre em uma única transação: se a importação falhar, nada é gravado.
+ *
+ * <p>
+ * Os ids são reservados da sequence {@code contas_id_seq} em blocos, como pelo
+ * Hibernate: cada valor obtido reserva os {@link Conta#ALOCACAO_IDS} ids que
+ * terminam nele. O valor padrão da coluna consumiria um bloco inteiro por conta.
+ * </p>
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+public class EscritorContasCopy implements EscritorContas {
+
+	/** Colunas carregadas, na ordem em que são escritas em cada linha. */
+	static final String COLUNAS = "data_vencimento, data_pagamento, valor, descricao, situacao";
+
+	/** Tabela temporária descartada ao final da transação. */
+	static final String CRIAR_STAGING = "CREATE TEMP TABLE contas_importacao ON COMMIT DROP AS SELECT " + COLUNAS
+			+ " FROM contas WITH NO DATA";
+
+	static final String COPY = "COPY contas_importacao (" + COLUNAS + ") FROM STDIN";
+
+	/** Reserva a quantidade informada de blocos de ids. */
+	static final String RESERVAR_IDS = "SELECT nextval('contas_id_seq') FROM generate_series(1, ?)";
+
+	/**
+	 * Insere as contas com os ids dos blocos reservados: a n-ésima conta (a partir
+	 * de zero) recebe um id do bloco n / 50, informado pelo seu último id.
+	 */
+	static final String MERGE = "INSERT INTO contas (id, " + COLUNAS + ") SELECT b.ultimo - "
+			+ (Conta.ALOCACAO_IDS - 1) + " + i.n % " + Conta.ALOCACAO_IDS + ", " + COLUNAS
+			+ " FROM (SELECT *, row_number() OVER () - 1 AS n FROM contas_importacao) i"
+			+ " JOIN unnest(?::bigint[]) WITH ORDINALITY AS b(ultimo, bloco) ON b.bloco - 1 = i.n / "
+			+ Conta.ALOCACAO_IDS;
+
+	private final Connection connection;
+
+	private CopyIn copyIn;
+
+	private boolean concluido;
+
+	/** Contas enviadas ao {@code COPY} */
+	private long enviadas;
+
+	/**
+	 * Verifica se a fonte de dados aponta para um PostgreSQL, requisito para o uso
+	 * do {@code COPY}.
+	 *
+	 * @param dataSource a fonte de dados da aplicação
+	 * @return true se as conexões forem do driver PostgreSQL
+	 */
+	public static boolean suportado(DataSource dataSource) {
+		try (Connection conn = dataSource.getConnection()) {
+			return conn.isWrapperFor(PGConnection.class);
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Abre uma conexão dedicada, cria a tabela temporária e inicia o
+	 * {@code COPY}.
+	 *
+	 * @param dataSource a fonte de dados PostgreSQL
+	 */
+	public EscritorContasCopy(DataSource dataSource) {
+		try {
+			this.connection = dataSource.getConnection();
+		} catch (SQLException e) {
+			throw new DataAccessResourceFailureException("Erro ao obter conexão para o COPY", e);
+		}
+		try {
+			connection.setAutoCommit(false);
+			try (Statement statement = connection.createStatement()) {
+				statement.execute(CRIAR_STAGING);
+			}
+			copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY);
+		} catch (SQLException e) {
+			close();
+			throw new DataAccessResourceFailureException("Erro ao iniciar o COPY de contas", e);
+		}
+	}
+
+	@Override
+	public long gravar(List<Conta> lote) {
+		StringBuilder linhas = new StringBuilder(lote.size() * 64);
+		for (Conta conta : lote) {
+			escreverLinha(linhas, conta);
+		}
+		byte[] bytes = linhas.toString().getBytes(StandardCharsets.UTF_8);
+		try {
+			copyIn.writeToCopy(bytes, 0, bytes.length);
+			enviadas += lote.size();
+		} catch (SQLException e) {
+			throw new DataAccessResourceFailureException("Erro ao enviar contas via COPY", e);
+		}
+		return 0;
+	}
+
+	@Override
+	public long concluir() {
+		try {
+			copyIn.endCopy();
+			copyIn = null;
+			long inseridas;
+			try (PreparedStatement statement = connection.prepareStatement(MERGE)) {
+				Array blocos = connection.createArrayOf("bigint", reservarIds(enviadas));
+				statement.setArray(1, blocos);
+				inseridas = statement.executeUpdate();
+				blocos.free();
+			}
+			connection.commit();
+			concluido = true;
+			return inseridas;
+		} catch (SQLException e) {
+			throw new DataAccessResourceFailureException("Erro ao concluir o COPY de contas", e);
+		}
+	}
+
+	@Override
+	public void close() {
+		try {
+			if (copyIn != null && copyIn.isActive()) {
+				copyIn.cancelCopy();
+			}
+			if (!concluido) {
+				connection.rollback();
+			}
+		} catch (SQLException e) {
+			// A conexão será descartada a seguir; o erro original já foi propagado
+		} finally {
+			try {
+				connection.setAutoCommit(true);
+				connection.close();
+			} catch (SQLException e) {
+				// Ignora falhas ao devolver a conexão ao pool
+			}
+		}
+	}
+
+	/**
+	 * Reserva os blocos de ids das contas. O primeiro valor da sequence (1) não
+	 * forma um bloco completo, com ids positivos, e é descartado.
+	 *
+	 * @param contas a quantidade de contas
+	 * @return o último id de cada bloco reservado
+	 */
+	private Long[] reservarIds(long contas) throws SQLException {
+		long necessarios = (contas + Conta.ALOCACAO_IDS - 1) / Conta.ALOCACAO_IDS;
+		List<Long> blocos = new ArrayList<>();
+		while (blocos.size() < necessarios) {
+			try (PreparedStatement statement = connection.prepareStatement(RESERVAR_IDS)) {
+				statement.setLong(1, necessarios - blocos.size());
+				try (ResultSet resultado = statement.executeQuery()) {
+					while (resultado.next()) {
+						long ultimo = resultado.getLong(1);
+						if (ultimo >= Conta.ALOCACAO_IDS) {
+							blocos.add(ultimo);
+						}
+					}
+				}
+			}
+		}
+		return blocos.toArray(Long[]::new);
+	}
+
+	/**
+	 * Escreve uma conta como uma linha do formato texto do {@code COPY}: campos
+	 * separados por tabulação, {@code \N} para nulos e barra invertida como
+	 * caractere de escape.
+	 *
+	 * @param destino o buffer de saída
+	 * @param conta   a conta a ser escrita
+	 */
+	static void escreverLinha(StringBuilder destino, Conta conta) {
+		escreverData(destino, conta.getDataVencimento());
+		destino.append('\t');
+		escreverData(destino, conta.getDataPagamento());
+		destino.append('\t');
+		destino.append(conta.getValor().toPlainString());
+		destino.append('\t');
+		escreverTexto(destino, conta.getDescricao());
+		destino.append('\t');
+		destino.append(conta.getSituacao().getCodigo());
+		destino.append('\n');
+	}
+
+	private static void escreverData(StringBuilder destino, LocalDate data) {
+		if (data == null) {
+			destino.append("\\N");
+		} else {
+			destino.append(data);
+		}
+	}
+
+	private static void escreverTexto(StringBuilder destino, String texto) {
+		if (texto == null) {
+			destino.append("\\N");
+			return;
+		}
+		for (int i = 0; i < texto.length(); i++) {
+			char c = texto.charAt(i);
+			switch (c) {
+			case '\\' -> destino.append("\\\\");
+			case '\t' -> destino.append("\\t");
+			case '\n' -> destino.append("\\n");
+			case '\r' -> destino.append("\\r");
+			default -> destino.append(c);
+			}
+		}
+	}
+}
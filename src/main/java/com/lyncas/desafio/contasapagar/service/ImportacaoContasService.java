@@ -0,0 +1,377 @@
+package com.lyncas.desafio.contasapagar.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.lyncas.desafio.contasapagar.dto.ResultadoImportacao;
+import com.lyncas.desafio.contasapagar.exception.ImportacaoCanceladaException;
+import com.lyncas.desafio.contasapagar.model.Conta;
+import com.lyncas.desafio.contasapagar.model.ModoImportacao;
+import com.lyncas.desafio.contasapagar.utils.ContaCsvUtil;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Serviço responsável pela importação em massa de contas a partir de arquivos
+ * CSV. A conversão e a validação das linhas são feitas em paralelo e a gravação
+ * em uma única thread. No modo JDBC os lotes são gravados cada um em uma
+ * transação própria, com os INSERTs enviados ao banco em lotes JDBC e o
+ * contexto de persistência esvaziado periodicamente, mantendo o consumo de
+ * memória constante independentemente do tamanho do arquivo. No modo COPY as
+ * linhas são enviadas ao PostgreSQL por {@link EscritorContasCopy}.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@Service
+public class ImportacaoContasService {
+
+	/**
+	 * Intervalo em que a gravação, aguardando um lote, verifica se a leitura
+	 * terminou sem enviar o fim do arquivo.
+	 */
+	private static final long ESPERA_LOTE_MS = 1000;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	@Qualifier("importacaoLeituraExecutor")
+	private ExecutorService importacaoLeituraExecutor;
+
+	@Autowired
+	@Qualifier("importacaoConversaoPool")
+	private ForkJoinPool importacaoConversaoPool;
+
+	/**
+	 * Quantidade de linhas gravadas por transação.
+	 */
+	@Value("${contas.importacao.tamanho-lote:5000}")
+	private int tamanhoLote = 5000;
+
+	/**
+	 * Quantidade máxima de lotes lidos aguardando gravação. Limita a memória
+	 * ocupada quando a leitura e a conversão são mais rápidas que a gravação.
+	 */
+	@Value("${contas.importacao.lotes-em-memoria:4}")
+	private int lotesEmMemoria = 4;
+
+	/**
+	 * Quantidade de INSERTs por lote JDBC; o contexto de persistência é esvaziado
+	 * a cada lote enviado.
+	 */
+	@Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+	private int tamanhoLoteJdbc = 50;
+
+	/**
+	 * Importa as contas contidas no CSV pelo modo {@link ModoImportacao#JDBC}.
+	 *
+	 * @param reader leitor do arquivo CSV, com cabeçalho na primeira linha
+	 * @return o resultado da importação
+	 * @throws IOException caso ocorra um erro na leitura do arquivo
+	 */
+	public ResultadoImportacao importar(Reader reader) throws IOException {
+		return importar(reader, ModoImportacao.JDBC);
+	}
+
+	/**
+	 * Importa as contas contidas no CSV. Linhas inválidas são rejeitadas e
+	 * registradas no resultado sem interromper a importação. O modo
+	 * {@link ModoImportacao#COPY} só é utilizado quando a fonte de dados é um
+	 * PostgreSQL; caso contrário a importação recorre ao modo JDBC.
+	 *
+	 * @param reader leitor do arquivo CSV, com cabeçalho na primeira linha
+	 * @param modo   o modo de gravação desejado
+	 * @return o resultado da importação, com o modo efetivamente utilizado
+	 * @throws IOException caso ocorra um erro na leitura do arquivo
+	 */
+	public ResultadoImportacao importar(Reader reader, ModoImportacao modo) throws IOException {
+		return importar(reader, modo, ProgressoImportacao.NENHUM);
+	}
+
+	/**
+	 * Importa as contas contidas no CSV, notificando o progresso a cada lote
+	 * gravado. A importação é interrompida entre lotes se o cancelamento for
+	 * solicitado: no modo JDBC os lotes já gravados permanecem; no modo COPY nada
+	 * é gravado.
+	 * <p>
+	 * A importação é executada em três etapas: uma thread de leitura separa o
+	 * arquivo em lotes de registros; os lotes são convertidos e validados em
+	 * paralelo no pool de conversão; e a thread chamadora grava os lotes na ordem
+	 * do arquivo, sendo a única etapa serializada. A fila entre a leitura e a
+	 * gravação é limitada, de forma que a leitura aguarda quando a gravação não
+	 * acompanha o ritmo.
+	 *
+	 * @param reader    leitor do arquivo CSV, com cabeçalho na primeira linha
+	 * @param modo      o modo de gravação desejado
+	 * @param progresso o acompanhamento da importação
+	 * @return o resultado da importação, com o modo efetivamente utilizado
+	 * @throws IOException                  caso ocorra um erro na leitura do
+	 *                                      arquivo
+	 * @throws ImportacaoCanceladaException se o cancelamento for solicitado
+	 */
+	public ResultadoImportacao importar(Reader reader, ModoImportacao modo, ProgressoImportacao progresso)
+			throws IOException {
+		long inicio = System.currentTimeMillis();
+		ResultadoImportacao resultado = new ResultadoImportacao();
+		BlockingQueue<CompletableFuture<LoteConvertido>> fila = new ArrayBlockingQueue<>(lotesEmMemoria);
+
+		try (CSVParser parser = ContaCsvUtil.FORMATO.parse(reader)) {
+			Future<?> leitura = importacaoLeituraExecutor.submit(() -> ler(parser, fila));
+			try (EscritorContas escritor = abrirEscritor(modo, resultado)) {
+				LoteConvertido lote;
+				while ((lote = aguardar(proximo(fila, leitura))) != LoteConvertido.FIM) {
+					lote.registrarLeitura(resultado);
+					resultado.registrarGravadas(escritor.gravar(lote.contas()));
+					resultado.setTempoMs(System.currentTimeMillis() - inicio);
+					progresso.atualizar(resultado);
+					if (progresso.cancelado()) {
+						throw new ImportacaoCanceladaException(String.format(
+								"Importação cancelada após %d linhas lidas", resultado.getLinhasLidas()));
+					}
+				}
+				resultado.registrarGravadas(escritor.concluir());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new ImportacaoCanceladaException("Importação interrompida");
+			} finally {
+				// Libera a thread de leitura caso a gravação tenha sido interrompida
+				leitura.cancel(true);
+			}
+		}
+		resultado.setTempoMs(System.currentTimeMillis() - inicio);
+		return resultado;
+	}
+
+	/**
+	 * Etapa de leitura: separa os registros do arquivo em lotes e envia cada lote
+	 * para conversão no pool de conversão. O lote convertido é colocado na fila
+	 * de gravação, bloqueando enquanto a fila estiver cheia. Ao final, a fila
+	 * recebe o fim do arquivo ou, se a leitura falhar, inclusive por um
+	 * {@link Error}, a falha, que é repassada à etapa de gravação.
+	 *
+	 * @param parser o parser do arquivo CSV
+	 * @param fila   a fila de lotes a serem gravados, na ordem do arquivo
+	 */
+	private void ler(CSVParser parser, BlockingQueue<CompletableFuture<LoteConvertido>> fila) {
+		CompletableFuture<LoteConvertido> fim;
+		try {
+			List<CSVRecord> registros = new ArrayList<>(tamanhoLote);
+			for (CSVRecord registro : parser) {
+				registros.add(registro);
+				if (registros.size() >= tamanhoLote) {
+					fila.put(converter(registros));
+					registros = new ArrayList<>(tamanhoLote);
+				}
+			}
+			if (!registros.isEmpty()) {
+				fila.put(converter(registros));
+			}
+			fim = CompletableFuture.completedFuture(LoteConvertido.FIM);
+		} catch (InterruptedException e) {
+			// A gravação foi interrompida e não aguarda mais lotes
+			Thread.currentThread().interrupt();
+			return;
+		} catch (Throwable e) {
+			fim = CompletableFuture.failedFuture(e);
+		}
+		try {
+			fila.put(fim);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Aguarda o próximo lote da fila de gravação. Se a leitura terminar sem
+	 * colocar o fim do arquivo na fila, a importação falha, em vez de aguardar
+	 * indefinidamente.
+	 *
+	 * @param fila    a fila de lotes a serem gravados
+	 * @param leitura a execução da etapa de leitura
+	 * @return o próximo lote, em conversão
+	 * @throws InterruptedException se a importação for interrompida
+	 */
+	private static CompletableFuture<LoteConvertido> proximo(BlockingQueue<CompletableFuture<LoteConvertido>> fila,
+			Future<?> leitura) throws InterruptedException {
+		CompletableFuture<LoteConvertido> lote;
+		while ((lote = fila.poll(ESPERA_LOTE_MS, TimeUnit.MILLISECONDS)) == null) {
+			if (leitura.isDone()) {
+				lote = fila.poll();
+				if (lote == null) {
+					throw new IllegalStateException("A leitura do arquivo terminou sem concluir a importação");
+				}
+				return lote;
+			}
+		}
+		return lote;
+	}
+
+	/**
+	 * Etapa de conversão: converte e valida um lote de registros no pool de
+	 * conversão.
+	 *
+	 * @param registros os registros lidos do arquivo
+	 * @return o lote convertido, com as contas válidas e as linhas rejeitadas
+	 */
+	private CompletableFuture<LoteConvertido> converter(List<CSVRecord> registros) {
+		return CompletableFuture.supplyAsync(() -> {
+			List<Conta> contas = new ArrayList<>(registros.size());
+			List<Rejeicao> rejeitadas = new ArrayList<>();
+			for (CSVRecord registro : registros) {
+				try {
+					contas.add(ContaCsvUtil.converter(registro));
+				} catch (RuntimeException e) {
+					// A linha 1 do arquivo é o cabeçalho
+					rejeitadas.add(new Rejeicao(registro.getRecordNumber() + 1, e.getMessage()));
+				}
+			}
+			return new LoteConvertido(registros.size(), contas, rejeitadas);
+		}, importacaoConversaoPool);
+	}
+
+	/**
+	 * Aguarda a conversão de um lote, repassando os erros de leitura do arquivo e
+	 * as falhas da leitura.
+	 *
+	 * @param lote o lote em conversão
+	 * @return o lote convertido
+	 * @throws IOException caso ocorra um erro na leitura do arquivo
+	 */
+	private static LoteConvertido aguardar(CompletableFuture<LoteConvertido> lote) throws IOException {
+		try {
+			return lote.join();
+		} catch (CompletionException e) {
+			Throwable causa = e.getCause();
+			if (causa != null && causa.getCause() instanceof IOException io) {
+				throw io;
+			}
+			if (causa instanceof RuntimeException erro) {
+				throw erro;
+			}
+			if (causa instanceof Error erro) {
+				throw erro;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Lote de registros convertido pela etapa de conversão.
+	 *
+	 * @param lidas      a quantidade de registros lidos no lote
+	 * @param contas     as contas válidas, na ordem do arquivo
+	 * @param rejeitadas as linhas rejeitadas, na ordem do arquivo
+	 */
+	private record LoteConvertido(int lidas, List<Conta> contas, List<Rejeicao> rejeitadas) {
+
+		/** Marca o fim do arquivo na fila de gravação. */
+		static final LoteConvertido FIM = new LoteConvertido(0, List.of(), List.of());
+
+		void registrarLeitura(ResultadoImportacao resultado) {
+			resultado.registrarLidas(lidas);
+			for (Rejeicao rejeitada : rejeitadas) {
+				resultado.registrarRejeitada(rejeitada.linha(), rejeitada.mensagem());
+			}
+		}
+	}
+
+	/**
+	 * Linha rejeitada na etapa de conversão.
+	 *
+	 * @param linha    o número da linha no arquivo
+	 * @param mensagem o motivo da rejeição
+	 */
+	private record Rejeicao(long linha, String mensagem) {
+	}
+
+	/**
+	 * Abre o escritor correspondente ao modo solicitado e registra no resultado o
+	 * modo efetivamente utilizado.
+	 *
+	 * @param modo      o modo de gravação desejado
+	 * @param resultado o resultado da importação em andamento
+	 * @return o escritor a ser utilizado na importação
+	 */
+	private EscritorContas abrirEscritor(ModoImportacao modo, ResultadoImportacao resultado) {
+		if (modo == ModoImportacao.COPY && EscritorContasCopy.suportado(dataSource)) {
+			resultado.setModo(ModoImportacao.COPY);
+			return new EscritorContasCopy(dataSource);
+		}
+		resultado.setModo(ModoImportacao.JDBC);
+		return new EscritorContas() {
+
+			@Override
+			public long gravar(List<Conta> contas) {
+				return gravarLote(contas);
+			}
+
+			@Override
+			public long concluir() {
+				return 0;
+			}
+
+			@Override
+			public void close() {
+				// Cada lote já foi confirmado em sua própria transação
+			}
+		};
+	}
+
+	/**
+	 * Grava um lote de contas em uma única transação. O contexto de persistência é
+	 * sincronizado e esvaziado a cada {@code tamanhoLoteJdbc} contas para que as
+	 * entidades já enviadas ao banco não permaneçam em memória, e as contas não
+	 * são gravadas no cache de segundo nível.
+	 *
+	 * @param contas as contas a serem gravadas
+	 * @return a quantidade de contas gravadas
+	 */
+	public int gravarLote(List<Conta> contas) {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+			for (int i = 0; i < contas.size(); i++) {
+				entityManager.persist(contas.get(i));
+				if ((i + 1) % tamanhoLoteJdbc == 0) {
+					entityManager.flush();
+					entityManager.clear();
+				}
+			}
+			entityManager.flush();
+			entityManager.clear();
+		});
+		return contas.size();
+	}
+}
@@ -0,0 +1,234 @@
+package com.lyncas.desafio.contasapagar.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.lyncas.desafio.contasapagar.dto.ResultadoImportacao;
+import com.lyncas.desafio.contasapagar.exception.ImportacaoCanceladaException;
+import com.lyncas.desafio.contasapagar.exception.ImportacaoRecusadaException;
+import com.lyncas.desafio.contasapagar.model.ImportacaoJob;
+import com.lyncas.desafio.contasapagar.model.ModoImportacao;
+import com.lyncas.desafio.contasapagar.model.StatusImportacao;
+import com.lyncas.desafio.contasapagar.repository.ImportacaoJobRepository;
+
+/**
+ * Serviço que executa as importações de contas em segundo plano. O arquivo
+ * enviado é copiado para um arquivo temporário, a importação é registrada na
+ * tabela {@code importacao_jobs} e executada pelo executor de importações,
+ * liberando a thread da requisição. O progresso é gravado a cada lote e o
+ * cancelamento é verificado entre os lotes. Ao final, o índice de pagamentos é
+ * recarregado e as contas são descartadas do cache de segundo nível, pois as
+ * contas importadas são gravadas sem passar pelo cache.
+ *
+ * <p>
+ * O arquivo temporário e a execução pertencem à instância da aplicação que
+ * recebeu o arquivo: na inicialização, as importações pendentes ou em execução
+ * deixadas pelo encerramento anterior são registradas como falhas. Assim como
+ * o índice de pagamentos, as importações supõem uma única instância.
+ * </p>
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@Service
+public class ImportacaoJobService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ImportacaoJobService.class);
+
+	@Autowired
+	private ImportacaoJobRepository importacaoJobRepository;
+
+	@Autowired
+	private ImportacaoContasService importacaoContasService;
+
+	@Autowired
+	private IndicePagamentosService indicePagamentosService;
+
+	@Autowired
+	private CacheContasService cacheContasService;
+
+	@Autowired
+	@Qualifier("importacaoExecutor")
+	private AsyncTaskExecutor importacaoExecutor;
+
+	/**
+	 * Registra como falhas, na inicialização da aplicação, as importações
+	 * interrompidas pelo encerramento anterior, que não podem ser retomadas nem
+	 * canceladas, pois os arquivos temporários e as execuções se perderam.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void inicializar() {
+		try {
+			int interrompidas = importacaoJobRepository.interromper(
+					"Importação interrompida pelo encerramento da aplicação, envie o arquivo novamente",
+					LocalDateTime.now());
+			if (interrompidas > 0) {
+				LOGGER.warn("Importações interrompidas pelo encerramento da aplicação: {}", interrompidas);
+			}
+		} catch (RuntimeException e) {
+			LOGGER.warn("Erro ao registrar as importações interrompidas pelo encerramento da aplicação", e);
+		}
+	}
+
+	/**
+	 * Registra uma nova importação e a envia para execução.
+	 *
+	 * @param arquivo o arquivo CSV contendo as contas
+	 * @param modo    o modo de gravação desejado
+	 * @return a importação registrada, ainda pendente
+	 * @throws IOException                 caso ocorra um erro ao copiar o arquivo
+	 * @throws ImportacaoRecusadaException se a fila de importações estiver cheia
+	 */
+	public ImportacaoJob enfileirar(MultipartFile arquivo, ModoImportacao modo) throws IOException {
+		Path temporario = Files.createTempFile("importacao-", ".csv");
+		try {
+			arquivo.transferTo(temporario);
+		} catch (IOException e) {
+			Files.deleteIfExists(temporario);
+			throw e;
+		}
+
+		ImportacaoJob job = new ImportacaoJob();
+		job.setId(UUID.randomUUID());
+		job.setStatus(StatusImportacao.PENDENTE);
+		job.setModo(modo);
+		job.setNomeArquivo(arquivo.getOriginalFilename());
+		job.setCriadoEm(LocalDateTime.now());
+		job = importacaoJobRepository.save(job);
+
+		UUID id = job.getId();
+		try {
+			importacaoExecutor.execute(() -> executar(id, temporario, modo));
+		} catch (RejectedExecutionException e) {
+			Files.deleteIfExists(temporario);
+			importacaoJobRepository.finalizar(id, StatusImportacao.FALHOU, "Fila de importações cheia", null,
+					LocalDateTime.now());
+			throw new ImportacaoRecusadaException("Fila de importações cheia, tente novamente mais tarde", e);
+		}
+		return job;
+	}
+
+	/**
+	 * Busca uma importação pelo identificador.
+	 *
+	 * @param id o identificador da importação
+	 * @return a importação, se existir
+	 */
+	public Optional<ImportacaoJob> buscar(UUID id) {
+		return importacaoJobRepository.findById(id);
+	}
+
+	/**
+	 * Solicita o cancelamento de uma importação. O worker interrompe a importação
+	 * ao terminar o lote em andamento; no modo JDBC os lotes já confirmados
+	 * permanecem gravados.
+	 *
+	 * @param id o identificador da importação
+	 * @return true se o cancelamento foi registrado, false se a importação já
+	 *         havia terminado
+	 */
+	public boolean cancelar(UUID id) {
+		return importacaoJobRepository.solicitarCancelamento(id) > 0;
+	}
+
+	/**
+	 * Executa uma importação registrada. Chamado pelo executor de importações.
+	 *
+	 * @param id         o identificador da importação
+	 * @param temporario o arquivo temporário com o conteúdo enviado
+	 * @param modo       o modo de gravação desejado
+	 */
+	void executar(UUID id, Path temporario, ModoImportacao modo) {
+		try {
+			if (importacaoJobRepository.iniciar(id, LocalDateTime.now()) == 0) {
+				importacaoJobRepository.finalizar(id, StatusImportacao.CANCELADA, "Importação cancelada", null,
+						LocalDateTime.now());
+				return;
+			}
+
+			ResultadoImportacao resultado;
+			try (Reader reader = Files.newBufferedReader(temporario, StandardCharsets.UTF_8)) {
+				resultado = importacaoContasService.importar(reader, modo, progresso(id));
+			} finally {
+				recarregarIndice();
+				cacheContasService.descartarTodas();
+			}
+			atualizarProgresso(id, resultado);
+			importacaoJobRepository.finalizar(id, StatusImportacao.CONCLUIDA,
+					String.format("Contas importadas com sucesso! %d gravadas, %d rejeitadas (%s).",
+							resultado.getLinhasGravadas(), resultado.getLinhasRejeitadas(), resultado.getModo()),
+					String.join("\n", resultado.getErros()), LocalDateTime.now());
+		} catch (ImportacaoCanceladaException e) {
+			importacaoJobRepository.finalizar(id, StatusImportacao.CANCELADA, e.getMessage(), null,
+					LocalDateTime.now());
+		} catch (Exception e) {
+			LOGGER.error("Erro na importação {}", id, e);
+			importacaoJobRepository.finalizar(id, StatusImportacao.FALHOU,
+					"Erro ao importar contas: " + e.getMessage(), null, LocalDateTime.now());
+		} finally {
+			try {
+				Files.deleteIfExists(temporario);
+			} catch (IOException e) {
+				LOGGER.warn("Não foi possível remover o arquivo temporário {}", temporario, e);
+			}
+		}
+	}
+
+	/**
+	 * Cria o acompanhamento que grava o progresso da importação e consulta a
+	 * solicitação de cancelamento a cada lote.
+	 *
+	 * @param id o identificador da importação
+	 * @return o acompanhamento da importação
+	 */
+	private ProgressoImportacao progresso(UUID id) {
+		return new ProgressoImportacao() {
+
+			@Override
+			public void atualizar(ResultadoImportacao parcial) {
+				atualizarProgresso(id, parcial);
+			}
+
+			@Override
+			public boolean cancelado() {
+				return importacaoJobRepository.isCancelamentoSolicitado(id);
+			}
+		};
+	}
+
+	/**
+	 * Recarrega o índice de pagamentos em memória com as contas importadas,
+	 * inclusive os lotes gravados por importações canceladas ou com falha.
+	 */
+	private void recarregarIndice() {
+		try {
+			indicePagamentosService.recarregar();
+		} catch (RuntimeException e) {
+			LOGGER.error("Erro ao recarregar o índice de pagamentos", e);
+		}
+	}
+
+	private void atualizarProgresso(UUID id, ResultadoImportacao resultado) {
+		importacaoJobRepository.atualizarProgresso(id, resultado.getLinhasLidas(), resultado.getLinhasGravadas(),
+				resultado.getLinhasRejeitadas(), resultado.getLinhasPorSegundo());
+	}
+}
@@ -0,0 +1,452 @@
+package com.lyncas.desafio.contasapagar.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.lyncas.desafio.contasapagar.dto.TotalPorSituacao;
+import com.lyncas.desafio.contasapagar.dto.ValorTotalPagoResponse;
+import com.lyncas.desafio.contasapagar.model.Conta;
+import com.lyncas.desafio.contasapagar.model.PagamentoDiario;
+import com.lyncas.desafio.contasapagar.model.SituacaoConta;
+import com.lyncas.desafio.contasapagar.repository.ContaComArquivoRepository;
+import com.lyncas.desafio.contasapagar.repository.PagamentoDiarioRepository;
+import com.lyncas.desafio.contasapagar.utils.ArvoreFenwick;
+
+/**
+ * Índice em memória dos valores pagos por dia, utilizado pelo total pago quando
+ * habilitado pela propriedade {@code contas.indice-pagamentos.habilitado}. Para
+ * cada situação são mantidas duas árvores de Fenwick indexadas pelo dia do
+ * pagamento (epoch day), com o valor pago em centavos e a quantidade de contas,
+ * de forma que o total de qualquer intervalo é obtido em O(log n) sem acessar o
+ * banco de dados.
+ *
+ * <p>
+ * As árvores cobrem apenas os dias de {@code contas.indice-pagamentos.anos}
+ * anos antes e depois da data da carga, com tamanho fixo: um pagamento em uma
+ * data improvável, como o ano 1 de uma linha importada com erro, não amplia o
+ * índice. Os pagamentos fora desse intervalo são apenas contados, e os totais
+ * de intervalos que os alcançam são obtidos da consolidação diária.
+ * </p>
+ *
+ * <p>
+ * O índice é carregado da consolidação diária dos pagamentos na inicialização e
+ * após cada importação, e atualizado pelas gravações de {@link ContaService}.
+ * Como as gravações de outras instâncias da aplicação não são vistas, o índice
+ * deve ser utilizado com uma única instância ou recarregado periodicamente; a
+ * consistência pode ser conferida com {@link #verificar()}. Pelo mesmo motivo,
+ * as gravações de uma mesma conta são serializadas apenas nesta instância.
+ * </p>
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@Service
+public class IndicePagamentosService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(IndicePagamentosService.class);
+
+	/** Quantidade de bloqueios entre os quais as contas são distribuídas. */
+	private static final int BLOQUEIOS_CONTAS = 64;
+
+	@Autowired
+	private PagamentoDiarioRepository pagamentoDiarioRepository;
+
+	@Autowired
+	private ContaComArquivoRepository contaComArquivoRepository;
+
+	@Value("${contas.indice-pagamentos.habilitado:false}")
+	private boolean habilitado;
+
+	/**
+	 * Anos antes e depois da data da carga cobertos pelo índice. Com 50 anos, as
+	 * árvores ocupam cerca de 2,3 MB.
+	 */
+	@Value("${contas.indice-pagamentos.anos:50}")
+	private int anos;
+
+	/**
+	 * Bloqueio entre as gravações de contas (compartilhado) e a carga do índice
+	 * (exclusivo), para que nenhuma gravação seja perdida ou contada duas vezes
+	 * durante a carga.
+	 */
+	private final ReadWriteLock carga = new ReentrantReadWriteLock();
+
+	/** Bloqueio entre as consultas e as atualizações das árvores. */
+	private final ReadWriteLock acesso = new ReentrantReadWriteLock();
+
+	/**
+	 * Bloqueios das gravações de contas existentes, distribuídos pelo
+	 * identificador, para que a leitura da conta anterior e a gravação de uma
+	 * conta não se intercalem com as de outra gravação da mesma conta.
+	 */
+	private final Lock[] contas = Stream.generate(ReentrantLock::new).limit(BLOQUEIOS_CONTAS)
+			.toArray(Lock[]::new);
+
+	/** O índice carregado, ou null enquanto não for carregado. */
+	private Indice indice;
+
+	/**
+	 * Indica se o índice está habilitado.
+	 *
+	 * @return true se o índice está habilitado
+	 */
+	public boolean isHabilitado() {
+		return habilitado;
+	}
+
+	/**
+	 * Indica se o índice está habilitado e carregado, podendo responder consultas.
+	 *
+	 * @return true se o índice pode responder consultas
+	 */
+	public boolean isPronto() {
+		acesso.readLock().lock();
+		try {
+			return habilitado && indice != null;
+		} finally {
+			acesso.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Indica se o índice está habilitado e carregado e pode responder o total de
+	 * um intervalo de datas: o intervalo está contido nos dias do índice, ou não
+	 * há pagamentos fora deles.
+	 *
+	 * @param dataInicio data de início do intervalo
+	 * @param dataFim    data de fim do intervalo
+	 * @return true se o índice pode responder o total do intervalo
+	 */
+	public boolean cobre(LocalDate dataInicio, LocalDate dataFim) {
+		acesso.readLock().lock();
+		try {
+			return habilitado && indice != null && indice.cobre(dataInicio.toEpochDay(), dataFim.toEpochDay());
+		} finally {
+			acesso.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Carrega o índice na inicialização da aplicação, se habilitado.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void inicializar() {
+		recarregar();
+	}
+
+	/**
+	 * Recarrega o índice a partir da consolidação diária dos pagamentos. As
+	 * gravações de contas aguardam o fim da carga.
+	 */
+	public void recarregar() {
+		if (!habilitado) {
+			return;
+		}
+		carga.writeLock().lock();
+		try {
+			long inicio = System.currentTimeMillis();
+			LocalDate hoje = LocalDate.now();
+			long origem = hoje.minusYears(anos).toEpochDay();
+			int tamanho = Math.toIntExact(hoje.plusYears(anos).toEpochDay() - origem + 1);
+			Indice novo = Indice.de(pagamentoDiarioRepository.findAll(), origem, tamanho);
+			acesso.writeLock().lock();
+			try {
+				indice = novo;
+			} finally {
+				acesso.writeLock().unlock();
+			}
+			LOGGER.info("Índice de pagamentos carregado: {} dias e {} contas fora do intervalo em {} ms",
+					novo.tamanho, novo.foraDoIntervalo, System.currentTimeMillis() - inicio);
+		} finally {
+			carga.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Executa a gravação de uma conta e aplica no índice a diferença entre o
+	 * pagamento anterior e o gravado. As gravações da mesma conta são executadas
+	 * uma de cada vez, da leitura da conta anterior até a aplicação no índice:
+	 * como a leitura e a gravação são transações distintas, duas gravações
+	 * intercaladas leriam a mesma conta anterior e a diferença seria aplicada em
+	 * dobro. Com o índice desabilitado, apenas a gravação é executada, sem a
+	 * leitura da conta anterior.
+	 *
+	 * @param id       o identificador da conta, ou null para uma nova conta
+	 * @param anterior fornece a conta antes da gravação
+	 * @param gravacao executa a gravação a partir da conta anterior, vazia com o
+	 *                 índice desabilitado, e retorna a conta gravada
+	 * @return a conta gravada
+	 */
+	public Conta registrar(Long id, Supplier<Optional<Conta>> anterior,
+			Function<Optional<Conta>, Conta> gravacao) {
+		if (!habilitado) {
+			return gravacao.apply(Optional.empty());
+		}
+		Lock conta = id != null ? contas[Math.floorMod(id.hashCode(), contas.length)] : null;
+		carga.readLock().lock();
+		try {
+			if (conta != null) {
+				conta.lock();
+			}
+			try {
+				Optional<Conta> lida = anterior.get();
+				Pagamento antes = lida.map(Pagamento::de).orElse(null);
+				Conta gravada = gravacao.apply(lida);
+				Pagamento depois = Pagamento.de(gravada);
+				if (!Objects.equals(antes, depois)) {
+					acesso.writeLock().lock();
+					try {
+						if (indice != null) {
+							indice.somar(antes, -1);
+							indice.somar(depois, 1);
+						}
+					} finally {
+						acesso.writeLock().unlock();
+					}
+				}
+				return gravada;
+			} finally {
+				if (conta != null) {
+					conta.unlock();
+				}
+			}
+		} finally {
+			carga.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Executa a gravação de novas contas e soma no índice os pagamentos das contas
+	 * gravadas. Com o índice desabilitado, apenas a gravação é executada.
+	 *
+	 * @param gravacao executa a gravação e retorna as contas gravadas
+	 * @return as contas gravadas
+	 */
+	public List<Conta> registrarNovas(Supplier<List<Conta>> gravacao) {
+		if (!habilitado) {
+			return gravacao.get();
+		}
+		carga.readLock().lock();
+		try {
+			List<Conta> gravadas = gravacao.get();
+			acesso.writeLock().lock();
+			try {
+				if (indice != null) {
+					gravadas.forEach(conta -> indice.somar(Pagamento.de(conta), 1));
+				}
+			} finally {
+				acesso.writeLock().unlock();
+			}
+			return gravadas;
+		} finally {
+			carga.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Obtém o valor total pago e a quantidade de contas pagas em um intervalo de
+	 * datas, com o total por situação. O menor e o maior valor não são mantidos
+	 * pelo índice e retornam nulos. Os pagamentos fora dos dias do índice não são
+	 * incluídos; ver {@link #cobre(LocalDate, LocalDate)}.
+	 *
+	 * @param dataInicio data de início do intervalo
+	 * @param dataFim    data de fim do intervalo
+	 * @return o resumo dos pagamentos dentro do intervalo de datas
+	 * @throws IllegalStateException se o índice não estiver carregado
+	 */
+	public ValorTotalPagoResponse resumir(LocalDate dataInicio, LocalDate dataFim) {
+		acesso.readLock().lock();
+		try {
+			if (indice == null) {
+				throw new IllegalStateException("Índice de pagamentos não carregado");
+			}
+			return indice.resumir(dataInicio.toEpochDay(), dataFim.toEpochDay());
+		} finally {
+			acesso.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Confere o índice com a agregação SQL das contas em uso e arquivadas, por
+	 * situação, em todo o intervalo de datas do índice.
+	 *
+	 * @return true se o índice estiver consistente com as contas
+	 * @throws IllegalStateException se o índice não estiver carregado
+	 */
+	public boolean verificar() {
+		LocalDate dataInicio;
+		LocalDate dataFim;
+		ValorTotalPagoResponse resumo;
+		carga.writeLock().lock();
+		try {
+			acesso.readLock().lock();
+			try {
+				if (indice == null) {
+					throw new IllegalStateException("Índice de pagamentos não carregado");
+				}
+				dataInicio = LocalDate.ofEpochDay(indice.origem);
+				dataFim = LocalDate.ofEpochDay(indice.origem + indice.tamanho - 1);
+				resumo = indice.resumir(indice.origem, indice.origem + indice.tamanho - 1);
+			} finally {
+				acesso.readLock().unlock();
+			}
+			List<TotalPorSituacao> contas = contaComArquivoRepository.totalizarPagamentosPorSituacao(dataInicio,
+					dataFim);
+			return iguais(resumo.getPorSituacao(), contas);
+		} finally {
+			carga.writeLock().unlock();
+		}
+	}
+
+	private static boolean iguais(List<TotalPorSituacao> indice, List<TotalPorSituacao> contas) {
+		if (indice.size() != contas.size()) {
+			return false;
+		}
+		for (int i = 0; i < indice.size(); i++) {
+			TotalPorSituacao a = indice.get(i);
+			TotalPorSituacao b = contas.get(i);
+			if (!a.getSituacao().equals(b.getSituacao()) || a.getQuantidade() != b.getQuantidade()
+					|| a.getValorTotal().compareTo(b.getValorTotal()) != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Pagamento de uma conta, como mantido pelo índice.
+	 *
+	 * @param dia      o dia do pagamento (epoch day)
+	 * @param situacao a situação da conta
+	 * @param centavos o valor pago em centavos
+	 */
+	record Pagamento(long dia, SituacaoConta situacao, long centavos) {
+
+		/**
+		 * Obtém o pagamento de uma conta.
+		 *
+		 * @param conta a conta
+		 * @return o pagamento, ou null se a conta não foi paga
+		 */
+		static Pagamento de(Conta conta) {
+			if (conta == null || conta.getDataPagamento() == null) {
+				return null;
+			}
+			return new Pagamento(conta.getDataPagamento().toEpochDay(), conta.getSituacao(),
+					emCentavos(conta.getValor()));
+		}
+	}
+
+	private static long emCentavos(BigDecimal valor) {
+		return valor.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+	}
+
+	/**
+	 * Árvores de valores e de quantidades por situação, cobrindo os dias de
+	 * {@code origem} até {@code origem + tamanho - 1}. Os pagamentos fora desse
+	 * intervalo são apenas contados.
+	 */
+	private static final class Indice {
+
+		private final long origem;
+
+		private final int tamanho;
+
+		/** Quantidade de contas pagas fora do intervalo de dias. */
+		private long foraDoIntervalo;
+
+		private final Map<SituacaoConta, ArvoreFenwick> valores = new EnumMap<>(SituacaoConta.class);
+
+		private final Map<SituacaoConta, ArvoreFenwick> quantidades = new EnumMap<>(SituacaoConta.class);
+
+		private Indice(long origem, int tamanho) {
+			this.origem = origem;
+			this.tamanho = tamanho;
+		}
+
+		static Indice de(List<PagamentoDiario> dias, long origem, int tamanho) {
+			Indice indice = new Indice(origem, tamanho);
+			Map<SituacaoConta, long[]> valores = new EnumMap<>(SituacaoConta.class);
+			Map<SituacaoConta, long[]> quantidades = new EnumMap<>(SituacaoConta.class);
+			for (PagamentoDiario dia : dias) {
+				long posicao = dia.getDataPagamento().toEpochDay() - origem;
+				if (posicao < 0 || posicao >= tamanho) {
+					indice.foraDoIntervalo += dia.getQuantidade();
+					continue;
+				}
+				valores.computeIfAbsent(dia.getSituacao(), s -> new long[tamanho])[(int) posicao] += emCentavos(
+						dia.getValorTotal());
+				quantidades.computeIfAbsent(dia.getSituacao(), s -> new long[tamanho])[(int) posicao] += dia
+						.getQuantidade();
+			}
+			valores.forEach((situacao, v) -> indice.valores.put(situacao, ArvoreFenwick.de(v)));
+			quantidades.forEach((situacao, q) -> indice.quantidades.put(situacao, ArvoreFenwick.de(q)));
+			return indice;
+		}
+
+		void somar(Pagamento pagamento, int sinal) {
+			if (pagamento == null) {
+				return;
+			}
+			long posicao = pagamento.dia() - origem;
+			if (posicao < 0 || posicao >= tamanho) {
+				foraDoIntervalo += sinal;
+				return;
+			}
+			valores.computeIfAbsent(pagamento.situacao(), s -> new ArvoreFenwick(tamanho)).somar((int) posicao,
+					sinal * pagamento.centavos());
+			quantidades.computeIfAbsent(pagamento.situacao(), s -> new ArvoreFenwick(tamanho)).somar((int) posicao,
+					sinal);
+		}
+
+		boolean cobre(long diaInicio, long diaFim) {
+			return foraDoIntervalo == 0 || (diaInicio >= origem && diaFim < origem + tamanho);
+		}
+
+		ValorTotalPagoResponse resumir(long diaInicio, long diaFim) {
+			int inicio = (int) Math.max(0, Math.min(tamanho, diaInicio - origem));
+			int fim = (int) Math.max(-1, Math.min(tamanho - 1, diaFim - origem));
+			long quantidade = 0;
+			long centavos = 0;
+			List<TotalPorSituacao> porSituacao = new ArrayList<>();
+			for (Map.Entry<SituacaoConta, ArvoreFenwick> entrada : quantidades.entrySet()) {
+				long quantidadeSituacao = entrada.getValue().intervalo(inicio, fim);
+				if (quantidadeSituacao > 0) {
+					long centavosSituacao = valores.get(entrada.getKey()).intervalo(inicio, fim);
+					porSituacao.add(new TotalPorSituacao(entrada.getKey(), quantidadeSituacao,
+							BigDecimal.valueOf(centavosSituacao, 2)));
+					quantidade += quantidadeSituacao;
+					centavos += centavosSituacao;
+				}
+			}
+			ValorTotalPagoResponse resumo = new ValorTotalPagoResponse(quantidade,
+					quantidade > 0 ? BigDecimal.valueOf(centavos, 2) : null, null, null);
+			resumo.setPorSituacao(porSituacao);
+			return resumo;
+		}
+	}
+}
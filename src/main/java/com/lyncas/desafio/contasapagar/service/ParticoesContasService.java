@@ -0,0 +1,82 @@
+package com.lyncas.desafio.contasapagar.service;
+
+import java.time.LocalDate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.lyncas.desafio.contasapagar.repository.ContaRepository;
+
+/**
+ * Mantém as partições mensais da tabela de contas, particionada por data de
+ * vencimento. As partições do mês atual e dos próximos
+ * {@code contas.particoes.meses-futuros} meses são criadas na inicialização e
+ * periodicamente ({@code contas.particoes.cron}), antes de receberem contas.
+ *
+ * <p>
+ * As contas de meses sem partição são gravadas na partição padrão e
+ * transferidas para a partição do mês na execução seguinte. A criação é
+ * interrompida se a tabela de contas estiver bloqueada por mais de 10 segundos
+ * e repetida na próxima execução.
+ * </p>
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@Service
+public class ParticoesContasService {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ParticoesContasService.class);
+
+	@Autowired
+	private ContaRepository contaRepository;
+
+	@Value("${contas.particoes.habilitado:true}")
+	private boolean habilitado;
+
+	/** Quantidade de meses seguintes ao atual com partição criada */
+	@Value("${contas.particoes.meses-futuros:3}")
+	private int mesesFuturos;
+
+	/**
+	 * Cria as partições na inicialização da aplicação, se habilitado.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void inicializar() {
+		criarParticoes();
+	}
+
+	/**
+	 * Cria as partições ainda inexistentes do mês atual e dos meses seguintes, e
+	 * as dos meses com contas na partição padrão. Uma falha é registrada e a
+	 * criação é repetida na próxima execução.
+	 *
+	 * @return a quantidade de partições criadas
+	 */
+	@Scheduled(cron = "${contas.particoes.cron:0 0 3 * * *}")
+	public int criarParticoes() {
+		if (!habilitado) {
+			return 0;
+		}
+		LocalDate inicio = LocalDate.now().withDayOfMonth(1);
+		try {
+			int criadas = contaRepository.criarParticoes(inicio, inicio.plusMonths(mesesFuturos));
+			if (criadas > 0) {
+				LOGGER.info("Partições de contas criadas: {}", criadas);
+			}
+			return criadas;
+		} catch (DataAccessException e) {
+			LOGGER.warn("Erro ao criar as partições de contas, a criação será repetida na próxima execução", e);
+			return 0;
+		}
+	}
+}
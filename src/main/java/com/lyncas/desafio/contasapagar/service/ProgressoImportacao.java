@@ -0,0 +1,45 @@
+package com.lyncas.desafio.contasapagar.service;
+
+import com.lyncas.desafio.contasapagar.dto.ResultadoImportacao;
+
+/**
+ * Acompanhamento de uma importação em andamento. É notificado a cada lote
+ * processado e consultado para saber se a importação deve ser interrompida.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+public interface ProgressoImportacao {
+
+	/**
+	 * Acompanhamento que ignora o progresso e nunca cancela a importação.
+	 */
+	ProgressoImportacao NENHUM = new ProgressoImportacao() {
+
+		@Override
+		public void atualizar(ResultadoImportacao parcial) {
+			// Nada a acompanhar
+		}
+
+		@Override
+		public boolean cancelado() {
+			return false;
+		}
+	};
+
+	/**
+	 * Recebe o resultado parcial após a gravação de um lote.
+	 *
+	 * @param parcial o resultado acumulado até o momento
+	 */
+	void atualizar(ResultadoImportacao parcial);
+
+	/**
+	 * Indica se a importação deve ser interrompida.
+	 *
+	 * @return true se o cancelamento foi solicitado
+	 */
+	boolean cancelado();
+}
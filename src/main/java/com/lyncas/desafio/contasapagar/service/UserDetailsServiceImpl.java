@@ -1,29 +1,70 @@
 package com.lyncas.desafio.contasapagar.service;
 
-import java.util.ArrayList;
+import java.time.Duration;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lyncas.desafio.contasapagar.repository.UsuarioRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
 /**
  * Implementação do serviço {@link UserDetailsService} responsável por carregar
- * os detalhes do usuário para autenticação.
- * 
+ * os detalhes do usuário para autenticação a partir da tabela de usuários.
+ *
+ * <p>
+ * Os usuários carregados são mantidos em cache por
+ * {@link #TEMPO_EXPIRACAO_CACHE}. Como a aplicação não altera o cadastro de
+ * usuários, gravado diretamente na tabela {@code usuarios}, as alterações de um
+ * usuário (senha, permissões ou desativação) passam a valer na autenticação
+ * após no máximo esse tempo. As métricas do cache são registradas no Micrometer
+ * com {@code cache=usuarios}.
+ * </p>
+ *
  * @version 1.0.0 data 20/09/2024
  * @since 1.0.0 data 20/09/2024
- * 
+ *
  * @author juliano.ezequiel
  */
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, MeterBinder {
+
+	/**
+	 * Tempo de permanência de um usuário no cache após ser carregado, e o atraso
+	 * máximo com que as alterações do cadastro são vistas na autenticação.
+	 */
+	static final Duration TEMPO_EXPIRACAO_CACHE = Duration.ofMinutes(1);
+
+	/**
+	 * Quantidade máxima de usuários mantidos em cache.
+	 */
+	private static final long TAMANHO_MAXIMO_CACHE = 1_000;
+
+	/**
+	 * Usuários já carregados, indexados pelo nome de usuário.
+	 */
+	private final Cache<String, UserDetails> usuarios = Caffeine.newBuilder().maximumSize(TAMANHO_MAXIMO_CACHE)
+			.expireAfterWrite(TEMPO_EXPIRACAO_CACHE).recordStats().build();
+
+	@Autowired
+	private UsuarioRepository usuarioRepository;
 
 	/**
-	 * Carrega os detalhes de um usuário com base no nome de usuário fornecido.
-	 * Neste exemplo, retorna um usuário fixo.
-	 * 
+	 * Carrega os detalhes de um usuário com base no nome de usuário fornecido,
+	 * consultando o cadastro apenas quando o usuário não estiver em cache. Cada
+	 * chamada retorna uma cópia do usuário, pois o Spring Security apaga a senha
+	 * do usuário autenticado.
+	 *
 	 * @param username o nome de usuário que está sendo procurado
 	 * @return um {@link UserDetails} contendo o nome de usuário, senha e as
 	 *         permissões do usuário
@@ -31,11 +72,33 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 	 */
 	@Override
 	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-		// Aqui você deve buscar o usuário no banco de dados e retornar os detalhes do
-		// usuário.
-		// Exemplo de retorno de um usuário fixo (deve ser adaptado para buscar da base
-		// de dados real).
-		return new User("usuario_desafio", "senha_desafio", new ArrayList<>());
+		return User.withUserDetails(usuarios.get(username, this::buscarUsuario)).build();
+	}
+
+	/**
+	 * Registra as métricas do cache de usuários.
+	 *
+	 * @param registry o registro de métricas da aplicação
+	 */
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, usuarios, "usuarios");
+	}
+
+	/**
+	 * Busca o usuário no cadastro. Usuários não encontrados não são mantidos em
+	 * cache.
+	 *
+	 * @param username o nome de usuário que está sendo procurado
+	 * @return o usuário encontrado
+	 * @throws UsernameNotFoundException se o nome de usuário não for encontrado
+	 */
+	private UserDetails buscarUsuario(String username) {
+		return usuarioRepository.findByUsername(username)
+				.map(usuario -> User.withUsername(usuario.getUsername()).password(usuario.getSenha())
+						.authorities(AuthorityUtils.commaSeparatedStringToAuthorityList(usuario.getPermissoes()))
+						.disabled(!usuario.isAtivo()).build())
+				.orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + username));
 	}
 
 }
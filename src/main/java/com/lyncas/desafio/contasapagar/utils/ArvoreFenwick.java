@@ -0,0 +1,112 @@
+package com.lyncas.desafio.contasapagar.utils;
+
+/**
+ * Árvore de Fenwick (binary indexed tree) de valores {@code long}. Permite
+ * somar um valor em uma posição e consultar a soma de um intervalo de posições
+ * em O(log n). As posições são baseadas em zero.
+ *
+ * <p>
+ * A classe não é thread-safe; o acesso concorrente deve ser sincronizado por
+ * quem a utiliza.
+ * </p>
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+public final class ArvoreFenwick {
+
+	/** Somas parciais, indexadas a partir de 1. */
+	private final long[] arvore;
+
+	/**
+	 * Cria uma árvore com todas as posições zeradas.
+	 *
+	 * @param tamanho a quantidade de posições
+	 */
+	public ArvoreFenwick(int tamanho) {
+		this.arvore = new long[tamanho + 1];
+	}
+
+	/**
+	 * Cria uma árvore a partir dos valores de cada posição, em O(n).
+	 *
+	 * @param valores os valores de cada posição
+	 * @return a árvore com os valores informados
+	 */
+	public static ArvoreFenwick de(long[] valores) {
+		ArvoreFenwick fenwick = new ArvoreFenwick(valores.length);
+		long[] arvore = fenwick.arvore;
+		System.arraycopy(valores, 0, arvore, 1, valores.length);
+		for (int i = 1; i < arvore.length; i++) {
+			int pai = i + (i & -i);
+			if (pai < arvore.length) {
+				arvore[pai] += arvore[i];
+			}
+		}
+		return fenwick;
+	}
+
+	/**
+	 * Retorna a quantidade de posições da árvore.
+	 *
+	 * @return a quantidade de posições
+	 */
+	public int tamanho() {
+		return arvore.length - 1;
+	}
+
+	/**
+	 * Soma um valor a uma posição.
+	 *
+	 * @param posicao a posição, entre zero e {@code tamanho() - 1}
+	 * @param delta   o valor a ser somado, podendo ser negativo
+	 */
+	public void somar(int posicao, long delta) {
+		for (int i = posicao + 1; i < arvore.length; i += i & -i) {
+			arvore[i] += delta;
+		}
+	}
+
+	/**
+	 * Retorna a soma das posições de zero até a posição informada, inclusive.
+	 *
+	 * @param posicao a última posição somada; valores negativos resultam em zero
+	 * @return a soma das posições
+	 */
+	public long prefixo(int posicao) {
+		long soma = 0;
+		for (int i = Math.min(posicao + 1, arvore.length - 1); i > 0; i -= i & -i) {
+			soma += arvore[i];
+		}
+		return soma;
+	}
+
+	/**
+	 * Retorna a soma das posições de um intervalo, inclusive nas extremidades.
+	 *
+	 * @param inicio a primeira posição
+	 * @param fim    a última posição
+	 * @return a soma do intervalo, ou zero se o intervalo for vazio
+	 */
+	public long intervalo(int inicio, int fim) {
+		if (fim < inicio) {
+			return 0;
+		}
+		return prefixo(fim) - prefixo(inicio - 1);
+	}
+
+	/**
+	 * Retorna os valores de cada posição.
+	 *
+	 * @return os valores de cada posição
+	 */
+	public long[] valores() {
+		long[] valores = new long[tamanho()];
+		for (int i = 0; i < valores.length; i++) {
+			valores[i] = intervalo(i, i);
+		}
+		return valores;
+	}
+}
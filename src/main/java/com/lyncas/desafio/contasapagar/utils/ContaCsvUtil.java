@@ -0,0 +1,185 @@
+package com.lyncas.desafio.contasapagar.utils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+
+import com.lyncas.desafio.contasapagar.dto.ContaResponse;
+import com.lyncas.desafio.contasapagar.model.Conta;
+import com.lyncas.desafio.contasapagar.model.SituacaoConta;
+
+/**
+ * Utilitário com o formato CSV e o mapeamento de colunas utilizados na
+ * importação e na exportação de contas. Centraliza a conversão de um registro
+ * CSV em {@link Conta}, e de uma conta em registro CSV, para que todos os
+ * caminhos de importação compartilhem as mesmas regras e os arquivos exportados
+ * possam ser importados novamente. As mesmas regras validam as contas do
+ * cadastro em lote.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+public final class ContaCsvUtil {
+
+	/** Coluna com a data de vencimento (obrigatória). */
+	public static final String COLUNA_DATA_VENCIMENTO = "data_vencimento";
+
+	/** Coluna com a data de pagamento (opcional). */
+	public static final String COLUNA_DATA_PAGAMENTO = "data_pagamento";
+
+	/** Coluna com o valor da conta (obrigatória). */
+	public static final String COLUNA_VALOR = "valor";
+
+	/** Coluna com a descrição da conta (obrigatória). */
+	public static final String COLUNA_DESCRICAO = "descricao";
+
+	/**
+	 * Coluna com a situação da conta (obrigatória): um dos nomes de
+	 * {@link SituacaoConta}, sem diferenciar maiúsculas, minúsculas e acentos.
+	 */
+	public static final String COLUNA_SITUACAO = "situacao";
+
+	/**
+	 * Formato do arquivo CSV: padrão RFC 4180 com a primeira linha como cabeçalho.
+	 */
+	public static final CSVFormat FORMATO = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true)
+			.build();
+
+	/**
+	 * Formato dos arquivos exportados: o mesmo {@link #FORMATO}, com o cabeçalho
+	 * gravado na primeira linha.
+	 */
+	public static final CSVFormat FORMATO_EXPORTACAO = FORMATO.builder()
+			.setHeader(COLUNA_DATA_VENCIMENTO, COLUNA_DATA_PAGAMENTO, COLUNA_VALOR, COLUNA_DESCRICAO, COLUNA_SITUACAO)
+			.setSkipHeaderRecord(false).build();
+
+	/**
+	 * Limite (exclusivo) da coluna {@code valor}, mapeada como DECIMAL(10, 2).
+	 */
+	private static final BigDecimal VALOR_LIMITE = new BigDecimal("100000000");
+
+	/** Tamanho máximo da coluna {@code descricao}. */
+	private static final int DESCRICAO_TAMANHO_MAXIMO = 255;
+
+	private ContaCsvUtil() {
+		// Classe utilitária
+	}
+
+	/**
+	 * Converte um registro CSV em uma nova {@link Conta}.
+	 *
+	 * @param registro o registro lido do arquivo
+	 * @return a conta correspondente ao registro, ainda não persistida
+	 * @throws IllegalArgumentException se alguma coluna obrigatória estiver
+	 *                                  ausente ou com valor inválido ou fora dos
+	 *                                  limites da tabela de contas
+	 */
+	public static Conta converter(CSVRecord registro) {
+		LocalDate dataVencimento = LocalDate.parse(obrigatorio(registro, COLUNA_DATA_VENCIMENTO));
+
+		// Verifica se a coluna "data_pagamento" está presente e tenta fazer o parse,
+		// caso contrário, usa null
+		LocalDate dataPagamento = null;
+		if (registro.isSet(COLUNA_DATA_PAGAMENTO) && !registro.get(COLUNA_DATA_PAGAMENTO).isEmpty()) {
+			dataPagamento = LocalDate.parse(registro.get(COLUNA_DATA_PAGAMENTO));
+		}
+
+		BigDecimal valor = new BigDecimal(obrigatorio(registro, COLUNA_VALOR));
+		String descricao = obrigatorio(registro, COLUNA_DESCRICAO);
+		validarLimites(valor, descricao);
+		SituacaoConta situacao = SituacaoConta.de(obrigatorio(registro, COLUNA_SITUACAO));
+
+		Conta conta = new Conta();
+		conta.setDataVencimento(dataVencimento);
+		conta.setDataPagamento(dataPagamento);
+		conta.setValor(valor);
+		conta.setDescricao(descricao);
+		conta.setSituacao(situacao);
+		return conta;
+	}
+
+	/**
+	 * Valida uma conta recebida diretamente pela API, como no cadastro em lote,
+	 * com as mesmas regras da conversão dos registros CSV.
+	 *
+	 * @param conta a conta a ser validada
+	 * @throws IllegalArgumentException se a conta não for informada, se algum
+	 *                                  campo obrigatório estiver ausente ou se os
+	 *                                  valores estiverem fora dos limites da
+	 *                                  tabela de contas
+	 */
+	public static void validar(Conta conta) {
+		if (conta == null) {
+			throw new IllegalArgumentException("Conta não informada");
+		}
+		if (conta.getDataVencimento() == null) {
+			throw new IllegalArgumentException("Campo obrigatório ausente: dataVencimento");
+		}
+		if (conta.getValor() == null) {
+			throw new IllegalArgumentException("Campo obrigatório ausente: valor");
+		}
+		if (conta.getDescricao() == null || conta.getDescricao().isBlank()) {
+			throw new IllegalArgumentException("Campo obrigatório ausente: descricao");
+		}
+		if (conta.getSituacao() == null) {
+			throw new IllegalArgumentException("Campo obrigatório ausente: situacao");
+		}
+		validarLimites(conta.getValor(), conta.getDescricao());
+	}
+
+	/**
+	 * Converte uma conta nos valores de um registro CSV, na ordem das colunas de
+	 * {@link #FORMATO_EXPORTACAO}. A data de pagamento ausente é gravada vazia.
+	 *
+	 * @param conta a conta a ser exportada
+	 * @return os valores do registro
+	 */
+	public static List<Object> valores(ContaResponse conta) {
+		return Arrays.asList(conta.getDataVencimento(), conta.getDataPagamento(), conta.getValor().toPlainString(),
+				conta.getDescricao(), conta.getSituacao());
+	}
+
+	/**
+	 * Confere o valor e a descrição com os limites das colunas da tabela de
+	 * contas. A descrição não pode conter o caractere nulo (0x00), que o
+	 * PostgreSQL não aceita em colunas de texto e que interromperia o COPY da
+	 * importação inteira em vez de rejeitar apenas a linha.
+	 *
+	 * @param valor     o valor da conta
+	 * @param descricao a descrição da conta
+	 * @throws IllegalArgumentException se algum dos valores estiver fora do limite
+	 *                                  ou se a descrição contiver o caractere nulo
+	 */
+	private static void validarLimites(BigDecimal valor, String descricao) {
+		if (valor.abs().compareTo(VALOR_LIMITE) >= 0) {
+			throw new IllegalArgumentException("Valor fora do limite permitido: " + valor);
+		}
+		if (descricao.length() > DESCRICAO_TAMANHO_MAXIMO) {
+			throw new IllegalArgumentException("Descrição excede " + DESCRICAO_TAMANHO_MAXIMO + " caracteres");
+		}
+		if (descricao.indexOf('\0') >= 0) {
+			throw new IllegalArgumentException("Descrição contém o caractere nulo (0x00)");
+		}
+	}
+
+	/**
+	 * Obtém o valor de uma coluna obrigatória do registro.
+	 *
+	 * @param registro o registro lido do arquivo
+	 * @param coluna   o nome da coluna
+	 * @return o valor da coluna
+	 * @throws IllegalArgumentException se a coluna estiver ausente ou vazia
+	 */
+	private static String obrigatorio(CSVRecord registro, String coluna) {
+		if (!registro.isSet(coluna) || registro.get(coluna).isBlank()) {
+			throw new IllegalArgumentException("Coluna obrigatória ausente: " + coluna);
+		}
+		return registro.get(coluna);
+	}
+}
@@ -0,0 +1,70 @@
+package com.lyncas.desafio.contasapagar.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.lyncas.desafio.contasapagar.dto.ContaResponse;
+
+/**
+ * Utilitário para os cursores da listagem de contas por cursor. O cursor
+ * identifica a última conta retornada pela ordenação {@code (data_vencimento,
+ * id)} e é codificado em Base64 para que os clientes o tratem como opaco.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+public final class CursorContaUtil {
+
+	/** Cursor anterior a todas as contas, utilizado na primeira página. */
+	public static final Cursor INICIO = new Cursor(LocalDate.of(1, 1, 1), 0L);
+
+	private static final String SEPARADOR = "|";
+
+	private CursorContaUtil() {
+	}
+
+	/**
+	 * Posição de uma conta na ordenação {@code (data_vencimento, id)}.
+	 *
+	 * @param dataVencimento a data de vencimento da conta
+	 * @param id             o identificador da conta
+	 */
+	public record Cursor(LocalDate dataVencimento, Long id) {
+	}
+
+	/**
+	 * Codifica o cursor posicionado em uma conta.
+	 *
+	 * @param conta a última conta da página
+	 * @return o cursor opaco
+	 */
+	public static String codificar(ContaResponse conta) {
+		String valor = conta.getDataVencimento() + SEPARADOR + conta.getId();
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Decodifica um cursor. Um cursor vazio representa o início da listagem.
+	 *
+	 * @param cursor o cursor opaco
+	 * @return a posição representada pelo cursor
+	 * @throws IllegalArgumentException se o cursor for inválido
+	 */
+	public static Cursor decodificar(String cursor) {
+		if (cursor == null || cursor.isBlank()) {
+			return INICIO;
+		}
+		try {
+			String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			int separador = valor.indexOf(SEPARADOR);
+			return new Cursor(LocalDate.parse(valor.substring(0, separador)),
+					Long.valueOf(valor.substring(separador + 1)));
+		} catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+			throw new IllegalArgumentException("Cursor inválido: " + cursor, e);
+		}
+	}
+}
@@ -1,33 +1,132 @@
 package com.lyncas.desafio.contasapagar.utils;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
 /**
  * Utilitário para manipulação de tokens JWT (JSON Web Token). Esta classe
  * fornece métodos para gerar, validar e extrair informações de tokens JWT.
  * 
+ * <p>
+ * Os tokens verificados por {@link #verificarToken(String)} são mantidos em um
+ * cache limitado em tamanho até a sua expiração, evitando verificar novamente a
+ * assinatura a cada requisição do mesmo token. As métricas do cache
+ * ({@code cache.gets} com {@code cache=jwt.tokens}) e do tempo de verificação
+ * ({@code jwt.verificacao}) são registradas no Micrometer.
+ * </p>
+ * 
  * @version 1.0.0 data 20/09/2024
  * @since 1.0.0 data 20/09/2024
  * 
  * @author juliano.ezequiel
  */
 @Component
-public class JwtUtil {
+public class JwtUtil implements MeterBinder {
+
+	/**
+	 * Quantidade máxima de tokens verificados mantidos em cache.
+	 */
+	private static final long TAMANHO_MAXIMO_CACHE = 10_000;
+
+	/**
+	 * Claim com as permissões do usuário, permitindo autenticar as requisições
+	 * sem consultar o cadastro de usuários.
+	 */
+	public static final String CLAIM_AUTHORITIES = "authorities";
 
 	/**
 	 * Chave secreta utilizada para assinar os tokens JWT.
 	 */
 	private String SECRET_KEY = "secreta";
 
+	/**
+	 * Claims dos tokens já verificados, indexadas pelo resumo SHA-256 do token.
+	 * Cada token permanece no cache até a sua data de expiração.
+	 */
+	private final Cache<String, Claims> tokensVerificados = Caffeine.newBuilder().maximumSize(TAMANHO_MAXIMO_CACHE)
+			.expireAfter(new ExpiracaoToken()).recordStats().build();
+
+	/**
+	 * Quantidade de verificações de assinatura, sem contar os tokens obtidos do
+	 * cache.
+	 */
+	private final LongAdder verificacoes = new LongAdder();
+
+	/**
+	 * Tempo total das verificações de assinatura, em nanossegundos.
+	 */
+	private final LongAdder tempoVerificacoes = new LongAdder();
+
+	/**
+	 * Verifica a assinatura e a expiração do token JWT e retorna as suas claims.
+	 * O token é interpretado uma única vez; os tokens já verificados são obtidos
+	 * do cache até a sua expiração. As claims retornadas são compartilhadas entre
+	 * as requisições do mesmo token e não devem ser alteradas.
+	 * 
+	 * @param token o token JWT a ser verificado
+	 * @return as claims do token
+	 * @throws io.jsonwebtoken.ExpiredJwtException se o token estiver expirado
+	 * @throws io.jsonwebtoken.JwtException        se a assinatura for inválida, o
+	 *                                             token estiver malformado ou não
+	 *                                             possuir data de expiração
+	 */
+	public Claims verificarToken(String token) {
+		return tokensVerificados.get(resumir(token), chave -> {
+			long inicio = System.nanoTime();
+			try {
+				Claims claims = extractAllClaims(token);
+				if (claims.getExpiration() == null) {
+					throw new MalformedJwtException("Token JWT sem data de expiração");
+				}
+				return claims;
+			} finally {
+				verificacoes.increment();
+				tempoVerificacoes.add(System.nanoTime() - inicio);
+			}
+		});
+	}
+
+	/**
+	 * Registra as métricas do cache de tokens e do tempo de verificação das
+	 * assinaturas.
+	 * 
+	 * @param registry o registro de métricas da aplicação
+	 */
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, tokensVerificados, "jwt.tokens");
+		FunctionTimer.builder("jwt.verificacao", this, jwtUtil -> jwtUtil.verificacoes.sum(),
+				jwtUtil -> jwtUtil.tempoVerificacoes.sum(), TimeUnit.NANOSECONDS)
+				.description("Verificações de assinatura de tokens JWT fora do cache").register(registry);
+	}
+
 	/**
 	 * Extrai o nome de usuário (subject) do token JWT.
 	 * 
@@ -74,23 +173,41 @@ public class JwtUtil {
 	}
 
 	/**
-	 * Verifica se o token JWT está expirado.
+	 * Extrai as permissões do usuário do token JWT.
 	 * 
-	 * @param token o token JWT a ser verificado
-	 * @return true se o token estiver expirado, false caso contrário
+	 * @param claims as claims do token, obtidas de {@link #verificarToken(String)}
+	 * @return as permissões do usuário, vazia se o token não as possuir
 	 */
-	private Boolean isTokenExpired(String token) {
-		return extractExpiration(token).before(new Date());
+	public List<GrantedAuthority> extrairAuthorities(Claims claims) {
+		List<?> authorities = claims.get(CLAIM_AUTHORITIES, List.class);
+		if (authorities == null) {
+			return List.of();
+		}
+		return authorities.stream().<GrantedAuthority>map(authority -> new SimpleGrantedAuthority(authority.toString()))
+				.toList();
 	}
 
 	/**
-	 * Gera um token JWT para um determinado usuário.
+	 * Gera um token JWT para um determinado usuário, sem permissões.
 	 * 
 	 * @param username o nome de usuário para o qual o token será gerado
 	 * @return o token JWT gerado
 	 */
 	public String generateToken(String username) {
+		return generateToken(username, List.of());
+	}
+
+	/**
+	 * Gera um token JWT para um determinado usuário, com as suas permissões na
+	 * claim {@value #CLAIM_AUTHORITIES}.
+	 * 
+	 * @param username    o nome de usuário para o qual o token será gerado
+	 * @param authorities as permissões do usuário
+	 * @return o token JWT gerado
+	 */
+	public String generateToken(String username, Collection<? extends GrantedAuthority> authorities) {
 		Map<String, Object> claims = new HashMap<>();
+		claims.put(CLAIM_AUTHORITIES, authorities.stream().map(GrantedAuthority::getAuthority).toList());
 		return createToken(claims, username);
 	}
 
@@ -116,7 +233,45 @@ public class JwtUtil {
 	 * @return true se o token for válido, false caso contrário
 	 */
 	public Boolean validateToken(String token, String username) {
-		final String extractedUsername = extractUsername(token);
-		return (extractedUsername.equals(username) && !isTokenExpired(token));
+		return verificarToken(token).getSubject().equals(username);
+	}
+
+	/**
+	 * Calcula o resumo SHA-256 do token, utilizado como chave do cache para não
+	 * manter os tokens em memória.
+	 * 
+	 * @param token o token JWT
+	 * @return o resumo do token em hexadecimal
+	 */
+	private static String resumir(String token) {
+		try {
+			return HexFormat.of().formatHex(
+					MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Expiração das entradas do cache de tokens: cada token expira do cache na
+	 * data de expiração do próprio token.
+	 */
+	private static final class ExpiracaoToken implements Expiry<String, Claims> {
+
+		@Override
+		public long expireAfterCreate(String chave, Claims claims, long tempoAtual) {
+			return TimeUnit.MILLISECONDS
+					.toNanos(Math.max(0, claims.getExpiration().getTime() - System.currentTimeMillis()));
+		}
+
+		@Override
+		public long expireAfterUpdate(String chave, Claims claims, long tempoAtual, long duracaoAtual) {
+			return duracaoAtual;
+		}
+
+		@Override
+		public long expireAfterRead(String chave, Claims claims, long tempoAtual, long duracaoAtual) {
+			return duracaoAtual;
+		}
 	}
 }
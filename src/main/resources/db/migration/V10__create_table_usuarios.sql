@@ -0,0 +1,14 @@
+CREATE TABLE IF NOT EXISTS usuarios (
+    id BIGSERIAL PRIMARY KEY,
+    username VARCHAR(100) NOT NULL UNIQUE,
+    -- Hash da senha com o prefixo do algoritmo, por exemplo {bcrypt}
+    senha VARCHAR(255) NOT NULL,
+    -- Permissões separadas por vírgula
+    permissoes VARCHAR(500) NOT NULL DEFAULT '',
+    ativo BOOLEAN NOT NULL DEFAULT TRUE
+);
+
+-- Usuário do desafio, antes fixo na aplicação (senha: senha_desafio)
+INSERT INTO usuarios (username, senha)
+VALUES ('usuario_desafio', '{bcrypt}$2a$10$Gm2W3Pc0.7EvmDC4oOM5Q.dC7HnCpM6hntOjdIrwxqFG85z7sa0YC')
+ON CONFLICT (username) DO NOTHING;
@@ -0,0 +1,5 @@
+-- Versão da conta para o controle de concorrência otimista: cada alteração
+-- incrementa a versão e só é aplicada se a versão lida pelo cliente ainda for
+-- a atual. Com o valor padrão constante, a coluna é adicionada sem reescrever
+-- a tabela.
+ALTER TABLE contas ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 0;
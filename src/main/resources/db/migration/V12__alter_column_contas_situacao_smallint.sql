@@ -0,0 +1,119 @@
+-- A situação passa a ser gravada pelo código de SituacaoConta (SMALLINT) em vez
+-- do texto livre: as linhas e os índices que incluem a situação diminuem, e as
+-- contas em aberto passam a ter um índice parcial próprio.
+--
+-- Códigos: 1 = PENDENTE, 2 = PAGA, 3 = ATRASADA, 4 = CANCELADA. Os textos
+-- existentes são convertidos com a mesma normalização de SituacaoConta.de:
+-- sem diferenciar maiúsculas, minúsculas e acentos, com espaços no lugar de
+-- sublinhados e "EM ABERTO" como PENDENTE.
+--
+-- A alteração do tipo reescreve contas e seus índices com bloqueio exclusivo da
+-- tabela durante toda a migração.
+CREATE FUNCTION contas_situacao_codigo(situacao TEXT)
+RETURNS SMALLINT LANGUAGE sql IMMUTABLE STRICT AS $$
+    SELECT CASE upper(replace(btrim(contas_normalizar(situacao)), ' ', '_'))
+               WHEN 'PENDENTE' THEN 1
+               WHEN 'EM_ABERTO' THEN 1
+               WHEN 'PAGA' THEN 2
+               WHEN 'ATRASADA' THEN 3
+               WHEN 'CANCELADA' THEN 4
+           END::SMALLINT;
+$$;
+
+-- Interrompe a migração, sem alterar nenhuma conta, se houver situações que
+-- não correspondem a nenhum código; devem ser corrigidas antes da migração.
+DO $$
+DECLARE
+    invalidas TEXT;
+BEGIN
+    SELECT string_agg(DISTINCT quote_literal(situacao), ', ')
+      INTO invalidas
+      FROM contas
+     WHERE contas_situacao_codigo(situacao) IS NULL;
+    IF invalidas IS NOT NULL THEN
+        RAISE EXCEPTION 'Situações de contas sem código correspondente: %', invalidas;
+    END IF;
+END;
+$$;
+
+-- A visão e as funções da consolidação dependem do tipo da situação; são
+-- recriadas a seguir com SMALLINT. Os triggers são mantidos, pois as funções
+-- dos triggers não mudam de assinatura.
+DROP VIEW contas_pagamento_diario_divergencias;
+DROP FUNCTION contas_pagamento_diario_recalcular(DATE[], VARCHAR[]);
+DROP FUNCTION contas_pagamento_diario_bloquear(DATE[], VARCHAR[]);
+
+ALTER TABLE contas
+    ALTER COLUMN situacao TYPE SMALLINT USING contas_situacao_codigo(situacao),
+    ADD CONSTRAINT contas_situacao_check CHECK (situacao BETWEEN 1 AND 4);
+
+-- Textos diferentes podem ter o mesmo código ("Paga" e "PAGA"): a consolidação
+-- é reconstruída a partir das contas convertidas, em vez de convertida.
+DELETE FROM contas_pagamento_diario;
+ALTER TABLE contas_pagamento_diario
+    ALTER COLUMN situacao TYPE SMALLINT USING contas_situacao_codigo(situacao);
+
+DROP FUNCTION contas_situacao_codigo(TEXT);
+
+CREATE FUNCTION contas_pagamento_diario_bloquear(datas DATE[], situacoes SMALLINT[])
+RETURNS void LANGUAGE sql AS $$
+    SELECT pg_advisory_xact_lock(hashtextextended('contas_pagamento_diario:' || k.data_pagamento || ':' || k.situacao, 0))
+      FROM (SELECT DISTINCT data_pagamento, situacao
+              FROM unnest(datas, situacoes) AS u(data_pagamento, situacao)
+             ORDER BY data_pagamento, situacao) k;
+$$;
+
+CREATE FUNCTION contas_pagamento_diario_recalcular(datas DATE[], situacoes SMALLINT[])
+RETURNS void LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM contas_pagamento_diario_bloquear(datas, situacoes);
+
+    DELETE FROM contas_pagamento_diario d
+     USING unnest(datas, situacoes) AS k(data_pagamento, situacao)
+     WHERE d.data_pagamento = k.data_pagamento
+       AND d.situacao = k.situacao
+       AND NOT EXISTS (SELECT 1 FROM contas c
+                        WHERE c.data_pagamento = k.data_pagamento AND c.situacao = k.situacao);
+
+    INSERT INTO contas_pagamento_diario AS d
+           (data_pagamento, situacao, quantidade, valor_total, valor_minimo, valor_maximo)
+    SELECT c.data_pagamento, c.situacao, COUNT(*), SUM(c.valor), MIN(c.valor), MAX(c.valor)
+      FROM contas c
+      JOIN (SELECT DISTINCT data_pagamento, situacao
+              FROM unnest(datas, situacoes) AS u(data_pagamento, situacao)) k
+        ON c.data_pagamento = k.data_pagamento AND c.situacao = k.situacao
+     GROUP BY c.data_pagamento, c.situacao
+    ON CONFLICT (data_pagamento, situacao) DO UPDATE
+       SET quantidade = EXCLUDED.quantidade,
+           valor_total = EXCLUDED.valor_total,
+           valor_minimo = EXCLUDED.valor_minimo,
+           valor_maximo = EXCLUDED.valor_maximo;
+END;
+$$;
+
+CREATE VIEW contas_pagamento_diario_divergencias AS
+SELECT data_pagamento, situacao,
+       d.quantidade AS quantidade_consolidada, c.quantidade AS quantidade_contas,
+       d.valor_total AS valor_total_consolidado, c.valor_total AS valor_total_contas
+  FROM contas_pagamento_diario d
+  FULL JOIN (SELECT data_pagamento, situacao, COUNT(*) AS quantidade, SUM(valor) AS valor_total,
+                    MIN(valor) AS valor_minimo, MAX(valor) AS valor_maximo
+               FROM contas
+              WHERE data_pagamento IS NOT NULL
+              GROUP BY data_pagamento, situacao) c USING (data_pagamento, situacao)
+ WHERE d.quantidade IS DISTINCT FROM c.quantidade
+    OR d.valor_total IS DISTINCT FROM c.valor_total
+    OR d.valor_minimo IS DISTINCT FROM c.valor_minimo
+    OR d.valor_maximo IS DISTINCT FROM c.valor_maximo;
+
+-- Contas em aberto (PENDENTE e ATRASADA) na ordenação da listagem por cursor.
+-- O índice contém apenas as contas ainda não pagas nem canceladas e é
+-- utilizado pelas consultas que repetem a mesma condição sobre a situação.
+CREATE INDEX IF NOT EXISTS idx_contas_abertas_vencimento
+    ON contas (data_vencimento, id)
+    WHERE situacao IN (1, 3);
+
+SELECT contas_pagamento_diario_reconstruir();
+
+ANALYZE contas;
+ANALYZE contas_pagamento_diario;
@@ -0,0 +1,172 @@
+-- Particionamento mensal de contas por data de vencimento. As consultas por
+-- intervalo de vencimento passam a ler apenas as partições dos meses do
+-- intervalo, e o custo deixa de crescer com o tamanho total da tabela.
+--
+-- Cada mês possui a partição contas_AAAA_MM, criada com antecedência pela
+-- aplicação (ParticoesContasService). Contas de meses sem partição são
+-- gravadas em contas_padrao e transferidas para a partição do mês quando ela é
+-- criada.
+--
+-- A chave primária de uma tabela particionada deve conter a coluna de
+-- particionamento: passa a ser (id, data_vencimento). O id continua único,
+-- gerado pela sequence contas_id_seq. As alterações pelo id, sem a data de
+-- vencimento, consultam o índice da chave primária de cada partição.
+--
+-- As contas são copiadas para a nova tabela com bloqueio exclusivo de contas
+-- durante toda a migração.
+DROP VIEW contas_pagamento_diario_divergencias;
+
+ALTER TABLE contas RENAME TO contas_nao_particionada;
+ALTER SEQUENCE contas_id_seq OWNED BY NONE;
+
+CREATE TABLE contas (
+    id INTEGER NOT NULL DEFAULT nextval('contas_id_seq'),
+    data_vencimento DATE NOT NULL,
+    data_pagamento DATE,
+    valor DECIMAL(10, 2) NOT NULL,
+    descricao VARCHAR(255) NOT NULL,
+    situacao SMALLINT NOT NULL CONSTRAINT contas_situacao_check CHECK (situacao BETWEEN 1 AND 4),
+    versao BIGINT NOT NULL DEFAULT 0
+) PARTITION BY RANGE (data_vencimento);
+
+CREATE TABLE contas_padrao PARTITION OF contas DEFAULT;
+
+-- Nomeia os índices de uma partição com o nome do índice de contas e o sufixo
+-- da partição (por exemplo, idx_contas_data_vencimento_id_2024_09), em vez dos
+-- nomes gerados pelo PostgreSQL, para identificar o índice nos planos de
+-- execução.
+CREATE FUNCTION contas_nomear_indices(particao REGCLASS)
+RETURNS void LANGUAGE plpgsql AS $$
+DECLARE
+    indice RECORD;
+BEGIN
+    FOR indice IN
+        SELECT i.inhrelid::regclass AS atual,
+               p.relname || substr(t.relname, length('contas') + 1) AS nome
+          FROM pg_inherits i
+          JOIN pg_class p ON p.oid = i.inhparent
+          JOIN pg_index x ON x.indexrelid = i.inhrelid
+          JOIN pg_class t ON t.oid = x.indrelid
+         WHERE x.indrelid = particao
+    LOOP
+        EXECUTE format('ALTER INDEX %s RENAME TO %I', indice.atual, indice.nome);
+    END LOOP;
+END;
+$$;
+
+-- Cria a partição do mês informado, se ainda não existir. A partição padrão
+-- não pode conter contas do intervalo de uma nova partição: se houver, a
+-- partição é criada separada, recebe as contas do mês e então é anexada. As
+-- contas transferidas não passam pelos triggers da consolidação, pois os
+-- valores não mudam. Retorna true se a partição foi criada.
+CREATE FUNCTION contas_criar_particao(mes DATE)
+RETURNS BOOLEAN LANGUAGE plpgsql AS $$
+DECLARE
+    inicio DATE := date_trunc('month', mes::timestamp);
+    fim DATE := inicio + INTERVAL '1 month';
+    particao TEXT := 'contas_' || to_char(inicio, 'YYYY_MM');
+BEGIN
+    IF to_regclass(particao) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    IF EXISTS (SELECT 1 FROM contas_padrao WHERE data_vencimento >= inicio AND data_vencimento < fim) THEN
+        EXECUTE format('CREATE TABLE %I (LIKE contas INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', particao);
+        EXECUTE format('WITH movidas AS (DELETE FROM contas_padrao WHERE data_vencimento >= %L '
+                       'AND data_vencimento < %L RETURNING *) INSERT INTO %I SELECT * FROM movidas',
+                       inicio, fim, particao);
+        EXECUTE format('ALTER TABLE contas ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                       particao, inicio, fim);
+    ELSE
+        EXECUTE format('CREATE TABLE %I PARTITION OF contas FOR VALUES FROM (%L) TO (%L)',
+                       particao, inicio, fim);
+    END IF;
+    PERFORM contas_nomear_indices(particao::regclass);
+    RETURN TRUE;
+END;
+$$;
+
+-- Cria as partições dos meses entre as datas informadas e dos meses com contas
+-- na partição padrão. A criação de uma partição bloqueia contas: se o bloqueio
+-- não for obtido em 10 segundos (por exemplo, durante uma exportação longa), a
+-- criação é interrompida, em vez de bloquear as consultas seguintes, e deve ser
+-- repetida depois. Retorna a quantidade de partições criadas.
+CREATE FUNCTION contas_criar_particoes(inicio DATE, fim DATE)
+RETURNS INTEGER LANGUAGE plpgsql SET lock_timeout = '10s' AS $$
+DECLARE
+    mes DATE;
+    criadas INTEGER := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('contas_criar_particoes'));
+    FOR mes IN
+        SELECT generate_series(date_trunc('month', inicio::timestamp), fim, INTERVAL '1 month')::date
+         UNION
+        SELECT DISTINCT date_trunc('month', data_vencimento::timestamp)::date FROM contas_padrao
+         ORDER BY 1
+    LOOP
+        IF contas_criar_particao(mes) THEN
+            criadas := criadas + 1;
+        END IF;
+    END LOOP;
+    RETURN criadas;
+END;
+$$;
+
+-- Partições dos meses com contas e dos próximos três meses, antes da cópia,
+-- para que nenhuma conta seja gravada na partição padrão.
+SELECT contas_criar_particao(mes)
+  FROM (SELECT DISTINCT date_trunc('month', data_vencimento::timestamp)::date AS mes
+          FROM contas_nao_particionada) m;
+SELECT contas_criar_particoes(CURRENT_DATE, (CURRENT_DATE + INTERVAL '3 months')::date);
+
+-- Os triggers da consolidação são criados após a cópia: as contas copiadas
+-- já estão consolidadas.
+INSERT INTO contas (id, data_vencimento, data_pagamento, valor, descricao, situacao, versao)
+SELECT id, data_vencimento, data_pagamento, valor, descricao, situacao, versao
+  FROM contas_nao_particionada;
+
+DROP TABLE contas_nao_particionada;
+ALTER SEQUENCE contas_id_seq OWNED BY contas.id;
+
+-- Os índices de contas são criados em todas as partições, inclusive nas
+-- criadas depois.
+ALTER TABLE contas ADD CONSTRAINT contas_pkey PRIMARY KEY (id, data_vencimento);
+CREATE INDEX idx_contas_data_vencimento_id ON contas (data_vencimento, id);
+CREATE INDEX idx_contas_data_pagamento_cobertura
+    ON contas (data_pagamento) INCLUDE (id, valor, situacao)
+    WHERE data_pagamento IS NOT NULL;
+CREATE INDEX idx_contas_descricao_trgm ON contas USING gin (contas_normalizar(descricao) gin_trgm_ops);
+CREATE INDEX idx_contas_abertas_vencimento ON contas (data_vencimento, id) WHERE situacao IN (1, 3);
+
+SELECT contas_nomear_indices(inhrelid::regclass) FROM pg_inherits WHERE inhparent = 'contas'::regclass;
+
+CREATE TRIGGER contas_pagamento_diario_insert AFTER INSERT ON contas
+    REFERENCING NEW TABLE AS novas
+    FOR EACH STATEMENT EXECUTE FUNCTION contas_pagamento_diario_inserir();
+
+CREATE TRIGGER contas_pagamento_diario_update AFTER UPDATE ON contas
+    REFERENCING OLD TABLE AS antigas NEW TABLE AS novas
+    FOR EACH STATEMENT EXECUTE FUNCTION contas_pagamento_diario_atualizar();
+
+CREATE TRIGGER contas_pagamento_diario_delete AFTER DELETE ON contas
+    REFERENCING OLD TABLE AS antigas
+    FOR EACH STATEMENT EXECUTE FUNCTION contas_pagamento_diario_remover();
+
+CREATE TRIGGER contas_pagamento_diario_truncate AFTER TRUNCATE ON contas
+    FOR EACH STATEMENT EXECUTE FUNCTION contas_pagamento_diario_limpar();
+
+CREATE VIEW contas_pagamento_diario_divergencias AS
+SELECT data_pagamento, situacao,
+       d.quantidade AS quantidade_consolidada, c.quantidade AS quantidade_contas,
+       d.valor_total AS valor_total_consolidado, c.valor_total AS valor_total_contas
+  FROM contas_pagamento_diario d
+  FULL JOIN (SELECT data_pagamento, situacao, COUNT(*) AS quantidade, SUM(valor) AS valor_total,
+                    MIN(valor) AS valor_minimo, MAX(valor) AS valor_maximo
+               FROM contas
+              WHERE data_pagamento IS NOT NULL
+              GROUP BY data_pagamento, situacao) c USING (data_pagamento, situacao)
+ WHERE d.quantidade IS DISTINCT FROM c.quantidade
+    OR d.valor_total IS DISTINCT FROM c.valor_total
+    OR d.valor_minimo IS DISTINCT FROM c.valor_minimo
+    OR d.valor_maximo IS DISTINCT FROM c.valor_maximo;
+
+ANALYZE contas;
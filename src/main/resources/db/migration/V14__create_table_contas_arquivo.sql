@@ -0,0 +1,107 @@
+-- Arquivo das contas pagas antigas. As contas pagas com vencimento anterior ao
+-- limite configurado são transferidas de contas para contas_arquivo, em lotes,
+-- pelo ArquivoContasService: os índices de contas passam a conter apenas as
+-- contas em uso, e as contas arquivadas são lidas apenas pelas consultas cujo
+-- intervalo de vencimento alcança o arquivo.
+--
+-- As contas arquivadas não são alteradas; a tabela recebe apenas as contas
+-- transferidas de contas.
+CREATE TABLE contas_arquivo (
+    id INTEGER PRIMARY KEY,
+    data_vencimento DATE NOT NULL,
+    data_pagamento DATE,
+    valor DECIMAL(10, 2) NOT NULL,
+    descricao VARCHAR(255) NOT NULL,
+    situacao SMALLINT NOT NULL CONSTRAINT contas_arquivo_situacao_check CHECK (situacao BETWEEN 1 AND 4),
+    versao BIGINT NOT NULL
+);
+
+-- Índices das listagens por vencimento e descrição, e do recálculo da
+-- consolidação diária dos dias com contas arquivadas.
+CREATE INDEX idx_contas_arquivo_data_vencimento_id ON contas_arquivo (data_vencimento, id);
+CREATE INDEX idx_contas_arquivo_descricao_trgm
+    ON contas_arquivo USING gin (contas_normalizar(descricao) gin_trgm_ops);
+CREATE INDEX idx_contas_arquivo_data_pagamento ON contas_arquivo (data_pagamento, situacao);
+
+-- Contas em uso e arquivadas, lidas pelas listagens cujo intervalo alcança o
+-- arquivo. As condições das consultas são aplicadas a cada tabela, com os
+-- índices e a poda das partições de contas.
+CREATE VIEW contas_com_arquivo AS
+SELECT id, data_vencimento, data_pagamento, valor, descricao, situacao, versao FROM contas
+UNION ALL
+SELECT id, data_vencimento, data_pagamento, valor, descricao, situacao, versao FROM contas_arquivo;
+
+-- A consolidação diária dos pagamentos passa a incluir as contas arquivadas: o
+-- total pago não depende do arquivamento. A transferência remove as contas de
+-- contas, e o trigger de remoção recalcula os dias dessas contas já com as
+-- contas inseridas no arquivo pelo mesmo comando; contas_arquivo não possui
+-- triggers, para que as contas não sejam somadas duas vezes.
+CREATE OR REPLACE FUNCTION contas_pagamento_diario_recalcular(datas DATE[], situacoes SMALLINT[])
+RETURNS void LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM contas_pagamento_diario_bloquear(datas, situacoes);
+
+    DELETE FROM contas_pagamento_diario d
+     USING unnest(datas, situacoes) AS k(data_pagamento, situacao)
+     WHERE d.data_pagamento = k.data_pagamento
+       AND d.situacao = k.situacao
+       AND NOT EXISTS (SELECT 1 FROM contas_com_arquivo c
+                        WHERE c.data_pagamento = k.data_pagamento AND c.situacao = k.situacao);
+
+    INSERT INTO contas_pagamento_diario AS d
+           (data_pagamento, situacao, quantidade, valor_total, valor_minimo, valor_maximo)
+    SELECT c.data_pagamento, c.situacao, COUNT(*), SUM(c.valor), MIN(c.valor), MAX(c.valor)
+      FROM contas_com_arquivo c
+      JOIN (SELECT DISTINCT data_pagamento, situacao
+              FROM unnest(datas, situacoes) AS u(data_pagamento, situacao)) k
+        ON c.data_pagamento = k.data_pagamento AND c.situacao = k.situacao
+     GROUP BY c.data_pagamento, c.situacao
+    ON CONFLICT (data_pagamento, situacao) DO UPDATE
+       SET quantidade = EXCLUDED.quantidade,
+           valor_total = EXCLUDED.valor_total,
+           valor_minimo = EXCLUDED.valor_minimo,
+           valor_maximo = EXCLUDED.valor_maximo;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION contas_pagamento_diario_reconstruir()
+RETURNS BIGINT LANGUAGE plpgsql AS $$
+DECLARE
+    dias BIGINT;
+BEGIN
+    LOCK TABLE contas, contas_arquivo IN SHARE MODE;
+    DELETE FROM contas_pagamento_diario;
+    INSERT INTO contas_pagamento_diario
+           (data_pagamento, situacao, quantidade, valor_total, valor_minimo, valor_maximo)
+    SELECT data_pagamento, situacao, COUNT(*), SUM(valor), MIN(valor), MAX(valor)
+      FROM contas_com_arquivo
+     WHERE data_pagamento IS NOT NULL
+     GROUP BY data_pagamento, situacao;
+    GET DIAGNOSTICS dias = ROW_COUNT;
+    RETURN dias;
+END;
+$$;
+
+-- Após TRUNCATE de contas, a consolidação mantém apenas as contas arquivadas.
+CREATE OR REPLACE FUNCTION contas_pagamento_diario_limpar()
+RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM contas_pagamento_diario_reconstruir();
+    RETURN NULL;
+END;
+$$;
+
+CREATE OR REPLACE VIEW contas_pagamento_diario_divergencias AS
+SELECT data_pagamento, situacao,
+       d.quantidade AS quantidade_consolidada, c.quantidade AS quantidade_contas,
+       d.valor_total AS valor_total_consolidado, c.valor_total AS valor_total_contas
+  FROM contas_pagamento_diario d
+  FULL JOIN (SELECT data_pagamento, situacao, COUNT(*) AS quantidade, SUM(valor) AS valor_total,
+                    MIN(valor) AS valor_minimo, MAX(valor) AS valor_maximo
+               FROM contas_com_arquivo
+              WHERE data_pagamento IS NOT NULL
+              GROUP BY data_pagamento, situacao) c USING (data_pagamento, situacao)
+ WHERE d.quantidade IS DISTINCT FROM c.quantidade
+    OR d.valor_total IS DISTINCT FROM c.valor_total
+    OR d.valor_minimo IS DISTINCT FROM c.valor_minimo
+    OR d.valor_maximo IS DISTINCT FROM c.valor_maximo;
@@ -0,0 +1,33 @@
+-- O id das contas passa a BIGINT, como mapeado em Conta. A sequence reserva
+-- blocos de 50 ids por consulta (V2): com INTEGER, os ids se esgotariam após
+-- cerca de 43 milhões de blocos reservados, e todo INSERT passaria a falhar.
+--
+-- A alteração reescreve as tabelas com bloqueio exclusivo durante a migração.
+-- A visão contas_com_arquivo depende das colunas alteradas e é recriada, com a
+-- visão das divergências da consolidação, que depende dela.
+DROP VIEW contas_pagamento_diario_divergencias;
+DROP VIEW contas_com_arquivo;
+
+ALTER SEQUENCE contas_id_seq AS BIGINT;
+ALTER TABLE contas ALTER COLUMN id TYPE BIGINT;
+ALTER TABLE contas_arquivo ALTER COLUMN id TYPE BIGINT;
+
+CREATE VIEW contas_com_arquivo AS
+SELECT id, data_vencimento, data_pagamento, valor, descricao, situacao, versao FROM contas
+UNION ALL
+SELECT id, data_vencimento, data_pagamento, valor, descricao, situacao, versao FROM contas_arquivo;
+
+CREATE VIEW contas_pagamento_diario_divergencias AS
+SELECT data_pagamento, situacao,
+       d.quantidade AS quantidade_consolidada, c.quantidade AS quantidade_contas,
+       d.valor_total AS valor_total_consolidado, c.valor_total AS valor_total_contas
+  FROM contas_pagamento_diario d
+  FULL JOIN (SELECT data_pagamento, situacao, COUNT(*) AS quantidade, SUM(valor) AS valor_total,
+                    MIN(valor) AS valor_minimo, MAX(valor) AS valor_maximo
+               FROM contas_com_arquivo
+              WHERE data_pagamento IS NOT NULL
+              GROUP BY data_pagamento, situacao) c USING (data_pagamento, situacao)
+ WHERE d.quantidade IS DISTINCT FROM c.quantidade
+    OR d.valor_total IS DISTINCT FROM c.valor_total
+    OR d.valor_minimo IS DISTINCT FROM c.valor_minimo
+    OR d.valor_maximo IS DISTINCT FROM c.valor_maximo;
@@ -0,0 +1,151 @@
+-- A consolidação diária dos pagamentos passa a ser mantida por variações: os
+-- triggers somam, a cada (dia, situação) alterado, a diferença de quantidade e
+-- de valor das contas incluídas e removidas, em vez de bloquear e recalcular
+-- os dias a partir de contas. O bloqueio passa a ser o da própria linha da
+-- consolidação, obtido pelo INSERT ... ON CONFLICT DO UPDATE, e as linhas são
+-- alteradas em ordem de (dia, situação), sem bloqueios consultivos mantidos
+-- até o commit para cada dia de uma importação ou alteração em massa.
+--
+-- O menor e o maior valor não podem ser mantidos apenas com variações: um dia
+-- só é recalculado quando uma conta removida tinha o seu menor ou maior valor,
+-- ou quando o dia deixa de ter contas.
+CREATE TYPE contas_pagamento_diario_variacao AS (
+    data_pagamento DATE,
+    situacao SMALLINT,
+    quantidade BIGINT,
+    valor_total NUMERIC,
+    valor_minimo NUMERIC,
+    valor_maximo NUMERIC,
+    removidas BIGINT,
+    minimo_removido NUMERIC,
+    maximo_removido NUMERIC
+);
+
+-- Variações de um conjunto de contas incluídas (sinal 1) e removidas (sinal -1)
+-- agrupadas por (dia, situação): a quantidade e o valor total são a diferença
+-- entre incluídas e removidas; o menor e o maior valor são os das incluídas.
+CREATE FUNCTION contas_pagamento_diario_agrupar(datas DATE[], situacoes SMALLINT[], valores NUMERIC[],
+                                                sinais INTEGER[])
+RETURNS contas_pagamento_diario_variacao[] LANGUAGE sql IMMUTABLE AS $$
+    SELECT array_agg(ROW(v.*)::contas_pagamento_diario_variacao ORDER BY v.data_pagamento, v.situacao)
+      FROM (SELECT data_pagamento, situacao, SUM(sinal) AS quantidade, SUM(sinal * valor) AS valor_total,
+                   MIN(valor) FILTER (WHERE sinal > 0) AS valor_minimo,
+                   MAX(valor) FILTER (WHERE sinal > 0) AS valor_maximo,
+                   COUNT(*) FILTER (WHERE sinal < 0) AS removidas,
+                   MIN(valor) FILTER (WHERE sinal < 0) AS minimo_removido,
+                   MAX(valor) FILTER (WHERE sinal < 0) AS maximo_removido
+              FROM unnest(datas, situacoes, valores, sinais) AS u(data_pagamento, situacao, valor, sinal)
+             WHERE data_pagamento IS NOT NULL
+             GROUP BY data_pagamento, situacao) v;
+$$;
+
+-- Aplica as variações à consolidação, em ordem de (dia, situação). Um dia ainda
+-- sem linha recebe as contas incluídas; os dias em que uma conta removida tinha
+-- o menor ou o maior valor, ou que ficaram sem contas, são recalculados, já com
+-- a linha bloqueada pela aplicação da variação.
+CREATE FUNCTION contas_pagamento_diario_aplicar(variacoes contas_pagamento_diario_variacao[])
+RETURNS void LANGUAGE plpgsql AS $$
+BEGIN
+    IF variacoes IS NULL THEN
+        RETURN;
+    END IF;
+
+    INSERT INTO contas_pagamento_diario AS d
+           (data_pagamento, situacao, quantidade, valor_total, valor_minimo, valor_maximo)
+    SELECT data_pagamento, situacao, quantidade, valor_total,
+           COALESCE(valor_minimo, minimo_removido), COALESCE(valor_maximo, maximo_removido)
+      FROM unnest(variacoes)
+     ORDER BY data_pagamento, situacao
+    ON CONFLICT (data_pagamento, situacao) DO UPDATE
+       SET quantidade = d.quantidade + EXCLUDED.quantidade,
+           valor_total = d.valor_total + EXCLUDED.valor_total,
+           valor_minimo = LEAST(d.valor_minimo, EXCLUDED.valor_minimo),
+           valor_maximo = GREATEST(d.valor_maximo, EXCLUDED.valor_maximo);
+
+    PERFORM contas_pagamento_diario_recalcular(array_agg(v.data_pagamento), array_agg(v.situacao))
+       FROM unnest(variacoes) v
+       JOIN contas_pagamento_diario d USING (data_pagamento, situacao)
+      WHERE v.removidas > 0
+        AND (d.quantidade <= 0 OR v.minimo_removido <= d.valor_minimo OR v.maximo_removido >= d.valor_maximo)
+     HAVING COUNT(*) > 0;
+END;
+$$;
+
+-- O recálculo deixa de obter os bloqueios consultivos: é chamado apenas para
+-- linhas já bloqueadas pela aplicação das variações.
+CREATE OR REPLACE FUNCTION contas_pagamento_diario_recalcular(datas DATE[], situacoes SMALLINT[])
+RETURNS void LANGUAGE plpgsql AS $$
+BEGIN
+    DELETE FROM contas_pagamento_diario d
+     USING unnest(datas, situacoes) AS k(data_pagamento, situacao)
+     WHERE d.data_pagamento = k.data_pagamento
+       AND d.situacao = k.situacao
+       AND NOT EXISTS (SELECT 1 FROM contas_com_arquivo c
+                        WHERE c.data_pagamento = k.data_pagamento AND c.situacao = k.situacao);
+
+    INSERT INTO contas_pagamento_diario AS d
+           (data_pagamento, situacao, quantidade, valor_total, valor_minimo, valor_maximo)
+    SELECT c.data_pagamento, c.situacao, COUNT(*), SUM(c.valor), MIN(c.valor), MAX(c.valor)
+      FROM contas_com_arquivo c
+      JOIN (SELECT DISTINCT data_pagamento, situacao
+              FROM unnest(datas, situacoes) AS u(data_pagamento, situacao)) k
+        ON c.data_pagamento = k.data_pagamento AND c.situacao = k.situacao
+     GROUP BY c.data_pagamento, c.situacao
+    ON CONFLICT (data_pagamento, situacao) DO UPDATE
+       SET quantidade = EXCLUDED.quantidade,
+           valor_total = EXCLUDED.valor_total,
+           valor_minimo = EXCLUDED.valor_minimo,
+           valor_maximo = EXCLUDED.valor_maximo;
+END;
+$$;
+
+DROP FUNCTION contas_pagamento_diario_bloquear(DATE[], SMALLINT[]);
+
+CREATE OR REPLACE FUNCTION contas_pagamento_diario_inserir()
+RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM contas_pagamento_diario_aplicar(contas_pagamento_diario_agrupar(
+                array_agg(data_pagamento), array_agg(situacao), array_agg(valor), array_agg(1)))
+       FROM novas
+      WHERE data_pagamento IS NOT NULL;
+    RETURN NULL;
+END;
+$$;
+
+-- As contas cujos dia, situação e valor não mudaram, como nas alterações da
+-- descrição ou do vencimento, não geram variações.
+CREATE OR REPLACE FUNCTION contas_pagamento_diario_atualizar()
+RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM contas_pagamento_diario_aplicar(contas_pagamento_diario_agrupar(
+                array_agg(data_pagamento), array_agg(situacao), array_agg(valor), array_agg(sinal)))
+       FROM (SELECT n.data_pagamento, n.situacao, n.valor, 1 AS sinal
+               FROM novas n
+              WHERE n.data_pagamento IS NOT NULL
+                AND NOT EXISTS (SELECT 1 FROM antigas a
+                                 WHERE a.id = n.id AND a.data_pagamento = n.data_pagamento
+                                   AND a.situacao = n.situacao AND a.valor = n.valor)
+             UNION ALL
+             SELECT a.data_pagamento, a.situacao, a.valor, -1
+               FROM antigas a
+              WHERE a.data_pagamento IS NOT NULL
+                AND NOT EXISTS (SELECT 1 FROM novas n
+                                 WHERE n.id = a.id AND n.data_pagamento = a.data_pagamento
+                                   AND n.situacao = a.situacao AND n.valor = a.valor)) m;
+    RETURN NULL;
+END;
+$$;
+
+-- As contas transferidas para contas_arquivo no mesmo comando continuam na
+-- consolidação e não geram variações.
+CREATE OR REPLACE FUNCTION contas_pagamento_diario_remover()
+RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM contas_pagamento_diario_aplicar(contas_pagamento_diario_agrupar(
+                array_agg(data_pagamento), array_agg(situacao), array_agg(valor), array_agg(-1)))
+       FROM antigas a
+      WHERE a.data_pagamento IS NOT NULL
+        AND NOT EXISTS (SELECT 1 FROM contas_arquivo r WHERE r.id = a.id);
+    RETURN NULL;
+END;
+$$;
@@ -0,0 +1,127 @@
+-- Índice global dos identificadores das contas. A chave primária de contas é
+-- (id, data_vencimento) desde o particionamento (V13): o PostgreSQL não
+-- garante mais que o id seja único entre as partições, e os comandos pelo id,
+-- sem a data de vencimento, consultam o índice de cada partição.
+--
+-- contas_ids mantém a data de vencimento atual de cada conta, com o id como
+-- chave primária: um id repetido em qualquer partição é recusado, e as
+-- alterações pelo id obtêm a data de vencimento nessa tabela para ler apenas a
+-- partição do mês da conta. A tabela é mantida pelos triggers de contas, uma vez
+-- por comando, como a consolidação diária dos pagamentos; as contas arquivadas
+-- deixam a tabela com a remoção de contas.
+CREATE TABLE contas_ids (
+    id BIGINT PRIMARY KEY,
+    data_vencimento DATE NOT NULL
+);
+
+INSERT INTO contas_ids (id, data_vencimento)
+SELECT id, data_vencimento FROM contas;
+
+CREATE FUNCTION contas_ids_inserir()
+RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    INSERT INTO contas_ids (id, data_vencimento)
+    SELECT id, data_vencimento FROM novas;
+    RETURN NULL;
+END;
+$$;
+
+-- Apenas as contas com outro id ou outra data de vencimento alteram a tabela.
+CREATE FUNCTION contas_ids_atualizar()
+RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    DELETE FROM contas_ids i
+     USING (SELECT id, data_vencimento FROM antigas
+            EXCEPT ALL
+            SELECT id, data_vencimento FROM novas) a
+     WHERE i.id = a.id;
+    INSERT INTO contas_ids (id, data_vencimento)
+    SELECT id, data_vencimento FROM novas
+    EXCEPT ALL
+    SELECT id, data_vencimento FROM antigas;
+    RETURN NULL;
+END;
+$$;
+
+CREATE FUNCTION contas_ids_remover()
+RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    DELETE FROM contas_ids i USING antigas a WHERE i.id = a.id;
+    RETURN NULL;
+END;
+$$;
+
+CREATE FUNCTION contas_ids_limpar()
+RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    TRUNCATE contas_ids;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER contas_ids_insert AFTER INSERT ON contas
+    REFERENCING NEW TABLE AS novas
+    FOR EACH STATEMENT EXECUTE FUNCTION contas_ids_inserir();
+
+CREATE TRIGGER contas_ids_update AFTER UPDATE ON contas
+    REFERENCING OLD TABLE AS antigas NEW TABLE AS novas
+    FOR EACH STATEMENT EXECUTE FUNCTION contas_ids_atualizar();
+
+CREATE TRIGGER contas_ids_delete AFTER DELETE ON contas
+    REFERENCING OLD TABLE AS antigas
+    FOR EACH STATEMENT EXECUTE FUNCTION contas_ids_remover();
+
+CREATE TRIGGER contas_ids_truncate AFTER TRUNCATE ON contas
+    FOR EACH STATEMENT EXECUTE FUNCTION contas_ids_limpar();
+
+-- Conta do id lida apenas da partição do mês da conta: a data de vencimento
+-- lida de contas_ids é informada ao comando como parâmetro, e a partição é
+-- escolhida no planejamento. Utilizada pelo Hibernate na leitura de uma conta
+-- pelo id. Os dois comandos utilizam o mesmo snapshot da função.
+CREATE FUNCTION contas_buscar(conta BIGINT)
+RETURNS SETOF contas LANGUAGE plpgsql STABLE AS $$
+DECLARE
+    vencimento DATE;
+BEGIN
+    SELECT data_vencimento INTO vencimento FROM contas_ids WHERE id = conta;
+    RETURN QUERY SELECT * FROM contas WHERE id = conta AND data_vencimento = vencimento;
+END;
+$$;
+
+-- A criação de uma partição passa a bloquear as gravações em contas antes de
+-- verificar a partição padrão: sem o bloqueio, uma conta do mês gravada em
+-- contas_padrao entre a transferência das contas e o ATTACH PARTITION faria o
+-- ATTACH falhar. A partição é sempre criada separada e anexada: o CREATE TABLE
+-- ... PARTITION OF exigiria, após o bloqueio das gravações, o bloqueio
+-- exclusivo de contas, com risco de impasse com as transações que já leram
+-- contas. A restrição do intervalo do mês evita que o ATTACH percorra a nova
+-- partição.
+CREATE OR REPLACE FUNCTION contas_criar_particao(mes DATE)
+RETURNS BOOLEAN LANGUAGE plpgsql AS $$
+DECLARE
+    inicio DATE := date_trunc('month', mes::timestamp);
+    fim DATE := inicio + INTERVAL '1 month';
+    particao TEXT := 'contas_' || to_char(inicio, 'YYYY_MM');
+BEGIN
+    IF to_regclass(particao) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    LOCK TABLE contas IN SHARE ROW EXCLUSIVE MODE;
+    IF to_regclass(particao) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('CREATE TABLE %I (LIKE contas INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', particao);
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I CHECK (data_vencimento >= %L AND data_vencimento < %L)',
+                   particao, particao || '_intervalo', inicio, fim);
+    EXECUTE format('WITH movidas AS (DELETE FROM contas_padrao WHERE data_vencimento >= %L '
+                   'AND data_vencimento < %L RETURNING *) INSERT INTO %I SELECT * FROM movidas',
+                   inicio, fim, particao);
+    EXECUTE format('ALTER TABLE contas ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   particao, inicio, fim);
+    EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', particao, particao || '_intervalo');
+    PERFORM contas_nomear_indices(particao::regclass);
+    RETURN TRUE;
+END;
+$$;
+
+ANALYZE contas_ids;
@@ -0,0 +1,4 @@
+-- O Hibernate passa a reservar blocos de 50 ids por consulta à sequence
+-- (otimizador "pooled"), permitindo agrupar os INSERTs em lotes JDBC.
+-- O incremento deve ser igual ao allocationSize mapeado em Conta.
+ALTER SEQUENCE contas_id_seq INCREMENT BY 50;
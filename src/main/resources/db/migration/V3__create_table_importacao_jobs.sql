@@ -0,0 +1,16 @@
+CREATE TABLE IF NOT EXISTS importacao_jobs (
+    id UUID PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    modo VARCHAR(10) NOT NULL,
+    nome_arquivo VARCHAR(255),
+    linhas_lidas BIGINT NOT NULL DEFAULT 0,
+    linhas_gravadas BIGINT NOT NULL DEFAULT 0,
+    linhas_rejeitadas BIGINT NOT NULL DEFAULT 0,
+    linhas_por_segundo BIGINT NOT NULL DEFAULT 0,
+    cancelamento_solicitado BOOLEAN NOT NULL DEFAULT FALSE,
+    mensagem TEXT,
+    erros TEXT,
+    criado_em TIMESTAMP NOT NULL,
+    iniciado_em TIMESTAMP,
+    finalizado_em TIMESTAMP
+);
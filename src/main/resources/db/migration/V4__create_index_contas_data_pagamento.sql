@@ -0,0 +1,5 @@
+-- Índice de cobertura para a consulta do total pago: as agregações por
+-- data de pagamento são resolvidas com index-only scan, sem acessar a tabela.
+CREATE INDEX IF NOT EXISTS idx_contas_data_pagamento
+    ON contas (data_pagamento) INCLUDE (valor, situacao)
+    WHERE data_pagamento IS NOT NULL;
@@ -0,0 +1,161 @@
+-- Consolidação diária dos pagamentos por situação, consultada pelo total pago.
+-- A tabela é mantida pelos triggers de contas, cobrindo todas as formas de
+-- gravação (JPA, importação JDBC e COPY, e comandos SQL diretos).
+CREATE TABLE IF NOT EXISTS contas_pagamento_diario (
+    data_pagamento DATE NOT NULL,
+    situacao VARCHAR(50) NOT NULL,
+    quantidade BIGINT NOT NULL,
+    valor_total NUMERIC(18, 2) NOT NULL,
+    valor_minimo DECIMAL(10, 2) NOT NULL,
+    valor_maximo DECIMAL(10, 2) NOT NULL,
+    PRIMARY KEY (data_pagamento, situacao)
+);
+
+-- Bloqueia, em ordem, as chaves (data, situação) alteradas pela transação.
+-- Com o bloqueio mantido até o commit, o recálculo de um dia enxerga os
+-- pagamentos já confirmados por outras transações e não é sobrescrito por elas.
+CREATE OR REPLACE FUNCTION contas_pagamento_diario_bloquear(datas DATE[], situacoes VARCHAR[])
+RETURNS void LANGUAGE sql AS $$
+    SELECT pg_advisory_xact_lock(hashtextextended('contas_pagamento_diario:' || k.data_pagamento || ':' || k.situacao, 0))
+      FROM (SELECT DISTINCT data_pagamento, situacao
+              FROM unnest(datas, situacoes) AS u(data_pagamento, situacao)
+             ORDER BY data_pagamento, situacao) k;
+$$;
+
+-- Recalcula os dias informados a partir de contas. Utilizado quando pagamentos
+-- são alterados ou removidos, pois o menor e o maior valor não podem ser
+-- mantidos apenas com incrementos.
+CREATE OR REPLACE FUNCTION contas_pagamento_diario_recalcular(datas DATE[], situacoes VARCHAR[])
+RETURNS void LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM contas_pagamento_diario_bloquear(datas, situacoes);
+
+    DELETE FROM contas_pagamento_diario d
+     USING unnest(datas, situacoes) AS k(data_pagamento, situacao)
+     WHERE d.data_pagamento = k.data_pagamento
+       AND d.situacao = k.situacao
+       AND NOT EXISTS (SELECT 1 FROM contas c
+                        WHERE c.data_pagamento = k.data_pagamento AND c.situacao = k.situacao);
+
+    INSERT INTO contas_pagamento_diario AS d
+           (data_pagamento, situacao, quantidade, valor_total, valor_minimo, valor_maximo)
+    SELECT c.data_pagamento, c.situacao, COUNT(*), SUM(c.valor), MIN(c.valor), MAX(c.valor)
+      FROM contas c
+      JOIN (SELECT DISTINCT data_pagamento, situacao
+              FROM unnest(datas, situacoes) AS u(data_pagamento, situacao)) k
+        ON c.data_pagamento = k.data_pagamento AND c.situacao = k.situacao
+     GROUP BY c.data_pagamento, c.situacao
+    ON CONFLICT (data_pagamento, situacao) DO UPDATE
+       SET quantidade = EXCLUDED.quantidade,
+           valor_total = EXCLUDED.valor_total,
+           valor_minimo = EXCLUDED.valor_minimo,
+           valor_maximo = EXCLUDED.valor_maximo;
+END;
+$$;
+
+-- Inclusões são somadas aos dias existentes, sem consultar contas.
+CREATE OR REPLACE FUNCTION contas_pagamento_diario_inserir()
+RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM contas_pagamento_diario_bloquear(array_agg(data_pagamento), array_agg(situacao))
+       FROM novas WHERE data_pagamento IS NOT NULL;
+
+    INSERT INTO contas_pagamento_diario AS d
+           (data_pagamento, situacao, quantidade, valor_total, valor_minimo, valor_maximo)
+    SELECT data_pagamento, situacao, COUNT(*), SUM(valor), MIN(valor), MAX(valor)
+      FROM novas
+     WHERE data_pagamento IS NOT NULL
+     GROUP BY data_pagamento, situacao
+    ON CONFLICT (data_pagamento, situacao) DO UPDATE
+       SET quantidade = d.quantidade + EXCLUDED.quantidade,
+           valor_total = d.valor_total + EXCLUDED.valor_total,
+           valor_minimo = LEAST(d.valor_minimo, EXCLUDED.valor_minimo),
+           valor_maximo = GREATEST(d.valor_maximo, EXCLUDED.valor_maximo);
+    RETURN NULL;
+END;
+$$;
+
+-- Alterações recalculam os dias de origem e de destino das contas alteradas,
+-- cobrindo mudanças de data de pagamento, de valor e de situação.
+CREATE OR REPLACE FUNCTION contas_pagamento_diario_atualizar()
+RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM contas_pagamento_diario_recalcular(array_agg(data_pagamento), array_agg(situacao))
+       FROM (SELECT data_pagamento, situacao FROM antigas WHERE data_pagamento IS NOT NULL
+             UNION
+             SELECT data_pagamento, situacao FROM novas WHERE data_pagamento IS NOT NULL) k
+     HAVING COUNT(*) > 0;
+    RETURN NULL;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION contas_pagamento_diario_remover()
+RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    PERFORM contas_pagamento_diario_recalcular(array_agg(data_pagamento), array_agg(situacao))
+       FROM (SELECT DISTINCT data_pagamento, situacao FROM antigas WHERE data_pagamento IS NOT NULL) k
+     HAVING COUNT(*) > 0;
+    RETURN NULL;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION contas_pagamento_diario_limpar()
+RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    TRUNCATE contas_pagamento_diario;
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER contas_pagamento_diario_insert AFTER INSERT ON contas
+    REFERENCING NEW TABLE AS novas
+    FOR EACH STATEMENT EXECUTE FUNCTION contas_pagamento_diario_inserir();
+
+CREATE TRIGGER contas_pagamento_diario_update AFTER UPDATE ON contas
+    REFERENCING OLD TABLE AS antigas NEW TABLE AS novas
+    FOR EACH STATEMENT EXECUTE FUNCTION contas_pagamento_diario_atualizar();
+
+CREATE TRIGGER contas_pagamento_diario_delete AFTER DELETE ON contas
+    REFERENCING OLD TABLE AS antigas
+    FOR EACH STATEMENT EXECUTE FUNCTION contas_pagamento_diario_remover();
+
+CREATE TRIGGER contas_pagamento_diario_truncate AFTER TRUNCATE ON contas
+    FOR EACH STATEMENT EXECUTE FUNCTION contas_pagamento_diario_limpar();
+
+-- Dias em que a consolidação diverge de contas. Vazia quando consistente.
+CREATE OR REPLACE VIEW contas_pagamento_diario_divergencias AS
+SELECT data_pagamento, situacao,
+       d.quantidade AS quantidade_consolidada, c.quantidade AS quantidade_contas,
+       d.valor_total AS valor_total_consolidado, c.valor_total AS valor_total_contas
+  FROM contas_pagamento_diario d
+  FULL JOIN (SELECT data_pagamento, situacao, COUNT(*) AS quantidade, SUM(valor) AS valor_total,
+                    MIN(valor) AS valor_minimo, MAX(valor) AS valor_maximo
+               FROM contas
+              WHERE data_pagamento IS NOT NULL
+              GROUP BY data_pagamento, situacao) c USING (data_pagamento, situacao)
+ WHERE d.quantidade IS DISTINCT FROM c.quantidade
+    OR d.valor_total IS DISTINCT FROM c.valor_total
+    OR d.valor_minimo IS DISTINCT FROM c.valor_minimo
+    OR d.valor_maximo IS DISTINCT FROM c.valor_maximo;
+
+-- Reconstrói a consolidação a partir de contas. As gravações em contas ficam
+-- bloqueadas durante a reconstrução. Retorna a quantidade de dias gerados.
+CREATE OR REPLACE FUNCTION contas_pagamento_diario_reconstruir()
+RETURNS BIGINT LANGUAGE plpgsql AS $$
+DECLARE
+    dias BIGINT;
+BEGIN
+    LOCK TABLE contas IN SHARE MODE;
+    DELETE FROM contas_pagamento_diario;
+    INSERT INTO contas_pagamento_diario
+           (data_pagamento, situacao, quantidade, valor_total, valor_minimo, valor_maximo)
+    SELECT data_pagamento, situacao, COUNT(*), SUM(valor), MIN(valor), MAX(valor)
+      FROM contas
+     WHERE data_pagamento IS NOT NULL
+     GROUP BY data_pagamento, situacao;
+    GET DIAGNOSTICS dias = ROW_COUNT;
+    RETURN dias;
+END;
+$$;
+
+SELECT contas_pagamento_diario_reconstruir();
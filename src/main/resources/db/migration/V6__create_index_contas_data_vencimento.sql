@@ -0,0 +1,4 @@
+-- Índice da listagem de contas por data de vencimento. A ordem
+-- (data_vencimento, id) é a mesma da listagem por cursor, que posiciona a
+-- leitura diretamente no índice a partir da última conta retornada.
+CREATE INDEX IF NOT EXISTS idx_contas_data_vencimento_id ON contas (data_vencimento, id);
@@ -0,0 +1,16 @@
+-- Busca por trecho da descrição sem diferenciar maiúsculas e acentos, com
+-- índice de trigramas: LIKE '%termo%' deixa de exigir a leitura de toda a
+-- tabela quando o termo possui ao menos três caracteres.
+CREATE EXTENSION IF NOT EXISTS unaccent;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- unaccent(text) é STABLE, pois depende do dicionário configurado; com o
+-- dicionário informado explicitamente o resultado é fixo e a função pode ser
+-- declarada IMMUTABLE, requisito para ser utilizada em um índice.
+CREATE OR REPLACE FUNCTION contas_normalizar(texto TEXT)
+RETURNS TEXT LANGUAGE sql IMMUTABLE STRICT PARALLEL SAFE AS $$
+    SELECT lower(public.unaccent('public.unaccent'::regdictionary, texto));
+$$;
+
+CREATE INDEX IF NOT EXISTS idx_contas_descricao_trgm
+    ON contas USING gin (contas_normalizar(descricao) gin_trgm_ops);
@@ -0,0 +1,9 @@
+-- O Hibernate traduz COUNT(c) para count(c.id): sem o id no índice de
+-- cobertura das contas pagas, as agregações por data de pagamento voltavam a
+-- ler a tabela (bitmap heap scan). O novo índice inclui o id e substitui o
+-- anterior, mantendo-se parcial, apenas com as contas pagas.
+CREATE INDEX IF NOT EXISTS idx_contas_data_pagamento_cobertura
+    ON contas (data_pagamento) INCLUDE (id, valor, situacao)
+    WHERE data_pagamento IS NOT NULL;
+
+DROP INDEX IF EXISTS idx_contas_data_pagamento;
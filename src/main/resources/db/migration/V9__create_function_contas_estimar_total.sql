@@ -0,0 +1,18 @@
+-- Estimativa da quantidade de contas do filtro da listagem, obtida do plano
+-- de execução (estatísticas do ANALYZE), sem percorrer as contas. O termo da
+-- descrição deve chegar com os curingas do LIKE escapados por \; vazio ou
+-- nulo, a descrição não é filtrada.
+CREATE OR REPLACE FUNCTION contas_estimar_total(inicio DATE, fim DATE, termo TEXT)
+RETURNS BIGINT LANGUAGE plpgsql AS $$
+DECLARE
+    consulta TEXT := format('SELECT 1 FROM contas WHERE data_vencimento BETWEEN %L AND %L', inicio, fim);
+    plano JSON;
+BEGIN
+    IF termo IS NOT NULL AND termo <> '' THEN
+        consulta := consulta || format(' AND contas_normalizar(descricao) LIKE %L ESCAPE %L',
+                                       '%' || contas_normalizar(termo) || '%', '\');
+    END IF;
+    EXECUTE 'EXPLAIN (FORMAT JSON) ' || consulta INTO plano;
+    RETURN (plano -> 0 -> 'Plan' ->> 'Plan Rows')::BIGINT;
+END;
+$$;
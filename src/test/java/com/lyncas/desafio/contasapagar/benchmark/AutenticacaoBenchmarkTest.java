@@ -0,0 +1,181 @@
+package com.lyncas.desafio.contasapagar.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Mede a latência da listagem de contas durante uma rajada de autenticações,
+ * comparando a verificação das senhas pelo executor limitado das autenticações
+ * com a verificação nas threads das próprias requisições, como era feito:
+ * autenticações por segundo, autenticações recusadas por segundo e latência
+ * (mediana e percentil 99) da listagem.
+ *
+ * <pre>
+ * mvn test -Dbenchmark=true -Dtest=AutenticacaoBenchmarkTest
+ * </pre>
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+		"logging.level.org.springframework.security=INFO", "spring.jpa.show-sql=false" })
+class AutenticacaoBenchmarkTest extends PostgresBenchmark {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(AutenticacaoBenchmarkTest.class);
+
+	private static final String CREDENCIAIS = "{\"username\":\"usuario_desafio\",\"password\":\"senha_desafio\"}";
+
+	/** Clientes autenticando simultaneamente durante a rajada. */
+	private static final int CLIENTES = 64;
+
+	/** Duração de cada rajada, em milissegundos. */
+	private static final long DURACAO = 10_000;
+
+	/** Espera de um cliente após uma autenticação recusada, em milissegundos. */
+	private static final long ESPERA_RECUSA = 50;
+
+	@LocalServerPort
+	private int porta;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	private final HttpClient cliente = HttpClient.newHttpClient();
+
+	@BeforeAll
+	static void popularContas() {
+		popular(100_000);
+	}
+
+	/**
+	 * Resultado de uma rajada de autenticações.
+	 */
+	record Rajada(double autenticacoesPorSegundo, double recusasPorSegundo, double mediana, double percentil99) {
+	}
+
+	@Test
+	void rajadaAutenticacoes() throws Exception {
+		HttpResponse<String> autenticacao = autenticar();
+		assertEquals(200, autenticacao.statusCode());
+		String token = autenticacao.body();
+
+		Rajada ociosa = rajada(token, 0, () -> 200);
+		Rajada limitada = rajada(token, CLIENTES, () -> autenticar().statusCode());
+		String hash = jdbcTemplate.queryForObject("SELECT senha FROM usuarios WHERE username = 'usuario_desafio'",
+				String.class);
+		Rajada threadsRequisicao = rajada(token, CLIENTES,
+				() -> passwordEncoder.matches("senha_desafio", hash) ? 200 : 401);
+
+		LOGGER.info(String.format("Listagem sem autenticações: mediana %.2f ms, p99 %.2f ms", ociosa.mediana(),
+				ociosa.percentil99()));
+		imprimir("executor limitado", limitada);
+		imprimir("threads das requisições", threadsRequisicao);
+
+		assertTrue(limitada.autenticacoesPorSegundo() > 0);
+		assertTrue(limitada.percentil99() < threadsRequisicao.percentil99());
+	}
+
+	private static void imprimir(String modo, Rajada rajada) {
+		LOGGER.info(String.format("Rajada de %d clientes (%s): %.1f autenticações/s, %.1f recusas/s, "
+				+ "listagem com mediana %.2f ms e p99 %.2f ms", CLIENTES, modo, rajada.autenticacoesPorSegundo(),
+				rajada.recusasPorSegundo(), rajada.mediana(), rajada.percentil99()));
+	}
+
+	/**
+	 * Executa uma rajada de autenticações enquanto a listagem de contas é
+	 * requisitada em sequência.
+	 *
+	 * @param token    o token utilizado na listagem
+	 * @param clientes a quantidade de clientes autenticando
+	 * @param login    uma autenticação, retornando o status HTTP obtido
+	 * @return as autenticações realizadas e as latências da listagem
+	 */
+	private Rajada rajada(String token, int clientes, IntSupplier login) throws InterruptedException {
+		long fim = System.currentTimeMillis() + DURACAO;
+		AtomicLong autenticacoes = new AtomicLong();
+		AtomicLong recusas = new AtomicLong();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, clientes));
+		for (int i = 0; i < clientes; i++) {
+			executor.execute(() -> {
+				while (System.currentTimeMillis() < fim) {
+					if (login.getAsInt() == 200) {
+						autenticacoes.incrementAndGet();
+					} else {
+						recusas.incrementAndGet();
+						dormir(ESPERA_RECUSA);
+					}
+				}
+			});
+		}
+
+		List<Double> latencias = new ArrayList<>();
+		HttpRequest listagem = HttpRequest.newBuilder(uri("/contas?size=20&dataVencimentoInicio=2021-01-01"
+				+ "&dataVencimentoFim=2021-01-31")).header("Authorization", "Bearer " + token).build();
+		while (System.currentTimeMillis() < fim) {
+			long inicio = System.nanoTime();
+			assertEquals(200, enviar(listagem).statusCode());
+			latencias.add((System.nanoTime() - inicio) / 1_000_000.0);
+		}
+		executor.shutdown();
+		executor.awaitTermination(1, TimeUnit.MINUTES);
+
+		latencias.sort(null);
+		double segundos = DURACAO / 1000.0;
+		return new Rajada(autenticacoes.get() / segundos, recusas.get() / segundos,
+				latencias.get(latencias.size() / 2), latencias.get((int) (latencias.size() * 0.99)));
+	}
+
+	private HttpResponse<String> autenticar() {
+		return enviar(HttpRequest.newBuilder(uri("/authenticate")).header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(CREDENCIAIS)).build());
+	}
+
+	private HttpResponse<String> enviar(HttpRequest requisicao) {
+		try {
+			return cliente.send(requisicao, HttpResponse.BodyHandlers.ofString());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private URI uri(String caminho) {
+		return URI.create("http://localhost:" + porta + caminho);
+	}
+
+	private static void dormir(long milissegundos) {
+		try {
+			Thread.sleep(milissegundos);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package com.lyncas.desafio.contasapagar.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compara a busca por trecho da descrição de antes, {@code descricao LIKE
+ * '%termo%'} sem índice, com a busca normalizada coberta pelo índice de
+ * trigramas {@code idx_contas_descricao_trgm}, com 1 e 10 milhões de contas.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+class BuscaDescricaoBenchmarkTest extends PostgresBenchmark {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(BuscaDescricaoBenchmarkTest.class);
+
+	private static final String ANTERIOR = "SELECT * FROM contas c WHERE c.data_vencimento BETWEEN ? AND ? "
+			+ "AND c.descricao LIKE '%' || ? || '%' ORDER BY c.data_vencimento LIMIT 20";
+
+	private static final String TRIGRAMAS = "SELECT * FROM contas c WHERE c.data_vencimento BETWEEN ? AND ? "
+			+ "AND contas_normalizar(c.descricao) LIKE '%' || contas_normalizar(?) || '%' ESCAPE '\\' "
+			+ "ORDER BY c.data_vencimento LIMIT 20";
+
+	private static final LocalDate INICIO = LocalDate.of(2020, 1, 1);
+
+	private static final LocalDate FIM = LocalDate.of(2030, 12, 31);
+
+	@ParameterizedTest(name = "{0} contas")
+	@ValueSource(longs = { 1_000_000, 10_000_000 })
+	void buscarPorDescricao(long contas) {
+		popular(contas);
+
+		// Trecho raro (um hash) e trecho frequente (1/6 das contas)
+		for (String termo : new String[] { "E4DA3B7F", "água" }) {
+			double anterior = medir(() -> jdbcTemplate.queryForList(ANTERIOR, INICIO, FIM, termo));
+			double trigramas = medir(() -> jdbcTemplate.queryForList(TRIGRAMAS, INICIO, FIM, termo));
+			LOGGER.info(String.format("%,d contas, termo '%s': LIKE %.2f ms, trigramas %.2f ms", contas, termo,
+					anterior, trigramas));
+		}
+
+		assertTrue(explicar(TRIGRAMAS, INICIO, FIM, "e4da3b7f").contains("idx_contas_descricao_trgm"));
+	}
+}
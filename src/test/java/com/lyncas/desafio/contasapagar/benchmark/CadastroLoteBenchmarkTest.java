@@ -0,0 +1,130 @@
+package com.lyncas.desafio.contasapagar.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+/**
+ * Compara a vazão do cadastro de contas, em contas por segundo, enviando uma
+ * conta por requisição em {@code POST /contas} e lotes de tamanhos crescentes
+ * em {@code POST /contas/lote}.
+ *
+ * <pre>
+ * mvn test -Dbenchmark=true -Dtest=CadastroLoteBenchmarkTest
+ * </pre>
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+		"logging.level.org.springframework.security=INFO", "spring.jpa.show-sql=false" })
+class CadastroLoteBenchmarkTest extends PostgresBenchmark {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CadastroLoteBenchmarkTest.class);
+
+	private static final String CREDENCIAIS = "{\"username\":\"usuario_desafio\",\"password\":\"senha_desafio\"}";
+
+	/** Contas cadastradas em cada medição. */
+	private static final int CONTAS = 5_000;
+
+	/** Tamanhos de lote comparados com o cadastro individual. */
+	private static final int[] TAMANHOS_LOTE = { 10, 100, 1000 };
+
+	@LocalServerPort
+	private int porta;
+
+	private final HttpClient cliente = HttpClient.newHttpClient();
+
+	private String token;
+
+	@BeforeAll
+	static void popularContas() {
+		popular(100_000);
+	}
+
+	@Test
+	void cadastrarContas() {
+		HttpResponse<String> autenticacao = enviar(HttpRequest.newBuilder(uri("/authenticate"))
+				.header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(CREDENCIAIS))
+				.build());
+		assertEquals(200, autenticacao.statusCode());
+		token = autenticacao.body();
+
+		// Aquecimento
+		cadastrar(1, 200);
+		cadastrar(100, 1000);
+
+		double individual = cadastrar(1, CONTAS);
+		LOGGER.info(String.format("Cadastro individual: %.0f contas/s", individual));
+		double anterior = individual;
+		for (int tamanho : TAMANHOS_LOTE) {
+			double vazao = cadastrar(tamanho, CONTAS);
+			LOGGER.info(String.format("Cadastro em lotes de %d: %.0f contas/s (%.1fx)", tamanho, vazao,
+					vazao / individual));
+			assertTrue(vazao > anterior);
+			anterior = vazao;
+		}
+	}
+
+	/**
+	 * Cadastra as contas em requisições sequenciais, com uma conta por requisição
+	 * em {@code POST /contas} ou em lotes em {@code POST /contas/lote}.
+	 *
+	 * @param tamanhoLote a quantidade de contas por requisição
+	 * @param total       a quantidade de contas cadastradas
+	 * @return a vazão, em contas por segundo
+	 */
+	private double cadastrar(int tamanhoLote, int total) {
+		long inicio = System.nanoTime();
+		for (int enviadas = 0; enviadas < total; enviadas += tamanhoLote) {
+			String contas = IntStream.range(enviadas, enviadas + tamanhoLote).mapToObj(CadastroLoteBenchmarkTest::conta)
+					.collect(Collectors.joining(","));
+			HttpRequest requisicao = HttpRequest
+					.newBuilder(uri(tamanhoLote == 1 ? "/contas" : "/contas/lote"))
+					.header("Authorization", "Bearer " + token).header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(tamanhoLote == 1 ? contas : "[" + contas + "]"))
+					.build();
+			HttpResponse<String> resposta = enviar(requisicao);
+			assertEquals(200, resposta.statusCode(), resposta::body);
+		}
+		return total / ((System.nanoTime() - inicio) / 1_000_000_000.0);
+	}
+
+	private static String conta(int i) {
+		return "{\"dataVencimento\":\"2024-" + String.format("%02d", 1 + i % 12) + "-10\",\"valor\":" + (i % 1000)
+				+ ".50,\"descricao\":\"Conta do ERP " + i + "\",\"situacao\":\"PENDENTE\"}";
+	}
+
+	private HttpResponse<String> enviar(HttpRequest requisicao) {
+		try {
+			return cliente.send(requisicao, HttpResponse.BodyHandlers.ofString());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private URI uri(String caminho) {
+		return URI.create("http://localhost:" + porta + caminho);
+	}
+}
@@ -0,0 +1,126 @@
+package com.lyncas.desafio.contasapagar.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lyncas.desafio.contasapagar.service.ContaService;
+
+/**
+ * Compara a listagem de uma página de contas em JSON, montada em memória antes
+ * do envio, com a listagem em NDJSON gravada à medida que as contas são lidas:
+ * tempo até o primeiro byte, latência total e memória alocada por página.
+ *
+ * <pre>
+ * mvn test -Dbenchmark=true -Dtest=ListagemNdjsonBenchmarkTest
+ * </pre>
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@SpringBootTest
+class ListagemNdjsonBenchmarkTest extends PostgresBenchmark {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ListagemNdjsonBenchmarkTest.class);
+
+	private static final LocalDate INICIO = LocalDate.of(2021, 1, 1);
+
+	private static final LocalDate FIM = LocalDate.of(2021, 12, 31);
+
+	private static final Pageable PAGINA = PageRequest.of(0, 2000, Sort.by("dataVencimento", "id"));
+
+	@Autowired
+	private ContaService contaService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@BeforeAll
+	static void popularContas() {
+		popular(1_000_000);
+	}
+
+	@Test
+	void listarPagina() {
+		assertEquals(PAGINA.getPageSize(), contaService.listarContas(PAGINA, INICIO, FIM, null).getNumberOfElements());
+		assertEquals(PAGINA.getPageSize(), listarNdjson(OutputStream.nullOutputStream()));
+
+		double latenciaJson = medir(this::listarJson);
+		double latenciaNdjson = medir(() -> listarNdjson(OutputStream.nullOutputStream()));
+		double primeiroByteNdjson = medirPrimeiroByte();
+		long alocacaoJson = medirAlocacao(this::listarJson);
+		long alocacaoNdjson = medirAlocacao(() -> listarNdjson(OutputStream.nullOutputStream()));
+		LOGGER.info(String.format("Página de %d contas: JSON %.2f ms e %,d bytes, NDJSON %.2f ms "
+				+ "(primeiro byte em %.2f ms) e %,d bytes", PAGINA.getPageSize(), latenciaJson, alocacaoJson,
+				latenciaNdjson, primeiroByteNdjson, alocacaoNdjson));
+
+		// Em JSON o primeiro byte só é enviado com a página completa
+		assertTrue(primeiroByteNdjson < latenciaJson);
+		assertTrue(alocacaoNdjson < alocacaoJson);
+	}
+
+	private byte[] listarJson() {
+		try {
+			return objectMapper.writeValueAsBytes(contaService.listarContas(PAGINA, INICIO, FIM, null));
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private long listarNdjson(OutputStream saida) {
+		try {
+			return contaService.listarContasNdjson(saida, PAGINA, INICIO, FIM, null);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Mede o tempo até a gravação do primeiro byte da listagem em NDJSON.
+	 *
+	 * @return a mediana das execuções, em milissegundos
+	 */
+	private double medirPrimeiroByte() {
+		double[] tempos = new double[EXECUCOES];
+		for (int i = 0; i < EXECUCOES; i++) {
+			long inicio = System.nanoTime();
+			long[] primeiro = new long[1];
+			listarNdjson(new OutputStream() {
+
+				@Override
+				public void write(int b) {
+					write(null, 0, 1);
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) {
+					if (primeiro[0] == 0) {
+						primeiro[0] = System.nanoTime();
+					}
+				}
+			});
+			tempos[i] = (primeiro[0] - inicio) / 1_000_000.0;
+		}
+		Arrays.sort(tempos);
+		return tempos[EXECUCOES / 2];
+	}
+}
@@ -0,0 +1,350 @@
+package com.lyncas.desafio.contasapagar.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lyncas.desafio.contasapagar.dto.ContaResponse;
+import com.lyncas.desafio.contasapagar.model.SituacaoConta;
+import com.lyncas.desafio.contasapagar.repository.ContaRepository;
+
+/**
+ * Verifica o plano de execução de cada consulta do {@link ContaRepository}
+ * contra 1 milhão de contas. O SQL gerado pelo Hibernate é capturado durante a
+ * execução da consulta e submetido ao {@code EXPLAIN}; o teste falha se o plano
+ * percorrer a tabela de contas sequencialmente, deixar de utilizar o índice
+ * esperado ou ultrapassar o custo máximo estimado.
+ *
+ * <p>
+ * A tabela de contas é particionada por mês de vencimento: as consultas por
+ * intervalo de vencimento devem ler apenas a partição do mês consultado, que
+ * pode ser percorrida sequencialmente, assim como as partições vazias dos meses
+ * futuros. Os índices de cada partição têm o nome do índice de contas seguido
+ * do mês (por exemplo, {@code idx_contas_data_vencimento_id_2021_03}).
+ * </p>
+ *
+ * <pre>
+ * mvn test -Dbenchmark=true -Dtest=PlanosConsultaContaTest
+ * </pre>
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@SpringBootTest
+class PlanosConsultaContaTest extends PostgresBenchmark {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(PlanosConsultaContaTest.class);
+
+	private static final LocalDate INICIO = LocalDate.of(2021, 3, 1);
+
+	private static final LocalDate FIM = LocalDate.of(2021, 3, 31);
+
+	private static final LocalDate CURSOR = LocalDate.of(2021, 3, 15);
+
+	private static final Sort ORDEM = Sort.by("dataVencimento", "id");
+
+	/** Partição das contas com vencimento entre {@link #INICIO} e {@link #FIM}. */
+	private static final String PARTICAO = "contas_2021_03";
+
+	/** Códigos das situações, como gravados e comparados pelas consultas. */
+	private static final short PENDENTE = SituacaoConta.PENDENTE.getCodigo();
+
+	private static final short PAGA = SituacaoConta.PAGA.getCodigo();
+
+	/** Um lote da alteração de situação: 1000 contas espalhadas pela tabela. */
+	private static final Long[] IDS = LongStream.range(0, 1000).mapToObj(i -> 1 + i * 50_000).toArray(Long[]::new);
+
+	/** Datas de vencimento de um lote, lidas de {@code contas_ids}. */
+	private static final LocalDate[] VENCIMENTOS = { INICIO, CURSOR };
+
+	private static final ObjectMapper JSON = new ObjectMapper();
+
+	@Autowired
+	private ContaRepository contaRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	/**
+	 * Consulta verificada: o método do repositório, a sua execução, os valores
+	 * dos parâmetros na ordem em que aparecem no SQL, o índice esperado (nulo
+	 * quando o comando não lê as contas, como a estimativa do total) e o custo
+	 * máximo estimado de cada comando. Os custos máximos são cerca do dobro dos
+	 * custos medidos com as partições e os índices atuais.
+	 */
+	record Caso(String metodo, Consumer<ContaRepository> consulta, List<Object> parametros, String indice,
+			double custoMaximo) {
+
+		@Override
+		public String toString() {
+			return metodo;
+		}
+	}
+
+	/** Captura o SQL executado pelo Hibernate. */
+	static class ConsultasCapturadas implements StatementInspector {
+
+		static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+		@Override
+		public String inspect(String sql) {
+			SQL.add(sql);
+			return sql;
+		}
+	}
+
+	@TestConfiguration
+	static class Configuracao {
+
+		@Bean
+		HibernatePropertiesCustomizer capturarConsultas() {
+			return propriedades -> propriedades.put(AvailableSettings.STATEMENT_INSPECTOR, new ConsultasCapturadas());
+		}
+	}
+
+	/** Partições sem contas, que podem ser percorridas sequencialmente. */
+	private static Set<String> particoesVazias;
+
+	@BeforeAll
+	static void popularContas() {
+		popular(1_000_000);
+		particoesVazias = Set.copyOf(jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i "
+				+ "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'contas'::regclass "
+				+ "AND pg_relation_size(c.oid) = 0", String.class));
+	}
+
+	static Stream<Caso> casos() {
+		String vencimento = "idx_contas_data_vencimento_id";
+		String pagamento = "idx_contas_data_pagamento_cobertura";
+		String abertas = "idx_contas_abertas_vencimento";
+		return Stream.of(
+				new Caso("findByDataVencimentoBetween",
+						r -> r.findByDataVencimentoBetween(INICIO, FIM, PageRequest.of(0, 20, ORDEM)),
+						List.of(INICIO, FIM, 20), vencimento, 1_000),
+				new Caso("buscarPorDescricao",
+						r -> r.buscarPorDescricao(INICIO, FIM, "agua", PageRequest.of(0, 20, ORDEM)),
+						List.of(INICIO, FIM, "agua", 20), vencimento, 2_000),
+				new Caso("buscarFatiaPorVencimento",
+						r -> r.buscarFatiaPorVencimento(INICIO, FIM, PageRequest.of(0, 20, ORDEM)),
+						List.of(INICIO, FIM, 21), vencimento, 10),
+				new Caso("buscarFatiaPorDescricao",
+						r -> r.buscarFatiaPorDescricao(INICIO, FIM, "agua", PageRequest.of(0, 20, ORDEM)),
+						List.of(INICIO, FIM, "agua", 21), vencimento, 90),
+				new Caso("buscarFluxoPorVencimento",
+						r -> ler(r.buscarFluxoPorVencimento(INICIO, FIM, PageRequest.of(0, 20, ORDEM))),
+						List.of(INICIO, FIM, 20), vencimento, 10),
+				new Caso("buscarFluxoPorDescricao",
+						r -> ler(r.buscarFluxoPorDescricao(INICIO, FIM, "agua", PageRequest.of(0, 20, ORDEM))),
+						List.of(INICIO, FIM, "agua", 20), vencimento, 90),
+				new Caso("estimarTotal", r -> r.estimarTotal(INICIO, FIM, "agua"), List.of(INICIO, FIM, "agua"),
+						null, 1),
+				new Caso("findByDataPagamentoBetween", r -> r.findByDataPagamentoBetween(INICIO, FIM),
+						List.of(INICIO, FIM), pagamento, 2_100),
+				new Caso("resumirPagamentos", r -> r.resumirPagamentos(INICIO, FIM), List.of(INICIO, FIM),
+						pagamento, 1_900),
+				new Caso("totalizarPagamentosPorSituacao", r -> r.totalizarPagamentosPorSituacao(INICIO, FIM),
+						List.of(INICIO, FIM), pagamento, 1_900),
+				new Caso("buscarAposCursor", r -> r.buscarAposCursor(INICIO, FIM, CURSOR, 0L, Limit.of(101)),
+						List.of(INICIO, FIM, CURSOR, 0L, 101), vencimento, 30),
+				new Caso("buscarAposCursorComDescricao",
+						r -> r.buscarAposCursorComDescricao(INICIO, FIM, "agua", CURSOR, 0L, Limit.of(101)),
+						List.of(INICIO, FIM, "agua", CURSOR, 0L, 101), vencimento, 460),
+				new Caso("exportarPorVencimento", r -> ler(r.exportarPorVencimento(INICIO, FIM)),
+						List.of(INICIO, FIM), vencimento, 2_700),
+				new Caso("exportarPorDescricao", r -> ler(r.exportarPorDescricao(INICIO, FIM, "agua")),
+						List.of(INICIO, FIM, "agua"), vencimento, 2_200),
+				new Caso("buscarAposCursorPorSituacao",
+						r -> r.buscarAposCursorPorSituacao(INICIO, FIM, SituacaoConta.PENDENTE, CURSOR, 0L,
+								Limit.of(1000)),
+						List.of(INICIO, FIM, PENDENTE, CURSOR, 0L, 1000), abertas, 20),
+				new Caso("buscarAbertasAposCursor",
+						r -> r.buscarAbertasAposCursor(INICIO, FIM, CURSOR, 0L, Limit.of(101)),
+						List.of(INICIO, FIM, CURSOR, 0L, 101), abertas, 20),
+				new Caso("buscarDataVencimento", r -> r.buscarDataVencimento(1L), List.of(1L), "contas_ids_pkey", 20),
+				new Caso("buscarDatasVencimento", r -> r.buscarDatasVencimento(IDS), List.of((Object) IDS),
+						"contas_ids_pkey", 7_700),
+				new Caso("alterarSituacao", r -> r.alterarSituacao(IDS, VENCIMENTOS, PAGA, CURSOR),
+						List.of(PAGA, CURSOR, IDS, VENCIMENTOS), "contas_pkey", 1_600),
+				new Caso("alterarSituacaoPorFiltro",
+						r -> r.alterarSituacaoPorFiltro(IDS, PENDENTE, INICIO, FIM, PAGA, CURSOR),
+						List.of(PAGA, CURSOR, IDS, PENDENTE, INICIO, FIM), abertas, 20),
+				new Caso("atualizar",
+						r -> r.atualizar(1L, CURSOR, 0L, INICIO, CURSOR, BigDecimal.TEN, "Conta", PAGA),
+						List.of(INICIO, CURSOR, BigDecimal.TEN, "Conta", PAGA, 1L, CURSOR, 0L, 0L), null, 20),
+				new Caso("alterarSituacaoDaConta", r -> r.alterarSituacaoDaConta(1L, CURSOR, PAGA, 0L),
+						List.of(PAGA, 1L, CURSOR, 0L, 0L), null, 20),
+				new Caso("findById", r -> r.findById(2L), List.of(2L), null, 20),
+				new Caso("buscarAtual", r -> r.buscarAtual(1L), List.of(1L), null, 20),
+				new Caso("criarParticoes", r -> r.criarParticoes(INICIO, FIM), List.of(INICIO, FIM), null, 1),
+				new Caso("arquivar", r -> r.arquivar(IDS, PAGA, INICIO, FIM), List.of(IDS, PAGA, INICIO, FIM),
+						"contas_pkey", 1_700));
+	}
+
+	@Test
+	void todasAsConsultasPossuemCaso() {
+		Set<String> verificadas = casos().map(Caso::metodo).collect(Collectors.toSet());
+		List<String> pendentes = Arrays.stream(ContaRepository.class.getDeclaredMethods())
+				.filter(metodo -> !metodo.isDefault()).map(Method::getName)
+				.filter(metodo -> !verificadas.contains(metodo)).toList();
+
+		assertTrue(pendentes.isEmpty(), "Consultas sem verificação do plano: " + pendentes);
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("casos")
+	void verificarPlano(Caso caso) throws Exception {
+		ConsultasCapturadas.SQL.clear();
+		// As consultas em fluxo exigem uma transação, desfeita ao final para que os
+		// comandos de alteração não modifiquem as contas
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			caso.consulta().accept(contaRepository);
+			status.setRollbackOnly();
+		});
+		assertFalse(ConsultasCapturadas.SQL.isEmpty());
+
+		for (String sql : ConsultasCapturadas.SQL) {
+			JsonNode plano = JSON.readTree(jdbcTemplate.queryForObject(
+					"EXPLAIN (FORMAT JSON) " + substituirParametros(sql, caso.parametros()), String.class))
+					.get(0).get("Plan");
+			List<JsonNode> nos = new ArrayList<>();
+			percorrer(plano, nos);
+			double custo = plano.get("Total Cost").asDouble();
+			LOGGER.info(String.format("%s: custo %.2f%n%s", caso.metodo(), custo, sql));
+
+			List<String> sequenciais = nos.stream().filter(no -> "Seq Scan".equals(no.path("Node Type").asText()))
+					.map(no -> no.path("Relation Name").asText()).toList();
+			assertTrue(sequenciais.stream().allMatch(tabela -> PARTICAO.equals(tabela)
+					|| particoesVazias.contains(tabela)),
+					() -> "Leitura sequencial em " + caso.metodo() + ": " + plano.toPrettyString());
+			// Com a leitura restrita à partição do mês consultado, o índice da partição
+			// é escolhido pelo custo: a leitura sequencial ou o índice da descrição
+			assertTrue(caso.indice() == null || Set.of(PARTICAO).equals(particoes(nos))
+					|| nos.stream().map(no -> no.path("Index Name").asText())
+					.anyMatch(indice -> indice.equals(caso.indice()) || indice.startsWith(caso.indice() + "_")),
+					() -> "Índice " + caso.indice() + " não utilizado em " + caso.metodo() + ": "
+							+ plano.toPrettyString());
+			assertTrue(!sql.contains("data_vencimento between") || Set.of(PARTICAO).equals(particoes(nos)),
+					() -> "Partições fora do intervalo lidas em " + caso.metodo() + ": " + particoes(nos));
+			assertTrue(custo <= caso.custoMaximo(), () -> "Custo de " + caso.metodo() + " acima de "
+					+ caso.custoMaximo() + ": " + plano.toPrettyString());
+		}
+	}
+
+	/**
+	 * Verifica a poda das partições no plano genérico, utilizado pelo PostgreSQL
+	 * após algumas execuções de um comando preparado: as datas não são conhecidas
+	 * no planejamento, e as partições fora do intervalo são descartadas no início
+	 * da execução.
+	 */
+	@Test
+	void podarParticoesNoPlanoGenerico() throws Exception {
+		ConsultasCapturadas.SQL.clear();
+		contaRepository.findByDataVencimentoBetween(INICIO, FIM, PageRequest.of(0, 20, ORDEM));
+		assertFalse(ConsultasCapturadas.SQL.isEmpty());
+
+		for (String sql : ConsultasCapturadas.SQL) {
+			String[] partes = sql.split("\\?", -1);
+			StringBuilder preparado = new StringBuilder(partes[0]);
+			for (int i = 1; i < partes.length; i++) {
+				preparado.append('$').append(i).append(partes[i]);
+			}
+			String execucao = Stream.of(INICIO, FIM, 20).limit(partes.length - 1)
+					.map(PlanosConsultaContaTest::literal).collect(Collectors.joining(", ", "EXECUTE consulta(", ")"));
+			String json = jdbcTemplate.execute((ConnectionCallback<String>) conexao -> {
+				try (Statement comando = conexao.createStatement()) {
+					comando.execute("SET plan_cache_mode = force_generic_plan");
+					comando.execute("PREPARE consulta AS " + preparado);
+					try (ResultSet resultado = comando.executeQuery("EXPLAIN (ANALYZE, FORMAT JSON) " + execucao)) {
+						resultado.next();
+						return resultado.getString(1);
+					}
+				}
+			});
+			List<JsonNode> nos = new ArrayList<>();
+			percorrer(JSON.readTree(json).get(0).get("Plan"), nos);
+
+			assertTrue(nos.stream().anyMatch(no -> no.path("Subplans Removed").asInt() > 0),
+					() -> "Partições não descartadas na execução: " + json);
+			assertTrue(Set.of(PARTICAO).equals(particoes(nos)),
+					() -> "Partições fora do intervalo lidas: " + particoes(nos));
+		}
+	}
+
+	/**
+	 * Substitui os parâmetros do SQL pelos valores, em ordem. Cada comando utiliza
+	 * os primeiros valores do caso, pois a contagem das consultas paginadas não
+	 * recebe o limite, informado por último.
+	 */
+	private static String substituirParametros(String sql, List<Object> valores) {
+		String[] partes = sql.split("\\?", -1);
+		assertTrue(partes.length - 1 <= valores.size(), () -> "Parâmetros não informados para: " + sql);
+		StringBuilder resultado = new StringBuilder(partes[0]);
+		for (int i = 1; i < partes.length; i++) {
+			resultado.append(literal(valores.get(i - 1))).append(partes[i]);
+		}
+		return resultado.toString();
+	}
+
+	private static String literal(Object valor) {
+		if (valor instanceof Object[] array) {
+			valor = Arrays.stream(array).map(String::valueOf).collect(Collectors.joining(",", "{", "}"));
+		}
+		return valor instanceof Number ? valor.toString() : "'" + valor.toString().replace("'", "''") + "'";
+	}
+
+	/** As tabelas lidas pelo plano, com as partições de contas. */
+	private static Set<String> particoes(List<JsonNode> nos) {
+		return nos.stream().map(no -> no.path("Relation Name").asText()).filter(tabela -> !tabela.isEmpty())
+				.collect(Collectors.toSet());
+	}
+
+	/** Lê a primeira conta de uma consulta em fluxo e encerra o fluxo. */
+	private static void ler(Stream<ContaResponse> contas) {
+		try (contas) {
+			contas.findFirst();
+		}
+	}
+
+	private static void percorrer(JsonNode no, List<JsonNode> nos) {
+		nos.add(no);
+		no.path("Plans").forEach(filho -> percorrer(filho, nos));
+	}
+}
@@ -0,0 +1,154 @@
+package com.lyncas.desafio.contasapagar.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Base dos benchmarks executados contra um PostgreSQL em container, com o
+ * schema criado pelas migrações do Flyway. Os benchmarks são executados apenas
+ * com {@code -Dbenchmark=true} e quando o Docker está disponível:
+ *
+ * <pre>
+ * mvn test -Dbenchmark=true -Dtest='*BenchmarkTest'
+ * </pre>
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public abstract class PostgresBenchmark {
+
+	/** Mesma versão do PostgreSQL utilizada no docker-compose. */
+	@Container
+	protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:13");
+
+	/** Execuções descartadas antes da medição, para aquecer o cache. */
+	private static final int AQUECIMENTO = 3;
+
+	/** Execuções medidas; o resultado é a mediana. */
+	protected static final int EXECUCOES = 11;
+
+	protected static JdbcTemplate jdbcTemplate;
+
+	@BeforeAll
+	static void migrar() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(),
+				POSTGRES.getPassword());
+		Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+		jdbcTemplate = new JdbcTemplate(dataSource);
+	}
+
+	/**
+	 * Aponta a aplicação para o banco do container, nos benchmarks que carregam o
+	 * contexto do Spring, com os INSERTs em lote reescritos pelo driver como na
+	 * configuração da aplicação.
+	 */
+	@DynamicPropertySource
+	static void configurarBanco(DynamicPropertyRegistry registro) {
+		registro.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl()
+				+ (POSTGRES.getJdbcUrl().contains("?") ? "&" : "?") + "reWriteBatchedInserts=true");
+		registro.add("spring.datasource.username", POSTGRES::getUsername);
+		registro.add("spring.datasource.password", POSTGRES::getPassword);
+		registro.add("spring.flyway.url", POSTGRES::getJdbcUrl);
+		registro.add("spring.flyway.user", POSTGRES::getUsername);
+		registro.add("spring.flyway.password", POSTGRES::getPassword);
+	}
+
+	/**
+	 * Situação das contas geradas: um terço pagas e, das demais, apenas as que
+	 * vencem nos últimos 200 dias em aberto (pendentes ou atrasadas); as mais
+	 * antigas foram canceladas. Assim, como em uma base em uso, as contas em
+	 * aberto são uma pequena parte das contas.
+	 */
+	private static final String SITUACOES = "CASE WHEN g % 3 = 0 THEN 2 WHEN g % 2000 >= 1900 THEN 1 "
+			+ "WHEN g % 2000 >= 1800 THEN 3 ELSE 4 END ";
+
+	/**
+	 * Completa a tabela de contas até a quantidade informada, com descrições e
+	 * datas variadas, e atualiza as estatísticas do planejador. As partições dos
+	 * meses de vencimento gerados (janeiro de 2020 a junho de 2025) são criadas
+	 * antes, para que nenhuma conta seja gravada na partição padrão.
+	 *
+	 * @param total a quantidade de contas desejada
+	 */
+	protected static void popular(long total) {
+		Long atual = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM contas", Long.class);
+		if (atual < total) {
+			jdbcTemplate.queryForObject("SELECT contas_criar_particoes(DATE '2020-01-01', DATE '2020-01-01' + 1999)",
+					Integer.class);
+			jdbcTemplate.update("INSERT INTO contas (data_vencimento, data_pagamento, valor, descricao, situacao) "
+					+ "SELECT DATE '2020-01-01' + (g % 2000), "
+					+ "CASE WHEN g % 3 = 0 THEN DATE '2020-01-01' + (g % 2000) END, (g % 100000) / 100.0, "
+					+ "(ARRAY['Conta de luz','Conta de água','Telefone','Internet','Aluguel','Condomínio'])[1 + g % 6]"
+					+ " || ' ' || md5(g::text), " + SITUACOES
+					+ "FROM generate_series(?::integer, ?::integer) g", atual + 1, total);
+			jdbcTemplate.execute("VACUUM ANALYZE contas");
+		}
+	}
+
+	/**
+	 * Mede a latência de uma consulta.
+	 *
+	 * @param consulta a consulta a ser medida
+	 * @return a mediana das execuções, em milissegundos
+	 */
+	protected static double medir(Supplier<?> consulta) {
+		for (int i = 0; i < AQUECIMENTO; i++) {
+			consulta.get();
+		}
+		double[] tempos = new double[EXECUCOES];
+		for (int i = 0; i < EXECUCOES; i++) {
+			long inicio = System.nanoTime();
+			consulta.get();
+			tempos[i] = (System.nanoTime() - inicio) / 1_000_000.0;
+		}
+		Arrays.sort(tempos);
+		return tempos[EXECUCOES / 2];
+	}
+
+	/**
+	 * Mede a memória alocada pela thread atual em uma execução da consulta.
+	 *
+	 * @param consulta a consulta a ser medida
+	 * @return a média de bytes alocados por execução
+	 */
+	protected static long medirAlocacao(Supplier<?> consulta) {
+		ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		for (int i = 0; i < AQUECIMENTO; i++) {
+			consulta.get();
+		}
+		long inicio = threads.getCurrentThreadAllocatedBytes();
+		for (int i = 0; i < EXECUCOES; i++) {
+			consulta.get();
+		}
+		return (threads.getCurrentThreadAllocatedBytes() - inicio) / EXECUCOES;
+	}
+
+	/**
+	 * Retorna o plano de execução de uma consulta.
+	 *
+	 * @param sql        a consulta
+	 * @param parametros os parâmetros da consulta
+	 * @return o plano de execução, uma linha por nó
+	 */
+	protected static String explicar(String sql, Object... parametros) {
+		return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parametros));
+	}
+}
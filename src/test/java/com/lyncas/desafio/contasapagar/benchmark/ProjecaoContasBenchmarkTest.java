@@ -0,0 +1,106 @@
+package com.lyncas.desafio.contasapagar.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lyncas.desafio.contasapagar.dto.ContaResponse;
+import com.lyncas.desafio.contasapagar.model.Conta;
+import com.lyncas.desafio.contasapagar.repository.ContaRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Compara a listagem de uma página de contas com entidades gerenciadas em uma
+ * transação de escrita, como era feito, com a listagem por projeção em
+ * {@link ContaResponse} em uma transação somente leitura: latência e memória
+ * alocada por página, incluindo a serialização em JSON.
+ *
+ * <pre>
+ * mvn test -Dbenchmark=true -Dtest=ProjecaoContasBenchmarkTest
+ * </pre>
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@SpringBootTest
+class ProjecaoContasBenchmarkTest extends PostgresBenchmark {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ProjecaoContasBenchmarkTest.class);
+
+	private static final LocalDate INICIO = LocalDate.of(2021, 1, 1);
+
+	private static final LocalDate FIM = LocalDate.of(2021, 12, 31);
+
+	private static final int TAMANHO = 500;
+
+	@Autowired
+	private ContaRepository contaRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@BeforeAll
+	static void popularContas() {
+		popular(1_000_000);
+	}
+
+	@Test
+	void listarPagina() {
+		TransactionTemplate escrita = new TransactionTemplate(transactionManager);
+		TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+		leitura.setReadOnly(true);
+
+		Supplier<String> entidades = () -> serializar(escrita.execute(status -> entityManager
+				.createQuery("SELECT c FROM Conta c WHERE c.dataVencimento BETWEEN :inicio AND :fim "
+						+ "ORDER BY c.dataVencimento, c.id", Conta.class)
+				.setParameter("inicio", INICIO).setParameter("fim", FIM).setMaxResults(TAMANHO + 1)
+				.getResultList()));
+		Supplier<String> projecao = () -> serializar(leitura.execute(status -> contaRepository
+				.buscarFatiaPorVencimento(INICIO, FIM, PageRequest.of(0, TAMANHO, Sort.by("dataVencimento", "id")))
+				.getContent()));
+		assertEquals(entidades.get().substring(0, 200), projecao.get().substring(0, 200));
+
+		double latenciaEntidades = medir(entidades);
+		double latenciaProjecao = medir(projecao);
+		long alocacaoEntidades = medirAlocacao(entidades);
+		long alocacaoProjecao = medirAlocacao(projecao);
+		LOGGER.info(String.format("Página de %d contas: entidades %.2f ms e %,d bytes, "
+				+ "projeção %.2f ms e %,d bytes", TAMANHO, latenciaEntidades, alocacaoEntidades, latenciaProjecao,
+				alocacaoProjecao));
+
+		assertTrue(alocacaoProjecao < alocacaoEntidades);
+	}
+
+	private String serializar(List<?> contas) {
+		try {
+			return objectMapper.writeValueAsString(contas);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
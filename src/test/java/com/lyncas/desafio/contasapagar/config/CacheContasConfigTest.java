@@ -0,0 +1,71 @@
+package com.lyncas.desafio.contasapagar.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.lyncas.desafio.contasapagar.model.Conta;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Testes unitários para a classe {@link CacheContasConfig}.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CacheContasConfigTest {
+
+	private final CacheContasConfig cacheContasConfig = new CacheContasConfig();
+
+	private CacheManager cacheManager;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(cacheContasConfig, "tamanhoMaximo", 100L);
+		ReflectionTestUtils.setField(cacheContasConfig, "expiracao", Duration.ofMinutes(10));
+		cacheManager = cacheContasConfig.cacheContasManager();
+	}
+
+	@AfterEach
+	void fechar() {
+		cacheManager.close();
+	}
+
+	/**
+	 * Testa se os acertos, as faltas e as gravações da região das contas, pela API
+	 * JCache utilizada pelo Hibernate, são registrados nas métricas do cache.
+	 */
+	@Test
+	void testMetricas() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		cacheContasConfig.cacheContasMetricas(cacheManager).bindTo(registry);
+		Cache<Object, Object> contas = cacheManager.getCache(Conta.REGIAO_CACHE);
+
+		assertNull(contas.get(1L));
+		contas.put(1L, "conta");
+		contas.get(1L);
+		contas.get(1L);
+
+		assertEquals(2, registry.get("cache.gets").tags("cache", Conta.REGIAO_CACHE, "result", "hit")
+				.functionCounter().count());
+		assertEquals(1, registry.get("cache.gets").tags("cache", Conta.REGIAO_CACHE, "result", "miss")
+				.functionCounter().count());
+		assertEquals(1, registry.get("cache.puts").tags("cache", Conta.REGIAO_CACHE).functionCounter().count());
+	}
+}
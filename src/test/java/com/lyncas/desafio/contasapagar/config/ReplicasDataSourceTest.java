@@ -0,0 +1,150 @@
+package com.lyncas.desafio.contasapagar.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Testes unitários para a classe {@link ReplicasDataSource}.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReplicasDataSourceTest {
+
+	private DataSource primario;
+
+	private Connection conexaoPrimario;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		primario = mock(DataSource.class);
+		conexaoPrimario = mock(Connection.class);
+		when(primario.getConnection()).thenReturn(conexaoPrimario);
+	}
+
+	/**
+	 * Testa que as conexões são obtidas do primário até a primeira verificação
+	 * das réplicas.
+	 */
+	@Test
+	void testGetConnectionAntesDaVerificacao() throws SQLException {
+		ReplicasDataSource replicas = new ReplicasDataSource(primario, List.of(replica(0)), Duration.ofSeconds(10));
+
+		assertSame(conexaoPrimario, replicas.getConnection());
+		assertEquals(0, replicas.getDisponiveis());
+	}
+
+	/**
+	 * Testa o rodízio das conexões entre as réplicas verificadas.
+	 */
+	@Test
+	void testGetConnectionEmRodizio() throws SQLException {
+		DataSource primeira = replica(0);
+		DataSource segunda = replica(0);
+		ReplicasDataSource replicas = new ReplicasDataSource(primario, List.of(primeira, segunda),
+				Duration.ofSeconds(10));
+		replicas.verificar();
+
+		Connection conexao = replicas.getConnection();
+		Connection seguinte = replicas.getConnection();
+
+		assertEquals(2, replicas.getDisponiveis());
+		assertSame(primeira.getConnection(), conexao);
+		assertSame(segunda.getConnection(), seguinte);
+		assertSame(primeira.getConnection(), replicas.getConnection());
+	}
+
+	/**
+	 * Testa que a réplica com atraso acima do máximo é retirada do rodízio e
+	 * devolvida quando o atraso volta ao limite.
+	 */
+	@Test
+	void testVerificarComAtraso() throws SQLException {
+		DataSource atrasada = replica(30);
+		DataSource emDia = replica(0.5);
+		ReplicasDataSource replicas = new ReplicasDataSource(primario, List.of(atrasada, emDia),
+				Duration.ofSeconds(10));
+		replicas.verificar();
+
+		assertEquals(1, replicas.getDisponiveis());
+		assertSame(emDia.getConnection(), replicas.getConnection());
+		assertSame(emDia.getConnection(), replicas.getConnection());
+
+		ResultSet resultado = atrasada.getConnection().createStatement().executeQuery(ReplicasDataSource.ATRASO);
+		when(resultado.getDouble(1)).thenReturn(2.0);
+		replicas.verificar();
+
+		assertEquals(2, replicas.getDisponiveis());
+	}
+
+	/**
+	 * Testa que, quando uma réplica não fornece a conexão, ela é retirada do
+	 * rodízio e a conexão é obtida do primário.
+	 */
+	@Test
+	void testGetConnectionComFalhaDaReplica() throws SQLException {
+		DataSource replica = replica(0);
+		ReplicasDataSource replicas = new ReplicasDataSource(primario, List.of(replica), Duration.ofSeconds(10));
+		replicas.verificar();
+		when(replica.getConnection()).thenThrow(new SQLException("Connection is not available"));
+
+		assertSame(conexaoPrimario, replicas.getConnection());
+		assertEquals(0, replicas.getDisponiveis());
+
+		replicas.verificar();
+
+		assertEquals(0, replicas.getDisponiveis());
+	}
+
+	/**
+	 * Testa que as conexões com credenciais informadas são obtidas da réplica no
+	 * rodízio, ou do primário sem réplica disponível, com as mesmas credenciais.
+	 */
+	@Test
+	void testGetConnectionComCredenciais() throws SQLException {
+		DataSource replica = replica(0);
+		Connection conexaoReplica = mock(Connection.class);
+		when(replica.getConnection("leitura", "senha")).thenReturn(conexaoReplica);
+		when(primario.getConnection("leitura", "senha")).thenReturn(conexaoPrimario);
+		ReplicasDataSource replicas = new ReplicasDataSource(primario, List.of(replica), Duration.ofSeconds(10));
+
+		assertSame(conexaoPrimario, replicas.getConnection("leitura", "senha"));
+
+		replicas.verificar();
+
+		assertSame(conexaoReplica, replicas.getConnection("leitura", "senha"));
+	}
+
+	private static DataSource replica(double atraso) throws SQLException {
+		DataSource dataSource = mock(DataSource.class);
+		Connection conexao = mock(Connection.class);
+		Statement statement = mock(Statement.class);
+		ResultSet resultado = mock(ResultSet.class);
+		when(dataSource.getConnection()).thenReturn(conexao);
+		when(conexao.createStatement()).thenReturn(statement);
+		when(statement.executeQuery(ReplicasDataSource.ATRASO)).thenReturn(resultado);
+		when(resultado.next()).thenReturn(true);
+		when(resultado.getDouble(1)).thenReturn(atraso);
+		return dataSource;
+	}
+}
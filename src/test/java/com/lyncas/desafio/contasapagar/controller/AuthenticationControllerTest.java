@@ -3,21 +3,36 @@ package com.lyncas.desafio.contasapagar.controller;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.test.context.ActiveProfiles;
 
+import com.lyncas.desafio.contasapagar.dto.ApiResponse;
 import com.lyncas.desafio.contasapagar.dto.AuthenticationRequest;
 import com.lyncas.desafio.contasapagar.utils.JwtUtil;
 
@@ -40,6 +55,10 @@ class AuthenticationControllerTest {
 	@Mock
 	private UserDetailsService userDetailsService;
 
+	/** Executa a autenticação na própria thread do teste */
+	@Spy
+	private AsyncTaskExecutor autenticacaoExecutor = new TaskExecutorAdapter(Runnable::run);
+
 	@InjectMocks
 	private AuthenticationController authenticationController;
 
@@ -66,10 +85,10 @@ class AuthenticationControllerTest {
 		// Simula comportamento dos mocks
 		when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(null);
 		when(userDetailsService.loadUserByUsername(user_test)).thenReturn(userDetails);
-		when(jwtUtil.generateToken(user_test)).thenReturn(token_test);
+		when(jwtUtil.generateToken(eq(user_test), any())).thenReturn(token_test);
 
 		// Executa o método e valida o resultado
-		String token = authenticationController.createAuthenticationToken(authRequest);
+		String token = authenticationController.createAuthenticationToken(authRequest).get();
 		assertEquals(token_test, token);
 	}
 
@@ -85,10 +104,32 @@ class AuthenticationControllerTest {
 				.thenThrow(new RuntimeException("Usuário ou senha inválidos"));
 
 		// Valida se a exceção correta é lançada
-		Exception exception = assertThrows(Exception.class, () -> {
-			authenticationController.createAuthenticationToken(authRequest);
+		ExecutionException exception = assertThrows(ExecutionException.class, () -> {
+			authenticationController.createAuthenticationToken(authRequest).get();
 		});
 
-		assertEquals("Usuário ou senha inválidos", exception.getMessage());
+		assertEquals("Usuário ou senha inválidos", exception.getCause().getMessage());
+	}
+
+	/**
+	 * Testa se a autenticação é recusada com status 503, sem verificar as
+	 * credenciais, quando o executor das autenticações está ocupado.
+	 */
+	@Test
+	@SuppressWarnings("unchecked")
+	void testCreateAuthenticationTokenRecusado() {
+		AuthenticationRequest authRequest = new AuthenticationRequest();
+		authRequest.setUsername("usuario_desafio");
+		authRequest.setPassword("senha_desafio");
+		doThrow(new TaskRejectedException("Executor ocupado")).when(autenticacaoExecutor)
+				.submitCompletable(any(Callable.class));
+
+		RejectedExecutionException exception = assertThrows(RejectedExecutionException.class,
+				() -> authenticationController.createAuthenticationToken(authRequest));
+		ResponseEntity<ApiResponse> response = authenticationController.autenticacaoRecusada(exception);
+
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), response.getBody().getStatus());
+		verify(authenticationManager, never()).authenticate(any());
 	}
 }
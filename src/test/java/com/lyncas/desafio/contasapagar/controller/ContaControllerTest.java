@@ -1,31 +1,79 @@
 package com.lyncas.desafio.contasapagar.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.core.task.support.TaskExecutorAdapter;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
+import com.lyncas.desafio.contasapagar.dto.AlteracaoSituacaoRequest;
+import com.lyncas.desafio.contasapagar.dto.AlteracaoSituacaoResponse;
+import com.lyncas.desafio.contasapagar.dto.ApiResponse;
+import com.lyncas.desafio.contasapagar.dto.CadastroLoteResponse;
+import com.lyncas.desafio.contasapagar.dto.ContaResponse;
+import com.lyncas.desafio.contasapagar.dto.PaginaCursor;
+import com.lyncas.desafio.contasapagar.dto.PaginaFatia;
 import com.lyncas.desafio.contasapagar.dto.ValorTotalPagoResponse;
+import com.lyncas.desafio.contasapagar.exception.ConflitoVersaoContaException;
+import com.lyncas.desafio.contasapagar.exception.ContaNaoEncontradaException;
 import com.lyncas.desafio.contasapagar.model.Conta;
+import com.lyncas.desafio.contasapagar.model.ImportacaoJob;
+import com.lyncas.desafio.contasapagar.model.ModoContagem;
+import com.lyncas.desafio.contasapagar.model.ModoImportacao;
+import com.lyncas.desafio.contasapagar.model.SituacaoConta;
+import com.lyncas.desafio.contasapagar.model.StatusImportacao;
 import com.lyncas.desafio.contasapagar.service.ContaService;
+import com.lyncas.desafio.contasapagar.service.ImportacaoJobService;
+import com.lyncas.desafio.contasapagar.service.IndicePagamentosService;
 
 /**
  * Testes unitários para a classe {@link ContaController}. Utiliza Mockito para
@@ -46,9 +94,20 @@ class ContaControllerTest {
     @Mock
     private ContaService contaService;
 
+    @Mock
+    private ImportacaoJobService importacaoJobService;
+
+    @Mock
+    private IndicePagamentosService indicePagamentosService;
+
+    /** Grava as respostas em fluxo na própria thread do teste */
+    @Spy
+    private AsyncTaskExecutor exportacaoExecutor = new TaskExecutorAdapter(Runnable::run);
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(contaController, "tempoLimiteExportacao", Duration.ofMinutes(5));
     }
 
     /**
@@ -72,7 +131,49 @@ class ContaControllerTest {
     }
 
     /**
-     * Testa a atualização de uma conta existente.
+     * Testa o cadastro de um lote de contas, que retorna os identificadores
+     * gerados e os erros, e a rejeição de um lote vazio com status 400.
+     */
+    @Test
+    void testCadastrarContas() {
+        List<Conta> contas = List.of(new Conta(), new Conta());
+        CadastroLoteResponse resultado = new CadastroLoteResponse(Arrays.asList(1L, null),
+                List.of("Conta 2: Campo obrigatório ausente: dataVencimento"));
+        doReturn(resultado).when(contaService).criarContas(contas);
+
+        ResponseEntity<CadastroLoteResponse> response = contaController.cadastrarContas(contas);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Arrays.asList(1L, null), response.getBody().getIds());
+        assertEquals(1, response.getBody().getErros().size());
+
+        doThrow(new IllegalArgumentException("Nenhuma conta informada")).when(contaService).criarContas(List.of());
+        ResponseStatusException erro = assertThrows(ResponseStatusException.class,
+                () -> contaController.cadastrarContas(List.of()));
+        assertEquals(HttpStatus.BAD_REQUEST, erro.getStatusCode());
+    }
+
+    /**
+     * Testa a consulta de uma conta pelo identificador, com a versão no
+     * cabeçalho ETag.
+     */
+    @Test
+    void testObterConta() {
+        Conta conta = new Conta();
+        conta.setId(1L);
+        conta.setDescricao("Conta de luz");
+        conta.setVersao(3L);
+        doReturn(conta).when(contaService).obterConta(1L);
+
+        ResponseEntity<Conta> response = contaController.obterConta(1L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Conta de luz", response.getBody().getDescricao());
+        assertEquals("\"3\"", response.getHeaders().getETag());
+    }
+
+    /**
+     * Testa a atualização de uma conta existente, com a versão do cabeçalho
+     * If-Match e, sem o cabeçalho, com a versão da conta.
      */
     @Test
     void testAtualizarConta() {
@@ -80,16 +181,25 @@ class ContaControllerTest {
         Long id = 1L;
         Conta conta = new Conta();
         conta.setDescricao("Conta de luz");
+        conta.setVersao(2L);
+        Conta atualizada = new Conta();
+        atualizada.setDescricao("Conta de luz");
+        atualizada.setVersao(4L);
 
         // Simula o comportamento do serviço
-        doReturn(conta).when(contaService).atualizarConta(any(Long.class), any(Conta.class));
+        doReturn(atualizada).when(contaService).atualizarConta(any(Long.class), any(Conta.class), any());
 
         // Executa o método a ser testado
-        ResponseEntity<Conta> response = contaController.atualizarConta(id, conta);
+        ResponseEntity<Conta> response = contaController.atualizarConta(id, conta, "W/\"3\"");
 
         // Verifica o resultado
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Conta de luz", response.getBody().getDescricao());
+        assertEquals("\"4\"", response.getHeaders().getETag());
+        verify(contaService).atualizarConta(id, conta, 3L);
+
+        contaController.atualizarConta(id, conta, null);
+        verify(contaService).atualizarConta(id, conta, 2L);
     }
 
     /**
@@ -101,14 +211,62 @@ class ContaControllerTest {
         Long id = 1L;
         String situacao = "Paga";
 
-        // Simula o comportamento do serviço (não precisa retornar nada)
-        doNothing().when(contaService).alterarSituacao(any(Long.class), any(String.class));
+        // Simula o comportamento do serviço
+        doReturn(4L).when(contaService).alterarSituacao(any(Long.class), any(SituacaoConta.class), any());
 
         // Executa o método a ser testado
-        ResponseEntity<Void> response = contaController.alterarSituacao(id, situacao);
+        ResponseEntity<Void> response = contaController.alterarSituacao(id, situacao, "\"3\"");
 
         // Verifica o resultado
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        assertEquals("\"4\"", response.getHeaders().getETag());
+        verify(contaService).alterarSituacao(id, SituacaoConta.PAGA, 3L);
+    }
+
+    /**
+     * Testa as respostas das alterações de contas: 400 para um If-Match que não é
+     * uma versão ou para uma situação inexistente, 409 para uma conta alterada
+     * após a leitura da versão e 404 para uma conta inexistente.
+     */
+    @Test
+    void testAlterarSituacaoSemAlteracao() {
+        ResponseStatusException invalida = assertThrows(ResponseStatusException.class,
+                () -> contaController.alterarSituacao(1L, "Paga", "\"abc\""));
+        assertEquals(HttpStatus.BAD_REQUEST, invalida.getStatusCode());
+        ResponseStatusException situacaoInvalida = assertThrows(ResponseStatusException.class,
+                () -> contaController.alterarSituacao(1L, "Quitada", null));
+        assertEquals(HttpStatus.BAD_REQUEST, situacaoInvalida.getStatusCode());
+        verify(contaService, never()).alterarSituacao(any(), any(), any());
+
+        assertEquals(HttpStatus.CONFLICT,
+                contaController.conflitoVersao(new ConflitoVersaoContaException("conflito")).getStatusCode());
+        ResponseEntity<ApiResponse> naoEncontrada = contaController
+                .contaNaoEncontrada(new ContaNaoEncontradaException("Conta não encontrada: 1"));
+        assertEquals(HttpStatus.NOT_FOUND, naoEncontrada.getStatusCode());
+        assertEquals("Conta não encontrada: 1", naoEncontrada.getBody().getMessage());
+    }
+
+    /**
+     * Testa a alteração da situação de várias contas, que retorna a quantidade de
+     * contas alteradas, e a rejeição de uma alteração inválida com status 400.
+     */
+    @Test
+    void testAlterarSituacaoEmLote() {
+        AlteracaoSituacaoRequest alteracao = new AlteracaoSituacaoRequest();
+        alteracao.setIds(List.of(1L, 2L));
+        alteracao.setSituacao(SituacaoConta.PAGA);
+        doReturn(2L).when(contaService).alterarSituacaoEmLote(alteracao);
+
+        ResponseEntity<AlteracaoSituacaoResponse> response = contaController.alterarSituacaoEmLote(alteracao);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2L, response.getBody().getContasAlteradas());
+
+        AlteracaoSituacaoRequest invalida = new AlteracaoSituacaoRequest();
+        doThrow(new IllegalArgumentException("A nova situação deve ser informada")).when(contaService)
+                .alterarSituacaoEmLote(invalida);
+        ResponseStatusException erro = assertThrows(ResponseStatusException.class,
+                () -> contaController.alterarSituacaoEmLote(invalida));
+        assertEquals(HttpStatus.BAD_REQUEST, erro.getStatusCode());
     }
 
     /**
@@ -118,21 +276,63 @@ class ContaControllerTest {
     void testListarContas() {
         // Configura dados de exemplo
         Pageable pageable = mock(Pageable.class);
-        Conta conta = new Conta();
-        conta.setDescricao("Conta de luz");
-        Page<Conta> pageContas = new PageImpl<>(List.of(conta));
+        ContaResponse conta = new ContaResponse(1L, LocalDate.of(2024, 9, 20), null, BigDecimal.TEN, "Conta de luz",
+                SituacaoConta.PENDENTE, 0L);
+        Page<ContaResponse> pageContas = new PageImpl<>(List.of(conta));
 
         // Simula o comportamento do serviço
         doReturn(pageContas).when(contaService).listarContas(any(Pageable.class), any(), any(), any());
 
         // Executa o método a ser testado
-        ResponseEntity<Page<Conta>> response = contaController.listarContas(pageable, null, null, null);
+        ResponseEntity<Page<ContaResponse>> response = contaController.listarContas(pageable, null, null, null);
 
         // Verifica o resultado
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(1, response.getBody().getTotalElements());
     }
 
+    /**
+     * Testa a listagem por cursor e a recusa de cursores inválidos.
+     */
+    @Test
+    void testListarContasPorCursor() {
+        PaginaCursor<ContaResponse> pagina = new PaginaCursor<>(List.of(), "cursor");
+        doReturn(pagina).when(contaService).listarContasPorCursor("", 20, null, null, null);
+
+        ResponseEntity<PaginaCursor<ContaResponse>> response = contaController.listarContasPorCursor("", 20, null,
+                null, null);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("cursor", response.getBody().getProximoCursor());
+
+        doThrow(new IllegalArgumentException("Cursor inválido")).when(contaService)
+                .listarContasPorCursor("x", 20, null, null, null);
+        ResponseStatusException erro = assertThrows(ResponseStatusException.class,
+                () -> contaController.listarContasPorCursor("x", 20, null, null, null));
+        assertEquals(HttpStatus.BAD_REQUEST, erro.getStatusCode());
+        assertThrows(ResponseStatusException.class,
+                () -> contaController.listarContasPorCursor("", 0, null, null, null));
+    }
+
+    /**
+     * Testa a listagem das contas em aberto e a recusa de tamanhos de página
+     * inválidos.
+     */
+    @Test
+    void testListarContasAbertas() {
+        LocalDate vencimento = LocalDate.of(2024, 9, 20);
+        PaginaCursor<ContaResponse> pagina = new PaginaCursor<>(List.of(), null);
+        doReturn(pagina).when(contaService).listarContasAbertas("", 20, null, vencimento);
+
+        ResponseEntity<PaginaCursor<ContaResponse>> response = contaController.listarContasAbertas("", 20, null,
+                vencimento);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertFalse(response.getBody().isPossuiProxima());
+
+        ResponseStatusException erro = assertThrows(ResponseStatusException.class,
+                () -> contaController.listarContasAbertas("", 2001, null, null));
+        assertEquals(HttpStatus.BAD_REQUEST, erro.getStatusCode());
+    }
+
     /**
      * Testa a obtenção do valor total pago.
      */
@@ -142,10 +342,10 @@ class ContaControllerTest {
         LocalDate dataInicio = LocalDate.now().minusDays(30);
         LocalDate dataFim = LocalDate.now();
         BigDecimal total = BigDecimal.valueOf(100.00);
-        ValorTotalPagoResponse responseValor = new ValorTotalPagoResponse(total);
+        ValorTotalPagoResponse responseValor = new ValorTotalPagoResponse(1L, total, total, total);
 
         // Simula o comportamento do serviço
-        doReturn(total).when(contaService).obterValorTotalPago(dataInicio, dataFim);
+        doReturn(responseValor).when(contaService).obterValorTotalPago(dataInicio, dataFim);
 
         // Executa o método a ser testado
         ResponseEntity<ValorTotalPagoResponse> response = contaController.obterValorTotalPago(dataInicio, dataFim);
@@ -153,6 +353,217 @@ class ContaControllerTest {
         // Verifica o resultado
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(total, response.getBody().getValorTotalPago());
+        assertEquals(1, response.getBody().getQuantidade());
+    }
+
+    /**
+     * Testa a verificação da consolidação dos pagamentos, consistente e
+     * divergente.
+     */
+    @Test
+    void testVerificarConsolidacao() {
+        doReturn(0L).when(contaService).verificarConsolidacao();
+        assertEquals(HttpStatus.OK, contaController.verificarConsolidacao().getStatusCode());
+
+        doReturn(2L).when(contaService).verificarConsolidacao();
+        ResponseEntity<ApiResponse> response = contaController.verificarConsolidacao();
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("Consolidação divergente em 2 dia(s)", response.getBody().getMessage());
+    }
+
+    /**
+     * Testa a conferência do índice de pagamentos, desabilitado e divergente.
+     */
+    @Test
+    void testVerificarIndice() {
+        assertEquals(HttpStatus.NOT_FOUND, contaController.verificarIndice().getStatusCode());
+
+        doReturn(true).when(indicePagamentosService).isPronto();
+        doReturn(false).when(indicePagamentosService).verificar();
+        assertEquals(HttpStatus.CONFLICT, contaController.verificarIndice().getStatusCode());
     }
 
+    /**
+     * Testa se a importação é aceita para execução em segundo plano.
+     */
+    @Test
+    void testImportarContas() throws Exception {
+        // Configura dados de exemplo
+        MultipartFile arquivo = mock(MultipartFile.class);
+        ImportacaoJob job = new ImportacaoJob();
+        job.setId(UUID.randomUUID());
+        job.setStatus(StatusImportacao.PENDENTE);
+
+        // Simula o comportamento do serviço
+        doReturn(job).when(importacaoJobService).enfileirar(arquivo, ModoImportacao.COPY);
+
+        // Executa o método a ser testado
+        ResponseEntity<ImportacaoJob> response = contaController.importarContas(arquivo, "copy");
+
+        // Verifica o resultado
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(job.getId(), response.getBody().getId());
+        assertEquals("/contas/importar/" + job.getId(), response.getHeaders().getLocation().toString());
+    }
+
+    /**
+     * Testa a consulta de uma importação inexistente.
+     */
+    @Test
+    void testConsultarImportacaoInexistente() {
+        // Simula o comportamento do serviço
+        doReturn(Optional.empty()).when(importacaoJobService).buscar(any(UUID.class));
+
+        // Executa o método a ser testado
+        ResponseEntity<ImportacaoJob> response = contaController.consultarImportacao(UUID.randomUUID());
+
+        // Verifica o resultado
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    /**
+     * Testa o cancelamento de uma importação já finalizada.
+     */
+    @Test
+    void testCancelarImportacaoFinalizada() {
+        // Configura dados de exemplo
+        UUID jobId = UUID.randomUUID();
+        ImportacaoJob job = new ImportacaoJob();
+        job.setId(jobId);
+        job.setStatus(StatusImportacao.CONCLUIDA);
+
+        // Simula o comportamento do serviço
+        doReturn(false).when(importacaoJobService).cancelar(jobId);
+        doReturn(Optional.of(job)).when(importacaoJobService).buscar(jobId);
+
+        // Executa o método a ser testado
+        ResponseEntity<ApiResponse> response = contaController.cancelarImportacao(jobId);
+
+        // Verifica o resultado
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+
+    /**
+     * Testa a listagem sem contagem e a recusa de modos de contagem inválidos.
+     */
+    @Test
+    void testListarContasSemContagem() {
+        Pageable pageable = PageRequest.of(0, 20);
+        PaginaFatia<ContaResponse> pagina = new PaginaFatia<>(List.of(), 0, 20, true, 500L);
+        doReturn(pagina).when(contaService).listarContasSemContagem(pageable, null, null, null,
+                ModoContagem.ESTIMADA);
+
+        ResponseEntity<PaginaFatia<ContaResponse>> response = contaController.listarContasSemContagem(pageable,
+                "estimada", null, null, null);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(500L, response.getBody().getTotalEstimado());
+
+        ResponseStatusException erro = assertThrows(ResponseStatusException.class,
+                () -> contaController.listarContasSemContagem(pageable, "exata", null, null, null));
+        assertEquals(HttpStatus.BAD_REQUEST, erro.getStatusCode());
+    }
+
+    /**
+     * Testa a recusa da listagem com os parâmetros de cursor e de contagem.
+     */
+    @Test
+    void testListarContasPorCursorComContagem() {
+        ResponseStatusException erro = assertThrows(ResponseStatusException.class,
+                () -> contaController.listarContasPorCursorComContagem());
+        assertEquals(HttpStatus.BAD_REQUEST, erro.getStatusCode());
+    }
+
+    /**
+     * Testa a listagem em NDJSON: as contas gravadas pelo serviço são enviadas
+     * em uma resposta assíncrona, com o tempo máximo de gravação das exportações.
+     */
+    @Test
+    void testListarContasNdjson() throws Exception {
+        doAnswer(i -> {
+            OutputStream saida = i.getArgument(0);
+            saida.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            saida.flush();
+            saida.write("{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        }).when(contaService).listarContasNdjson(any(), any(), any(), any(), eq("luz"));
+
+        MvcResult resultado = gravarEmFluxo(get("/contas").param("descricao", "luz")
+                .accept(MediaType.APPLICATION_NDJSON));
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, resultado.getResponse().getContentType());
+        assertEquals("{\"id\":1}\n{\"id\":2}\n", resultado.getResponse().getContentAsString());
+    }
+
+    /**
+     * Testa a exportação: o arquivo CSV gravado pelo serviço é enviado em uma
+     * resposta assíncrona, com o tempo máximo de gravação das exportações.
+     */
+    @Test
+    void testExportarContas() throws Exception {
+        doAnswer(i -> {
+            OutputStream saida = i.getArgument(0);
+            saida.write("descricao\nluz\n".getBytes(StandardCharsets.UTF_8));
+            saida.flush();
+            return 1L;
+        }).when(contaService).exportarContas(any(), any(), any(), eq("luz"));
+
+        MvcResult resultado = gravarEmFluxo(get("/contas/exportar").param("descricao", "luz"));
+        assertEquals(HttpStatus.OK.value(), resultado.getResponse().getStatus());
+        assertEquals("text/csv;charset=UTF-8", resultado.getResponse().getContentType());
+        assertEquals("attachment; filename=\"contas.csv\"",
+                resultado.getResponse().getHeader(HttpHeaders.CONTENT_DISPOSITION));
+        assertEquals("descricao\nluz\n", resultado.getResponse().getContentAsString());
+        verify(contaService).exportarContas(any(), eq(null), eq(null), eq("luz"));
+    }
+
+    /**
+     * Testa se a exportação é recusada quando o executor das exportações está
+     * ocupado, sem gravar o arquivo.
+     */
+    @Test
+    void testExportarContasExecutorOcupado() throws Exception {
+        doThrow(new TaskRejectedException("Executor ocupado")).when(exportacaoExecutor).execute(any());
+
+        assertThrows(RejectedExecutionException.class, () -> contaController.exportarContas(null, null, "luz"));
+        verify(contaService, never()).exportarContas(any(), any(), any(), any());
+    }
+
+    /**
+     * Testa se um {@link Error} na gravação da exportação encerra a resposta com
+     * erro, sem aguardar o tempo máximo da gravação, e é propagado à thread do
+     * executor.
+     */
+    @Test
+    void testExportarContasComErro() throws Exception {
+        List<Runnable> gravacoes = new ArrayList<>();
+        doAnswer(i -> gravacoes.add(i.getArgument(0))).when(exportacaoExecutor).execute(any());
+        doThrow(new StackOverflowError()).when(contaService).exportarContas(any(), any(), any(), any());
+
+        ResponseBodyEmitter emissor = contaController.exportarContas(null, null, "luz").getBody();
+        assertThrows(StackOverflowError.class, () -> gravacoes.get(0).run());
+        assertThrows(IllegalStateException.class, () -> emissor.send("conta"));
+    }
+
+    /**
+     * Testa a resposta às exportações recusadas pelo executor.
+     */
+    @Test
+    void testExportacaoRecusada() {
+        ResponseEntity<ApiResponse> response = contaController
+                .exportacaoRecusada(new RejectedExecutionException("Executor ocupado"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    }
+
+    /**
+     * Executa uma requisição de resposta em fluxo e aguarda a gravação,
+     * verificando o tempo máximo da resposta assíncrona.
+     */
+    private MvcResult gravarEmFluxo(MockHttpServletRequestBuilder requisicao) throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(contaController)
+                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver()).build();
+        MvcResult resultado = mockMvc.perform(requisicao).andReturn();
+        assertTrue(resultado.getRequest().isAsyncStarted());
+        assertEquals(Duration.ofMinutes(5).toMillis(), resultado.getRequest().getAsyncContext().getTimeout());
+        resultado.getAsyncResult();
+        return resultado;
+    }
 }
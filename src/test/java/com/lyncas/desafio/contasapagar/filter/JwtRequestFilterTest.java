@@ -1,18 +1,33 @@
 package com.lyncas.desafio.contasapagar.filter;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.test.context.ActiveProfiles;
 
 import com.lyncas.desafio.contasapagar.utils.JwtUtil;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.impl.DefaultClaims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -50,6 +65,11 @@ class JwtRequestFilterTest {
 		MockitoAnnotations.openMocks(this);
 	}
 
+	@AfterEach
+	public void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
 	@Test
 	public void testDoFilterInternal() throws Exception {
 		// Configura o comportamento do mock conforme necessário
@@ -61,4 +81,29 @@ class JwtRequestFilterTest {
 		verify(chain).doFilter(request, response);
 	}
 
+	/**
+	 * Testa se o token é verificado uma única vez por requisição e o usuário do
+	 * token é autenticado com as permissões do token, sem consultar o cadastro de
+	 * usuários.
+	 */
+	@Test
+	public void testDoFilterInternalVerificaTokenUmaVez() throws Exception {
+		Claims claims = new DefaultClaims().setSubject("usuario");
+		when(request.getHeader("Authorization")).thenReturn("Bearer token");
+		when(jwtUtil.verificarToken("token")).thenReturn(claims);
+		when(jwtUtil.extrairAuthorities(claims)).thenReturn(List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+		jwtRequestFilter.doFilterInternal(request, response, chain);
+
+		verify(jwtUtil, times(1)).verificarToken("token");
+		verify(jwtUtil, never()).extractAllClaims(anyString());
+		verify(jwtUtil, never()).validateToken(anyString(), any());
+		verify(userDetailsService, never()).loadUserByUsername(anyString());
+		Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+		assertEquals("usuario", autenticacao.getName());
+		assertTrue(autenticacao.isAuthenticated());
+		assertEquals(List.of(new SimpleGrantedAuthority("ROLE_ADMIN")), List.copyOf(autenticacao.getAuthorities()));
+		verify(chain).doFilter(request, response);
+	}
+
 }
@@ -49,7 +49,7 @@ class ContaTest {
 		assertEquals(descricao, conta.getDescricao());
 
 		// Testando a situação
-		String situacao = "Paga";
+		SituacaoConta situacao = SituacaoConta.PAGA;
 		conta.setSituacao(situacao);
 		assertEquals(situacao, conta.getSituacao());
 	}
@@ -0,0 +1,69 @@
+package com.lyncas.desafio.contasapagar.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Testes unitários para a enumeração {@link SituacaoConta} e o seu conversor.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SituacaoContaTest {
+
+	/**
+	 * Testa a obtenção da situação pelo nome, sem diferenciar maiúsculas,
+	 * minúsculas e acentos, e a recusa de nomes inexistentes.
+	 */
+	@Test
+	void testDe() {
+		assertEquals(SituacaoConta.PAGA, SituacaoConta.de("Paga"));
+		assertEquals(SituacaoConta.PENDENTE, SituacaoConta.de(" pendente "));
+		assertEquals(SituacaoConta.PENDENTE, SituacaoConta.de("Em aberto"));
+		assertEquals(SituacaoConta.ATRASADA, SituacaoConta.de("ATRASADA"));
+		assertEquals(SituacaoConta.CANCELADA, SituacaoConta.de("Cancelada"));
+
+		IllegalArgumentException erro = assertThrows(IllegalArgumentException.class,
+				() -> SituacaoConta.de("Quitada"));
+		assertEquals("Situação inválida: Quitada", erro.getMessage());
+		assertThrows(IllegalArgumentException.class, () -> SituacaoConta.de(" "));
+		assertThrows(IllegalArgumentException.class, () -> SituacaoConta.de(null));
+	}
+
+	/**
+	 * Testa a conversão das situações em códigos e dos códigos em situações.
+	 */
+	@Test
+	void testConverter() {
+		SituacaoContaConverter converter = new SituacaoContaConverter();
+		for (SituacaoConta situacao : SituacaoConta.values()) {
+			assertEquals(situacao, converter.convertToEntityAttribute(converter.convertToDatabaseColumn(situacao)));
+		}
+		assertEquals((short) 2, converter.convertToDatabaseColumn(SituacaoConta.PAGA));
+		assertNull(converter.convertToDatabaseColumn(null));
+		assertThrows(IllegalArgumentException.class, () -> SituacaoConta.deCodigo((short) 9));
+	}
+
+	/**
+	 * Testa as situações em aberto, cobertas pelo índice parcial das contas em
+	 * aberto.
+	 */
+	@Test
+	void testIsAberta() {
+		assertTrue(SituacaoConta.PENDENTE.isAberta());
+		assertTrue(SituacaoConta.ATRASADA.isAberta());
+		assertFalse(SituacaoConta.PAGA.isAberta());
+		assertFalse(SituacaoConta.CANCELADA.isAberta());
+	}
+}
@@ -0,0 +1,243 @@
+package com.lyncas.desafio.contasapagar.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.lyncas.desafio.contasapagar.model.Conta;
+import com.lyncas.desafio.contasapagar.model.SituacaoConta;
+import com.lyncas.desafio.contasapagar.service.EscritorContasCopy;
+
+/**
+ * Testa os triggers que mantêm a consolidação diária dos pagamentos
+ * ({@code contas_pagamento_diario}) contra um PostgreSQL em container, com o
+ * schema criado pelas migrações do Flyway. Após cada forma de gravação, a
+ * consolidação é comparada com as contas pela visão
+ * {@code contas_pagamento_diario_divergencias}. Executado apenas quando o
+ * Docker está disponível.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ConsolidacaoPagamentosTest {
+
+	/** Mesma versão do PostgreSQL utilizada no docker-compose. */
+	@Container
+	private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:13");
+
+	private static final LocalDate DIA = LocalDate.of(2024, 9, 20);
+
+	private static final short PAGA = SituacaoConta.PAGA.getCodigo();
+
+	private static final short PENDENTE = SituacaoConta.PENDENTE.getCodigo();
+
+	private static DriverManagerDataSource dataSource;
+
+	private static JdbcTemplate jdbcTemplate;
+
+	@BeforeAll
+	static void migrar() {
+		dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(),
+				POSTGRES.getPassword());
+		Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.queryForObject("SELECT contas_criar_particoes(DATE '2020-01-01', DATE '2025-12-01')",
+				Integer.class);
+	}
+
+	@BeforeEach
+	void limpar() {
+		jdbcTemplate.execute("DELETE FROM contas_arquivo");
+		jdbcTemplate.execute("TRUNCATE contas");
+	}
+
+	/**
+	 * Testa a consolidação após inclusões em um único comando, em vários dias e
+	 * situações.
+	 */
+	@Test
+	void testInserir() {
+		inserir(DIA, "10.00", PAGA);
+		jdbcTemplate.update("INSERT INTO contas (data_vencimento, data_pagamento, valor, descricao, situacao) "
+				+ "SELECT DATE '2020-01-01' + g % 1500, DATE '2020-01-01' + g % 1500, g % 1000 + 0.5, 'Conta', "
+				+ "1 + g % 2 FROM generate_series(1, 20000) g");
+
+		assertConsolidado();
+		assertEquals(Map.of("quantidade", 1L, "valor_total", new BigDecimal("10.00"), "valor_minimo",
+				new BigDecimal("10.00"), "valor_maximo", new BigDecimal("10.00")), dia(DIA, PAGA));
+	}
+
+	/**
+	 * Testa a consolidação após alterações de valor, de situação, de data de
+	 * pagamento e de vencimento (com a conta movida de partição), e após uma
+	 * alteração que não muda o pagamento.
+	 */
+	@Test
+	void testAtualizar() {
+		long menor = inserir(DIA, "5.00", PAGA);
+		long maior = inserir(DIA, "50.00", PAGA);
+		inserir(DIA, "20.00", PAGA);
+
+		jdbcTemplate.update("UPDATE contas SET valor = 7.00 WHERE id = ?", menor);
+		assertEquals(new BigDecimal("7.00"), dia(DIA, PAGA).get("valor_minimo"));
+
+		jdbcTemplate.update("UPDATE contas SET situacao = ? WHERE id = ?", PENDENTE, maior);
+		assertEquals(new BigDecimal("20.00"), dia(DIA, PAGA).get("valor_maximo"));
+		assertEquals(1L, dia(DIA, PENDENTE).get("quantidade"));
+
+		jdbcTemplate.update("UPDATE contas SET data_pagamento = data_pagamento + 1 WHERE id = ?", menor);
+		jdbcTemplate.update("UPDATE contas SET data_vencimento = DATE '2021-01-15' WHERE id = ?", maior);
+		jdbcTemplate.update("UPDATE contas SET descricao = 'Outra', versao = versao + 1");
+		jdbcTemplate.update("UPDATE contas SET data_pagamento = NULL, situacao = ? WHERE id = ?", PENDENTE, menor);
+
+		assertConsolidado();
+		assertEquals(Map.of("quantidade", 1L, "valor_total", new BigDecimal("20.00"), "valor_minimo",
+				new BigDecimal("20.00"), "valor_maximo", new BigDecimal("20.00")), dia(DIA, PAGA));
+	}
+
+	/**
+	 * Testa a consolidação após remoções, inclusive da última conta de um dia, e
+	 * após a transferência de contas para o arquivo, que não altera o total pago.
+	 */
+	@Test
+	void testRemoverEArquivar() {
+		long menor = inserir(DIA, "5.00", PAGA);
+		long unica = inserir(DIA.plusDays(1), "8.00", PAGA);
+		long arquivada = inserir(DIA, "30.00", PAGA);
+		inserir(DIA, "20.00", PAGA);
+
+		jdbcTemplate.update("DELETE FROM contas WHERE id IN (?, ?)", menor, unica);
+		assertEquals(new BigDecimal("20.00"), dia(DIA, PAGA).get("valor_minimo"));
+		assertEquals(Map.of(), dia(DIA.plusDays(1), PAGA));
+
+		jdbcTemplate.update("WITH arquivadas AS (DELETE FROM contas WHERE id = ? RETURNING *) "
+				+ "INSERT INTO contas_arquivo SELECT * FROM arquivadas", arquivada);
+
+		assertConsolidado();
+		assertEquals(Map.of("quantidade", 2L, "valor_total", new BigDecimal("50.00"), "valor_minimo",
+				new BigDecimal("20.00"), "valor_maximo", new BigDecimal("30.00")), dia(DIA, PAGA));
+	}
+
+	/**
+	 * Testa a consolidação após a carga pelo {@code COPY} da importação, que
+	 * insere as contas da tabela temporária em um único comando.
+	 */
+	@Test
+	void testCopy() {
+		List<Conta> contas = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			Conta conta = new Conta();
+			conta.setDataVencimento(DIA.minusDays(i % 900));
+			conta.setDataPagamento(i % 3 == 0 ? null : DIA.minusDays(i % 900));
+			conta.setValor(BigDecimal.valueOf(i % 700, 1));
+			conta.setDescricao("Conta " + i);
+			conta.setSituacao(i % 3 == 0 ? SituacaoConta.PENDENTE : SituacaoConta.PAGA);
+			contas.add(conta);
+		}
+
+		try (EscritorContasCopy escritor = new EscritorContasCopy(dataSource)) {
+			escritor.gravar(contas);
+			assertEquals(5000, escritor.concluir());
+		}
+
+		assertConsolidado();
+	}
+
+	/**
+	 * Testa a consolidação após alterações concorrentes dos mesmos dias, em
+	 * transações que incluem, alteram e removem contas.
+	 */
+	@Test
+	void testAlteracoesConcorrentes() throws Exception {
+		jdbcTemplate.update("INSERT INTO contas (data_vencimento, data_pagamento, valor, descricao, situacao) "
+				+ "SELECT DATE '2024-09-01' + g % 10, DATE '2024-09-01' + g % 10, g % 100, 'Conta', 2 "
+				+ "FROM generate_series(1, 1000) g");
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> execucoes = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				int deslocamento = t;
+				execucoes.add(executor.submit(() -> {
+					for (int i = 0; i < 20; i++) {
+						transacao(conn -> {
+							try (Statement comando = conn.createStatement()) {
+								comando.execute("UPDATE contas SET valor = valor + 1 WHERE id % 8 = "
+										+ deslocamento);
+								comando.execute("INSERT INTO contas (data_vencimento, data_pagamento, valor, "
+										+ "descricao, situacao) VALUES (DATE '2024-09-05', DATE '2024-09-05', 0.5, "
+										+ "'Conta', 2)");
+								comando.execute("DELETE FROM contas WHERE data_vencimento = DATE '2024-09-05' "
+										+ "AND id IN (SELECT id FROM contas WHERE data_vencimento = DATE '2024-09-05' "
+										+ "AND id % 8 = " + deslocamento + " ORDER BY valor LIMIT 1)");
+							}
+						});
+					}
+					return null;
+				}));
+			}
+			for (Future<?> execucao : execucoes) {
+				execucao.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertConsolidado();
+	}
+
+	private static long inserir(LocalDate pagamento, String valor, short situacao) {
+		return jdbcTemplate.queryForObject("INSERT INTO contas (data_vencimento, data_pagamento, valor, descricao, "
+				+ "situacao) VALUES (?, ?, ?, 'Conta', ?) RETURNING id", Long.class, pagamento, pagamento,
+				new BigDecimal(valor), situacao);
+	}
+
+	private static Map<String, Object> dia(LocalDate pagamento, short situacao) {
+		return jdbcTemplate.queryForList("SELECT quantidade, valor_total, valor_minimo, valor_maximo "
+				+ "FROM contas_pagamento_diario WHERE data_pagamento = ? AND situacao = ?", pagamento, situacao)
+				.stream().findFirst().orElse(Map.of());
+	}
+
+	private static void assertConsolidado() {
+		assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM contas_pagamento_diario_divergencias",
+				Long.class));
+	}
+
+	private static void transacao(Transacao transacao) {
+		try (Connection conn = dataSource.getConnection()) {
+			conn.setAutoCommit(false);
+			transacao.executar(conn);
+			conn.commit();
+		} catch (SQLException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@FunctionalInterface
+	private interface Transacao {
+
+		void executar(Connection conn) throws SQLException;
+	}
+}
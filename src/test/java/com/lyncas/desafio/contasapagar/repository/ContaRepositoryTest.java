@@ -20,7 +20,9 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 
+import com.lyncas.desafio.contasapagar.dto.ContaResponse;
 import com.lyncas.desafio.contasapagar.model.Conta;
+import com.lyncas.desafio.contasapagar.model.SituacaoConta;
 
 /**
  * Testes unitários para a interface {@link ContaRepository}. Utiliza Mockito
@@ -48,24 +50,22 @@ class ContaRepositoryTest {
 	 * Testa a busca de contas por data de vencimento e descrição.
 	 */
 	@Test
-	void testFindByDataVencimentoBetweenAndDescricaoContaining() {
+	void testBuscarPorDescricao() {
 		// Configura dados de exemplo
-		List<Conta> contas = new ArrayList<>();
-		Conta conta = new Conta();
-		conta.setDescricao("Conta de luz");
-		conta.setDataVencimento(LocalDate.of(2024, 9, 10));
-		contas.add(conta);
+		List<ContaResponse> contas = new ArrayList<>();
+		contas.add(new ContaResponse(1L, LocalDate.of(2024, 9, 10), null, new BigDecimal("100.00"), "Conta de luz",
+				SituacaoConta.PENDENTE, 0L));
 
 		Pageable pageable = PageRequest.of(0, 10);
-		Page<Conta> pageContas = new PageImpl<>(contas, pageable, contas.size());
+		Page<ContaResponse> pageContas = new PageImpl<>(contas, pageable, contas.size());
 
 		// Simula o comportamento do repositório
-		doReturn(pageContas).when(contaRepository).findByDataVencimentoBetweenAndDescricaoContaining(
-				any(LocalDate.class), any(LocalDate.class), any(), any());
+		doReturn(pageContas).when(contaRepository).buscarPorDescricao(any(LocalDate.class), any(LocalDate.class), any(),
+				any());
 
 		// Executa o método a ser testado
-		Page<Conta> result = contaRepository.findByDataVencimentoBetweenAndDescricaoContaining(LocalDate.of(2024, 9, 1),
-				LocalDate.of(2024, 9, 20), "Conta de luz", pageable);
+		Page<ContaResponse> result = contaRepository.buscarPorDescricao(LocalDate.of(2024, 9, 1), LocalDate.of(2024, 9, 20),
+				"Conta de luz", pageable);
 
 		// Verifica o resultado
 		assertEquals(1, result.getTotalElements());
@@ -101,19 +101,19 @@ class ContaRepositoryTest {
 	@Test
 	void testFindByDataVencimentoBetween() {
 		// Configura dados de exemplo
-		List<Conta> contas = new ArrayList<>();
-		Conta conta = new Conta();
-		contas.add(conta);
+		List<ContaResponse> contas = new ArrayList<>();
+		contas.add(new ContaResponse(1L, LocalDate.of(2024, 9, 10), null, new BigDecimal("100.00"), "Conta de luz",
+				SituacaoConta.PENDENTE, 0L));
 
 		Pageable pageable = PageRequest.of(0, 10);
-		Page<Conta> pageContas = new PageImpl<>(contas, pageable, contas.size());
+		Page<ContaResponse> pageContas = new PageImpl<>(contas, pageable, contas.size());
 
 		// Simula o comportamento do repositório
 		doReturn(pageContas).when(contaRepository).findByDataVencimentoBetween(any(LocalDate.class),
 				any(LocalDate.class), any(Pageable.class));
 
 		// Executa o método a ser testado
-		Page<Conta> result = contaRepository.findByDataVencimentoBetween(LocalDate.of(2024, 9, 1),
+		Page<ContaResponse> result = contaRepository.findByDataVencimentoBetween(LocalDate.of(2024, 9, 1),
 				LocalDate.of(2024, 9, 30), pageable);
 
 		// Verifica o resultado
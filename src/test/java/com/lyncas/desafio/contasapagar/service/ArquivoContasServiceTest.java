@@ -0,0 +1,136 @@
+package com.lyncas.desafio.contasapagar.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyShort;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.lyncas.desafio.contasapagar.dto.ContaResponse;
+import com.lyncas.desafio.contasapagar.model.SituacaoConta;
+import com.lyncas.desafio.contasapagar.repository.ContaRepository;
+
+/**
+ * Testes unitários para a classe {@link ArquivoContasService}.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ArquivoContasServiceTest {
+
+	private static final LocalDate LIMITE = LocalDate.of(2024, 1, 1);
+
+	private static final short PAGA = SituacaoConta.PAGA.getCodigo();
+
+	@InjectMocks
+	private ArquivoContasService arquivoContasService;
+
+	@Mock
+	private ContaRepository contaRepository;
+
+	@Mock
+	private CacheContasService cacheContasService;
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+		ReflectionTestUtils.setField(arquivoContasService, "habilitado", true);
+		ReflectionTestUtils.setField(arquivoContasService, "meses", 12);
+		ReflectionTestUtils.setField(arquivoContasService, "tamanhoLote", 2);
+	}
+
+	/**
+	 * Testa o arquivamento em lotes: cada lote é transferido pelos
+	 * identificadores e pelo intervalo de vencimento das suas contas, as contas
+	 * arquivadas são descartadas do cache, e o lote seguinte é lido a partir da
+	 * última conta do lote anterior.
+	 */
+	@Test
+	void testArquivarAntesDe() {
+		ContaResponse primeira = conta(10L, LocalDate.of(2022, 3, 5));
+		ContaResponse segunda = conta(7L, LocalDate.of(2022, 4, 1));
+		ContaResponse terceira = conta(12L, LocalDate.of(2023, 6, 30));
+		LocalDate fim = LIMITE.minusDays(1);
+		when(contaRepository.buscarAposCursorPorSituacao(LocalDate.of(1, 1, 1), fim, SituacaoConta.PAGA,
+				LocalDate.of(1, 1, 1), 0L, Limit.of(2))).thenReturn(List.of(primeira, segunda));
+		when(contaRepository.buscarAposCursorPorSituacao(segunda.getDataVencimento(), fim, SituacaoConta.PAGA,
+				segunda.getDataVencimento(), 7L, Limit.of(2))).thenReturn(List.of(terceira));
+		when(contaRepository.arquivar(any(), eq(PAGA), any(), any()))
+				.thenAnswer(i -> ((Long[]) i.getArgument(0)).length);
+
+		assertEquals(3, arquivoContasService.arquivarAntesDe(LIMITE));
+		verify(contaRepository).arquivar(new Long[] { 10L, 7L }, PAGA, primeira.getDataVencimento(),
+				segunda.getDataVencimento());
+		verify(contaRepository).arquivar(new Long[] { 12L }, PAGA, terceira.getDataVencimento(),
+				terceira.getDataVencimento());
+		verify(cacheContasService, times(2)).descartar(new Long[] { 10L, 7L });
+		verify(cacheContasService, times(2)).descartar(new Long[] { 12L });
+	}
+
+	/**
+	 * Testa o limite do arquivamento: o primeiro dia do mês atual menos os meses
+	 * mantidos na tabela de contas.
+	 */
+	@Test
+	void testArquivar() {
+		LocalDate limite = LocalDate.now().withDayOfMonth(1).minusMonths(12);
+		when(contaRepository.buscarAposCursorPorSituacao(any(), any(), any(), any(), any(), any()))
+				.thenReturn(List.of(conta(1L, limite.minusDays(1))));
+		when(contaRepository.arquivar(any(), anyShort(), any(), any())).thenReturn(1);
+
+		assertEquals(1, arquivoContasService.arquivar());
+		verify(contaRepository).buscarAposCursorPorSituacao(LocalDate.of(1, 1, 1), limite.minusDays(1),
+				SituacaoConta.PAGA, LocalDate.of(1, 1, 1), 0L, Limit.of(2));
+	}
+
+	/**
+	 * Testa que uma falha no arquivamento não é propagada.
+	 */
+	@Test
+	void testArquivarComFalha() {
+		when(contaRepository.buscarAposCursorPorSituacao(any(), any(), any(), any(), any(), any()))
+				.thenReturn(List.of(conta(1L, LIMITE.minusYears(2))));
+		when(contaRepository.arquivar(any(), anyShort(), any(), any()))
+				.thenThrow(new CannotAcquireLockException("lock_timeout"));
+
+		assertEquals(0, arquivoContasService.arquivar());
+	}
+
+	/**
+	 * Testa que nenhuma conta é arquivada com o arquivamento desabilitado.
+	 */
+	@Test
+	void testArquivarDesabilitado() {
+		ReflectionTestUtils.setField(arquivoContasService, "habilitado", false);
+
+		assertEquals(0, arquivoContasService.arquivar());
+		verify(contaRepository, never()).arquivar(any(), anyShort(), any(), any());
+	}
+
+	private static ContaResponse conta(Long id, LocalDate dataVencimento) {
+		return new ContaResponse(id, dataVencimento, dataVencimento, BigDecimal.TEN, "Conta " + id,
+				SituacaoConta.PAGA, 0L);
+	}
+}
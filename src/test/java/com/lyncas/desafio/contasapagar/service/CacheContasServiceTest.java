@@ -0,0 +1,66 @@
+package com.lyncas.desafio.contasapagar.service;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.lyncas.desafio.contasapagar.model.Conta;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Testes unitários para a classe {@link CacheContasService}.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CacheContasServiceTest {
+
+	@InjectMocks
+	private CacheContasService cacheContasService;
+
+	@Mock
+	private EntityManagerFactory entityManagerFactory;
+
+	@Mock
+	private Cache cache;
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+		when(entityManagerFactory.getCache()).thenReturn(cache);
+	}
+
+	/**
+	 * Testa o descarte de cada conta informada.
+	 */
+	@Test
+	void testDescartar() {
+		cacheContasService.descartar(1L, 7L);
+
+		verify(cache).evict(Conta.class, 1L);
+		verify(cache).evict(Conta.class, 7L);
+	}
+
+	/**
+	 * Testa o descarte de todas as contas.
+	 */
+	@Test
+	void testDescartarTodas() {
+		cacheContasService.descartarTodas();
+
+		verify(cache).evict(Conta.class);
+	}
+}
@@ -1,38 +1,82 @@
 package com.lyncas.desafio.contasapagar.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.mock;
+import static org.mockito.ArgumentMatchers.anyShort;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.apache.commons.csv.CSVRecord;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.ActiveProfiles;
-import org.springframework.web.multipart.MultipartFile;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.lyncas.desafio.contasapagar.dto.AlteracaoSituacaoRequest;
+import com.lyncas.desafio.contasapagar.dto.CadastroLoteResponse;
+import com.lyncas.desafio.contasapagar.dto.ContaResponse;
+import com.lyncas.desafio.contasapagar.dto.PaginaCursor;
+import com.lyncas.desafio.contasapagar.dto.PaginaFatia;
+import com.lyncas.desafio.contasapagar.dto.TotalPorSituacao;
+import com.lyncas.desafio.contasapagar.dto.ValorTotalPagoResponse;
+import com.lyncas.desafio.contasapagar.exception.ConflitoVersaoContaException;
+import com.lyncas.desafio.contasapagar.exception.ContaNaoEncontradaException;
 import com.lyncas.desafio.contasapagar.model.Conta;
+import com.lyncas.desafio.contasapagar.model.ModoContagem;
+import com.lyncas.desafio.contasapagar.model.SituacaoConta;
+import com.lyncas.desafio.contasapagar.repository.ContaComArquivoRepository;
 import com.lyncas.desafio.contasapagar.repository.ContaRepository;
+import com.lyncas.desafio.contasapagar.repository.PagamentoDiarioRepository;
+import com.lyncas.desafio.contasapagar.utils.ContaCsvUtil;
 
 /**
  * Classe de teste para a classe {@link ContaService}. Esta classe contém testes
  * unitários para os métodos de criação, atualização, alteração de situação,
- * listagem e importação de contas.
+ * listagem e consulta do total pago.
  *
  * @version 1.0.0 data 20/09/2024
  * @since 1.0.0 data 20/09/2024
@@ -48,12 +92,36 @@ class ContaServiceTest {
 	@Mock
 	private ContaRepository contaRepository;
 
+	@Mock
+	private ContaComArquivoRepository contaComArquivoRepository;
+
+	@Mock
+	private PagamentoDiarioRepository pagamentoDiarioRepository;
+
+	@Mock
+	private IndicePagamentosService indicePagamentosService;
+
+	@Mock
+	private CacheContasService cacheContasService;
+
+	@Captor
+	private ArgumentCaptor<Function<Optional<Conta>, Conta>> gravacao;
+
+	@Spy
+	private ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules()
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
 	/**
 	 * Configura os mocks antes de cada teste.
 	 */
 	@BeforeEach
+	@SuppressWarnings("unchecked")
 	void setUp() {
 		MockitoAnnotations.openMocks(this);
+		when(indicePagamentosService.registrar(any(), any(), any()))
+				.thenAnswer(i -> ((Function<Optional<Conta>, Conta>) i.getArgument(2)).apply(Optional.empty()));
+		when(indicePagamentosService.registrarNovas(any()))
+				.thenAnswer(i -> ((Supplier<List<Conta>>) i.getArgument(0)).get());
 	}
 
 	/**
@@ -73,41 +141,334 @@ class ContaServiceTest {
 	}
 
 	/**
-	 * Testa o método {@link ContaService#atualizarConta(Long, Conta)} para garantir
-	 * que uma conta existente seja atualizada corretamente.
+	 * Testa o cadastro em lote: as contas válidas são gravadas em uma única
+	 * chamada, os identificadores retornam na ordem das contas e as contas
+	 * inválidas são rejeitadas com a sua posição no lote.
+	 */
+	@Test
+	@SuppressWarnings("unchecked")
+	void testCriarContas() {
+		Conta luz = novaConta("Conta de luz");
+		luz.setId(99L);
+		Conta semValor = novaConta("Conta sem valor");
+		semValor.setValor(null);
+		Conta agua = novaConta("Conta de água");
+		when(contaRepository.saveAll(any())).thenAnswer(i -> {
+			List<Conta> contas = (List<Conta>) i.getArgument(0);
+			for (int j = 0; j < contas.size(); j++) {
+				contas.get(j).setId(100L + j);
+			}
+			return contas;
+		});
+
+		CadastroLoteResponse resposta = contaService.criarContas(Arrays.asList(luz, semValor, null, agua));
+
+		assertEquals(Arrays.asList(100L, null, null, 101L), resposta.getIds());
+		assertEquals(List.of("Conta 2: Campo obrigatório ausente: valor", "Conta 3: Conta não informada"),
+				resposta.getErros());
+		verify(contaRepository).saveAll(List.of(luz, agua));
+	}
+
+	/**
+	 * Testa a rejeição de um lote vazio e de um lote acima do tamanho máximo, sem
+	 * gravar nenhuma conta.
+	 */
+	@Test
+	void testCriarContasLoteInvalido() {
+		List<Conta> excedente = LongStream.rangeClosed(0, ContaService.CONTAS_POR_CADASTRO)
+				.mapToObj(i -> novaConta("Conta " + i)).toList();
+
+		assertThrows(IllegalArgumentException.class, () -> contaService.criarContas(List.of()));
+		assertThrows(IllegalArgumentException.class, () -> contaService.criarContas(excedente));
+		verify(contaRepository, never()).saveAll(any());
+	}
+
+	/**
+	 * Testa a consulta de uma conta pelo identificador e a consulta de uma conta
+	 * inexistente.
+	 */
+	@Test
+	void testObterConta() {
+		Conta conta = novaConta("Conta de luz");
+		conta.setId(1L);
+		when(contaRepository.findById(1L)).thenReturn(Optional.of(conta));
+
+		assertEquals(conta, contaService.obterConta(1L));
+		assertThrows(ContaNaoEncontradaException.class, () -> contaService.obterConta(2L));
+	}
+
+	/**
+	 * Testa o método {@link ContaService#atualizarConta(Long, Conta, Long)} para
+	 * garantir que uma conta existente seja atualizada em um único comando, sem
+	 * ser lida antes, na data de vencimento de {@code contas_ids}, e retornada com
+	 * a nova versão.
 	 */
 	@Test
 	void testAtualizarConta() {
 		Long id = 1L;
+		LocalDate vencimento = LocalDate.of(2024, 9, 20);
 		Conta conta = new Conta();
 		conta.setValor(new BigDecimal("200.00"));
-		conta.setId(id);
+		conta.setDescricao("Conta de luz");
+		conta.setSituacao(SituacaoConta.PENDENTE);
 
-		when(contaRepository.save(any(Conta.class))).thenReturn(conta);
+		when(contaRepository.buscarVencimento(id)).thenReturn(Optional.of(vencimento));
+		when(contaRepository.atualizar(id, vencimento, 3L, null, null, new BigDecimal("200.00"), "Conta de luz",
+				SituacaoConta.PENDENTE.getCodigo())).thenReturn(Optional.of(4L));
 
-		Conta contaAtualizada = contaService.atualizarConta(id, conta);
+		Conta contaAtualizada = contaService.atualizarConta(id, conta, 3L);
 		assertNotNull(contaAtualizada);
 		assertEquals(id, contaAtualizada.getId());
 		assertEquals(new BigDecimal("200.00"), contaAtualizada.getValor());
+		assertEquals(4L, contaAtualizada.getVersao());
+		verify(contaRepository, never()).buscarAtual(any());
+		verify(contaRepository, never()).save(any());
+		// A conta é descartada do cache antes e após o comando
+		InOrder ordem = inOrder(cacheContasService, contaRepository);
+		ordem.verify(cacheContasService).descartar(id);
+		ordem.verify(contaRepository).atualizar(any(), any(), any(), any(), any(), any(), any(), anyShort());
+		ordem.verify(cacheContasService).descartar(id);
+	}
+
+	/**
+	 * Testa se a atualização de uma conta alterada após a leitura da versão
+	 * informada resulta em conflito, e a atualização de uma conta inexistente em
+	 * conta não encontrada.
+	 */
+	@Test
+	void testAtualizarContaSemAlteracao() {
+		when(contaRepository.atualizar(any(), any(), any(), any(), any(), any(), any(), anyShort()))
+				.thenReturn(Optional.empty());
+		when(contaRepository.buscarVencimento(1L)).thenReturn(Optional.of(LocalDate.of(2024, 9, 20)));
+		Conta conta = novaConta("Conta de luz");
+
+		assertThrows(ConflitoVersaoContaException.class, () -> contaService.atualizarConta(1L, conta, 3L));
+		assertThrows(ContaNaoEncontradaException.class, () -> contaService.atualizarConta(2L, conta, 3L));
+		assertThrows(ContaNaoEncontradaException.class, () -> contaService.atualizarConta(1L, conta, null));
+		verify(contaRepository, times(2)).atualizar(eq(1L), any(), any(), any(), any(), any(), any(), anyShort());
+		verify(contaRepository, never()).atualizar(eq(2L), any(), any(), any(), any(), any(), any(), anyShort());
+		verify(cacheContasService, times(4)).descartar(1L);
+	}
+
+	/**
+	 * Testa se a atualização de uma conta que mudou de mês entre a leitura da data
+	 * de vencimento e o comando é repetida com a nova data de vencimento.
+	 */
+	@Test
+	void testAtualizarContaMovidaDeMes() {
+		LocalDate setembro = LocalDate.of(2024, 9, 20);
+		LocalDate outubro = LocalDate.of(2024, 10, 20);
+		Conta conta = novaConta("Conta de luz");
+		when(contaRepository.buscarVencimento(1L)).thenReturn(Optional.of(setembro)).thenReturn(Optional.of(outubro));
+		when(contaRepository.atualizar(eq(1L), eq(setembro), any(), any(), any(), any(), any(), anyShort()))
+				.thenReturn(Optional.empty());
+		when(contaRepository.atualizar(eq(1L), eq(outubro), any(), any(), any(), any(), any(), anyShort()))
+				.thenReturn(Optional.of(5L));
+
+		assertEquals(5L, contaService.atualizarConta(1L, conta, null).getVersao());
+		verify(contaRepository, times(2)).buscarVencimento(1L);
 	}
 
 	/**
-	 * Testa o método {@link ContaService#alterarSituacao(Long, String)} para
-	 * garantir que a situação de uma conta seja alterada corretamente.
+	 * Testa o método {@link ContaService#alterarSituacao(Long, SituacaoConta, Long)} para
+	 * garantir que a situação de uma conta seja alterada em um único comando, sem
+	 * ler a conta com o índice de pagamentos desabilitado, e a nova versão
+	 * retornada.
 	 */
 	@Test
 	void testAlterarSituacao() {
+		Long id = 1L;
+		LocalDate vencimento = LocalDate.of(2024, 9, 20);
+		when(contaRepository.buscarVencimento(id)).thenReturn(Optional.of(vencimento));
+		when(contaRepository.alterarSituacaoDaConta(id, vencimento, SituacaoConta.PENDENTE.getCodigo(), 3L))
+				.thenReturn(Optional.of(4L));
+
+		assertEquals(4L, contaService.alterarSituacao(id, SituacaoConta.PENDENTE, 3L));
+		verify(contaRepository, never()).buscarAtual(any());
+		verify(contaRepository, never()).save(any());
+		verify(cacheContasService, times(2)).descartar(id);
+	}
+
+	/**
+	 * Testa se, com o índice de pagamentos habilitado, a alteração de situação
+	 * registra no índice a conta lida do banco de dados, sem o cache, antes da
+	 * alteração e a conta alterada, com a data de vencimento da conta lida.
+	 */
+	@Test
+	void testAlterarSituacaoComIndice() {
 		Long id = 1L;
 		Conta conta = new Conta();
 		conta.setId(id);
-		conta.setSituacao("PAGA");
+		conta.setValor(BigDecimal.TEN);
+		conta.setDataVencimento(LocalDate.of(2024, 9, 10));
+		conta.setDataPagamento(LocalDate.of(2024, 9, 20));
+		conta.setSituacao(SituacaoConta.PAGA);
+		conta.setVersao(3L);
 
-		when(contaRepository.findById(id)).thenReturn(Optional.of(conta));
-		when(contaRepository.save(any(Conta.class))).thenReturn(conta);
+		doAnswer(i -> {
+			Supplier<Optional<Conta>> anterior = i.getArgument(1);
+			Function<Optional<Conta>, Conta> alteracao = i.getArgument(2);
+			return alteracao.apply(anterior.get());
+		}).when(indicePagamentosService).registrar(eq(id), any(), any());
+		when(contaRepository.buscarAtual(id)).thenReturn(Optional.of(conta));
+		when(contaRepository.alterarSituacaoDaConta(id, LocalDate.of(2024, 9, 10), SituacaoConta.PENDENTE.getCodigo(),
+				null)).thenReturn(Optional.of(4L));
+
+		assertEquals(4L, contaService.alterarSituacao(id, SituacaoConta.PENDENTE, null));
+		verify(contaRepository, never()).buscarVencimento(any());
 
-		contaService.alterarSituacao(id, "PENDENTE");
-		assertEquals("PENDENTE", conta.getSituacao());
-		verify(contaRepository).save(conta);
+		verify(indicePagamentosService).registrar(eq(id), any(), gravacao.capture());
+		verify(contaRepository).buscarAtual(id);
+		Conta alterada = gravacao.getValue().apply(Optional.of(conta));
+		assertEquals(SituacaoConta.PENDENTE, alterada.getSituacao());
+		assertEquals(BigDecimal.TEN, alterada.getValor());
+		assertEquals(SituacaoConta.PAGA, conta.getSituacao());
+		assertEquals(3L, conta.getVersao());
+	}
+
+	/**
+	 * Testa se a alteração de situação de uma conta alterada após a leitura da
+	 * versão informada resulta em conflito.
+	 */
+	@Test
+	void testAlterarSituacaoConflito() {
+		when(contaRepository.buscarVencimento(1L)).thenReturn(Optional.of(LocalDate.of(2024, 9, 20)));
+		when(contaRepository.alterarSituacaoDaConta(1L, LocalDate.of(2024, 9, 20), SituacaoConta.PAGA.getCodigo(),
+				3L)).thenReturn(Optional.empty());
+
+		assertThrows(ConflitoVersaoContaException.class,
+				() -> contaService.alterarSituacao(1L, SituacaoConta.PAGA, 3L));
+		verify(cacheContasService, times(2)).descartar(1L);
+	}
+
+	/**
+	 * Testa a alteração de situação por identificadores: os identificadores
+	 * repetidos e nulos são descartados, as contas são alteradas em lotes e
+	 * descartadas do cache, e o índice de pagamentos é recarregado.
+	 */
+	@Test
+	void testAlterarSituacaoEmLotePorIds() {
+		List<Long> ids = new ArrayList<>(LongStream.rangeClosed(1, 2500).boxed().toList());
+		ids.add(1L);
+		ids.add(null);
+		AlteracaoSituacaoRequest alteracao = new AlteracaoSituacaoRequest();
+		alteracao.setIds(ids);
+		alteracao.setSituacao(SituacaoConta.PAGA);
+		alteracao.setDataPagamento(LocalDate.of(2024, 9, 20));
+		LocalDate[] vencimentos = { LocalDate.of(2024, 9, 10) };
+		when(contaRepository.buscarVencimentos(any())).thenReturn(Arrays.asList(vencimentos));
+		when(contaRepository.alterarSituacao(any(), eq(vencimentos), eq(SituacaoConta.PAGA.getCodigo()),
+				eq(LocalDate.of(2024, 9, 20))))
+				.thenAnswer(i -> Arrays.asList((Long[]) i.getArgument(0)));
+
+		assertEquals(2500, contaService.alterarSituacaoEmLote(alteracao));
+
+		ArgumentCaptor<Long[]> lotes = ArgumentCaptor.forClass(Long[].class);
+		verify(contaRepository, times(3)).alterarSituacao(lotes.capture(), eq(vencimentos),
+				eq(SituacaoConta.PAGA.getCodigo()), eq(LocalDate.of(2024, 9, 20)));
+		assertEquals(List.of(1000, 1000, 500), lotes.getAllValues().stream().map(lote -> lote.length).toList());
+		assertEquals(2001L, lotes.getAllValues().get(2)[0]);
+		lotes.getAllValues().forEach(lote -> verify(cacheContasService, times(2)).descartar(lote));
+		verify(contaRepository, times(3)).buscarVencimentos(any());
+		verify(indicePagamentosService).recarregar();
+	}
+
+	/**
+	 * Testa se as contas de um lote que mudaram de mês entre a leitura das datas
+	 * de vencimento e o comando são alteradas por um novo comando com as novas
+	 * datas, e se as contas inexistentes não repetem o comando.
+	 */
+	@Test
+	void testAlterarSituacaoEmLoteMovidasDeMes() {
+		LocalDate setembro = LocalDate.of(2024, 9, 10);
+		LocalDate outubro = LocalDate.of(2024, 10, 10);
+		AlteracaoSituacaoRequest alteracao = new AlteracaoSituacaoRequest();
+		alteracao.setIds(List.of(1L, 2L, 3L, 4L));
+		alteracao.setSituacao(SituacaoConta.PAGA);
+		when(contaRepository.buscarVencimentos(new Long[] { 1L, 2L, 3L, 4L })).thenReturn(List.of(setembro));
+		when(contaRepository.buscarVencimentos(new Long[] { 3L, 4L })).thenReturn(List.of(setembro, outubro));
+		when(contaRepository.alterarSituacao(new Long[] { 1L, 2L, 3L, 4L }, new LocalDate[] { setembro },
+				SituacaoConta.PAGA.getCodigo(), null)).thenReturn(List.of(1L, 2L));
+		when(contaRepository.alterarSituacao(new Long[] { 3L, 4L }, new LocalDate[] { outubro },
+				SituacaoConta.PAGA.getCodigo(), null)).thenReturn(List.of(3L));
+
+		assertEquals(3, contaService.alterarSituacaoEmLote(alteracao));
+		verify(contaRepository).buscarVencimentos(new Long[] { 4L });
+		verify(contaRepository, times(2)).alterarSituacao(any(), any(), anyShort(), any());
+	}
+
+	/**
+	 * Testa a alteração de situação por filtro: as contas são lidas em lotes a
+	 * partir do cursor da última conta do lote anterior.
+	 */
+	@Test
+	void testAlterarSituacaoEmLotePorFiltro() {
+		LocalDate inicio = LocalDate.of(2024, 1, 1);
+		LocalDate fim = LocalDate.of(2024, 12, 31);
+		List<ContaResponse> primeiro = LongStream.rangeClosed(1, ContaService.CONTAS_POR_ALTERACAO)
+				.mapToObj(id -> new ContaResponse(id, inicio.plusDays(id % 300), null, BigDecimal.TEN, "Conta " + id,
+						SituacaoConta.PENDENTE, 0L))
+				.toList();
+		ContaResponse ultima = primeiro.get(primeiro.size() - 1);
+		when(contaRepository.buscarAposCursorPorSituacao(eq(inicio), eq(fim), eq(SituacaoConta.PENDENTE),
+				eq(LocalDate.of(1, 1, 1)), eq(0L), eq(Limit.of(ContaService.CONTAS_POR_ALTERACAO))))
+				.thenReturn(primeiro);
+		when(contaRepository.buscarAposCursorPorSituacao(eq(inicio), eq(fim), eq(SituacaoConta.PENDENTE),
+				eq(ultima.getDataVencimento()), eq(ultima.getId()), eq(Limit.of(ContaService.CONTAS_POR_ALTERACAO))))
+				.thenReturn(List.of(conta(5000L)));
+		when(contaRepository.alterarSituacaoPorFiltro(any(), eq(SituacaoConta.PENDENTE.getCodigo()), eq(inicio),
+				eq(fim), eq(SituacaoConta.ATRASADA.getCodigo()), isNull()))
+				.thenAnswer(i -> ((Long[]) i.getArgument(0)).length);
+
+		AlteracaoSituacaoRequest alteracao = new AlteracaoSituacaoRequest();
+		alteracao.setDataVencimentoInicio(inicio);
+		alteracao.setDataVencimentoFim(fim);
+		alteracao.setSituacaoAtual(SituacaoConta.PENDENTE);
+		alteracao.setSituacao(SituacaoConta.ATRASADA);
+
+		assertEquals(ContaService.CONTAS_POR_ALTERACAO + 1, contaService.alterarSituacaoEmLote(alteracao));
+		verify(contaRepository).alterarSituacaoPorFiltro(new Long[] { 5000L }, SituacaoConta.PENDENTE.getCodigo(),
+				inicio, fim, SituacaoConta.ATRASADA.getCodigo(), null);
+		verify(contaRepository, never()).alterarSituacao(any(), any(), anyShort(), any());
+		verify(cacheContasService, times(2)).descartar(new Long[] { 5000L });
+		verify(indicePagamentosService).recarregar();
+	}
+
+	/**
+	 * Testa se o índice de pagamentos é recarregado quando um lote falha após a
+	 * gravação dos lotes anteriores.
+	 */
+	@Test
+	void testAlterarSituacaoEmLoteComErro() {
+		AlteracaoSituacaoRequest alteracao = new AlteracaoSituacaoRequest();
+		alteracao.setIds(LongStream.rangeClosed(1, 1500).boxed().toList());
+		alteracao.setSituacao(SituacaoConta.PAGA);
+		when(contaRepository.buscarVencimentos(any())).thenReturn(List.of(LocalDate.of(2024, 9, 10)));
+		when(contaRepository.alterarSituacao(any(), any(), eq(SituacaoConta.PAGA.getCodigo()), isNull()))
+				.thenAnswer(i -> Arrays.asList((Long[]) i.getArgument(0)))
+				.thenThrow(new QueryTimeoutException("Tempo esgotado"));
+
+		assertThrows(QueryTimeoutException.class, () -> contaService.alterarSituacaoEmLote(alteracao));
+		verify(indicePagamentosService).recarregar();
+	}
+
+	/**
+	 * Testa se a alteração de situação é rejeitada sem a nova situação ou sem as
+	 * contas, sem alterar contas.
+	 */
+	@Test
+	void testAlterarSituacaoEmLoteInvalida() {
+		AlteracaoSituacaoRequest semSituacao = new AlteracaoSituacaoRequest();
+		semSituacao.setIds(List.of(1L));
+		assertThrows(IllegalArgumentException.class, () -> contaService.alterarSituacaoEmLote(semSituacao));
+
+		AlteracaoSituacaoRequest semContas = new AlteracaoSituacaoRequest();
+		semContas.setSituacao(SituacaoConta.PAGA);
+		semContas.setDataVencimentoInicio(LocalDate.of(2024, 1, 1));
+		assertThrows(IllegalArgumentException.class, () -> contaService.alterarSituacaoEmLote(semContas));
+
+		verify(contaRepository, never()).alterarSituacao(any(), any(), anyShort(), any());
+		verify(indicePagamentosService, never()).recarregar();
 	}
 
 	/**
@@ -123,49 +484,333 @@ class ContaServiceTest {
 		LocalDate fim = LocalDate.now().plusDays(30);
 		String descricao = "Conta";
 
-		when(contaRepository.findByDataVencimentoBetweenAndDescricaoContaining(any(), any(), any(), any()))
-				.thenReturn(Page.empty());
+		when(contaRepository.buscarPorDescricao(any(), any(), any(), any())).thenReturn(Page.empty());
 
-		Page<Conta> contas = contaService.listarContas(pageable, inicio, fim, descricao);
+		Page<ContaResponse> contas = contaService.listarContas(pageable, inicio, fim, descricao);
 		assertNotNull(contas);
 		assertTrue(contas.isEmpty());
 	}
 
+	/**
+	 * Testa se os caracteres curinga do LIKE informados no filtro de descrição são
+	 * escapados para serem comparados literalmente.
+	 */
+	@Test
+	void testListarContasEscapaCuringas() {
+		Pageable pageable = Pageable.ofSize(10);
+		LocalDate inicio = LocalDate.now();
+		LocalDate fim = LocalDate.now().plusDays(30);
+		when(contaRepository.buscarPorDescricao(any(), any(), any(), any())).thenReturn(Page.empty());
+
+		contaService.listarContas(pageable, inicio, fim, "100%_a\\");
+
+		verify(contaRepository).buscarPorDescricao(inicio, fim, "100\\%\\_a\\\\", pageable);
+	}
+
+	/**
+	 * Testa se a listagem inclui as contas arquivadas quando o intervalo de
+	 * vencimento alcança o arquivo, sem consultar apenas a tabela de contas.
+	 */
+	@Test
+	void testListarContasComArquivo() {
+		Pageable pageable = Pageable.ofSize(10);
+		LocalDate inicio = LocalDate.of(2022, 1, 1);
+		LocalDate fim = LocalDate.of(2022, 12, 31);
+		Page<ContaResponse> pagina = new PageImpl<>(List.of(conta(1L)));
+		when(contaComArquivoRepository.alcancaArquivo(inicio, fim)).thenReturn(true);
+		when(contaComArquivoRepository.findByDataVencimentoBetween(inicio, fim, pageable)).thenReturn(pagina);
+		when(contaComArquivoRepository.buscarPorDescricao(inicio, fim, "agua", pageable)).thenReturn(pagina);
+
+		assertEquals(pagina, contaService.listarContas(pageable, inicio, fim, null));
+		assertEquals(pagina, contaService.listarContas(pageable, inicio, fim, "agua"));
+		verify(contaRepository, never()).findByDataVencimentoBetween(any(), any(), any());
+		verify(contaRepository, never()).buscarPorDescricao(any(), any(), any(), any());
+	}
+
+	/**
+	 * Testa se a listagem lê apenas a tabela de contas quando o intervalo de
+	 * vencimento não alcança o arquivo.
+	 */
+	@Test
+	void testListarContasSemArquivo() {
+		Pageable pageable = Pageable.ofSize(10);
+		LocalDate inicio = LocalDate.of(2024, 1, 1);
+		LocalDate fim = LocalDate.of(2024, 12, 31);
+		when(contaRepository.findByDataVencimentoBetween(any(), any(), any())).thenReturn(Page.empty());
+
+		contaService.listarContas(pageable, inicio, fim, null);
+
+		verify(contaComArquivoRepository).alcancaArquivo(inicio, fim);
+		verify(contaComArquivoRepository, never()).findByDataVencimentoBetween(any(), any(), any());
+		verify(contaRepository).findByDataVencimentoBetween(inicio, fim, pageable);
+	}
+
+	/**
+	 * Testa se a listagem sem uma das datas de vencimento considera o intervalo
+	 * aberto nesse lado, incluindo as contas arquivadas quando existirem.
+	 */
+	@Test
+	void testListarContasIntervaloAberto() {
+		Pageable pageable = Pageable.ofSize(10);
+		LocalDate fim = LocalDate.of(2024, 12, 31);
+		LocalDate minima = LocalDate.of(1, 1, 1);
+		LocalDate maxima = LocalDate.of(9999, 12, 31);
+		Page<ContaResponse> pagina = new PageImpl<>(List.of(conta(1L)));
+		when(contaComArquivoRepository.alcancaArquivo(minima, fim)).thenReturn(true);
+		when(contaComArquivoRepository.findByDataVencimentoBetween(minima, fim, pageable)).thenReturn(pagina);
+		when(contaRepository.findByDataVencimentoBetween(any(), any(), any())).thenReturn(Page.empty());
+
+		assertEquals(pagina, contaService.listarContas(pageable, null, fim, null));
+		contaService.listarContas(pageable, LocalDate.of(2030, 1, 1), null, null);
+
+		verify(contaComArquivoRepository, never()).alcancaArquivo(isNull(), any());
+		verify(contaComArquivoRepository, never()).alcancaArquivo(any(), isNull());
+		verify(contaRepository).findByDataVencimentoBetween(LocalDate.of(2030, 1, 1), maxima, pageable);
+	}
+
 	/**
 	 * Testa o método {@link ContaService#obterValorTotalPago(LocalDate, LocalDate)}
-	 * para garantir que o valor total pago seja calculado corretamente em um
-	 * intervalo de datas.
+	 * para garantir que o resumo seja lido da consolidação diária, com o total por
+	 * situação.
 	 */
 	@Test
 	void testObterValorTotalPago() {
 		LocalDate inicio = LocalDate.of(2024, 1, 1);
 		LocalDate fim = LocalDate.of(2024, 12, 31);
-		Conta conta1 = new Conta();
-		conta1.setValor(new BigDecimal("100.00"));
-		Conta conta2 = new Conta();
-		conta2.setValor(new BigDecimal("200.00"));
+		ValorTotalPagoResponse resumo = new ValorTotalPagoResponse(2L, new BigDecimal("300.00"),
+				new BigDecimal("100.00"), new BigDecimal("200.00"));
+		List<TotalPorSituacao> porSituacao = List.of(
+				new TotalPorSituacao(SituacaoConta.PAGA, 2L, new BigDecimal("300.00")));
+
+		when(pagamentoDiarioRepository.resumirPagamentos(inicio, fim)).thenReturn(resumo);
+		when(pagamentoDiarioRepository.totalizarPagamentosPorSituacao(inicio, fim)).thenReturn(porSituacao);
+
+		ValorTotalPagoResponse totalPago = contaService.obterValorTotalPago(inicio, fim);
+		assertEquals(new BigDecimal("300.00"), totalPago.getValorTotalPago());
+		assertEquals(2, totalPago.getQuantidade());
+		assertEquals(new BigDecimal("100.00"), totalPago.getMenorValor());
+		assertEquals(new BigDecimal("200.00"), totalPago.getMaiorValor());
+		assertEquals(porSituacao, totalPago.getPorSituacao());
+		verify(contaRepository, never()).resumirPagamentos(any(), any());
+	}
+
+	/**
+	 * Testa se o total pago é zero e o detalhamento por situação não é consultado
+	 * quando não há contas pagas no intervalo.
+	 */
+	@Test
+	void testObterValorTotalPagoSemPagamentos() {
+		LocalDate inicio = LocalDate.of(2024, 1, 1);
+		LocalDate fim = LocalDate.of(2024, 12, 31);
+		when(pagamentoDiarioRepository.resumirPagamentos(inicio, fim))
+				.thenReturn(new ValorTotalPagoResponse(0L, null, null, null));
+
+		ValorTotalPagoResponse totalPago = contaService.obterValorTotalPago(inicio, fim);
+		assertEquals(BigDecimal.ZERO, totalPago.getValorTotalPago());
+		assertEquals(0, totalPago.getQuantidade());
+		assertTrue(totalPago.getPorSituacao().isEmpty());
+		verify(pagamentoDiarioRepository, never()).totalizarPagamentosPorSituacao(any(), any());
+	}
+
+	/**
+	 * Testa a verificação e a reconstrução da consolidação diária dos pagamentos.
+	 */
+	@Test
+	void testVerificarEReconstruirConsolidacao() {
+		when(pagamentoDiarioRepository.contarDivergencias()).thenReturn(3L);
+		when(pagamentoDiarioRepository.reconstruir()).thenReturn(10L);
+
+		assertEquals(3, contaService.verificarConsolidacao());
+		assertEquals(10, contaService.reconstruirConsolidacao());
+	}
+
+	/**
+	 * Testa se o total pago é obtido do índice em memória quando o índice cobre o
+	 * intervalo.
+	 */
+	@Test
+	void testObterValorTotalPagoDoIndice() {
+		LocalDate inicio = LocalDate.of(2024, 1, 1);
+		LocalDate fim = LocalDate.of(2024, 12, 31);
+		ValorTotalPagoResponse resumo = new ValorTotalPagoResponse(new BigDecimal("300.00"));
+		when(indicePagamentosService.cobre(inicio, fim)).thenReturn(true);
+		when(indicePagamentosService.resumir(inicio, fim)).thenReturn(resumo);
 
-		when(contaRepository.findByDataPagamentoBetween(inicio, fim)).thenReturn(Arrays.asList(conta1, conta2));
+		assertEquals(resumo, contaService.obterValorTotalPago(inicio, fim));
+		verify(pagamentoDiarioRepository, never()).resumirPagamentos(any(), any());
+	}
 
-		BigDecimal totalPago = contaService.obterValorTotalPago(inicio, fim);
-		assertEquals(new BigDecimal("300.00"), totalPago);
+	/**
+	 * Testa a listagem por cursor: a página seguinte é indicada quando o
+	 * repositório retorna mais contas que o tamanho da página, e o cursor aponta
+	 * para a última conta da página.
+	 */
+	@Test
+	void testListarContasPorCursor() {
+		LocalDate vencimento = LocalDate.of(2024, 9, 20);
+		List<ContaResponse> contas = new ArrayList<>();
+		for (long id = 1; id <= 3; id++) {
+			contas.add(new ContaResponse(id, vencimento, null, BigDecimal.TEN,
+					"Conta " + id, SituacaoConta.PENDENTE, 0L));
+		}
+		when(contaRepository.buscarAposCursor(any(), any(), eq(LocalDate.of(1, 1, 1)), eq(0L), eq(Limit.of(3))))
+				.thenReturn(contas);
+		when(contaRepository.buscarAposCursor(any(), any(), eq(vencimento), eq(2L), eq(Limit.of(3))))
+				.thenReturn(contas.subList(2, 3));
+
+		PaginaCursor<ContaResponse> primeira = contaService.listarContasPorCursor("", 2, null, null, null);
+		assertEquals(2, primeira.getConteudo().size());
+		assertTrue(primeira.isPossuiProxima());
+
+		PaginaCursor<ContaResponse> segunda = contaService.listarContasPorCursor(primeira.getProximoCursor(), 2, null,
+				null, " ");
+		assertEquals(3L, segunda.getConteudo().get(0).getId());
+		assertNull(segunda.getProximoCursor());
 	}
 
 	/**
-	 * Testa o método {@link ContaService#importarContas(MultipartFile)} para
-	 * garantir que as contas sejam importadas corretamente a partir de um arquivo
-	 * CSV.
-	 *
-	 * @throws Exception caso ocorra um erro durante a importação
+	 * Testa a listagem das contas em aberto por cursor, lidas pela consulta das
+	 * contas em aberto, com a data de vencimento final informada.
 	 */
 	@Test
-	void testImportarContas() throws Exception {
-		MultipartFile arquivoMock = mock(MultipartFile.class);
-		when(arquivoMock.getInputStream()).thenReturn(new ByteArrayInputStream(
-				"data_vencimento,valor,descricao,situacao\n2024-09-20,100.00,Conta Teste,PAGA\n".getBytes()));
+	void testListarContasAbertas() {
+		LocalDate vencimento = LocalDate.of(2024, 9, 20);
+		List<ContaResponse> contas = List.of(
+				new ContaResponse(1L, vencimento, null, BigDecimal.TEN, "Conta 1", SituacaoConta.PENDENTE, 0L),
+				new ContaResponse(2L, vencimento, null, BigDecimal.TEN, "Conta 2", SituacaoConta.ATRASADA, 0L));
+		when(contaRepository.buscarAbertasAposCursor(eq(LocalDate.of(1, 1, 1)), eq(vencimento),
+				eq(LocalDate.of(1, 1, 1)), eq(0L), eq(Limit.of(2)))).thenReturn(contas);
 
-		contaService.importarContas(arquivoMock);
+		PaginaCursor<ContaResponse> pagina = contaService.listarContasAbertas("", 1, null, vencimento);
+		assertEquals(1, pagina.getConteudo().size());
+		assertEquals(1L, pagina.getConteudo().get(0).getId());
+		assertTrue(pagina.isPossuiProxima());
+		verify(contaRepository, never()).buscarAposCursor(any(), any(), any(), any(), any());
+	}
+	/**
+	 * Testa a listagem sem contagem: sem total no modo
+	 * {@link ModoContagem#NENHUMA} e com o total estimado pelo repositório no modo
+	 * {@link ModoContagem#ESTIMADA}.
+	 */
+	@Test
+	void testListarContasSemContagem() {
+		List<ContaResponse> contas = List.of(conta(1L), conta(2L));
+		Pageable primeira = PageRequest.of(0, 2);
+		when(contaRepository.buscarFatiaPorVencimento(any(), any(), eq(primeira)))
+				.thenReturn(new SliceImpl<>(contas, primeira, true));
+		when(contaRepository.estimarTotal(any(), any(), eq(""))).thenReturn(1000L);
+
+		PaginaFatia<ContaResponse> semTotal = contaService.listarContasSemContagem(primeira, null, null, null,
+				ModoContagem.NENHUMA);
+		assertEquals(2, semTotal.getConteudo().size());
+		assertTrue(semTotal.isPossuiProxima());
+		assertNull(semTotal.getTotalEstimado());
+		verify(contaRepository, never()).estimarTotal(any(), any(), any());
+
+		PaginaFatia<ContaResponse> estimada = contaService.listarContasSemContagem(primeira, null, null, null,
+				ModoContagem.ESTIMADA);
+		assertEquals(1000L, estimada.getTotalEstimado());
+	}
 
-		verify(contaRepository, times(1)).save(any(Conta.class));
+	/**
+	 * Testa se, na última página, o total informado é o exato, sem consultar a
+	 * estimativa.
+	 */
+	@Test
+	void testListarContasSemContagemUltimaPagina() {
+		Pageable ultima = PageRequest.of(3, 10);
+		when(contaRepository.buscarFatiaPorDescricao(any(), any(), eq("luz"), eq(ultima)))
+				.thenReturn(new SliceImpl<>(List.of(conta(31L)), ultima, false));
+
+		PaginaFatia<ContaResponse> pagina = contaService.listarContasSemContagem(ultima, null, null, "luz",
+				ModoContagem.ESTIMADA);
+
+		// Na última página o total é conhecido sem consultar a estimativa
+		assertEquals(31L, pagina.getTotalEstimado());
+		assertFalse(pagina.isPossuiProxima());
+		verify(contaRepository, never()).estimarTotal(any(), any(), any());
+	}
+
+	/**
+	 * Testa se o total estimado nunca é menor que a quantidade de contas já lidas.
+	 */
+	@Test
+	void testListarContasSemContagemEstimativaAbaixoDoLido() {
+		Pageable pagina = PageRequest.of(5, 10);
+		when(contaRepository.buscarFatiaPorVencimento(any(), any(), eq(pagina)))
+				.thenReturn(new SliceImpl<>(List.of(conta(51L)), pagina, true));
+		when(contaRepository.estimarTotal(any(), any(), eq(""))).thenReturn(1L);
+
+		assertEquals(52L, contaService
+				.listarContasSemContagem(pagina, null, null, null, ModoContagem.ESTIMADA).getTotalEstimado());
+	}
+
+	/**
+	 * Testa a listagem em NDJSON: uma conta em JSON por linha, cada linha
+	 * terminada por uma quebra de linha, com o fluxo do repositório fechado ao
+	 * final.
+	 */
+	@Test
+	void testListarContasNdjson() throws Exception {
+		AtomicBoolean fechado = new AtomicBoolean();
+		Pageable pagina = PageRequest.of(0, 2);
+		when(contaRepository.buscarFluxoPorVencimento(any(), any(), eq(pagina)))
+				.thenReturn(Stream.of(conta(1L), conta(2L)).onClose(() -> fechado.set(true)));
+
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+		assertEquals(2L, contaService.listarContasNdjson(saida, pagina, null, null, null));
+		assertTrue(fechado.get());
+
+		String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n", -1);
+		assertEquals(3, linhas.length);
+		assertEquals("", linhas[2]);
+		assertEquals(1L, objectMapper.readTree(linhas[0]).get("id").asLong());
+		assertEquals("2024-09-20", objectMapper.readTree(linhas[1]).get("dataVencimento").asText());
+		verify(contaRepository, never()).buscarFluxoPorDescricao(any(), any(), any(), any());
+	}
+
+	/**
+	 * Testa se a exportação grava as contas no formato lido pela importação, com
+	 * o filtro de descrição escapado, e fecha o fluxo do repositório.
+	 */
+	@Test
+	void testExportarContas() throws Exception {
+		AtomicBoolean fechado = new AtomicBoolean();
+		ContaResponse paga = new ContaResponse(1L, LocalDate.of(2024, 9, 20), LocalDate.of(2024, 9, 18),
+				new BigDecimal("1234.50"), "Conta de água, \"setembro\"", SituacaoConta.PAGA, 0L);
+		when(contaRepository.exportarPorDescricao(any(), any(), eq("50\\%")))
+				.thenReturn(Stream.of(paga, conta(2L)).onClose(() -> fechado.set(true)));
+
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+		assertEquals(2L, contaService.exportarContas(saida, null, null, "50%"));
+		assertTrue(fechado.get());
+
+		List<Conta> importadas = new ArrayList<>();
+		for (CSVRecord registro : ContaCsvUtil.FORMATO
+				.parse(new StringReader(saida.toString(StandardCharsets.UTF_8)))) {
+			importadas.add(ContaCsvUtil.converter(registro));
+		}
+		assertEquals(2, importadas.size());
+		assertEquals(paga.getDataVencimento(), importadas.get(0).getDataVencimento());
+		assertEquals(paga.getDataPagamento(), importadas.get(0).getDataPagamento());
+		assertEquals(paga.getValor(), importadas.get(0).getValor());
+		assertEquals(paga.getDescricao(), importadas.get(0).getDescricao());
+		assertEquals(SituacaoConta.PAGA, importadas.get(0).getSituacao());
+		assertNull(importadas.get(1).getDataPagamento());
+		verify(contaRepository, never()).exportarPorVencimento(any(), any());
+	}
+
+	private static ContaResponse conta(Long id) {
+		return new ContaResponse(id, LocalDate.of(2024, 9, 20), null, BigDecimal.TEN,
+				"Conta " + id, SituacaoConta.PENDENTE, 0L);
+	}
+
+	private static Conta novaConta(String descricao) {
+		Conta conta = new Conta();
+		conta.setDataVencimento(LocalDate.of(2024, 9, 20));
+		conta.setValor(BigDecimal.TEN);
+		conta.setDescricao(descricao);
+		conta.setSituacao(SituacaoConta.PENDENTE);
+		return conta;
 	}
 }
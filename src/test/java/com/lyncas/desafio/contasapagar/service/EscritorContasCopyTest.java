@@ -0,0 +1,44 @@
+package com.lyncas.desafio.contasapagar.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.lyncas.desafio.contasapagar.model.Conta;
+import com.lyncas.desafio.contasapagar.model.SituacaoConta;
+
+/**
+ * Testes unitários para a classe {@link EscritorContasCopy}.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EscritorContasCopyTest {
+
+	/**
+	 * Testa a escrita de uma conta no formato texto do COPY, incluindo nulos,
+	 * caracteres que precisam de escape e a situação gravada pelo código.
+	 */
+	@Test
+	void testEscreverLinha() {
+		Conta conta = new Conta();
+		conta.setDataVencimento(LocalDate.of(2024, 9, 20));
+		conta.setValor(new BigDecimal("1500.00"));
+		conta.setDescricao("Luz\tcasa\\n");
+		conta.setSituacao(SituacaoConta.PENDENTE);
+
+		StringBuilder linha = new StringBuilder();
+		EscritorContasCopy.escreverLinha(linha, conta);
+
+		assertEquals("2024-09-20\t\\N\t1500.00\tLuz\\tcasa\\\\n\t1\n", linha.toString());
+	}
+}
@@ -0,0 +1,273 @@
+package com.lyncas.desafio.contasapagar.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.postgresql.PGConnection;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.lyncas.desafio.contasapagar.dto.ResultadoImportacao;
+import com.lyncas.desafio.contasapagar.exception.ImportacaoCanceladaException;
+import com.lyncas.desafio.contasapagar.model.Conta;
+import com.lyncas.desafio.contasapagar.model.ModoImportacao;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Testes unitários para a classe {@link ImportacaoContasService}.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ImportacaoContasServiceTest {
+
+	@InjectMocks
+	private ImportacaoContasService importacaoContasService;
+
+	@Mock
+	private EntityManager entityManager;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@Mock
+	private DataSource dataSource;
+
+	private final ExecutorService leitura = Executors.newSingleThreadExecutor();
+
+	private final ForkJoinPool conversao = new ForkJoinPool(4);
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+		ReflectionTestUtils.setField(importacaoContasService, "tamanhoLote", 2);
+		ReflectionTestUtils.setField(importacaoContasService, "tamanhoLoteJdbc", 2);
+		ReflectionTestUtils.setField(importacaoContasService, "lotesEmMemoria", 1);
+		ReflectionTestUtils.setField(importacaoContasService, "importacaoLeituraExecutor", leitura);
+		ReflectionTestUtils.setField(importacaoContasService, "importacaoConversaoPool", conversao);
+	}
+
+	@AfterEach
+	void tearDown() {
+		leitura.shutdownNow();
+		conversao.shutdownNow();
+	}
+
+	/**
+	 * Testa se as linhas válidas são gravadas em lotes e as inválidas são
+	 * rejeitadas com o número da linha.
+	 */
+	@Test
+	void testImportar() throws Exception {
+		String csv = "data_vencimento,data_pagamento,valor,descricao,situacao\n"
+				+ "2024-09-20,2024-09-18,1500.00,Conta de Luz,PAGA\n"
+				+ "2024-09-25,,2000.50,Conta de Água,PENDENTE\n"
+				+ "data-invalida,,10.00,Telefone,PENDENTE\n"
+				+ "2024-09-10,,300.00,Internet,PENDENTE\n";
+
+		ResultadoImportacao resultado = importacaoContasService.importar(new StringReader(csv));
+
+		assertEquals(4, resultado.getLinhasLidas());
+		assertEquals(3, resultado.getLinhasGravadas());
+		assertEquals(1, resultado.getLinhasRejeitadas());
+		assertTrue(resultado.getErros().get(0).startsWith("Linha 4:"));
+		verify(entityManager, times(3)).persist(any(Conta.class));
+		// Um lote completo e um lote final, cada um em sua própria transação
+		verify(transactionManager, times(2)).commit(any());
+	}
+
+	/**
+	 * Testa se as linhas com situações inexistentes são rejeitadas, e as situações
+	 * conhecidas aceitas sem diferenciar maiúsculas e acentos.
+	 */
+	@Test
+	void testImportarSituacaoInvalida() throws Exception {
+		String csv = "data_vencimento,valor,descricao,situacao\n"
+				+ "2024-09-20,100.00,Conta de Luz,Quitada\n"
+				+ "2024-09-25,200.00,Conta de Água,atrasada\n";
+
+		ResultadoImportacao resultado = importacaoContasService.importar(new StringReader(csv));
+
+		assertEquals(1, resultado.getLinhasGravadas());
+		assertEquals(1, resultado.getLinhasRejeitadas());
+		assertEquals("Linha 2: Situação inválida: Quitada", resultado.getErros().get(0));
+		verify(entityManager).persist(any(Conta.class));
+	}
+
+	/**
+	 * Testa se as linhas com valores fora dos limites da tabela de contas, ou com
+	 * o caractere nulo na descrição, são rejeitadas.
+	 */
+	@Test
+	void testImportarForaDosLimites() throws Exception {
+		String csv = "data_vencimento,valor,descricao,situacao\n"
+				+ "2024-09-20,100000000.00,Conta de Luz,PENDENTE\n"
+				+ "2024-09-21,100.00," + "a".repeat(256) + ",PENDENTE\n"
+				+ "2024-09-22,100.00,Conta\0de Água,PENDENTE\n"
+				+ "2024-09-23,99999999.99,Internet,PENDENTE\n";
+
+		ResultadoImportacao resultado = importacaoContasService.importar(new StringReader(csv));
+
+		assertEquals(1, resultado.getLinhasGravadas());
+		assertEquals(3, resultado.getLinhasRejeitadas());
+		assertEquals("Linha 2: Valor fora do limite permitido: 100000000.00", resultado.getErros().get(0));
+		assertEquals("Linha 3: Descrição excede 255 caracteres", resultado.getErros().get(1));
+		assertEquals("Linha 4: Descrição contém o caractere nulo (0x00)", resultado.getErros().get(2));
+		verify(entityManager).persist(any(Conta.class));
+	}
+
+	/**
+	 * Testa se uma falha da leitura, inclusive um {@link Error}, é repassada à
+	 * gravação com a fila de lotes cheia, em vez de deixar a gravação aguardando
+	 * indefinidamente.
+	 */
+	@Test
+	void testImportarFalhaNaLeitura() {
+		StringBuilder linhas = new StringBuilder("data_vencimento,valor,descricao,situacao\n");
+		for (int i = 0; i < 10; i++) {
+			linhas.append("2024-09-20,10.00,Conta ").append(i).append(",PAGA\n");
+		}
+		String csv = linhas.toString();
+		Reader reader = new Reader() {
+
+			private int lidos;
+
+			@Override
+			public int read(char[] destino, int inicio, int tamanho) {
+				if (lidos == csv.length()) {
+					throw new OutOfMemoryError("Java heap space");
+				}
+				int quantidade = Math.min(tamanho, csv.length() - lidos);
+				csv.getChars(lidos, lidos + quantidade, destino, inicio);
+				lidos += quantidade;
+				return quantidade;
+			}
+
+			@Override
+			public void close() {
+				// Sem recursos a liberar
+			}
+		};
+
+		assertTimeoutPreemptively(Duration.ofSeconds(10),
+				() -> assertThrows(OutOfMemoryError.class, () -> importacaoContasService.importar(reader)));
+	}
+
+	/**
+	 * Testa se as linhas rejeitadas de lotes convertidos em paralelo são
+	 * registradas na ordem do arquivo e se a importação é cancelada entre lotes.
+	 */
+	@Test
+	void testImportarParaleloComCancelamento() throws Exception {
+		StringBuilder csv = new StringBuilder("data_vencimento,valor,descricao,situacao\n");
+		for (int i = 0; i < 10; i++) {
+			csv.append(i % 2 == 0 ? "invalida" : "2024-09-20").append(",10.00,Conta ").append(i).append(",PAGA\n");
+		}
+		List<Long> lidasPorLote = new ArrayList<>();
+		ProgressoImportacao progresso = new ProgressoImportacao() {
+
+			@Override
+			public void atualizar(ResultadoImportacao parcial) {
+				lidasPorLote.add(parcial.getLinhasLidas());
+			}
+
+			@Override
+			public boolean cancelado() {
+				return lidasPorLote.size() == 3;
+			}
+		};
+
+		assertThrows(ImportacaoCanceladaException.class, () -> importacaoContasService
+				.importar(new StringReader(csv.toString()), ModoImportacao.JDBC, progresso));
+
+		assertEquals(List.of(2L, 4L, 6L), lidasPorLote);
+		verify(entityManager, times(3)).persist(any(Conta.class));
+	}
+
+	/**
+	 * Testa se as mensagens de erro seguem a ordem das linhas do arquivo.
+	 */
+	@Test
+	void testImportarErrosNaOrdemDoArquivo() throws Exception {
+		StringBuilder csv = new StringBuilder("data_vencimento,valor,descricao,situacao\n");
+		for (int i = 0; i < 20; i++) {
+			csv.append("invalida,10.00,Conta ").append(i).append(",PAGA\n");
+		}
+
+		ResultadoImportacao resultado = importacaoContasService.importar(new StringReader(csv.toString()));
+
+		assertEquals(20, resultado.getLinhasRejeitadas());
+		for (int i = 0; i < 20; i++) {
+			assertTrue(resultado.getErros().get(i).startsWith("Linha " + (i + 2) + ":"));
+		}
+	}
+
+	/**
+	 * Testa se o modo COPY recorre ao modo JDBC quando a fonte de dados não é um
+	 * PostgreSQL.
+	 */
+	@Test
+	void testImportarCopySemPostgres() throws Exception {
+		Connection connection = mock(Connection.class);
+		when(dataSource.getConnection()).thenReturn(connection);
+		when(connection.isWrapperFor(PGConnection.class)).thenReturn(false);
+		String csv = "data_vencimento,valor,descricao,situacao\n2024-09-20,100.00,Conta Teste,PAGA\n";
+
+		ResultadoImportacao resultado = importacaoContasService.importar(new StringReader(csv), ModoImportacao.COPY);
+
+		assertEquals(ModoImportacao.JDBC, resultado.getModo());
+		assertEquals(1, resultado.getLinhasGravadas());
+		verify(entityManager).persist(any(Conta.class));
+	}
+
+	/**
+	 * Testa se o contexto de persistência é esvaziado a cada lote JDBC.
+	 */
+	@Test
+	void testGravarLote() {
+		List<Conta> contas = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			contas.add(new Conta());
+		}
+
+		int gravadas = importacaoContasService.gravarLote(contas);
+
+		assertEquals(5, gravadas);
+		verify(entityManager, times(5)).persist(any(Conta.class));
+		// Dois lotes completos e a sincronização final
+		verify(entityManager, times(3)).flush();
+		verify(entityManager, times(3)).clear();
+	}
+}
@@ -0,0 +1,187 @@
+package com.lyncas.desafio.contasapagar.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.lyncas.desafio.contasapagar.dto.ResultadoImportacao;
+import com.lyncas.desafio.contasapagar.exception.ImportacaoCanceladaException;
+import com.lyncas.desafio.contasapagar.exception.ImportacaoRecusadaException;
+import com.lyncas.desafio.contasapagar.model.ImportacaoJob;
+import com.lyncas.desafio.contasapagar.model.ModoImportacao;
+import com.lyncas.desafio.contasapagar.model.StatusImportacao;
+import com.lyncas.desafio.contasapagar.repository.ImportacaoJobRepository;
+
+/**
+ * Testes unitários para a classe {@link ImportacaoJobService}.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ImportacaoJobServiceTest {
+
+	@InjectMocks
+	private ImportacaoJobService importacaoJobService;
+
+	@Mock
+	private ImportacaoJobRepository importacaoJobRepository;
+
+	@Mock
+	private ImportacaoContasService importacaoContasService;
+
+	@Mock
+	private IndicePagamentosService indicePagamentosService;
+
+	@Mock
+	private CacheContasService cacheContasService;
+
+	@Mock
+	private AsyncTaskExecutor importacaoExecutor;
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+		when(importacaoJobRepository.save(any(ImportacaoJob.class))).thenAnswer(i -> i.getArgument(0));
+	}
+
+	/**
+	 * Testa se a importação é registrada como pendente e enviada ao executor.
+	 */
+	@Test
+	void testEnfileirar() throws Exception {
+		MultipartFile arquivo = mock(MultipartFile.class);
+		when(arquivo.getOriginalFilename()).thenReturn("contas.csv");
+
+		ImportacaoJob job = importacaoJobService.enfileirar(arquivo, ModoImportacao.COPY);
+
+		assertEquals(StatusImportacao.PENDENTE, job.getStatus());
+		assertEquals(ModoImportacao.COPY, job.getModo());
+		assertEquals("contas.csv", job.getNomeArquivo());
+		verify(importacaoExecutor).execute(any(Runnable.class));
+	}
+
+	/**
+	 * Testa se a importação é recusada quando a fila do executor está cheia.
+	 */
+	@Test
+	void testEnfileirarFilaCheia() {
+		MultipartFile arquivo = mock(MultipartFile.class);
+		doThrow(new RejectedExecutionException()).when(importacaoExecutor).execute(any(Runnable.class));
+
+		assertThrows(ImportacaoRecusadaException.class,
+				() -> importacaoJobService.enfileirar(arquivo, ModoImportacao.JDBC));
+		verify(importacaoJobRepository).finalizar(any(UUID.class), eq(StatusImportacao.FALHOU), anyString(),
+				isNull(), any(LocalDateTime.class));
+	}
+
+	/**
+	 * Testa a execução completa de uma importação, com o índice de pagamentos
+	 * recarregado e as contas descartadas do cache, e a remoção do arquivo
+	 * temporário.
+	 */
+	@Test
+	void testExecutar() throws Exception {
+		UUID id = UUID.randomUUID();
+		Path temporario = Files.createTempFile("importacao-", ".csv");
+		ResultadoImportacao resultado = new ResultadoImportacao();
+		resultado.setModo(ModoImportacao.JDBC);
+		resultado.registrarLida();
+		resultado.registrarGravadas(1);
+		when(importacaoJobRepository.iniciar(eq(id), any(LocalDateTime.class))).thenReturn(1);
+		when(importacaoContasService.importar(any(Reader.class), eq(ModoImportacao.JDBC),
+				any(ProgressoImportacao.class))).thenReturn(resultado);
+
+		importacaoJobService.executar(id, temporario, ModoImportacao.JDBC);
+
+		verify(importacaoJobRepository).atualizarProgresso(eq(id), eq(1L), eq(1L), eq(0L), any(Long.class));
+		verify(importacaoJobRepository).finalizar(eq(id), eq(StatusImportacao.CONCLUIDA), anyString(), anyString(),
+				any(LocalDateTime.class));
+		verify(indicePagamentosService).recarregar();
+		verify(cacheContasService).descartarTodas();
+		assertFalse(Files.exists(temporario));
+	}
+
+	/**
+	 * Testa se uma importação cancelada durante a execução é finalizada como
+	 * cancelada.
+	 */
+	@Test
+	void testExecutarCancelada() throws Exception {
+		UUID id = UUID.randomUUID();
+		Path temporario = Files.createTempFile("importacao-", ".csv");
+		when(importacaoJobRepository.iniciar(eq(id), any(LocalDateTime.class))).thenReturn(1);
+		when(importacaoContasService.importar(any(Reader.class), any(ModoImportacao.class),
+				any(ProgressoImportacao.class))).thenThrow(new ImportacaoCanceladaException("Importação cancelada"));
+
+		importacaoJobService.executar(id, temporario, ModoImportacao.JDBC);
+
+		verify(importacaoJobRepository).finalizar(eq(id), eq(StatusImportacao.CANCELADA), anyString(), isNull(),
+				any(LocalDateTime.class));
+	}
+
+	/**
+	 * Testa se uma importação cancelada antes de iniciar não é executada.
+	 */
+	@Test
+	void testExecutarCanceladaAntesDeIniciar() throws Exception {
+		UUID id = UUID.randomUUID();
+		Path temporario = Files.createTempFile("importacao-", ".csv");
+		when(importacaoJobRepository.iniciar(eq(id), any(LocalDateTime.class))).thenReturn(0);
+
+		importacaoJobService.executar(id, temporario, ModoImportacao.JDBC);
+
+		verify(importacaoContasService, never()).importar(any(Reader.class), any(ModoImportacao.class),
+				any(ProgressoImportacao.class));
+		assertFalse(Files.exists(temporario));
+	}
+
+	/**
+	 * Testa se as importações interrompidas pelo encerramento anterior são
+	 * registradas como falhas na inicialização, e se uma falha ao registrá-las não
+	 * impede a inicialização.
+	 */
+	@Test
+	void testInicializar() {
+		when(importacaoJobRepository.interromper(anyString(), any(LocalDateTime.class))).thenReturn(2);
+
+		importacaoJobService.inicializar();
+
+		verify(importacaoJobRepository).interromper(anyString(), any(LocalDateTime.class));
+
+		when(importacaoJobRepository.interromper(anyString(), any(LocalDateTime.class)))
+				.thenThrow(new DataAccessResourceFailureException("Banco indisponível"));
+
+		importacaoJobService.inicializar();
+	}
+}
@@ -0,0 +1,266 @@
+package com.lyncas.desafio.contasapagar.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.lyncas.desafio.contasapagar.dto.TotalPorSituacao;
+import com.lyncas.desafio.contasapagar.dto.ValorTotalPagoResponse;
+import com.lyncas.desafio.contasapagar.model.Conta;
+import com.lyncas.desafio.contasapagar.model.PagamentoDiario;
+import com.lyncas.desafio.contasapagar.model.SituacaoConta;
+import com.lyncas.desafio.contasapagar.repository.ContaComArquivoRepository;
+import com.lyncas.desafio.contasapagar.repository.PagamentoDiarioRepository;
+
+/**
+ * Testes unitários para a classe {@link IndicePagamentosService}.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class IndicePagamentosServiceTest {
+
+	@InjectMocks
+	private IndicePagamentosService indicePagamentosService;
+
+	@Mock
+	private PagamentoDiarioRepository pagamentoDiarioRepository;
+
+	@Mock
+	private ContaComArquivoRepository contaComArquivoRepository;
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+		ReflectionTestUtils.setField(indicePagamentosService, "habilitado", true);
+		ReflectionTestUtils.setField(indicePagamentosService, "anos", 50);
+		when(pagamentoDiarioRepository.findAll()).thenReturn(List.of(
+				new PagamentoDiario(LocalDate.of(2024, 1, 5), SituacaoConta.PAGA, 2L, new BigDecimal("30.00"),
+						new BigDecimal("10.00"), new BigDecimal("20.00")),
+				new PagamentoDiario(LocalDate.of(2024, 3, 1), SituacaoConta.PAGA, 1L, new BigDecimal("99.99"),
+						new BigDecimal("99.99"), new BigDecimal("99.99")),
+				new PagamentoDiario(LocalDate.of(2024, 3, 1), SituacaoConta.ATRASADA, 1L, new BigDecimal("5.50"),
+						new BigDecimal("5.50"), new BigDecimal("5.50"))));
+	}
+
+	/**
+	 * Testa os totais de intervalos após a carga do índice.
+	 */
+	@Test
+	void testResumir() {
+		indicePagamentosService.recarregar();
+
+		ValorTotalPagoResponse total = indicePagamentosService.resumir(LocalDate.of(2024, 1, 1),
+				LocalDate.of(2024, 12, 31));
+		assertEquals(new BigDecimal("135.49"), total.getValorTotalPago());
+		assertEquals(4, total.getQuantidade());
+		assertNull(total.getMenorValor());
+		assertEquals(SituacaoConta.PAGA, total.getPorSituacao().get(0).getSituacao());
+
+		ValorTotalPagoResponse janeiro = indicePagamentosService.resumir(LocalDate.of(2024, 1, 1),
+				LocalDate.of(2024, 1, 31));
+		assertEquals(new BigDecimal("30.00"), janeiro.getValorTotalPago());
+		assertEquals(1, janeiro.getPorSituacao().size());
+
+		ValorTotalPagoResponse vazio = indicePagamentosService.resumir(LocalDate.of(2030, 1, 1),
+				LocalDate.of(2030, 1, 31));
+		assertEquals(BigDecimal.ZERO, vazio.getValorTotalPago());
+		assertTrue(vazio.getPorSituacao().isEmpty());
+	}
+
+	/**
+	 * Testa se as gravações aplicam a diferença entre o pagamento anterior e o
+	 * gravado, inclusive para datas fora do intervalo carregado.
+	 */
+	@Test
+	void testRegistrar() {
+		indicePagamentosService.recarregar();
+		Conta anterior = conta(LocalDate.of(2024, 1, 5), SituacaoConta.PAGA, "10.00");
+		Conta movida = conta(LocalDate.of(1999, 12, 31), SituacaoConta.PAGA, "12.345");
+		Conta nova = conta(LocalDate.of(2031, 6, 1), SituacaoConta.PAGA, "1.00");
+
+		indicePagamentosService.registrar(1L, () -> Optional.of(anterior), lida -> movida);
+		indicePagamentosService.registrar(null, Optional::empty, lida -> nova);
+
+		ValorTotalPagoResponse janeiro = indicePagamentosService.resumir(LocalDate.of(2024, 1, 1),
+				LocalDate.of(2024, 1, 31));
+		assertEquals(new BigDecimal("20.00"), janeiro.getValorTotalPago());
+		assertEquals(1, janeiro.getQuantidade());
+		ValorTotalPagoResponse total = indicePagamentosService.resumir(LocalDate.of(1990, 1, 1),
+				LocalDate.of(2040, 1, 1));
+		assertEquals(new BigDecimal("138.84"), total.getValorTotalPago());
+		assertEquals(5, total.getQuantidade());
+	}
+
+	/**
+	 * Testa se pagamentos em datas fora dos anos cobertos pelo índice, inclusive
+	 * nos limites das datas, não ampliam o índice e são apenas contados: os
+	 * intervalos que os alcançam deixam de ser cobertos pelo índice, até que
+	 * sejam removidos.
+	 */
+	@Test
+	void testRegistrarForaDoIntervalo() {
+		indicePagamentosService.recarregar();
+		LocalDate inicio = LocalDate.of(2024, 1, 1);
+		LocalDate fim = LocalDate.of(2024, 12, 31);
+		assertTrue(indicePagamentosService.cobre(LocalDate.MIN, LocalDate.MAX));
+		Conta digitada = conta(LocalDate.of(202, 5, 1), SituacaoConta.PAGA, "10.00");
+		Conta corrigida = conta(LocalDate.of(2024, 5, 1), SituacaoConta.PAGA, "10.00");
+
+		indicePagamentosService.registrar(1L, Optional::empty, lida -> digitada);
+		indicePagamentosService.registrar(null, Optional::empty,
+				lida -> conta(LocalDate.MAX, SituacaoConta.PAGA, "1.00"));
+
+		assertTrue(indicePagamentosService.cobre(inicio, fim));
+		assertFalse(indicePagamentosService.cobre(LocalDate.of(1, 1, 1), fim));
+		assertFalse(indicePagamentosService.cobre(inicio, LocalDate.MAX));
+		assertEquals(new BigDecimal("135.49"), indicePagamentosService.resumir(inicio, fim).getValorTotalPago());
+
+		indicePagamentosService.registrar(1L, () -> Optional.of(digitada), lida -> corrigida);
+		assertFalse(indicePagamentosService.cobre(LocalDate.of(1, 1, 1), fim));
+		indicePagamentosService.registrar(2L, () -> Optional.of(conta(LocalDate.MAX, SituacaoConta.PAGA, "1.00")),
+				lida -> conta(null, SituacaoConta.PENDENTE, "1.00"));
+		assertTrue(indicePagamentosService.cobre(LocalDate.of(1, 1, 1), LocalDate.MAX));
+		assertEquals(new BigDecimal("145.49"), indicePagamentosService.resumir(inicio, fim).getValorTotalPago());
+	}
+
+	/**
+	 * Testa se as datas fora dos anos cobertos pelo índice, carregadas da
+	 * consolidação, são apenas contadas.
+	 */
+	@Test
+	void testRecarregarForaDoIntervalo() {
+		when(pagamentoDiarioRepository.findAll()).thenReturn(List.of(
+				new PagamentoDiario(LocalDate.of(1, 1, 1), SituacaoConta.PAGA, 1L, BigDecimal.ONE, BigDecimal.ONE,
+						BigDecimal.ONE),
+				new PagamentoDiario(LocalDate.of(2024, 3, 1), SituacaoConta.PAGA, 1L, BigDecimal.TEN, BigDecimal.TEN,
+						BigDecimal.TEN)));
+		indicePagamentosService.recarregar();
+
+		assertTrue(indicePagamentosService.cobre(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)));
+		assertFalse(indicePagamentosService.cobre(LocalDate.of(1, 1, 1), LocalDate.of(2024, 12, 31)));
+		assertEquals(new BigDecimal("10.00"), indicePagamentosService
+				.resumir(LocalDate.of(1, 1, 1), LocalDate.of(2024, 12, 31)).getValorTotalPago());
+	}
+
+	/**
+	 * Testa se gravações concorrentes da mesma conta, cada uma lendo a conta
+	 * anterior antes de gravar, aplicam cada diferença uma única vez.
+	 */
+	@Test
+	void testRegistrarConcorrente() throws Exception {
+		indicePagamentosService.recarregar();
+		AtomicReference<Conta> gravada = new AtomicReference<>(
+				conta(LocalDate.of(2024, 1, 5), SituacaoConta.PAGA, "10.00"));
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Conta>> gravacoes = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				gravacoes.add(executor.submit(() -> indicePagamentosService.registrar(1L,
+						() -> Optional.of(gravada.get()), lida -> {
+							Thread.yield();
+							Conta nova = conta(LocalDate.of(2024, 1, 5), SituacaoConta.PAGA, "0");
+							nova.setValor(lida.orElseThrow().getValor().add(BigDecimal.ONE));
+							gravada.set(nova);
+							return nova;
+						})));
+			}
+			for (Future<Conta> gravacao : gravacoes) {
+				gravacao.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		ValorTotalPagoResponse janeiro = indicePagamentosService.resumir(LocalDate.of(2024, 1, 1),
+				LocalDate.of(2024, 1, 31));
+		assertEquals(new BigDecimal("210.00"), gravada.get().getValor().setScale(2));
+		assertEquals(new BigDecimal("230.00"), janeiro.getValorTotalPago());
+		assertEquals(2, janeiro.getQuantidade());
+	}
+
+	/**
+	 * Testa se o cadastro de novas contas soma no índice apenas as contas pagas.
+	 */
+	@Test
+	void testRegistrarNovas() {
+		indicePagamentosService.recarregar();
+		Conta paga = conta(LocalDate.of(2024, 1, 20), SituacaoConta.PAGA, "5.00");
+		Conta pendente = conta(null, SituacaoConta.PENDENTE, "7.00");
+
+		assertEquals(List.of(paga, pendente), indicePagamentosService.registrarNovas(() -> List.of(paga, pendente)));
+
+		ValorTotalPagoResponse janeiro = indicePagamentosService.resumir(LocalDate.of(2024, 1, 1),
+				LocalDate.of(2024, 1, 31));
+		assertEquals(new BigDecimal("35.00"), janeiro.getValorTotalPago());
+		assertEquals(3, janeiro.getQuantidade());
+	}
+
+	/**
+	 * Testa se, com o índice desabilitado, apenas a gravação é executada.
+	 */
+	@Test
+	void testRegistrarDesabilitado() {
+		ReflectionTestUtils.setField(indicePagamentosService, "habilitado", false);
+		Conta conta = conta(LocalDate.of(2024, 1, 5), SituacaoConta.PAGA, "10.00");
+
+		assertEquals(conta, indicePagamentosService.registrar(1L, () -> {
+			throw new AssertionError("Conta anterior não deve ser consultada");
+		}, lida -> conta));
+		indicePagamentosService.recarregar();
+		assertFalse(indicePagamentosService.isPronto());
+		verify(pagamentoDiarioRepository, never()).findAll();
+	}
+
+	/**
+	 * Testa a conferência do índice com a agregação SQL da tabela de contas.
+	 */
+	@Test
+	void testVerificar() {
+		indicePagamentosService.recarregar();
+		when(contaComArquivoRepository.totalizarPagamentosPorSituacao(any(LocalDate.class), any(LocalDate.class)))
+				.thenReturn(List.of(new TotalPorSituacao(SituacaoConta.PAGA, 3L, new BigDecimal("129.99")),
+						new TotalPorSituacao(SituacaoConta.ATRASADA, 1L, new BigDecimal("5.5"))));
+		assertTrue(indicePagamentosService.verificar());
+
+		when(contaComArquivoRepository.totalizarPagamentosPorSituacao(any(LocalDate.class), any(LocalDate.class)))
+				.thenReturn(List.of(new TotalPorSituacao(SituacaoConta.PAGA, 3L, new BigDecimal("129.99"))));
+		assertFalse(indicePagamentosService.verificar());
+	}
+
+	private static Conta conta(LocalDate dataPagamento, SituacaoConta situacao, String valor) {
+		Conta conta = new Conta();
+		conta.setDataPagamento(dataPagamento);
+		conta.setSituacao(situacao);
+		conta.setValor(new BigDecimal(valor));
+		return conta;
+	}
+}
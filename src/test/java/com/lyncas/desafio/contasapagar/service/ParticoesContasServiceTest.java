@@ -0,0 +1,82 @@
+package com.lyncas.desafio.contasapagar.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.lyncas.desafio.contasapagar.repository.ContaRepository;
+
+/**
+ * Testes unitários para a classe {@link ParticoesContasService}.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ParticoesContasServiceTest {
+
+	@InjectMocks
+	private ParticoesContasService particoesContasService;
+
+	@Mock
+	private ContaRepository contaRepository;
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+		ReflectionTestUtils.setField(particoesContasService, "habilitado", true);
+		ReflectionTestUtils.setField(particoesContasService, "mesesFuturos", 3);
+	}
+
+	/**
+	 * Testa a criação das partições do mês atual e dos meses seguintes
+	 * configurados.
+	 */
+	@Test
+	void testCriarParticoes() {
+		LocalDate inicio = LocalDate.now().withDayOfMonth(1);
+		when(contaRepository.criarParticoes(inicio, inicio.plusMonths(3))).thenReturn(2);
+
+		assertEquals(2, particoesContasService.criarParticoes());
+		verify(contaRepository).criarParticoes(inicio, inicio.plusMonths(3));
+	}
+
+	/**
+	 * Testa que uma falha na criação das partições, como o tempo de espera pelo
+	 * bloqueio da tabela de contas esgotado, não é propagada.
+	 */
+	@Test
+	void testCriarParticoesComFalha() {
+		when(contaRepository.criarParticoes(any(), any())).thenThrow(new CannotAcquireLockException("lock_timeout"));
+
+		assertEquals(0, particoesContasService.criarParticoes());
+	}
+
+	/**
+	 * Testa que nenhuma partição é criada com a criação desabilitada.
+	 */
+	@Test
+	void testCriarParticoesDesabilitado() {
+		ReflectionTestUtils.setField(particoesContasService, "habilitado", false);
+
+		assertEquals(0, particoesContasService.criarParticoes());
+		verify(contaRepository, never()).criarParticoes(any(), any());
+	}
+}
@@ -1,16 +1,32 @@
 package com.lyncas.desafio.contasapagar.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.test.context.ActiveProfiles;
 
+import com.lyncas.desafio.contasapagar.model.Usuario;
+import com.lyncas.desafio.contasapagar.repository.UsuarioRepository;
+
 /**
  * @version 1.0.0 data 20/09/2024
  * @since 1.0.0 data 20/09/2024
@@ -21,19 +37,26 @@ import org.springframework.test.context.ActiveProfiles;
 @ActiveProfiles("test")
 class UserDetailsServiceImplTest {
 
+	private static final String SENHA = "{bcrypt}$2a$10$Gm2W3Pc0.7EvmDC4oOM5Q.dC7HnCpM6hntOjdIrwxqFG85z7sa0YC";
+
 	@InjectMocks
 	private UserDetailsServiceImpl userDetailsService;
 
+	@Mock
+	private UsuarioRepository usuarioRepository;
+
 	@BeforeEach
 	void setUp() {
 		MockitoAnnotations.openMocks(this);
+		when(usuarioRepository.findByUsername("usuario_desafio"))
+				.thenReturn(Optional.of(usuario("usuario_desafio", "", true)));
 	}
 
 	@Test
 	void testLoadUserByUsername_Success() {
 		// Teste se o método retorna o usuário correto
 		String username = "usuario_desafio";
-		String password = "senha_desafio";
+		String password = SENHA;
 
 		UserDetails userDetails = userDetailsService.loadUserByUsername(username);
 
@@ -42,4 +65,55 @@ class UserDetailsServiceImplTest {
 		assertEquals(password, userDetails.getPassword());
 	}
 
+	/**
+	 * Testa se o usuário em cache é retornado como cópia, preservando a senha
+	 * mesmo após o Spring Security apagar a senha do usuário autenticado.
+	 */
+	@Test
+	void testLoadUserByUsernameRetornaCopia() {
+		UserDetails primeiro = userDetailsService.loadUserByUsername("usuario_desafio");
+		((CredentialsContainer) primeiro).eraseCredentials();
+
+		UserDetails segundo = userDetailsService.loadUserByUsername("usuario_desafio");
+		assertNotSame(primeiro, segundo);
+		assertEquals(SENHA, segundo.getPassword());
+		verify(usuarioRepository, times(1)).findByUsername("usuario_desafio");
+	}
+
+	/**
+	 * Testa se as permissões e a situação do usuário cadastrado são carregadas.
+	 */
+	@Test
+	void testLoadUserByUsernamePermissoes() {
+		when(usuarioRepository.findByUsername("admin"))
+				.thenReturn(Optional.of(usuario("admin", "ROLE_ADMIN,ROLE_USER", false)));
+
+		UserDetails userDetails = userDetailsService.loadUserByUsername("admin");
+
+		assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"), AuthorityUtils.authorityListToSet(
+				userDetails.getAuthorities()).stream().sorted().toList());
+		assertFalse(userDetails.isEnabled());
+	}
+
+	/**
+	 * Testa se um usuário não cadastrado é rejeitado e não é mantido em cache.
+	 */
+	@Test
+	void testLoadUserByUsernameNaoEncontrado() {
+		when(usuarioRepository.findByUsername("inexistente")).thenReturn(Optional.empty());
+
+		assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("inexistente"));
+		assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("inexistente"));
+		verify(usuarioRepository, times(2)).findByUsername("inexistente");
+	}
+
+	private static Usuario usuario(String username, String permissoes, boolean ativo) {
+		Usuario usuario = new Usuario();
+		usuario.setUsername(username);
+		usuario.setSenha(SENHA);
+		usuario.setPermissoes(permissoes);
+		usuario.setAtivo(ativo);
+		return usuario;
+	}
+
 }
@@ -0,0 +1,66 @@
+package com.lyncas.desafio.contasapagar.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Testes unitários para a classe {@link ArvoreFenwick}.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ArvoreFenwickTest {
+
+	/**
+	 * Testa as somas de intervalos contra a soma direta dos valores, após
+	 * atualizações aleatórias.
+	 */
+	@Test
+	void testIntervalo() {
+		Random random = new Random(42);
+		long[] valores = new long[100];
+		for (int i = 0; i < valores.length; i++) {
+			valores[i] = random.nextInt(1000);
+		}
+		ArvoreFenwick arvore = ArvoreFenwick.de(valores);
+
+		for (int n = 0; n < 500; n++) {
+			int posicao = random.nextInt(valores.length);
+			long delta = random.nextInt(2000) - 1000;
+			valores[posicao] += delta;
+			arvore.somar(posicao, delta);
+
+			int inicio = random.nextInt(valores.length);
+			int fim = random.nextInt(valores.length);
+			long esperado = 0;
+			for (int i = inicio; i <= fim; i++) {
+				esperado += valores[i];
+			}
+			assertEquals(esperado, arvore.intervalo(inicio, fim));
+		}
+		assertArrayEquals(valores, arvore.valores());
+	}
+
+	/**
+	 * Testa os limites das consultas de prefixo.
+	 */
+	@Test
+	void testPrefixoForaDosLimites() {
+		ArvoreFenwick arvore = ArvoreFenwick.de(new long[] { 1, 2, 3 });
+
+		assertEquals(0, arvore.prefixo(-1));
+		assertEquals(6, arvore.prefixo(10));
+		assertEquals(0, arvore.intervalo(2, 1));
+		assertEquals(3, arvore.tamanho());
+	}
+}
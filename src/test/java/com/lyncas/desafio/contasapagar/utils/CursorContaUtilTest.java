@@ -0,0 +1,53 @@
+package com.lyncas.desafio.contasapagar.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.lyncas.desafio.contasapagar.dto.ContaResponse;
+import com.lyncas.desafio.contasapagar.model.SituacaoConta;
+import com.lyncas.desafio.contasapagar.utils.CursorContaUtil.Cursor;
+
+/**
+ * Testes unitários para a classe {@link CursorContaUtil}.
+ *
+ * @version 1.0.0 data 20/09/2024
+ * @since 1.0.0 data 20/09/2024
+ *
+ * @author juliano.ezequiel
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CursorContaUtilTest {
+
+	/**
+	 * Testa se um cursor codificado é decodificado na mesma posição.
+	 */
+	@Test
+	void testCodificarEDecodificar() {
+		ContaResponse conta = new ContaResponse(12345L, LocalDate.of(2024, 9, 20), null, BigDecimal.TEN, "Conta",
+				SituacaoConta.PENDENTE, 0L);
+
+		Cursor cursor = CursorContaUtil.decodificar(CursorContaUtil.codificar(conta));
+
+		assertEquals(LocalDate.of(2024, 9, 20), cursor.dataVencimento());
+		assertEquals(12345L, cursor.id());
+	}
+
+	/**
+	 * Testa se um cursor vazio representa o início da listagem e se cursores
+	 * inválidos são recusados.
+	 */
+	@Test
+	void testDecodificarInicioEInvalido() {
+		assertEquals(CursorContaUtil.INICIO, CursorContaUtil.decodificar(""));
+		assertThrows(IllegalArgumentException.class, () -> CursorContaUtil.decodificar("não é base64"));
+		assertThrows(IllegalArgumentException.class, () -> CursorContaUtil.decodificar("MjAyNC0wOS0yMA"));
+	}
+}
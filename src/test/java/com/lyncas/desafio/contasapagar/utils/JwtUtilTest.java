@@ -3,21 +3,29 @@ package com.lyncas.desafio.contasapagar.utils;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Date;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.MockitoAnnotations;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.context.ActiveProfiles;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SignatureException;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 /**
  * @version 1.0.0 data 20/09/2024
@@ -94,4 +102,60 @@ class JwtUtilTest {
 			jwtUtil.extractAllClaims(expiredToken); // Esse método deve lançar a exceção
 		});
 	}
+
+	/**
+	 * Testa se o token é verificado uma única vez e as verificações seguintes são
+	 * obtidas do cache, com as métricas de acertos e de verificações registradas.
+	 */
+	@Test
+	void testVerificarTokenEmCache() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		jwtUtil.bindTo(registry);
+
+		Claims claims = jwtUtil.verificarToken(testToken);
+		assertEquals(testUsername, claims.getSubject());
+		assertSame(claims, jwtUtil.verificarToken(testToken));
+		assertTrue(jwtUtil.validateToken(testToken, testUsername));
+
+		assertEquals(2.0, registry.get("cache.gets").tag("cache", "jwt.tokens").tag("result", "hit").functionCounter()
+				.count());
+		FunctionTimer verificacao = registry.get("jwt.verificacao").functionTimer();
+		assertEquals(1.0, verificacao.count());
+	}
+
+	/**
+	 * Testa se as permissões do usuário são gravadas no token e extraídas das
+	 * claims verificadas.
+	 */
+	@Test
+	void testExtrairAuthorities() {
+		List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_ADMIN"),
+				new SimpleGrantedAuthority("contas:exportar"));
+		String token = jwtUtil.generateToken(testUsername, authorities);
+
+		assertEquals(authorities, jwtUtil.extrairAuthorities(jwtUtil.verificarToken(token)));
+		assertTrue(jwtUtil.extrairAuthorities(jwtUtil.verificarToken(testToken)).isEmpty());
+	}
+
+	/**
+	 * Testa se tokens expirados, com assinatura inválida ou sem data de expiração
+	 * são recusados e não são mantidos no cache.
+	 */
+	@Test
+	void testVerificarTokenInvalido() {
+		String expiredToken = Jwts.builder().setSubject(testUsername)
+				.setExpiration(new Date(System.currentTimeMillis() - 1000))
+				.signWith(SignatureAlgorithm.HS256, "secreta").compact();
+		assertThrows(ExpiredJwtException.class, () -> jwtUtil.verificarToken(expiredToken));
+		assertThrows(ExpiredJwtException.class, () -> jwtUtil.verificarToken(expiredToken));
+
+		String outraChave = Jwts.builder().setSubject(testUsername)
+				.setExpiration(new Date(System.currentTimeMillis() + 60_000))
+				.signWith(SignatureAlgorithm.HS256, "outra").compact();
+		assertThrows(SignatureException.class, () -> jwtUtil.verificarToken(outraChave));
+
+		String semExpiracao = Jwts.builder().setSubject(testUsername).signWith(SignatureAlgorithm.HS256, "secreta")
+				.compact();
+		assertThrows(MalformedJwtException.class, () -> jwtUtil.verificarToken(semExpiracao));
+	}
 }